@@ -3,23 +3,50 @@ package innercircle.commerce.common.logging;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.Optional;
-import java.util.UUID;
 
 
+/**
+ * 요청마다 추적 ID 를 MDC 에 넣는다.
+ * traceId 우선순위: traceparent 헤더(게이트웨이 Brave 가 보낸 W3C Trace Context) > X-Trace-Id 헤더 > 새로 생성
+ * 이 서비스의 spanId 를 새로 만들고, 다음 홉으로 보낼 traceparent 를 MDC 에 함께 넣는다. (TraceParentPropagationInterceptor)
+ */
 @Component
 @ComponentScan(basePackages = "innercircle.commerce")
 public class LoggingFilter implements Filter {
 
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String TRACE_ID = "traceId";
+    public static final String SPAN_ID = "spanId";
+    public static final String TRACE_PARENT = "traceparent";
+
+    /**
+     * 새로 시작하는 추적은 하위 서비스도 기록하도록 sampled 로 보낸다.
+     */
+    private static final String SAMPLED = "01";
+
     private final String serviceName;
+    private final TraceIdGenerator traceIdGenerator;
 
     public LoggingFilter(Environment environment) {
+        this(environment, TraceIdGenerator.random());
+    }
+
+    @Autowired
+    public LoggingFilter(Environment environment, ObjectProvider<TraceIdGenerator> traceIdGenerator) {
+        this(environment, traceIdGenerator.getIfAvailable(TraceIdGenerator::random));
+    }
+
+    public LoggingFilter(Environment environment, TraceIdGenerator traceIdGenerator) {
         this.serviceName = environment.getProperty("spring.application.name", "unknown-service");
+        this.traceIdGenerator = traceIdGenerator;
     }
 
     @Override
@@ -27,11 +54,20 @@ public class LoggingFilter implements Filter {
             throws IOException, ServletException {
         try {
             HttpServletRequest httpRequest = (HttpServletRequest) request;
-            String traceId = Optional.ofNullable( httpRequest.getHeader("X-Trace-Id") )
-                    .orElse( UUID.randomUUID().toString() );
+            Optional<TraceParent> traceParent = TraceParent.parse(httpRequest.getHeader(TraceParent.HEADER));
+            String traceId = traceParent.map(TraceParent::traceId)
+                    .or(() -> Optional.ofNullable(httpRequest.getHeader(TRACE_ID_HEADER)))
+                    .orElseGet(traceIdGenerator::newTraceId);
+            String spanId = traceIdGenerator.newSpanId();
 
-            MDC.put("traceId", traceId);
+            MDC.put(TRACE_ID, traceId);
+            MDC.put(SPAN_ID, spanId);
             MDC.put("service", serviceName);
+            traceParent.map(parent -> parent.child(spanId))
+                    .or(() -> TraceParent.isValidTraceId(traceId)
+                            ? Optional.of(new TraceParent(traceId, spanId, SAMPLED))
+                            : Optional.empty())
+                    .ifPresent(next -> MDC.put(TRACE_PARENT, next.toString()));
 
             chain.doFilter(request, response);
         } finally {
@@ -39,4 +75,4 @@ public class LoggingFilter implements Filter {
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package innercircle.commerce.common.logging;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ThreadLocalRandom 기반 추적 ID 생성기
+ * 추적 ID 는 예측 불가능할 필요가 없으므로 암호학적 난수 대신 경합 없는 스레드별 난수를 쓴다.
+ */
+final class RandomTraceIdGenerator implements TraceIdGenerator {
+
+    static final RandomTraceIdGenerator INSTANCE = new RandomTraceIdGenerator();
+    private static final HexFormat HEX = HexFormat.of();
+
+    private RandomTraceIdGenerator() {
+    }
+
+    @Override
+    public String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = nonZero(random);
+        return HEX.toHexDigits(high) + HEX.toHexDigits(low);
+    }
+
+    @Override
+    public String newSpanId() {
+        return HEX.toHexDigits(nonZero(ThreadLocalRandom.current()));
+    }
+
+    private static long nonZero(ThreadLocalRandom random) {
+        long value;
+        do {
+            value = random.nextLong();
+        } while (value == 0);
+        return value;
+    }
+}
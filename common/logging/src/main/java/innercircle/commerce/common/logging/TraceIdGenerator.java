@@ -0,0 +1,20 @@
+package innercircle.commerce.common.logging;
+
+/**
+ * 요청에 추적 ID 가 없을 때 새 ID 를 만드는 생성기
+ * W3C traceparent 와 맞추기 위해 traceId 는 소문자 hex 32자(128비트), spanId 는 16자(64비트)이며 모두 0 이면 안 된다.
+ * 빈으로 등록하면 LoggingFilter 가 기본 생성기 대신 사용한다.
+ */
+public interface TraceIdGenerator {
+
+    String newTraceId();
+
+    String newSpanId();
+
+    /**
+     * 스레드별 ThreadLocalRandom 을 쓰는 기본 생성기 (SecureRandom 을 거치지 않으므로 엔트로피 부족으로 멈추지 않는다)
+     */
+    static TraceIdGenerator random() {
+        return RandomTraceIdGenerator.INSTANCE;
+    }
+}
@@ -0,0 +1,75 @@
+package innercircle.commerce.common.logging;
+
+import java.util.Optional;
+
+/**
+ * W3C Trace Context 의 traceparent 헤더 ({version}-{traceId}-{parentId}-{flags})
+ * 예: 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01
+ *
+ * @param traceId  소문자 hex 32자
+ * @param parentId 호출한 쪽 span 의 ID, 소문자 hex 16자
+ * @param flags    trace-flags (01 = sampled)
+ */
+public record TraceParent(String traceId, String parentId, String flags) {
+
+    public static final String HEADER = "traceparent";
+
+    private static final String VERSION = "00";
+    private static final int LENGTH = 55;
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_PARENT_ID = "0".repeat(16);
+
+    /**
+     * 헤더 값을 읽는다. 형식이 틀리거나 ID 가 모두 0 이면 빈 값을 돌려준다.
+     * 버전 00 보다 높은 버전은 명세대로 앞의 네 필드만 읽는다.
+     */
+    public static Optional<TraceParent> parse(String header) {
+        if (header == null) {
+            return Optional.empty();
+        }
+        String value = header.trim();
+        if (value.length() < LENGTH || (value.length() > LENGTH && value.charAt(LENGTH) != '-')
+                || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-') {
+            return Optional.empty();
+        }
+        String version = value.substring(0, 2);
+        String traceId = value.substring(3, 35);
+        String parentId = value.substring(36, 52);
+        String flags = value.substring(53, 55);
+        if (!isHex(version) || "ff".equals(version) || (VERSION.equals(version) && value.length() != LENGTH)
+                || !isValidTraceId(traceId) || !isHex(parentId) || !isHex(flags)
+                || INVALID_PARENT_ID.equals(parentId)) {
+            return Optional.empty();
+        }
+        return Optional.of(new TraceParent(traceId, parentId, flags));
+    }
+
+    /**
+     * traceparent 에 그대로 쓸 수 있는 traceId 인지 (소문자 hex 32자, 모두 0 이 아님)
+     */
+    public static boolean isValidTraceId(String traceId) {
+        return traceId != null && traceId.length() == 32 && isHex(traceId) && !INVALID_TRACE_ID.equals(traceId);
+    }
+
+    /**
+     * 이 서비스의 span 을 부모로 하는 다음 홉의 traceparent
+     */
+    public TraceParent child(String spanId) {
+        return new TraceParent(traceId, spanId, flags);
+    }
+
+    @Override
+    public String toString() {
+        return VERSION + "-" + traceId + "-" + parentId + "-" + flags;
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
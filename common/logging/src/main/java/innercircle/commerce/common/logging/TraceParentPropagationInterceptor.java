@@ -0,0 +1,33 @@
+package innercircle.commerce.common.logging;
+
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * LoggingFilter 가 MDC 에 넣은 추적 정보를 RestTemplate/RestClient 요청 헤더로 넘긴다.
+ * 하위 서비스의 LoggingFilter(또는 Brave)가 같은 traceId 로 로그를 남긴다.
+ * 호출하는 쪽에서 이미 헤더를 넣었다면 덮어쓰지 않는다.
+ */
+public class TraceParentPropagationInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HttpHeaders headers = request.getHeaders();
+        String traceParent = MDC.get(LoggingFilter.TRACE_PARENT);
+        String traceId = MDC.get(LoggingFilter.TRACE_ID);
+        if (traceParent != null && !headers.containsKey(TraceParent.HEADER)) {
+            headers.set(TraceParent.HEADER, traceParent);
+        }
+        if (traceId != null && !headers.containsKey(LoggingFilter.TRACE_ID_HEADER)) {
+            headers.set(LoggingFilter.TRACE_ID_HEADER, traceId);
+        }
+        return execution.execute(request, body);
+    }
+}
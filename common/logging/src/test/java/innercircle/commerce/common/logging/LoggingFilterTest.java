@@ -38,4 +38,65 @@ class LoggingFilterTest {
         // when
         filter.doFilter(mockRequest, mockResponse, mockChain);
     }
+
+    @Test
+    void generateW3cTraceIdWithoutHeader() throws IOException, ServletException {
+        // given
+        LoggingFilter filter = new LoggingFilter(new MockEnvironment());
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+
+        // when & then
+        filter.doFilter(mockRequest, mock(ServletResponse.class), (req, res) -> {
+            assertThat(TraceParent.isValidTraceId(MDC.get("traceId"))).isTrue();
+            assertThat(MDC.get("spanId")).matches("[0-9a-f]{16}");
+            assertThat(MDC.get("traceparent"))
+                    .isEqualTo("00-" + MDC.get("traceId") + "-" + MDC.get("spanId") + "-01");
+        });
+        assertThat(MDC.get("traceId")).isNull();
+    }
+
+    @Test
+    void continueTraceFromTraceParent() throws IOException, ServletException {
+        // given
+        LoggingFilter filter = new LoggingFilter(new MockEnvironment());
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+        when(mockRequest.getHeader("traceparent"))
+                .thenReturn("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+        when(mockRequest.getHeader("X-Trace-Id")).thenReturn("ignored");
+
+        // when & then
+        filter.doFilter(mockRequest, mock(ServletResponse.class), (req, res) -> {
+            assertThat(MDC.get("traceId")).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+            assertThat(MDC.get("spanId")).isNotEqualTo("00f067aa0ba902b7");
+            assertThat(MDC.get("traceparent"))
+                    .isEqualTo("00-4bf92f3577b34da6a3ce929d0e0e4736-" + MDC.get("spanId") + "-00");
+        });
+    }
+
+    @Test
+    void keepLegacyTraceIdHeader() throws IOException, ServletException {
+        // given
+        TraceIdGenerator generator = new TraceIdGenerator() {
+            @Override
+            public String newTraceId() {
+                throw new AssertionError("X-Trace-Id 가 있으면 새로 만들지 않는다");
+            }
+
+            @Override
+            public String newSpanId() {
+                return "00000000000000a1";
+            }
+        };
+        LoggingFilter filter = new LoggingFilter(new MockEnvironment(), generator);
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+        when(mockRequest.getHeader("traceparent")).thenReturn("00-invalid");
+        when(mockRequest.getHeader("X-Trace-Id")).thenReturn("legacy-trace-id");
+
+        // when & then
+        filter.doFilter(mockRequest, mock(ServletResponse.class), (req, res) -> {
+            assertThat(MDC.get("traceId")).isEqualTo("legacy-trace-id");
+            assertThat(MDC.get("spanId")).isEqualTo("00000000000000a1");
+            assertThat(MDC.get("traceparent")).isNull();
+        });
+    }
 }
@@ -0,0 +1,57 @@
+package innercircle.commerce.common.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceParentTest {
+
+    @Test
+    void parseValidHeader() {
+        // when
+        TraceParent traceParent = TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01").orElseThrow();
+
+        // then
+        assertThat(traceParent.traceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(traceParent.parentId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(traceParent.flags()).isEqualTo("01");
+        assertThat(traceParent.child("b7ad6b7169203331"))
+                .hasToString("00-4bf92f3577b34da6a3ce929d0e0e4736-b7ad6b7169203331-01");
+    }
+
+    @Test
+    void parseFutureVersion() {
+        assertThat(TraceParent.parse("01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra")).isPresent();
+    }
+
+    @Test
+    void rejectInvalidHeader() {
+        assertThat(TraceParent.parse(null)).isEmpty();
+        assertThat(TraceParent.parse("")).isEmpty();
+        assertThat(TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7")).isEmpty();
+        assertThat(TraceParent.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01")).isEmpty();
+        assertThat(TraceParent.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01")).isEmpty();
+        assertThat(TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01")).isEmpty();
+        assertThat(TraceParent.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01")).isEmpty();
+        assertThat(TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra")).isEmpty();
+    }
+
+    @Test
+    void randomGeneratorMakesW3cIds() {
+        // given
+        TraceIdGenerator generator = TraceIdGenerator.random();
+        Set<String> traceIds = new HashSet<>();
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            traceIds.add(generator.newTraceId());
+        }
+
+        // then
+        assertThat(traceIds).hasSize(10_000).allMatch(TraceParent::isValidTraceId);
+        assertThat(generator.newSpanId()).matches("[0-9a-f]{16}").isNotEqualTo("0000000000000000");
+    }
+}
@@ -8,3 +8,7 @@ tasks.named<Jar>("jar") {
     enabled = true
     archiveClassifier = ""
 }
+
+dependencies {
+    testImplementation("com.h2database:h2") // JdbcNodeIdLeaseProviderTest
+}
@@ -0,0 +1,244 @@
+package innercircle.commerce.common.snowflake;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * DB 임대 테이블에서 비어 있는 nodeId 를 빌려 쓰는 NodeIdProvider
+ * <pre>
+ * CREATE TABLE snowflake_node_lease (
+ *     node_id    INT PRIMARY KEY,
+ *     owner      VARCHAR(255) NOT NULL,
+ *     expires_at TIMESTAMP NOT NULL
+ * );
+ * </pre>
+ * 처음 nodeId() 를 부를 때 만료됐거나 없는 번호를 하나 잡고, leaseDuration / 3 마다 만료 시각을 늘린다.
+ * 갱신하지 못한 채 임대가 끝나면 다른 인스턴스가 같은 번호를 가져갈 수 있으므로 leaseDuration 은
+ * DB 장애/GC 멈춤보다 충분히 길게, 인스턴스 간 시계 차이보다 훨씬 길게 잡는다.
+ * Snowflake 는 최대 maxBorrowMillis 앞선 시각으로 ID 를 만들므로, 현재 시각 + maxBorrowMillis + clockSkew 가
+ * 마지막으로 기록한 만료 시각(leaseValidUntil)에 닿으면 isValid 가 false 가 되어 발급을 멈춘다.
+ * 그래서 만료 직후 번호를 가져간 인스턴스의 ID 시각은 항상 이 인스턴스가 만든 마지막 ID 시각보다 뒤에 있다.
+ * 그 사이 다른 인스턴스가 번호를 가져가지 않았다면 다음 갱신에 성공하는 대로 발급을 이어가고,
+ * 가져갔다면 갱신이 계속 실패하므로 인스턴스를 다시 시작해 새 번호를 받아야 한다.
+ * close() 에서 갱신을 멈추고 번호를 반납한다.
+ */
+public class JdbcNodeIdLeaseProvider implements NodeIdProvider, AutoCloseable {
+	private static final System.Logger log = System.getLogger(JdbcNodeIdLeaseProvider.class.getName());
+	private static final int NODE_COUNT = (int) Snowflake.maxNodeId + 1;
+
+	/**
+	 * 기본 clockSkew. 인스턴스 간 시계 차이가 이보다 크면 생성자에서 늘린다.
+	 */
+	public static final Duration DEFAULT_CLOCK_SKEW = Duration.ofSeconds(1);
+
+	private final DataSource dataSource;
+	private final String table;
+	private final String owner;
+	private final Duration leaseDuration;
+	private final long clockSkewMillis;
+	private final Clock clock;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "snowflake-node-lease");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile long nodeId = -1;
+	private volatile long leaseValidUntilMillis;
+
+	public JdbcNodeIdLeaseProvider(DataSource dataSource, Duration leaseDuration) {
+		this(dataSource, "snowflake_node_lease", leaseDuration);
+	}
+
+	public JdbcNodeIdLeaseProvider(DataSource dataSource, String table, Duration leaseDuration) {
+		this(dataSource, table, defaultOwner(), leaseDuration, Clock.systemUTC());
+	}
+
+	public JdbcNodeIdLeaseProvider(DataSource dataSource, String table, String owner, Duration leaseDuration, Clock clock) {
+		this(dataSource, table, owner, leaseDuration, DEFAULT_CLOCK_SKEW, clock);
+	}
+
+	/**
+	 * @param table     임대 테이블 이름 (스키마 포함 가능, 예: orders.snowflake_node_lease)
+	 * @param owner     이 인스턴스를 구분하는 값 (재시작 전후로 달라야 함)
+	 * @param clockSkew 인스턴스 간 시계 차이 상한 (임대 만료 전에 이만큼 일찍 발급을 멈춘다)
+	 */
+	public JdbcNodeIdLeaseProvider(DataSource dataSource, String table, String owner, Duration leaseDuration,
+		Duration clockSkew, Clock clock) {
+		if (!table.matches("[A-Za-z0-9_.]+")) {
+			throw new IllegalArgumentException("invalid lease table name: " + table);
+		}
+		this.dataSource = dataSource;
+		this.table = table;
+		this.owner = owner;
+		this.leaseDuration = leaseDuration;
+		this.clockSkewMillis = clockSkew.toMillis();
+		this.clock = clock;
+	}
+
+	@Override
+	public synchronized long nodeId() {
+		if (nodeId < 0) {
+			nodeId = acquire();
+			long period = Math.max(leaseDuration.toMillis() / 3, 1);
+			scheduler.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+			log.log(System.Logger.Level.INFO, "Snowflake nodeId 임대 - nodeId: {0}, owner: {1}, lease: {2}",
+				nodeId, owner, leaseDuration);
+		}
+		return nodeId;
+	}
+
+	/**
+	 * 지금 발급하는 ID 의 시각(현재 + aheadMillis)에 clockSkew 를 더해도 임대가 남아 있는지 (nodeId() 를 부르기 전에는 false)
+	 */
+	@Override
+	public boolean isValid(long aheadMillis) {
+		return clock.millis() + aheadMillis + clockSkewMillis < leaseValidUntilMillis;
+	}
+
+	/**
+	 * 빌리지 않고(aheadMillis = 0) 발급할 수 있는지
+	 */
+	public boolean isValid() {
+		return isValid(0);
+	}
+
+	/**
+	 * 이 인스턴스가 마지막으로 기록한 임대 만료 시각 (임대 전에는 Instant.EPOCH)
+	 */
+	public Instant leaseValidUntil() {
+		return Instant.ofEpochMilli(leaseValidUntilMillis);
+	}
+
+	/**
+	 * 임대 만료 시각을 늘린다. 다른 인스턴스가 이미 가져갔다면 false
+	 */
+	boolean renew() {
+		Instant expiresAt = clock.instant().plus(leaseDuration);
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement(
+				 "UPDATE " + table + " SET expires_at = ? WHERE node_id = ? AND owner = ?")) {
+			statement.setTimestamp(1, Timestamp.from(expiresAt));
+			statement.setLong(2, nodeId);
+			statement.setString(3, owner);
+			if (statement.executeUpdate() == 1) {
+				if (!isValid()) {
+					log.log(System.Logger.Level.WARNING, "Snowflake nodeId 임대를 다시 연장했습니다 - nodeId: {0}, owner: {1}", nodeId, owner);
+				}
+				leaseValidUntilMillis = expiresAt.toEpochMilli();
+				return true;
+			}
+			log.log(System.Logger.Level.ERROR, "Snowflake nodeId 임대를 잃었습니다 - nodeId: {0}, owner: {1}, 발급 중단 시각: {2}",
+				nodeId, owner, leaseValidUntil());
+		} catch (SQLException e) {
+			log.log(System.Logger.Level.ERROR, "Snowflake nodeId 임대 갱신 실패 - nodeId: " + nodeId
+				+ ", 발급 중단 시각: " + leaseValidUntil(), e);
+		}
+		return false;
+	}
+
+	@Override
+	public synchronized void close() {
+		scheduler.shutdownNow();
+		leaseValidUntilMillis = 0;
+		if (nodeId < 0) {
+			return;
+		}
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement(
+				 "DELETE FROM " + table + " WHERE node_id = ? AND owner = ?")) {
+			statement.setLong(1, nodeId);
+			statement.setString(2, owner);
+			statement.executeUpdate();
+		} catch (SQLException e) {
+			log.log(System.Logger.Level.WARNING, "Snowflake nodeId 반납 실패 - nodeId: " + nodeId, e);
+		}
+	}
+
+	/**
+	 * 유효한 임대가 없는 번호를 무작위 위치부터 차례로 시도한다.
+	 * 만료된 행은 조건부 UPDATE 로, 없는 행은 INSERT 로 잡으므로 두 인스턴스가 같은 번호를 동시에 잡지 못한다.
+	 */
+	private long acquire() {
+		try (Connection connection = dataSource.getConnection()) {
+			Instant now = clock.instant();
+			Set<Long> leased = leasedNodeIds(connection, now);
+			int offset = RandomGenerator.getDefault().nextInt(NODE_COUNT);
+			for (int i = 0; i < NODE_COUNT; i++) {
+				long candidate = (offset + i) % NODE_COUNT;
+				if (!leased.contains(candidate) && (takeExpired(connection, candidate, now) || insert(connection, candidate, now))) {
+					leaseValidUntilMillis = now.plus(leaseDuration).toEpochMilli();
+					return candidate;
+				}
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Snowflake nodeId 임대 실패", e);
+		}
+		throw new IllegalStateException("임대할 수 있는 Snowflake nodeId 가 없습니다");
+	}
+
+	private Set<Long> leasedNodeIds(Connection connection, Instant now) throws SQLException {
+		Set<Long> leased = new HashSet<>();
+		try (PreparedStatement statement = connection.prepareStatement(
+			"SELECT node_id FROM " + table + " WHERE expires_at >= ? AND owner <> ?")) {
+			statement.setTimestamp(1, Timestamp.from(now));
+			statement.setString(2, owner);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					leased.add(resultSet.getLong(1));
+				}
+			}
+		}
+		return leased;
+	}
+
+	private boolean takeExpired(Connection connection, long candidate, Instant now) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(
+			"UPDATE " + table + " SET owner = ?, expires_at = ? WHERE node_id = ? AND (expires_at < ? OR owner = ?)")) {
+			statement.setString(1, owner);
+			statement.setTimestamp(2, Timestamp.from(now.plus(leaseDuration)));
+			statement.setLong(3, candidate);
+			statement.setTimestamp(4, Timestamp.from(now));
+			statement.setString(5, owner);
+			return statement.executeUpdate() == 1;
+		}
+	}
+
+	private boolean insert(Connection connection, long candidate, Instant now) {
+		try (PreparedStatement statement = connection.prepareStatement(
+			"INSERT INTO " + table + " (node_id, owner, expires_at) VALUES (?, ?, ?)")) {
+			statement.setLong(1, candidate);
+			statement.setString(2, owner);
+			statement.setTimestamp(3, Timestamp.from(now.plus(leaseDuration)));
+			return statement.executeUpdate() == 1;
+		} catch (SQLException e) {
+			// 다른 인스턴스가 먼저 잡음 (PK 중복)
+			return false;
+		}
+	}
+
+	private static String defaultOwner() {
+		String host;
+		try {
+			host = InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			host = "unknown";
+		}
+		return host + ":" + ProcessHandle.current().pid() + ":" + Long.toHexString(RandomGenerator.getDefault().nextLong());
+	}
+}
@@ -0,0 +1,50 @@
+package innercircle.commerce.common.snowflake;
+
+import java.util.ServiceLoader;
+import java.util.random.RandomGenerator;
+
+/**
+ * Snowflake 의 nodeId (0 ~ 1023) 를 정하는 SPI
+ * 서비스 인스턴스마다 다른 값을 받아야 PK 충돌이 나지 않는다.
+ * - fixed: 설정값/인스턴스 메타데이터(StatefulSet ordinal 등)로 정한 값
+ * - JdbcNodeIdLeaseProvider: DB 임대 테이블에서 빈 번호를 빌림
+ * - META-INF/services 에 등록한 구현체
+ */
+@FunctionalInterface
+public interface NodeIdProvider {
+
+	long nodeId();
+
+	/**
+	 * nodeId() 로 받은 번호를 지금부터 aheadMillis 뒤까지 쓸 수 있는지 (그 전에 임대가 끝나면 false)
+	 * Snowflake 는 현재 시각보다 최대 maxBorrowMillis 앞선 시각으로 ID 를 만들므로 그만큼을 넘겨 확인한다.
+	 * 발급할 때마다 부르므로 I/O 없이 바로 답해야 한다.
+	 */
+	default boolean isValid(long aheadMillis) {
+		return true;
+	}
+
+	static NodeIdProvider fixed(long nodeId) {
+		return () -> nodeId;
+	}
+
+	/**
+	 * 다음 순서로 nodeId 를 정한다.
+	 * 1. 시스템 프로퍼티 snowflake.node-id / 환경 변수 SNOWFLAKE_NODE_ID
+	 * 2. ServiceLoader 로 찾은 첫 NodeIdProvider
+	 * 3. 무작위 (인스턴스가 많으면 충돌할 수 있으므로 경고 로그를 남긴다)
+	 */
+	static NodeIdProvider defaultProvider() {
+		String configured = SnowflakeEnvironment.get(SnowflakeEnvironment.NODE_ID);
+		if (configured != null) {
+			return fixed(Long.parseLong(configured.trim()));
+		}
+		return ServiceLoader.load(NodeIdProvider.class).findFirst().orElseGet(() -> () -> {
+			long nodeId = RandomGenerator.getDefault().nextLong(Snowflake.maxNodeId + 1);
+			System.getLogger(NodeIdProvider.class.getName()).log(System.Logger.Level.WARNING,
+				"Snowflake nodeId 가 설정되지 않아 무작위 값을 사용합니다 - nodeId: {0} ({1} 또는 {2} 로 지정하세요)",
+				nodeId, SnowflakeEnvironment.NODE_ID, SnowflakeEnvironment.toEnvironmentName(SnowflakeEnvironment.NODE_ID));
+			return nodeId;
+		});
+	}
+}
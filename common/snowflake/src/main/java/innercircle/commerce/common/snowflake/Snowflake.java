@@ -1,7 +1,24 @@
 package innercircle.commerce.common.snowflake;
 
-import java.util.random.RandomGenerator;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * 시간순 정렬 가능한 64비트 ID 생성기
+ * [unused 1][epoch 기준 경과 ms 41][nodeId 10][sequence 12]
+ * (lastTimeMillis, sequence) 를 AtomicLong 하나에 ID 와 같은 배치로 묶어 CAS 로 갱신한다.
+ * 락을 잡지 않으므로 가상 스레드의 캐리어를 고정하지 않는다.
+ * 여러 엔티티를 한 번에 만들 때는 reserveRange/nextIds 로 연속된 sequence 구간을 CAS 한 번에 예약한다.
+ *
+ * nodeId 는 NodeIdProvider 로 정하고, 같은 JVM 에서 같은 nodeId 를 쓰는 인스턴스는 상태를 공유해 서로 겹치지 않는다.
+ * 시계가 뒤로 가거나 한 ms 의 sequence 4096 개를 다 쓰면 최대 maxBorrowMillis 까지 앞선 ms 를 빌려 발급을 이어가고,
+ * 그보다 크게 뒤로 간 경우에만 IllegalStateException("Invalid Time") 을 던진다.
+ * NodeIdProvider.isValid(maxBorrowMillis) 가 false 면(빌린 시각까지 임대가 남지 않음 등) 다른 인스턴스와 ID 가 겹칠 수 있으므로
+ * IllegalStateException 을 던지고 발급하지 않는다.
+ */
 public class Snowflake {
 	private static final int UNUSED_BITS = 1;
 	private static final int EPOCH_BITS = 41;
@@ -9,44 +26,215 @@ public class Snowflake {
 	private static final int SEQUENCE_BITS = 12;
 
 
-	private static final long maxNodeId = (1L << NODE_ID_BITS) - 1;
+	static final long maxNodeId = (1L << NODE_ID_BITS) - 1;
 	private static final long maxSequence = (1L << SEQUENCE_BITS) - 1;
 
-	private final long nodeId = RandomGenerator.getDefault().nextLong(maxNodeId + 1);
+	/**
+	 * reserveRange 로 한 번에 예약할 수 있는 최대 개수 (한 ms 의 sequence 전체)
+	 */
+	public static final int MAX_RANGE_SIZE = 1 << SEQUENCE_BITS;
+
+	/**
+	 * 기본 maxBorrowMillis. ntpd/chrony 는 128ms 이상 어긋날 때 시계를 한 번에 옮기므로 그보다 넉넉하게 잡는다.
+	 */
+	public static final long DEFAULT_MAX_BORROW_MILLIS = 1_000;
+
 	// UTC = 2024-01-01T00:00:00Z
-	private final long startTimeMillis = 1704067200000L;
+	private static final long startTimeMillis = 1704067200000L;
 
-	private long lastTimeMillis = startTimeMillis;
-	private long sequence = 0L;
+	// nodeId 별 (lastTimeMillis - startTimeMillis) << SEQUENCE_BITS | sequence
+	private static final Map<Long, AtomicLong> states = new ConcurrentHashMap<>();
 
-	public synchronized long nextId() {
-		long currentTimeMillis = System.currentTimeMillis();
+	private final long nodeId;
+	private final NodeIdProvider nodeIdProvider; // 유효성을 확인할 필요가 없으면 null
+	private final long maxBorrowMillis;
+	private final LongSupplier clock;
+	private final AtomicLong state;
 
-		if (currentTimeMillis < lastTimeMillis) {
-			throw new IllegalStateException("Invalid Time");
+	/**
+	 * NodeIdProvider.defaultProvider() 의 nodeId 와 snowflake.max-borrow-ms (없으면 DEFAULT_MAX_BORROW_MILLIS) 로 만든다.
+	 */
+	public Snowflake() {
+		this(NodeIdProvider.defaultProvider(), SnowflakeEnvironment.getLong(
+			SnowflakeEnvironment.MAX_BORROW_MILLIS, DEFAULT_MAX_BORROW_MILLIS));
+	}
+
+	/**
+	 * @param nodeIdProvider  nodeId 를 정하는 방법 (생성 시 한 번 호출, 이후 발급할 때마다 isValid(maxBorrowMillis) 확인)
+	 * @param maxBorrowMillis 현재 시각보다 앞선 ms 로 발급할 수 있는 최대 폭 (0 이면 빌리지 않음)
+	 */
+	public Snowflake(NodeIdProvider nodeIdProvider, long maxBorrowMillis) {
+		this(nodeIdProvider.nodeId(), nodeIdProvider, maxBorrowMillis, System::currentTimeMillis, null);
+	}
+
+	/**
+	 * @param state null 이면 같은 nodeId 의 인스턴스와 공유하는 상태를 쓴다.
+	 */
+	Snowflake(long nodeId, long maxBorrowMillis, LongSupplier clock, AtomicLong state) {
+		this(nodeId, null, maxBorrowMillis, clock, state);
+	}
+
+	Snowflake(long nodeId, NodeIdProvider nodeIdProvider, long maxBorrowMillis, LongSupplier clock, AtomicLong state) {
+		if (nodeId < 0 || nodeId > maxNodeId) {
+			throw new IllegalArgumentException("nodeId must be between 0 and " + maxNodeId + ": " + nodeId);
 		}
+		if (maxBorrowMillis < 0) {
+			throw new IllegalArgumentException("maxBorrowMillis must not be negative: " + maxBorrowMillis);
+		}
+		this.nodeId = nodeId;
+		this.nodeIdProvider = nodeIdProvider;
+		this.maxBorrowMillis = maxBorrowMillis;
+		this.clock = clock;
+		this.state = state != null ? state : states.computeIfAbsent(nodeId, id -> new AtomicLong());
+	}
+
+	public long getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * ID 에 담긴 발급 시각 (ms 단위)
+	 * 시계를 빌려 발급한 ID 는 실제 발급 시각보다 최대 maxBorrowMillis 만큼 앞서 있다.
+	 */
+	public static Instant timestampOf(long id) {
+		return Instant.ofEpochMilli((id >>> (NODE_ID_BITS + SEQUENCE_BITS)) + startTimeMillis);
+	}
+
+	/**
+	 * instant 와 같은 ms 에 발급된 ID 중 가장 작은 값 (epoch 이전이면 0)
+	 * WHERE id >= minIdFor(from) 처럼 시간 범위를 PK 범위로 바꿀 때 쓴다.
+	 */
+	public static long minIdFor(Instant instant) {
+		long elapsedMillis = instant.toEpochMilli() - startTimeMillis;
+		return elapsedMillis < 0 ? 0 : elapsedMillis << (NODE_ID_BITS + SEQUENCE_BITS);
+	}
+
+	/**
+	 * instant 와 같은 ms 에 발급된 ID 중 가장 큰 값 (epoch 이전이면 -1 로, 어떤 ID 보다 작다)
+	 */
+	public static long maxIdFor(Instant instant) {
+		long elapsedMillis = instant.toEpochMilli() - startTimeMillis;
+		return elapsedMillis < 0 ? -1 : minIdFor(instant) | ((1L << (NODE_ID_BITS + SEQUENCE_BITS)) - 1);
+	}
+
+	public long nextId() {
+		checkNodeId();
+		while (true) {
+			long current = state.get();
+			long currentTimeMillis = clock.getAsLong() - startTimeMillis;
+			long next = nextFirst(current, currentTimeMillis, 1);
 
-		if (currentTimeMillis == lastTimeMillis) {
-			sequence = (sequence + 1) & maxSequence;
-			if (sequence == 0) {
-				currentTimeMillis = waitNextMillis(currentTimeMillis);
+			if (next < 0) {
+				waitUntil(-next);
+				continue;
+			}
+			if (state.compareAndSet(current, next)) {
+				return toId(next);
 			}
-		} else {
-			sequence = 0;
+		}
+	}
 
+	/**
+	 * 같은 ms 안의 연속된 ID count 개를 CAS 한 번으로 예약한다.
+	 * 현재 ms 에 남은 sequence 가 모자라면 다음 ms 의 앞부분을 예약한다.
+	 *
+	 * @param count 예약할 개수 (1 ~ MAX_RANGE_SIZE)
+	 * @return first 부터 1씩 증가하는 ID 구간
+	 */
+	public SnowflakeIdRange reserveRange(int count) {
+		if (count < 1 || count > MAX_RANGE_SIZE) {
+			throw new IllegalArgumentException("count must be between 1 and " + MAX_RANGE_SIZE + ": " + count);
 		}
+		return claim(count, false);
+	}
 
-		lastTimeMillis = currentTimeMillis;
+	/**
+	 * ID count 개를 발급한다.
+	 * 현재 ms 에 남은 sequence 를 한 번에 가져가고, 모자란 만큼만 다음 ms 에서 이어서 예약한다.
+	 *
+	 * @param count 발급할 개수 (0 이상)
+	 * @return 오름차순으로 정렬된 ID 배열
+	 */
+	public long[] nextIds(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count must not be negative: " + count);
+		}
+		long[] ids = new long[count];
+		int filled = 0;
+		while (filled < count) {
+			SnowflakeIdRange range = claim(Math.min(count - filled, MAX_RANGE_SIZE), true);
+			for (int i = 0; i < range.size(); i++) {
+				ids[filled++] = range.first() + i;
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * @param partial true 면 현재 ms 에 남은 만큼만 예약하고, false 면 count 개가 남은 ms 에서 예약한다.
+	 */
+	private SnowflakeIdRange claim(int count, boolean partial) {
+		checkNodeId();
+		while (true) {
+			long current = state.get();
+			long currentTimeMillis = clock.getAsLong() - startTimeMillis;
+			long first = nextFirst(current, currentTimeMillis, partial ? 1 : count);
+
+			if (first < 0) {
+				waitUntil(-first);
+				continue;
+			}
+
+			long remaining = maxSequence - (first & maxSequence) + 1;
+			int claimed = (int) Math.min(remaining, count);
+			if (state.compareAndSet(current, first + claimed - 1)) {
+				return new SnowflakeIdRange(toId(first), claimed);
+			}
+		}
+	}
+
+	/**
+	 * current 다음으로 발급할 packed 값을 구한다.
+	 * 같은 ms 에 required 개 이상 남아 있으면 그 ms 를 이어 쓰고, 아니면 다음 ms 로 넘어간다.
+	 * 다음 ms 가 현재 시각보다 maxBorrowMillis 넘게 앞서면 기다려야 하므로 -(기다릴 시각) 을 돌려준다.
+	 */
+	private long nextFirst(long current, long currentTimeMillis, int required) {
+		long lastTimeMillis = current >>> SEQUENCE_BITS;
+
+		if (currentTimeMillis < lastTimeMillis - maxBorrowMillis) {
+			throw new IllegalStateException("Invalid Time");
+		}
+		if (currentTimeMillis > lastTimeMillis) {
+			return currentTimeMillis << SEQUENCE_BITS;
+		}
+		if (maxSequence - (current & maxSequence) >= required) {
+			return current + 1;
+		}
+
+		long nextTimeMillis = lastTimeMillis + 1;
+		if (nextTimeMillis - currentTimeMillis <= maxBorrowMillis) {
+			return nextTimeMillis << SEQUENCE_BITS;
+		}
+		return -(nextTimeMillis - maxBorrowMillis);
+	}
+
+	private void checkNodeId() {
+		if (nodeIdProvider != null && !nodeIdProvider.isValid(maxBorrowMillis)) {
+			throw new IllegalStateException("Snowflake nodeId is no longer valid: " + nodeId);
+		}
+	}
 
-		return ((currentTimeMillis - startTimeMillis) << (NODE_ID_BITS + SEQUENCE_BITS))
+	private long toId(long packed) {
+		long elapsedMillis = packed >>> SEQUENCE_BITS;
+		long sequence = packed & maxSequence;
+		return (elapsedMillis << (NODE_ID_BITS + SEQUENCE_BITS))
 			| (nodeId << SEQUENCE_BITS)
 			| sequence;
 	}
 
-	private long waitNextMillis(long currentTimestamp) {
-		while (currentTimestamp <= lastTimeMillis) {
-			currentTimestamp = System.currentTimeMillis();
+	private void waitUntil(long elapsedMillis) {
+		while (clock.getAsLong() - startTimeMillis < elapsedMillis) {
+			Thread.onSpinWait();
 		}
-		return currentTimestamp;
 	}
 }
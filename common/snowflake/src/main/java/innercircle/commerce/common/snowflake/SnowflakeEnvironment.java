@@ -0,0 +1,28 @@
+package innercircle.commerce.common.snowflake;
+
+import java.util.Locale;
+
+/**
+ * 시스템 프로퍼티 또는 환경 변수에서 Snowflake 설정을 읽는다. (snowflake.node-id -> SNOWFLAKE_NODE_ID)
+ * 정적 IdGenerator 처럼 스프링 빈이 아닌 곳에서도 같은 설정을 쓰기 위함이다.
+ */
+final class SnowflakeEnvironment {
+	static final String NODE_ID = "snowflake.node-id";
+	static final String MAX_BORROW_MILLIS = "snowflake.max-borrow-ms";
+
+	private SnowflakeEnvironment() {}
+
+	static String get(String property) {
+		String value = System.getProperty(property);
+		return value != null ? value : System.getenv(toEnvironmentName(property));
+	}
+
+	static long getLong(String property, long defaultValue) {
+		String value = get(property);
+		return value != null ? Long.parseLong(value.trim()) : defaultValue;
+	}
+
+	static String toEnvironmentName(String property) {
+		return property.replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT);
+	}
+}
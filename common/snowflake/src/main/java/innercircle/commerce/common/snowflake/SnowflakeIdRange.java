@@ -0,0 +1,52 @@
+package innercircle.commerce.common.snowflake;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Snowflake.reserveRange 로 예약한 연속 ID 구간 [first, first + size)
+ * 같은 ms, 같은 nodeId 의 sequence 만 다르므로 ID 값도 1씩 증가한다.
+ * 박싱 없이 꺼내 쓰는 반복자이며 스레드 안전하지 않다 (예약한 스레드에서만 사용).
+ */
+public final class SnowflakeIdRange implements PrimitiveIterator.OfLong {
+	private final long first;
+	private final int size;
+	private int cursor;
+
+	SnowflakeIdRange(long first, int size) {
+		this.first = first;
+		this.size = size;
+	}
+
+	public long first() {
+		return first;
+	}
+
+	public long last() {
+		return first + size - 1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 아직 꺼내지 않은 ID 개수
+	 */
+	public int remaining() {
+		return size - cursor;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return cursor < size;
+	}
+
+	@Override
+	public long nextLong() {
+		if (cursor >= size) {
+			throw new NoSuchElementException("reserved ids exhausted: " + size);
+		}
+		return first + cursor++;
+	}
+}
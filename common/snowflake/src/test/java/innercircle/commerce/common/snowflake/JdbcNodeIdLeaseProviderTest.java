@@ -0,0 +1,277 @@
+package innercircle.commerce.common.snowflake;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class JdbcNodeIdLeaseProviderTest {
+	static final Duration LEASE = Duration.ofMinutes(1);
+
+	JdbcDataSource dataSource = new JdbcDataSource();
+	Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		dataSource.setURL("jdbc:h2:mem:lease;DB_CLOSE_DELAY=-1");
+		execute("DROP TABLE IF EXISTS snowflake_node_lease");
+		execute("CREATE TABLE snowflake_node_lease (node_id INT PRIMARY KEY, owner VARCHAR(255) NOT NULL, expires_at TIMESTAMP NOT NULL)");
+	}
+
+	@Test
+	void leaseDistinctNodeIdTest() {
+		// given
+		Set<Long> nodeIds = new HashSet<>();
+		List<JdbcNodeIdLeaseProvider> providers = new ArrayList<>();
+
+		// when
+		for (int i = 0; i < 100; i++) {
+			JdbcNodeIdLeaseProvider provider = provider("owner-" + i, clock);
+			providers.add(provider);
+			nodeIds.add(provider.nodeId());
+		}
+		providers.forEach(JdbcNodeIdLeaseProvider::close);
+
+		// then
+		assertThat(nodeIds).hasSize(100).allMatch(nodeId -> nodeId >= 0 && nodeId <= 1023);
+	}
+
+	@Test
+	void sameNodeIdOnRepeatedCallTest() throws SQLException {
+		// given
+		JdbcNodeIdLeaseProvider provider = provider("owner", clock);
+
+		// when
+		long nodeId = provider.nodeId();
+
+		// then
+		assertThat(provider.nodeId()).isEqualTo(nodeId);
+		assertThat(count()).isEqualTo(1);
+		provider.close();
+	}
+
+	@Test
+	void takeExpiredLeaseTest() throws SQLException {
+		// given
+		leaseAll("old", clock.instant().minusSeconds(1));
+
+		// when
+		JdbcNodeIdLeaseProvider provider = provider("new", clock);
+		long nodeId = provider.nodeId();
+
+		// then
+		assertThat(owner(nodeId)).isEqualTo("new");
+		assertThat(count()).isEqualTo(1024);
+		provider.close();
+	}
+
+	@Test
+	void noAvailableNodeIdTest() throws SQLException {
+		// given
+		leaseAll("other", clock.instant().plusSeconds(30));
+
+		// then
+		assertThatThrownBy(() -> provider("new", clock).nodeId()).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void renewAndReleaseTest() throws SQLException {
+		// given
+		JdbcNodeIdLeaseProvider provider = provider("owner", clock);
+		long nodeId = provider.nodeId();
+
+		// when
+		boolean renewed = provider.renew();
+		execute("UPDATE snowflake_node_lease SET owner = 'other' WHERE node_id = " + nodeId);
+		boolean lost = !provider.renew();
+		execute("UPDATE snowflake_node_lease SET owner = 'owner' WHERE node_id = " + nodeId);
+		provider.close();
+
+		// then
+		assertThat(renewed).isTrue();
+		assertThat(lost).isTrue();
+		assertThat(count()).isZero();
+	}
+
+	@Test
+	void stopIssuingAfterLeaseExpiredTest() {
+		// given
+		MutableClock clock = new MutableClock(this.clock.instant());
+		JdbcNodeIdLeaseProvider provider = provider("owner", clock);
+		Snowflake snowflake = new Snowflake(provider, 0);
+		boolean validBeforeExpiry = provider.isValid();
+
+		// when
+		clock.advance(LEASE);
+		Throwable expired = catchThrowable(snowflake::nextId);
+		boolean renewed = provider.renew();
+
+		// then
+		assertThat(validBeforeExpiry).isTrue();
+		assertThat(expired).isInstanceOf(IllegalStateException.class);
+		assertThat(renewed).isTrue();
+		assertThat(provider.leaseValidUntil()).isEqualTo(clock.instant().plus(LEASE));
+		assertThat(snowflake.nextId()).isPositive();
+		provider.close();
+	}
+
+	@Test
+	void lostLeaseStaysInvalidTest() throws SQLException {
+		// given
+		MutableClock clock = new MutableClock(this.clock.instant());
+		JdbcNodeIdLeaseProvider provider = provider("owner", clock);
+		Snowflake snowflake = new Snowflake(provider, 0);
+		long nodeId = provider.nodeId();
+
+		// when
+		clock.advance(LEASE.plusSeconds(1));
+		execute("UPDATE snowflake_node_lease SET owner = 'other' WHERE node_id = " + nodeId);
+		boolean renewed = provider.renew();
+
+		// then
+		assertThat(renewed).isFalse();
+		assertThat(provider.isValid()).isFalse();
+		assertThatThrownBy(() -> snowflake.nextIds(3)).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> snowflake.reserveRange(3)).isInstanceOf(IllegalStateException.class);
+		provider.close();
+	}
+
+	@Test
+	void borrowedIdsDoNotOverlapNextOwnerTest() throws SQLException {
+		// given
+		long maxBorrowMillis = 1_000;
+		MutableClock clock = new MutableClock(this.clock.instant());
+		JdbcNodeIdLeaseProvider oldProvider = provider("old", clock);
+		long nodeId = oldProvider.nodeId();
+		Snowflake oldSnowflake = new Snowflake(nodeId, oldProvider, maxBorrowMillis, clock::millis, new AtomicLong());
+		long expiresAt = oldProvider.leaseValidUntil().toEpochMilli();
+		leaseAllExcept(nodeId, "other", clock.instant().plus(LEASE.multipliedBy(10)));
+
+		// when
+		// 발급을 멈추기 직전 시각에 빌릴 수 있는 만큼 앞선 ms 까지 ID 를 만든다
+		clock.advance(Duration.ofMillis(expiresAt - maxBorrowMillis - JdbcNodeIdLeaseProvider.DEFAULT_CLOCK_SKEW.toMillis()
+			- 1 - clock.millis()));
+		long lastOldId = 0;
+		for (int i = 0; i < maxBorrowMillis; i++) {
+			lastOldId = oldSnowflake.reserveRange(Snowflake.MAX_RANGE_SIZE).first();
+		}
+		clock.advance(Duration.ofMillis(1));
+		Throwable stopped = catchThrowable(oldSnowflake::nextId);
+
+		// 만료 직후 다른 인스턴스가 같은 번호를 가져간다
+		clock.advance(Duration.ofMillis(expiresAt + 1 - clock.millis()));
+		JdbcNodeIdLeaseProvider newProvider = provider("new", clock);
+		Snowflake newSnowflake = new Snowflake(newProvider.nodeId(), newProvider, maxBorrowMillis, clock::millis, new AtomicLong());
+		long firstNewId = newSnowflake.nextId();
+
+		// then
+		assertThat(stopped).isInstanceOf(IllegalStateException.class);
+		assertThat(newProvider.nodeId()).isEqualTo(nodeId);
+		assertThat(Snowflake.timestampOf(firstNewId)).isAfter(Snowflake.timestampOf(lastOldId));
+		assertThat(firstNewId).isGreaterThan(lastOldId);
+		oldProvider.close();
+		newProvider.close();
+	}
+
+	JdbcNodeIdLeaseProvider provider(String owner, Clock clock) {
+		return new JdbcNodeIdLeaseProvider(dataSource, "snowflake_node_lease", owner, LEASE, clock);
+	}
+
+	void leaseAll(String owner, Instant expiresAt) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("INSERT INTO snowflake_node_lease VALUES (?, ?, ?)")) {
+			for (int nodeId = 0; nodeId <= 1023; nodeId++) {
+				statement.setInt(1, nodeId);
+				statement.setString(2, owner);
+				statement.setTimestamp(3, Timestamp.from(expiresAt));
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	void leaseAllExcept(long excluded, String owner, Instant expiresAt) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("INSERT INTO snowflake_node_lease VALUES (?, ?, ?)")) {
+			for (int nodeId = 0; nodeId <= 1023; nodeId++) {
+				if (nodeId == excluded) {
+					continue;
+				}
+				statement.setInt(1, nodeId);
+				statement.setString(2, owner);
+				statement.setTimestamp(3, Timestamp.from(expiresAt));
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	void execute(String sql) throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	long count() throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+			 ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM snowflake_node_lease")) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+	static class MutableClock extends Clock {
+		private volatile Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+
+	String owner(long nodeId) throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+			 ResultSet resultSet = statement.executeQuery("SELECT owner FROM snowflake_node_lease WHERE node_id = " + nodeId)) {
+			resultSet.next();
+			return resultSet.getString(1);
+		}
+	}
+}
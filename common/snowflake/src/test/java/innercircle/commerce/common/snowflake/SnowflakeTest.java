@@ -2,13 +2,21 @@ package innercircle.commerce.common.snowflake;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class SnowflakeTest {
+	static final long EPOCH = 1704067200000L;
+
 	Snowflake snowflake = new Snowflake();
 
 	@Test
@@ -38,6 +46,222 @@ class SnowflakeTest {
 		executorService.shutdown();
 	}
 
+	@Test
+	void nextIdLayoutTest() {
+		// given
+		long epoch = EPOCH;
+		long before = System.currentTimeMillis();
+
+		// when
+		long first = snowflake.nextId();
+		long second = snowflake.nextId();
+		long after = System.currentTimeMillis();
+
+		// then
+		assertThat(first).isPositive();
+		assertThat(first >>> 22).isBetween(before - epoch, after - epoch);
+		assertThat((first >>> 12) & 1023).isEqualTo((second >>> 12) & 1023);
+		assertThat(second).isGreaterThan(first);
+	}
+
+	@Test
+	void nextIdVirtualThreadTest() throws InterruptedException {
+		// given
+		int threadCount = 10_000;
+		int idCount = 100;
+		Set<Long> result = ConcurrentHashMap.newKeySet();
+
+		// when
+		try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < threadCount; i++) {
+				executorService.submit(() -> result.addAll(generateIdList(snowflake, idCount)));
+			}
+		}
+
+		// then
+		assertThat(result).hasSize(threadCount * idCount);
+	}
+
+	@Test
+	void reserveRangeTest() {
+		// given
+		long before = snowflake.nextId();
+
+		// when
+		SnowflakeIdRange range = snowflake.reserveRange(100);
+		List<Long> idList = new ArrayList<>();
+		range.forEachRemaining((long id) -> idList.add(id));
+		long after = snowflake.nextId();
+
+		// then
+		assertThat(range.size()).isEqualTo(100);
+		assertThat(range.last() - range.first()).isEqualTo(99);
+		assertThat(range.first()).isGreaterThan(before);
+		assertThat(idList).hasSize(100).startsWith(range.first()).endsWith(range.last()).isSorted();
+		assertThat(range.first() >>> 12).isEqualTo(range.last() >>> 12);
+		assertThat(after).isGreaterThan(range.last());
+		assertThat(range.hasNext()).isFalse();
+		assertThatThrownBy(range::nextLong).isInstanceOf(NoSuchElementException.class);
+	}
+
+	@Test
+	void reserveRangeInvalidCountTest() {
+		assertThatThrownBy(() -> snowflake.reserveRange(0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> snowflake.reserveRange(Snowflake.MAX_RANGE_SIZE + 1))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> snowflake.nextIds(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void nextIdsTest() throws InterruptedException {
+		// given
+		int threadCount = 100;
+		int idCount = 10_000;
+		Set<Long> result = ConcurrentHashMap.newKeySet();
+		List<long[]> blocks = new CopyOnWriteArrayList<>();
+
+		// when
+		try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < threadCount; i++) {
+				int index = i;
+				executorService.submit(() -> {
+					long[] ids = index % 2 == 0 ? snowflake.nextIds(idCount) : toArray(snowflake.reserveRange(idCount / 10));
+					blocks.add(ids);
+					Arrays.stream(ids).forEach(result::add);
+					result.add(snowflake.nextId());
+				});
+			}
+		}
+
+		// then
+		assertThat(blocks).hasSize(threadCount).allSatisfy(ids -> assertThat(ids).isSorted());
+		assertThat(result).hasSize(threadCount / 2 * (idCount + idCount / 10) + threadCount);
+	}
+
+	@Test
+	void fixedNodeIdSharedStateTest() throws InterruptedException {
+		// given
+		Snowflake first = new Snowflake(NodeIdProvider.fixed(7), 0);
+		Snowflake second = new Snowflake(NodeIdProvider.fixed(7), 0);
+		int threadCount = 1_000;
+		int idCount = 100;
+		Set<Long> result = ConcurrentHashMap.newKeySet();
+
+		// when
+		try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < threadCount; i++) {
+				Snowflake snowflake = i % 2 == 0 ? first : second;
+				executorService.submit(() -> result.addAll(generateIdList(snowflake, idCount)));
+			}
+		}
+
+		// then
+		assertThat(first.getNodeId()).isEqualTo(7);
+		assertThat(result).hasSize(threadCount * idCount).allMatch(id -> ((id >>> 12) & 1023) == 7);
+	}
+
+	@Test
+	void invalidNodeIdTest() {
+		assertThatThrownBy(() -> new Snowflake(NodeIdProvider.fixed(1024), 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new Snowflake(NodeIdProvider.fixed(-1), 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void clockBackwardWithinBorrowTest() {
+		// given
+		AtomicLong clock = new AtomicLong(EPOCH + 1_000_000);
+		Snowflake snowflake = new Snowflake(1, 1_000, clock::get, new AtomicLong());
+		long before = snowflake.nextId();
+
+		// when
+		clock.addAndGet(-500);
+		long during = snowflake.nextId();
+		clock.addAndGet(600);
+		long after = snowflake.nextId();
+
+		// then
+		assertThat(during).isGreaterThan(before);
+		assertThat(during >>> 22).isEqualTo(before >>> 22);
+		assertThat(after).isGreaterThan(during);
+		assertThat(after >>> 22).isEqualTo(1_000_100);
+	}
+
+	@Test
+	void clockBackwardBeyondBorrowTest() {
+		// given
+		AtomicLong clock = new AtomicLong(EPOCH + 1_000_000);
+		Snowflake snowflake = new Snowflake(1, 1_000, clock::get, new AtomicLong());
+		snowflake.nextId();
+
+		// when
+		clock.addAndGet(-1_001);
+
+		// then
+		assertThatThrownBy(snowflake::nextId).isInstanceOf(IllegalStateException.class).hasMessage("Invalid Time");
+	}
+
+	@Test
+	void sequenceExhaustedBorrowTest() throws Exception {
+		// given
+		AtomicLong clock = new AtomicLong(EPOCH + 1_000_000);
+		Snowflake snowflake = new Snowflake(1, 2, clock::get, new AtomicLong());
+
+		// when
+		long[] ids = snowflake.nextIds(Snowflake.MAX_RANGE_SIZE * 3);
+		CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(snowflake::nextId);
+
+		// then
+		assertThat(ids).isSorted().doesNotHaveDuplicates();
+		assertThat(ids[0] >>> 22).isEqualTo(1_000_000);
+		assertThat(ids[ids.length - 1] >>> 22).isEqualTo(1_000_002);
+		assertThatThrownBy(() -> waiting.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+		clock.addAndGet(1);
+		assertThat(waiting.get(1, TimeUnit.SECONDS) >>> 22).isEqualTo(1_000_003);
+	}
+
+	@Test
+	void timestampOfTest() {
+		// given
+		long before = System.currentTimeMillis();
+
+		// when
+		long id = snowflake.nextId();
+		long after = System.currentTimeMillis();
+
+		// then
+		assertThat(Snowflake.timestampOf(id).toEpochMilli()).isBetween(before, after);
+	}
+
+	@Test
+	void idRangeForInstantTest() {
+		// given
+		Instant instant = Instant.ofEpochMilli(EPOCH + 1_000_000);
+		AtomicLong clock = new AtomicLong(instant.toEpochMilli());
+		long[] ids = new Snowflake(1023, 0, clock::get, new AtomicLong()).nextIds(10);
+
+		// when
+		long minId = Snowflake.minIdFor(instant);
+		long maxId = Snowflake.maxIdFor(instant);
+
+		// then
+		assertThat(Arrays.stream(ids)).allMatch(id -> id >= minId && id <= maxId);
+		assertThat(Snowflake.timestampOf(minId)).isEqualTo(instant);
+		assertThat(Snowflake.timestampOf(maxId)).isEqualTo(instant);
+		assertThat(Snowflake.maxIdFor(instant.minusMillis(1))).isEqualTo(minId - 1);
+		assertThat(Snowflake.minIdFor(instant.plusMillis(1))).isEqualTo(maxId + 1);
+		assertThat(Snowflake.minIdFor(Instant.EPOCH)).isZero();
+		assertThat(Snowflake.maxIdFor(Instant.EPOCH)).isNegative();
+	}
+
+	long[] toArray(SnowflakeIdRange range) {
+		long[] ids = new long[range.size()];
+		for (int i = 0; range.hasNext(); i++) {
+			ids[i] = range.nextLong();
+		}
+		return ids;
+	}
+
 	List<Long> generateIdList(Snowflake snowflake, int count) {
 		List<Long> idList = new ArrayList<>();
 		while (count-- > 0) {
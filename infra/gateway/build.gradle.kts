@@ -1,3 +1,7 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
 dependencies {
 
     implementation("org.springframework.cloud:spring-cloud-starter-gateway-server-webflux")
@@ -10,6 +14,9 @@ dependencies {
     implementation("io.micrometer:micrometer-tracing-bridge-brave")
     implementation ("io.zipkin.reporter2:zipkin-reporter-brave")
 
+    // Rate Limit 버킷 저장소 (W-TinyLFU)
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
 
     // macOS에서만 필요한 의존성 (현재 하드코딩된 것)
     if (System.getProperty("os.name").lowercase().contains("mac")) {
@@ -21,4 +28,15 @@ dependencies {
     developmentOnly("org.springframework.boot:spring-boot-docker-compose")
 
     implementation(project(":common:snowflake"))
+
+    jmh("org.openjdk.jol:jol-core:0.17") // 키당 메모리 측정
+    jmh("org.springframework:spring-test") // 필터 체인 벤치마크의 MockServerWebExchange
+}
+
+// ./gradlew :infra:gateway:jmh -PjmhIncludes=RateLimiterBenchmark
+// 요청 경로(Rate Limit, 블랙리스트, 필터 체인)만: -PjmhIncludes='(HotKeyRateLimiter|RateLimitService|JwtBlacklist|GatewayFilterChain)Benchmark'
+// 결과: build/results/jmh/results.json (같은 명령으로 다시 실행해 이전 결과와 비교)
+jmh {
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+    resultFormat.set("JSON")
 }
@@ -0,0 +1,58 @@
+package commerce.gateway.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 키(Limiter 하나)를 여러 스레드가 동시에 두드릴 때 RateLimiter.tryAcquire 비용
+ * 등급 설정과 같은 RateLimitAlgorithm.create 경로로 Limiter 를 만들어 GCRA 와 슬라이딩 윈도우를 같은 스레드 수로 비교한다.
+ * 보충 속도를 최대로 두어 대부분의 호출이 허용 CAS 경로를 지나도록 한다. (거절만 반복하는 빠른 경로 제외)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotKeyRateLimiterBenchmark {
+
+    @Param({"TOKEN_BUCKET", "SLIDING_WINDOW"})
+    private RateLimitAlgorithm algorithm;
+
+    private RateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        limiter = algorithm.create(new RateLimitConfig("bench", 1_000_000_000, 1_000_000, 1, algorithm));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long oneThread() {
+        return limiter.tryAcquire(1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long eightThreads() {
+        return limiter.tryAcquire(1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long sixtyFourThreads() {
+        return limiter.tryAcquire(1);
+    }
+}
@@ -0,0 +1,65 @@
+package commerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100만 개 키에 고르게 분산된 RateLimitService.checkLimit 비용 (버킷 저장소 조회 + 판정 + 지표)
+ * 키 문자열은 미리 만들어 두고, Setup 에서 모든 버킷을 만들어 측정 중에는 조회 경로만 지나게 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RateLimitServiceBenchmark {
+
+    private static final int KEY_COUNT = 1_000_000;
+
+    private RateLimitService service;
+    private RateLimitConfig config;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(KEY_COUNT * 2L);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new RateLimitService(
+                new LocalRateLimitBackend(new RateLimitBucketStore(properties, registry)),
+                new RateLimitMetrics(registry));
+        config = RateLimitConfig.forGeneral();
+
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = config.getTier() + ":user: " + i;
+            service.checkLimit(keys[i], config, "product-service");
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RateLimitResult distinctKeys() {
+        return service.checkLimit(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)], config, "product-service");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RateLimitResult distinctKeysContended() {
+        return service.checkLimit(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)], config, "product-service");
+    }
+}
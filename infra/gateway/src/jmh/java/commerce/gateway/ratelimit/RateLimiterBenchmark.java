@@ -0,0 +1,72 @@
+package commerce.gateway.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알고리즘별 Rate Limiter 처리량과 키당 메모리 비교
+ * - hotKey: 모든 스레드가 같은 키를 두드리는 경우 (CAS 경합)
+ * - manyKeys: 10만 개 키에 고르게 분산되는 경우 (캐시 미스)
+ * 키당 메모리는 Setup 에서 JOL 로 측정해 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int KEY_COUNT = 100_000;
+
+    @Param({"TOKEN_BUCKET", "SLIDING_WINDOW"})
+    private RateLimitAlgorithm algorithm;
+
+    private RateLimiter hot;
+    private RateLimiter[] limiters;
+
+    @Setup
+    public void setUp() {
+        RateLimitConfig config = new RateLimitConfig("bench", 50, 100, 1, algorithm);
+        hot = algorithm.create(config);
+        limiters = new RateLimiter[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            limiters[i] = algorithm.create(config);
+        }
+
+        long totalBytes = GraphLayout.parseInstance((Object[]) limiters).totalSize();
+        System.out.printf("%n%s: 키당 약 %d bytes%n", algorithm, totalBytes / KEY_COUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long hotKeySingleThread() {
+        return hot.tryAcquire(1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long hotKeyContended() {
+        return hot.tryAcquire(1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long manyKeys() {
+        return limiters[ThreadLocalRandom.current().nextInt(KEY_COUNT)].tryAcquire(1);
+    }
+}
@@ -0,0 +1,131 @@
+package commerce.gateway.security;
+
+import commerce.gateway.ratelimit.LocalQuotaStore;
+import commerce.gateway.ratelimit.LocalRateLimitBackend;
+import commerce.gateway.ratelimit.QuotaLedger;
+import commerce.gateway.ratelimit.RateLimitBucketStore;
+import commerce.gateway.ratelimit.RateLimitMetrics;
+import commerce.gateway.ratelimit.RateLimitProperties;
+import commerce.gateway.ratelimit.RateLimitService;
+import commerce.gateway.ratelimit.RateLimitTierResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitingFilter -> UserContextFilter 를 지나는 요청 한 건의 필터 체인 비용 (업스트림 라우팅 제외)
+ * - baseline: 요청/교환 객체 생성과 빈 체인만 (다른 결과에서 빼서 보는 기준값)
+ * - anonymous: X-Forwarded-For IP 기준 제한 + 내부 헤더 제거
+ * - authenticated: SecurityContext 의 JWT 로 사용자 해석 + 사용자 기준 제한 + 블랙리스트 확인 + X-User-* 헤더 추가
+ * 등급은 거절이 나오지 않을 만큼 넉넉하게 두어 허용 경로만 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GatewayFilterChainBenchmark {
+
+    private static final int CLIENTS = 1024;
+    private static final GatewayFilterChain TERMINAL = exchange -> Mono.empty();
+
+    private QuotaLedger quotaLedger;
+    private GatewayFilterChain chain;
+    private String[] ips;
+    private Context[] users;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Tier general = new RateLimitProperties.Tier();
+        general.setRefillRate(1_000_000);
+        general.setCapacity(1_000_000);
+        properties.getTiers().put("general", general);
+
+        RateLimitService rateLimitService = new RateLimitService(
+                new LocalRateLimitBackend(new RateLimitBucketStore(properties, registry)), new RateLimitMetrics(registry));
+        GatewayPrincipalResolver principalResolver = new GatewayPrincipalResolver("email");
+        quotaLedger = new QuotaLedger(new LocalQuotaStore(null), properties.getQuotaAccounting(), registry);
+        JwtBlacklistService blacklist = new JwtBlacklistService(Duration.ofMinutes(1), 100_000, System::currentTimeMillis);
+
+        RateLimitingFilter rateLimitingFilter = new RateLimitingFilter(rateLimitService,
+                new RateLimitTierResolver(properties, new StandardEnvironment()), principalResolver, quotaLedger);
+        UserContextFilter userContextFilter = new UserContextFilter(principalResolver, blacklist);
+        chain = exchange -> rateLimitingFilter.filter(exchange, e -> userContextFilter.filter(e, TERMINAL));
+
+        Instant now = Instant.now();
+        ips = new String[CLIENTS];
+        users = new Context[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            ips[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+            Jwt jwt = Jwt.withTokenValue("token-" + i)
+                    .header("alg", "HS512")
+                    .subject(String.valueOf(i))
+                    .claim("email", "user" + i + "@example.com")
+                    .jti(UUID.randomUUID().toString())
+                    .issuedAt(now)
+                    .expiresAt(now.plus(Duration.ofHours(1)))
+                    .build();
+            users[i] = ReactiveSecurityContextHolder.withAuthentication(
+                    new JwtAuthenticationToken(jwt, AuthorityUtils.createAuthorityList("BUYER")));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        quotaLedger.close();
+    }
+
+    @Benchmark
+    public Object baseline() {
+        MockServerWebExchange exchange = anonymousExchange();
+        return TERMINAL.filter(exchange).thenReturn(exchange).block();
+    }
+
+    @Benchmark
+    public Object anonymous() {
+        MockServerWebExchange exchange = anonymousExchange();
+        return chain.filter(exchange).thenReturn(exchange).block();
+    }
+
+    @Benchmark
+    public Object authenticated() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/review-service/reviews"));
+        return chain.filter(exchange)
+                .contextWrite(users[ThreadLocalRandom.current().nextInt(CLIENTS)])
+                .thenReturn(exchange)
+                .block();
+    }
+
+    private MockServerWebExchange anonymousExchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/product-service/products")
+                .header("X-Forwarded-For", ips[ThreadLocalRandom.current().nextInt(CLIENTS)]));
+    }
+}
@@ -0,0 +1,83 @@
+package commerce.gateway.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10만 개 토큰이 폐기된 상태에서 JwtBlacklistService.isBlacklisted 비용
+ * - miss: 폐기되지 않은 토큰 (대부분의 요청, Bloom Filter 에서 끝나는 경로)
+ * - hit: 폐기된 토큰 (만료 버킷 조회까지)
+ * - hitWithoutExpiry: 만료 시각을 모르는 폐기 토큰 (모든 버킷 조회)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBlacklistBenchmark {
+
+    private static final int REVOKED = 100_000;
+    private static final int SAMPLES = 4096;
+
+    private JwtBlacklistService service;
+    private String[] revoked;
+    private Instant[] revokedExpiresAt;
+    private String[] active;
+    private Instant expiresAt;
+
+    @Setup
+    public void setUp() {
+        service = new JwtBlacklistService(Duration.ofMinutes(1), REVOKED, System::currentTimeMillis);
+        Instant now = Instant.now();
+        expiresAt = now.plus(Duration.ofHours(1));
+
+        revoked = new String[SAMPLES];
+        revokedExpiresAt = new Instant[SAMPLES];
+        for (int i = 0; i < REVOKED; i++) {
+            String jti = UUID.randomUUID().toString();
+            Instant exp = now.plus(Duration.ofMinutes(1 + i % 60)); // 액세스 토큰 수명 1시간에 고르게 분산
+            service.blacklistToken(jti, Date.from(exp));
+            if (i < SAMPLES) {
+                revoked[i] = jti;
+                revokedExpiresAt[i] = exp;
+            }
+        }
+
+        active = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            active[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return service.isBlacklisted(active[ThreadLocalRandom.current().nextInt(SAMPLES)], expiresAt);
+    }
+
+    @Benchmark
+    public boolean hit() {
+        int i = ThreadLocalRandom.current().nextInt(SAMPLES);
+        return service.isBlacklisted(revoked[i], revokedExpiresAt[i]);
+    }
+
+    @Benchmark
+    public boolean hitWithoutExpiry() {
+        return service.isBlacklisted(revoked[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+}
@@ -0,0 +1,84 @@
+package commerce.gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 액세스 토큰을 반복 디코딩할 때 검증 캐시 유무에 따른 비용 비교
+ * - nimbus: SecurityConfig 와 같은 HS512 NimbusReactiveJwtDecoder
+ * - cached: CachingReactiveJwtDecoder 로 감싼 디코더 (적중 경로)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecodeBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-sec";
+
+    private ReactiveJwtDecoder nimbus;
+    private ReactiveJwtDecoder cached;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        byte[] secret = SECRET.getBytes(StandardCharsets.UTF_8);
+        nimbus = NimbusReactiveJwtDecoder.withSecretKey(new SecretKeySpec(secret, "HmacSHA512"))
+                .macAlgorithm(MacAlgorithm.HS512)
+                .build();
+        cached = new CachingReactiveJwtDecoder(nimbus, 10_000, new SimpleMeterRegistry());
+
+        Instant now = Instant.now();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), new JWTClaimsSet.Builder()
+                .subject("12345")
+                .claim("email", "buyer@example.com")
+                .claim("roles", List.of("BUYER"))
+                .claim("type", "ACCESS")
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+                .build());
+        jwt.sign(new MACSigner(secret));
+        token = jwt.serialize();
+    }
+
+    @Benchmark
+    public Jwt nimbus() {
+        return nimbus.decode(token).block();
+    }
+
+    @Benchmark
+    public Jwt cached() {
+        return cached.decode(token).block();
+    }
+}
@@ -2,9 +2,11 @@ package commerce.gateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import reactor.core.publisher.Hooks;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class GatewayApplication {
     public static void main(String[] args) {
         Hooks.enableAutomaticContextPropagation();
@@ -0,0 +1,162 @@
+package commerce.gateway.body;
+
+import commerce.gateway.response.GatewayErrorResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 라우트별 요청 본문 크기 제한 (스트리밍)
+ * 본문을 메모리에 모으지 않고 DataBuffer 가 업스트림으로 흘러가는 동안 바이트 수만 세어, 한도를 넘는 순간 전송을 중단한다.
+ * - Content-Length 가 한도를 넘으면 본문을 읽지 않고 바로 413 으로 거절한다.
+ * - Content-Length 가 없거나(chunked) 실제 본문이 더 길면, 한도를 넘는 버퍼를 해제하고 업스트림 전송을 오류로 끝낸다.
+ *   응답이 아직 커밋되지 않았으면 413 으로 응답한다.
+ * 게이트웨이가 한 번에 들고 있는 본문은 전송 중인 버퍼 몇 개뿐이므로, 큰 업로드가 동시에 몰려도 힙 사용량이 본문 크기에 비례해 늘지 않는다.
+ * <pre>
+ * filters:
+ *   - BodySizeLimit=10MB   # maxSize
+ * </pre>
+ * 지표
+ * - gateway.body.rejected{route, stage=header|stream}: 한도 초과로 거절한 요청 수
+ */
+@Slf4j
+@Component
+public class BodySizeLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<BodySizeLimitGatewayFilterFactory.Config> {
+
+    static final String REJECTED = "gateway.body.rejected";
+    static final String UNKNOWN_ROUTE = "unknown";
+
+    private final MeterRegistry registry;
+
+    public BodySizeLimitGatewayFilterFactory(MeterRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxSize");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : UNKNOWN_ROUTE;
+        long maxBytes = config.getMaxSize().toBytes();
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("BodySizeLimit maxSize must be positive: " + config.getMaxSize());
+        }
+        Counter rejectedByHeader = rejectedCounter(routeId, "header");
+        Counter rejectedByStream = rejectedCounter(routeId, "stream");
+
+        log.info("라우트 요청 본문 크기 제한 설정 - route: {}, 최대: {}", routeId, config.getMaxSize());
+
+        return (exchange, chain) -> {
+            long contentLength = exchange.getRequest().getHeaders().getContentLength();
+            if (contentLength > maxBytes) {
+                rejectedByHeader.increment();
+                return reject(exchange, maxBytes);
+            }
+
+            ServerWebExchange limited = exchange.mutate()
+                    .request(new LimitedRequest(exchange.getRequest(), maxBytes))
+                    .build();
+            return chain.filter(limited)
+                    .onErrorResume(BodySizeLimitGatewayFilterFactory::isTooLarge, e -> {
+                        rejectedByStream.increment();
+                        if (exchange.getResponse().isCommitted()) {
+                            return Mono.error(e);
+                        }
+                        return reject(exchange, maxBytes);
+                    });
+        };
+    }
+
+    private Counter rejectedCounter(String routeId, String stage) {
+        return Counter.builder(REJECTED)
+                .description("본문 크기 한도 초과로 거절한 요청 수")
+                .tags("route", routeId, "stage", stage)
+                .register(registry);
+    }
+
+    /**
+     * 라우팅 필터가 전송 오류를 감쌀 수 있으므로 원인까지 확인한다.
+     */
+    private static boolean isTooLarge(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof BodyTooLargeException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long maxBytes) {
+        DataBuffer body = GatewayErrorResponses.PAYLOAD_TOO_LARGE.render(
+                exchange.getResponse().bufferFactory(), maxBytes, System.currentTimeMillis());
+        return GatewayErrorResponses.write(exchange.getResponse(), HttpStatus.PAYLOAD_TOO_LARGE, body);
+    }
+
+    /**
+     * 구독할 때마다 0 부터 바이트 수를 세는 요청 본문
+     */
+    private static final class LimitedRequest extends ServerHttpRequestDecorator {
+
+        private final long maxBytes;
+
+        LimitedRequest(ServerHttpRequest delegate, long maxBytes) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> {
+                long[] received = {0};
+                return super.getBody().handle((buffer, sink) -> {
+                    received[0] += buffer.readableByteCount();
+                    if (received[0] > maxBytes) {
+                        DataBufferUtils.release(buffer);
+                        sink.error(new BodyTooLargeException(maxBytes));
+                        return;
+                    }
+                    sink.next(buffer);
+                });
+            });
+        }
+    }
+
+    /**
+     * 스트리밍 중 한도를 넘었음을 알리는 신호 (스택 트레이스 불필요)
+     */
+    static final class BodyTooLargeException extends RuntimeException {
+
+        BodyTooLargeException(long maxBytes) {
+            super("Request body exceeds " + maxBytes + " bytes", null, false, false);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+        private String routeId;
+    }
+}
@@ -0,0 +1,84 @@
+package commerce.gateway.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 응답 Cache-Control 지시자 (RFC 9111, RFC 5861)
+ * 알 수 없는 지시자는 무시하고, 값이 잘못된 delta-seconds 는 없는 것으로 본다.
+ *
+ * @param maxAge / sMaxAge / staleWhileRevalidate / staleIfError 지정되지 않았으면 null
+ */
+record CacheDirectives(boolean noStore,
+                       boolean noCache,
+                       boolean privateResponse,
+                       boolean publicResponse,
+                       boolean mustRevalidate,
+                       Duration maxAge,
+                       Duration sMaxAge,
+                       Duration staleWhileRevalidate,
+                       Duration staleIfError) {
+
+    static final CacheDirectives NONE = new CacheDirectives(false, false, false, false, false, null, null, null, null);
+
+    static CacheDirectives parse(List<String> headerValues) {
+        if (headerValues == null || headerValues.isEmpty()) {
+            return NONE;
+        }
+
+        boolean noStore = false, noCache = false, privateResponse = false, publicResponse = false, mustRevalidate = false;
+        Duration maxAge = null, sMaxAge = null, staleWhileRevalidate = null, staleIfError = null;
+
+        for (String headerValue : headerValues) {
+            for (String token : headerValue.split(",")) {
+                String directive = token.trim();
+                if (directive.isEmpty()) {
+                    continue;
+                }
+
+                int eq = directive.indexOf('=');
+                String name = (eq < 0 ? directive : directive.substring(0, eq)).trim().toLowerCase();
+                String value = eq < 0 ? null : directive.substring(eq + 1).trim();
+
+                switch (name) {
+                    case "no-store" -> noStore = true;
+                    case "no-cache" -> noCache = true;
+                    case "private" -> privateResponse = true;
+                    case "public" -> publicResponse = true;
+                    case "must-revalidate", "proxy-revalidate" -> mustRevalidate = true;
+                    case "max-age" -> maxAge = seconds(value);
+                    case "s-maxage" -> sMaxAge = seconds(value);
+                    case "stale-while-revalidate" -> staleWhileRevalidate = seconds(value);
+                    case "stale-if-error" -> staleIfError = seconds(value);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return new CacheDirectives(noStore, noCache, privateResponse, publicResponse, mustRevalidate,
+                maxAge, sMaxAge, staleWhileRevalidate, staleIfError);
+    }
+
+    /**
+     * 공유 캐시 기준 신선도 (s-maxage 우선)
+     */
+    Duration sharedMaxAge() {
+        return sMaxAge != null ? sMaxAge : maxAge;
+    }
+
+    private static Duration seconds(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds >= 0 ? Duration.ofSeconds(seconds) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package commerce.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 업스트림 응답 스냅샷
+ * 캐시에 저장된 응답(shared = true)과, 저장하지 않고 대기 중인 요청에게만 전달할 응답(shared = false)을 함께 표현한다.
+ * streamed = true 는 본문을 모으지 않고 조회를 시작한 요청에 바로 흘려보낸 응답으로, 상태 코드만 담는다.
+ *
+ * 시각은 모두 epoch millis
+ *   storedAt ~ freshUntil                 : 신선 (업스트림 호출 없이 응답)
+ *   freshUntil ~ staleWhileRevalidateUntil: 만료 응답을 즉시 내보내고 백그라운드에서 갱신
+ *   freshUntil ~ staleIfErrorUntil        : 업스트림 장애 시 만료 응답으로 대체
+ */
+record CachedResponse(int status,
+                      HttpHeaders headers,
+                      byte[] body,
+                      String etag,
+                      long storedAt,
+                      long freshUntil,
+                      long staleWhileRevalidateUntil,
+                      long staleIfErrorUntil,
+                      boolean shared,
+                      boolean streamed) {
+
+    private static final int ENTRY_OVERHEAD = 128;
+
+    static CachedResponse uncached(int status, HttpHeaders headers, byte[] body, long now) {
+        return new CachedResponse(status, headers, body, null, now, now, now, now, false, false);
+    }
+
+    static CachedResponse streamed(int status, long now) {
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(new HttpHeaders()), new byte[0],
+                null, now, now, now, now, false, true);
+    }
+
+    boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    boolean canServeWhileRevalidating(long now) {
+        return now < staleWhileRevalidateUntil;
+    }
+
+    boolean canServeOnError(long now) {
+        return now < staleIfErrorUntil;
+    }
+
+    /**
+     * 캐시에서 유지해야 하는 마지막 시각
+     */
+    long retainUntil() {
+        return Math.max(staleWhileRevalidateUntil, staleIfErrorUntil);
+    }
+
+    /**
+     * 캐시 용량 계산용 크기 (본문 + 헤더 + 고정 오버헤드)
+     */
+    int weight() {
+        int size = ENTRY_OVERHEAD + body.length;
+        for (var header : headers.entrySet()) {
+            size += header.getKey().length();
+            for (String value : header.getValue()) {
+                size += value.length();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,142 @@
+package commerce.gateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 업스트림 응답을 클라이언트에 쓰지 않고 메모리에 모으는 응답 객체
+ * 라우팅 필터(NettyWriteResponseFilter)가 이 객체에 상태/헤더/본문을 쓰면, 캐시 필터가 그 결과를 저장하고 클라이언트에 내보낸다.
+ * 헤더는 원본 응답과 분리되어 있어 백그라운드 갱신 중에도 클라이언트 응답에 영향을 주지 않는다.
+ *
+ * 본문은 도착하는 대로 크기를 세며 maxBodySize 까지만 모은다.
+ * 헤더만으로 저장할 수 없는 응답이거나 본문이 한도를 넘으면 더 모으지 않고(streamed) 받은 부분부터 client 로 그대로 흘려보낸다.
+ * client 가 없으면(백그라운드 갱신) 나머지 본문은 읽고 버린다.
+ */
+@Slf4j
+final class CapturingServerHttpResponse extends AbstractServerHttpResponse {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final long maxBodySize;
+    private final Predicate<CapturingServerHttpResponse> capture;
+    private final ServerHttpResponse client; // 없으면 null
+
+    private byte[] body = EMPTY;
+    private volatile boolean streamed;
+
+    /**
+     * @param capture 상태/헤더가 정해진 뒤 본문을 모을지 판단 (false 면 바로 흘려보낸다)
+     * @param client  모으지 않는 응답을 흘려보낼 클라이언트 응답 (없으면 null)
+     */
+    CapturingServerHttpResponse(DataBufferFactory bufferFactory, long maxBodySize,
+                                Predicate<CapturingServerHttpResponse> capture, ServerHttpResponse client) {
+        super(bufferFactory);
+        this.maxBodySize = maxBodySize;
+        this.capture = capture;
+        this.client = client;
+    }
+
+    int status() {
+        HttpStatusCode statusCode = getStatusCode();
+        return statusCode != null ? statusCode.value() : 200;
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    /**
+     * 본문을 모으지 않고 흘려보냈는지 여부 (true 면 body() 는 비어 있다)
+     */
+    boolean streamed() {
+        return streamed;
+    }
+
+    @Override
+    protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> publisher) {
+        Flux<DataBuffer> source = Flux.from(publisher);
+        if (!capture.test(this)) {
+            return stream(source);
+        }
+
+        long[] received = {0};
+        return source
+                // 한도 안이면 본문 전체가 한 묶음으로, 넘으면 넘은 순간까지가 첫 묶음이 되고 이후는 하나씩 나온다
+                .bufferUntil(buffer -> (received[0] += buffer.readableByteCount()) > maxBodySize)
+                .switchOnFirst((first, chunks) -> received[0] > maxBodySize
+                        ? stream(chunks.concatMapIterable(chunk -> chunk))
+                        : chunks.doOnNext(this::keep).then())
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .then();
+    }
+
+    private void keep(List<DataBuffer> buffers) {
+        int size = 0;
+        for (DataBuffer buffer : buffers) {
+            size += buffer.readableByteCount();
+        }
+
+        byte[] bytes = new byte[size];
+        int position = 0;
+        for (DataBuffer buffer : buffers) {
+            try {
+                int length = buffer.readableByteCount();
+                buffer.read(bytes, position, length);
+                position += length;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+        body = bytes;
+    }
+
+    private Mono<Void> stream(Flux<DataBuffer> source) {
+        streamed = true;
+        if (client == null) {
+            return source.doOnNext(DataBufferUtils::release).then();
+        }
+
+        client.setStatusCode(getStatusCode());
+        getHeaders().forEach(client.getHeaders()::put);
+        return client.writeWith(source)
+                .onErrorResume(e -> {
+                    // 클라이언트 연결이 끊겨도 같은 키를 기다리는 요청은 직접 업스트림을 호출하므로 실패를 전파하지 않는다
+                    log.debug("엣지 캐시 우회 응답 전송 중단: {}", e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> publisher) {
+        return writeWithInternal(Flux.from(publisher).concatMap(Flux::from));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getNativeResponse() {
+        return (T) this;
+    }
+
+    @Override
+    protected void applyStatusCode() {
+    }
+
+    @Override
+    protected void applyHeaders() {
+    }
+
+    @Override
+    protected void applyCookies() {
+    }
+}
@@ -0,0 +1,216 @@
+package commerce.gateway.cache;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.i18n.LocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 엣지 캐시 요청 처리
+ * - 신선한 응답: 업스트림 호출 없이 응답 (X-Cache: HIT)
+ * - stale-while-revalidate 구간: 만료 응답을 즉시 내보내고 백그라운드에서 한 번만 갱신 (X-Cache: STALE)
+ * - 미스: 같은 키의 동시 요청을 업스트림 호출 하나로 병합 (X-Cache: MISS)
+ *   기존 응답에 ETag 가 있으면 If-None-Match 로 재검증하고, 업스트림 장애 시 stale-if-error 구간의 응답으로 대체 (X-Cache: STALE)
+ *   저장할 수 없거나 응답당 최대 크기를 넘는 응답은 메모리에 모으지 않고 조회를 시작한 요청에 그대로 흘려보낸다.
+ *
+ * 캐시 키: 라우트 ID + 원본 경로/쿼리 + Accept-Encoding (RewritePath 등 라우트 필터보다 먼저 실행되므로 원본 경로 기준)
+ */
+final class EdgeCacheFilter implements GatewayFilter {
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // 백그라운드 갱신 교환 객체용 (세션/폼 데이터는 쓰지 않는다)
+    private static final WebSessionManager SESSIONS = new DefaultWebSessionManager();
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final LocaleContextResolver LOCALES = new AcceptHeaderLocaleContextResolver();
+
+    private final EdgeResponseCache cache;
+    private final Duration ttl;
+
+    EdgeCacheFilter(EdgeResponseCache cache, Duration ttl) {
+        this.cache = cache;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+
+        if (request.getMethod() != HttpMethod.GET) {
+            cache.record(routeId, "bypass");
+            return chain.filter(exchange);
+        }
+
+        String key = key(routeId, request);
+        long now = cache.now();
+        CachedResponse entry = cache.get(key);
+
+        if (entry != null && entry.isFresh(now)) {
+            cache.record(routeId, "hit");
+            return write(exchange, entry, "HIT", now);
+        }
+
+        if (entry != null && entry.canServeWhileRevalidating(now)) {
+            cache.record(routeId, "stale");
+            return Mono.deferContextual(context -> {
+                cache.load(key, () -> revalidate(exchange, chain, key, entry), context); // 결과를 기다리지 않음
+                return write(exchange, entry, "STALE", now);
+            });
+        }
+
+        return Mono.deferContextual(context -> {
+            EdgeResponseCache.Load load = cache.load(key, () -> fetch(exchange, chain, key, entry), context);
+            return Mono.fromFuture(load.result(), true)
+                    .onErrorResume(e -> entry != null && entry.canServeOnError(cache.now()) ? Mono.just(entry) : Mono.error(e))
+                    .flatMap(response -> {
+                        if (response.streamed() && load.leader()) {
+                            cache.record(routeId, "miss"); // 이미 클라이언트에 흘려보냈다
+                            return Mono.empty();
+                        }
+                        // 공유할 수 없는 응답(private, Vary, 최대 크기 초과 등)을 기다린 요청은 직접 업스트림을 호출한다
+                        if (!load.leader() && (response.streamed() || !response.shared() && response.status() < 500)) {
+                            cache.record(routeId, "bypass");
+                            return chain.filter(exchange);
+                        }
+
+                        long writtenAt = cache.now();
+                        boolean staleOnError = response.shared() && !response.isFresh(writtenAt);
+                        cache.record(routeId, staleOnError ? "stale_if_error" : load.leader() ? "miss" : "coalesced");
+                        return write(exchange, response, staleOnError ? "STALE" : "MISS", writtenAt);
+                    });
+        });
+    }
+
+    /**
+     * 업스트림 호출
+     * 응답은 분리된 CapturingServerHttpResponse 에 모은 뒤 캐시 정책에 따라 저장한다.
+     * 저장할 수 없는 응답은 모으지 않고 클라이언트 응답에 바로 흘려보낸다.
+     * 클라이언트의 조건부 헤더는 전달하지 않고(캐시에는 전체 본문이 필요), 기존 응답의 ETag 로 재검증한다.
+     */
+    private Mono<CachedResponse> fetch(ServerWebExchange exchange, GatewayFilterChain chain, String key, CachedResponse previous) {
+        ServerHttpResponse client = exchange.getResponse();
+        CapturingServerHttpResponse captured = capture(exchange, previous, client);
+        client.getHeaders().set(CACHE_STATUS_HEADER, "MISS"); // 흘려보내는 응답에도 남도록 (캐시 응답을 쓸 때 덮어쓴다)
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> conditionalHeaders(headers, previous))
+                .build();
+        return forward(exchange.mutate().request(request).response(captured).build(), chain, key, previous, captured);
+    }
+
+    /**
+     * stale-while-revalidate 백그라운드 갱신
+     * 클라이언트에는 이미 만료 응답을 내보냈으므로 클라이언트 교환 객체를 재사용하지 않고,
+     * 요청을 복사한 새 교환 객체(속성은 사본)로 업스트림을 호출한다. 저장하지 않는 본문은 읽고 버린다.
+     */
+    private Mono<CachedResponse> revalidate(ServerWebExchange exchange, GatewayFilterChain chain, String key, CachedResponse previous) {
+        CapturingServerHttpResponse captured = capture(exchange, previous, null);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(exchange.getRequest().getHeaders());
+        conditionalHeaders(headers, previous);
+        DefaultServerWebExchange background = new DefaultServerWebExchange(new RevalidationRequest(exchange.getRequest(), headers),
+                captured, SESSIONS, CODECS, LOCALES);
+        background.getAttributes().putAll(exchange.getAttributes());
+
+        return forward(background, chain, key, previous, captured);
+    }
+
+    private CapturingServerHttpResponse capture(ServerWebExchange exchange, CachedResponse previous, ServerHttpResponse client) {
+        boolean authorized = exchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+        return new CapturingServerHttpResponse(exchange.getResponse().bufferFactory(), cache.maxEntrySize(),
+                response -> cache.shouldCapture(response.status(), response.getHeaders(), previous, authorized), client);
+    }
+
+    private Mono<CachedResponse> forward(ServerWebExchange upstream, GatewayFilterChain chain, String key,
+                                         CachedResponse previous, CapturingServerHttpResponse captured) {
+        boolean authorized = upstream.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+        return chain.filter(upstream)
+                .then(Mono.fromSupplier(() -> captured.streamed()
+                        ? CachedResponse.streamed(captured.status(), cache.now())
+                        : cache.onUpstreamResponse(key, captured.status(), captured.getHeaders(), captured.body(),
+                                previous, ttl, authorized)));
+    }
+
+    private static void conditionalHeaders(HttpHeaders headers, CachedResponse previous) {
+        headers.remove(HttpHeaders.IF_NONE_MATCH);
+        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        if (previous != null && previous.etag() != null) {
+            headers.setIfNoneMatch(previous.etag());
+        }
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus, long now) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach(headers::put);
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        if (cached.shared()) {
+            headers.set(HttpHeaders.AGE, Long.toString(Math.max(0, now - cached.storedAt()) / 1000));
+        }
+
+        if (cached.status() == 200 && notModified(exchange.getRequest(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean notModified(ServerHttpRequest request, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if (candidate.equals("*") || opaque(candidate).equals(opaque(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-None-Match 는 약한 비교 (W/ 접두사 무시)
+     */
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String key(String routeId, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+
+        StringBuilder key = new StringBuilder(64)
+                .append(routeId).append(' ')
+                .append(request.getURI().getRawPath());
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (acceptEncoding != null) {
+            key.append(' ').append(acceptEncoding);
+        }
+        return key.toString();
+    }
+}
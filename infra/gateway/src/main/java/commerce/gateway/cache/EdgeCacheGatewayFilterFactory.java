@@ -0,0 +1,54 @@
+package commerce.gateway.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 라우트별 엣지 응답 캐시 필터 (opt-in)
+ * <pre>
+ * filters:
+ *   - EdgeCache        # 업스트림이 신선도를 주지 않으면 gateway.edge-cache.default-ttl
+ *   - EdgeCache=30s    # 이 라우트의 기본 신선도
+ * </pre>
+ * 업스트림 응답을 가로채야 하므로 NettyWriteResponseFilter 보다 먼저 실행된다.
+ */
+@Component
+public class EdgeCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<EdgeCacheGatewayFilterFactory.Config> {
+
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final EdgeResponseCache cache;
+
+    public EdgeCacheGatewayFilterFactory(EdgeResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter(new EdgeCacheFilter(cache, config.getTtl()), ORDER);
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        /**
+         * 업스트림이 max-age / s-maxage 를 주지 않았을 때의 신선도 (null 이면 전역 기본값)
+         */
+        private Duration ttl;
+    }
+}
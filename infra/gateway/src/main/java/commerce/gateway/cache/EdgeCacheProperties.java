@@ -0,0 +1,47 @@
+package commerce.gateway.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 엣지 응답 캐시 운영 설정 (gateway.edge-cache.*)
+ * 캐시는 라우트의 filters 에 EdgeCache 를 추가한 라우트에만 적용된다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.edge-cache")
+public class EdgeCacheProperties {
+
+    /**
+     * 캐시 전체 최대 크기 (본문 + 헤더)
+     * 초과 시 W-TinyLFU 정책으로 사용 빈도가 낮은 응답부터 제거된다.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 응답 하나의 최대 크기, 이보다 큰 응답은 저장하지 않는다.
+     */
+    private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+
+    /**
+     * 업스트림이 max-age / s-maxage 를 주지 않았을 때의 신선도 유지 시간
+     * 라우트 필터 인자(EdgeCache=30s)로 라우트별로 바꿀 수 있다.
+     */
+    private Duration defaultTtl = Duration.ofSeconds(10);
+
+    /**
+     * 신선도가 지난 뒤에도 즉시 응답하고 백그라운드에서 갱신하는 시간
+     * 업스트림의 stale-while-revalidate 지시자가 있으면 그 값을 쓴다.
+     */
+    private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+
+    /**
+     * 업스트림 장애(연결 실패, 5xx) 시 만료된 응답을 대신 내보낼 수 있는 시간
+     * 업스트림의 stale-if-error 지시자가 있으면 그 값을 쓴다.
+     */
+    private Duration staleIfError = Duration.ofMinutes(5);
+}
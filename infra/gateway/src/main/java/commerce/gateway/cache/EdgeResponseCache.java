@@ -0,0 +1,270 @@
+package commerce.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 엣지 응답 캐시 저장소
+ * - 저장: Caffeine (전체 바이트 기준 W-TinyLFU 제거, stale 허용 시간이 끝나면 만료)
+ * - 요청 병합: 같은 키의 업스트림 조회는 동시에 하나만 실행하고 나머지 요청은 그 결과를 기다린다.
+ * - 저장 정책: 업스트림 Cache-Control / ETag / Vary 를 따른다. (RFC 9111 공유 캐시 기준)
+ *
+ * 지표
+ * - cache.*{cache=edgeResponseCache}: Caffeine 통계
+ * - gateway.edgecache.requests{route, result=hit|stale|miss|coalesced|stale_if_error|bypass}
+ * - gateway.edgecache.size: 저장된 응답 크기 합 (bytes)
+ */
+@Slf4j
+@Component
+public class EdgeResponseCache {
+
+    static final String CACHE_NAME = "edgeResponseCache";
+    static final String REQUESTS = "gateway.edgecache.requests";
+
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE,
+            HttpHeaders.TRAILER, HttpHeaders.UPGRADE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.AGE);
+
+    private final EdgeCacheProperties properties;
+    private final Clock clock;
+    private final MeterRegistry registry;
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EdgeResponseCache(EdgeCacheProperties properties, MeterRegistry registry) {
+        this(properties, registry, Clock.systemUTC());
+    }
+
+    EdgeResponseCache(EdgeCacheProperties properties, MeterRegistry registry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.registry = registry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .expireAfter(new UntilStaleLimit(clock))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        Gauge.builder("gateway.edgecache.size", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .description("엣지 캐시에 저장된 응답 크기 합")
+                .baseUnit("bytes")
+                .register(registry);
+
+        log.info("엣지 응답 캐시 초기화 완료 - 최대 크기: {}, 응답당 최대: {}", properties.getMaxSize(), properties.getMaxEntrySize());
+    }
+
+    long now() {
+        return clock.millis();
+    }
+
+    CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 같은 키의 업스트림 조회를 하나로 병합한다.
+     * 진행 중인 조회가 없으면 upstream 을 구독해 결과를 공유하고(leader), 있으면 그 결과를 기다린다.
+     * 조회는 요청과 분리되어 구독되므로 먼저 온 클라이언트가 연결을 끊어도 나머지 요청과 캐시 갱신은 계속된다.
+     */
+    Load load(String key, Supplier<Mono<CachedResponse>> upstream, ContextView context) {
+        CompletableFuture<CachedResponse> created = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return new Load(existing, false);
+        }
+
+        upstream.get()
+                .contextWrite(context)
+                .doFinally(signal -> inFlight.remove(key, created))
+                .subscribe(created::complete, created::completeExceptionally,
+                        () -> created.completeExceptionally(new IllegalStateException("Upstream completed without a response")));
+        return new Load(created, true);
+    }
+
+    /**
+     * 업스트림 응답을 저장 정책에 따라 캐시에 넣는다.
+     *
+     * @param previous        갱신 대상 기존 응답 (없으면 null)
+     * @param ttl             업스트림이 신선도를 주지 않았을 때 쓸 라우트별 시간 (null 이면 기본값)
+     * @param authorizedRequest 요청에 Authorization 헤더가 있었는지 여부
+     * @return 클라이언트에 내보낼 응답
+     */
+    CachedResponse onUpstreamResponse(String key, int status, HttpHeaders upstreamHeaders, byte[] body,
+                                      CachedResponse previous, Duration ttl, boolean authorizedRequest) {
+        long now = now();
+
+        if (status == 304 && previous != null) {
+            // 재검증 성공: 기존 본문을 유지하고 304 응답의 헤더로 신선도를 갱신
+            HttpHeaders merged = new HttpHeaders();
+            merged.addAll(previous.headers());
+            upstreamHeaders.forEach((name, values) -> {
+                if (!isHopByHop(name)) {
+                    merged.put(name, values);
+                }
+            });
+            return store(key, previous.status(), merged, previous.body(), ttl, authorizedRequest, now);
+        }
+
+        if (status >= 500 && previous != null && previous.canServeOnError(now)) {
+            return previous;
+        }
+
+        return store(key, status, upstreamHeaders, body, ttl, authorizedRequest, now);
+    }
+
+    private CachedResponse store(String key, int status, HttpHeaders upstreamHeaders, byte[] body,
+                                 Duration ttl, boolean authorizedRequest, long now) {
+        HttpHeaders headers = new HttpHeaders();
+        upstreamHeaders.forEach((name, values) -> {
+            if (!isHopByHop(name)) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        HttpHeaders readOnly = HttpHeaders.readOnlyHttpHeaders(headers);
+
+        CacheDirectives directives = CacheDirectives.parse(headers.get(HttpHeaders.CACHE_CONTROL));
+        if (!isStorable(status, headers, body.length, directives, authorizedRequest)) {
+            return CachedResponse.uncached(status, readOnly, body, now);
+        }
+
+        Duration maxAge = directives.sharedMaxAge();
+        Duration freshFor = directives.noCache() ? Duration.ZERO
+                : maxAge != null ? maxAge
+                : ttl != null ? ttl : properties.getDefaultTtl();
+
+        boolean allowStale = !directives.noCache() && !directives.mustRevalidate();
+        Duration whileRevalidate = !allowStale ? Duration.ZERO
+                : directives.staleWhileRevalidate() != null ? directives.staleWhileRevalidate() : properties.getStaleWhileRevalidate();
+        Duration ifError = !allowStale ? Duration.ZERO
+                : directives.staleIfError() != null ? directives.staleIfError() : properties.getStaleIfError();
+
+        long freshUntil = now + freshFor.toMillis();
+        CachedResponse entry = new CachedResponse(status, readOnly, body, headers.getETag(), now, freshUntil,
+                freshUntil + whileRevalidate.toMillis(), freshUntil + ifError.toMillis(), true, false);
+
+        if (entry.retainUntil() <= now) {
+            return CachedResponse.uncached(status, readOnly, body, now); // no-cache 등 보관할 이유가 없는 응답
+        }
+        cache.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * 업스트림 응답 헤더만 보고 본문을 메모리에 모을지 판단한다. (false 면 모으지 않고 클라이언트로 바로 흘려보낸다)
+     * - 200: 저장할 수 있는 응답 (Content-Length 를 알면 응답당 최대 크기 이하)
+     * - 304: 기존 응답 재검증
+     * - 5xx: stale-if-error 대체, 또는 대기 중인 요청과 공유
+     */
+    boolean shouldCapture(int status, HttpHeaders upstreamHeaders, CachedResponse previous, boolean authorizedRequest) {
+        if (status == 304) {
+            return previous != null;
+        }
+        if (status >= 500) {
+            return true;
+        }
+        CacheDirectives directives = CacheDirectives.parse(upstreamHeaders.get(HttpHeaders.CACHE_CONTROL));
+        return isStorable(status, upstreamHeaders, upstreamHeaders.getContentLength(), directives, authorizedRequest);
+    }
+
+    /**
+     * 응답 하나의 최대 크기 (bytes), 이보다 큰 본문은 모으지 않는다.
+     */
+    long maxEntrySize() {
+        return properties.getMaxEntrySize().toBytes();
+    }
+
+    /**
+     * @param bodyLength 본문 크기 (모르면 음수)
+     */
+    private boolean isStorable(int status, HttpHeaders headers, long bodyLength, CacheDirectives directives, boolean authorizedRequest) {
+        if (status != 200 || directives.noStore() || directives.privateResponse()) {
+            return false;
+        }
+        if (bodyLength > maxEntrySize() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        // 키에 Accept-Encoding 만 포함하므로 그 외 Vary 는 저장하지 않는다
+        for (String vary : headers.getVary()) {
+            if (!vary.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) {
+                return false;
+            }
+        }
+        // RFC 9111 3.5: 인증된 요청의 응답은 업스트림이 명시적으로 허용한 경우에만 공유
+        return !authorizedRequest || directives.publicResponse() || directives.sMaxAge() != null || directives.mustRevalidate();
+    }
+
+    private static boolean isHopByHop(String name) {
+        for (String header : HOP_BY_HOP_HEADERS) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void record(String routeId, String result) {
+        Counter counter = counters.get(routeId + ':' + result);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(routeId + ':' + result, k -> Counter.builder(REQUESTS)
+                    .description("엣지 캐시 요청 결과")
+                    .tags("route", routeId, "result", result)
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    /**
+     * 병합된 업스트림 조회
+     *
+     * @param leader 이 요청이 조회를 시작했는지 여부
+     */
+    record Load(CompletableFuture<CachedResponse> result, boolean leader) {
+    }
+
+    /**
+     * stale 허용 시간(stale-while-revalidate, stale-if-error 중 긴 쪽)까지 캐시
+     */
+    private record UntilStaleLimit(Clock clock) implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            long millis = value.retainUntil() - clock.millis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package commerce.gateway.cache;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.AbstractServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.SslInfo;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 백그라운드 갱신용 GET 요청
+ * 클라이언트 요청의 URI/헤더/주소를 복사해 만들며, 원본 요청 객체(Netty 요청)를 참조하지 않으므로
+ * 클라이언트 응답이 끝난 뒤에도 안전하게 업스트림에 보낼 수 있다.
+ */
+final class RevalidationRequest extends AbstractServerHttpRequest {
+
+    private final MultiValueMap<String, HttpCookie> cookies;
+    private final SslInfo sslInfo;
+    private final InetSocketAddress remoteAddress;
+    private final InetSocketAddress localAddress;
+
+    RevalidationRequest(ServerHttpRequest original, HttpHeaders headers) {
+        super(HttpMethod.GET, original.getURI(), original.getPath().contextPath().value(), headers);
+        this.cookies = new LinkedMultiValueMap<>(original.getCookies());
+        this.sslInfo = original.getSslInfo();
+        this.remoteAddress = original.getRemoteAddress();
+        this.localAddress = original.getLocalAddress();
+    }
+
+    @Override
+    protected MultiValueMap<String, HttpCookie> initCookies() {
+        return cookies;
+    }
+
+    @Override
+    protected SslInfo initSslInfo() {
+        return sslInfo;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    @Override
+    public Flux<DataBuffer> getBody() {
+        return Flux.empty();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getNativeRequest() {
+        return (T) this;
+    }
+}
@@ -0,0 +1,180 @@
+package commerce.gateway.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 지연 시간 기반 적응형 동시 처리 한도 (Netflix concurrency-limits 의 Gradient2 방식)
+ * 윈도우마다 평균 응답 시간(shortRtt)을 장기 평균(longRtt)과 비교해 한도를 조정한다.
+ *   gradient = clamp(TOLERANCE x longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit = limit x gradient + sqrt(limit)
+ * 지연이 늘면(큐잉 발생) gradient 가 1 보다 작아져 한도가 줄고, 지연이 그대로면 sqrt(limit) 만큼 늘어난다.
+ * 윈도우 안에 실패(연결 실패, 502~504)가 있으면 AIMD 처럼 한도를 곱으로 줄인다.
+ *
+ * 획득/반납은 CAS 한 번, 한도 계산은 윈도우가 끝났을 때 tryLock 을 얻은 한 스레드만 수행한다.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;      // 장기 평균 대비 허용 지연 비율
+    private static final double SMOOTHING = 0.2;      // 새 한도 반영 비율
+    private static final double DROP_BACKOFF = 0.9;   // 실패가 있던 윈도우의 한도 감소 비율
+    private static final int LONG_WINDOW = 100;       // longRtt 지수 이동 평균 기간 (윈도우 수)
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // 현재 윈도우 집계
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long windowEnd;
+
+    // 한도 계산 상태 (updateLock 보유 시에만 접근)
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private double estimatedLimit;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, LongSupplier nanoClock) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.windowEnd = nanoClock.getAsLong() + WINDOW_NANOS;
+    }
+
+    /**
+     * @return 한도에 도달했으면 null
+     */
+    Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > maxInFlight.get()) {
+                    maxInFlight.accumulateAndGet(current + 1, Math::max);
+                }
+                return new Permit(nanoClock.getAsLong());
+            }
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    boolean hasBounds(int minLimit, int maxLimit) {
+        return this.minLimit == minLimit && this.maxLimit == maxLimit;
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        inFlight.decrementAndGet();
+
+        long now = nanoClock.getAsLong();
+        switch (outcome) {
+            case SUCCESS -> {
+                rttSum.add(now - permit.startNanos);
+                samples.increment();
+            }
+            case DROPPED -> drops.increment();
+            case IGNORED -> {
+                return; // 클라이언트 취소 등 백엔드 지연과 무관한 종료
+            }
+        }
+
+        if (now - windowEnd >= 0 && updateLock.tryLock()) {
+            try {
+                if (now - windowEnd >= 0) {
+                    updateLimit(now);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void updateLimit(long now) {
+        long count = samples.sum();
+        long dropCount = drops.sum();
+        if (count < MIN_WINDOW_SAMPLES && dropCount == 0) {
+            return; // 표본이 모일 때까지 윈도우를 연장
+        }
+
+        long sum = rttSum.sumThenReset();
+        samples.reset();
+        drops.reset();
+        int peakInFlight = maxInFlight.getAndSet(inFlight.get());
+        windowEnd = now + WINDOW_NANOS;
+
+        double next = estimatedLimit;
+        if (count > 0) {
+            double shortRtt = (double) sum / count;
+            if (longRtt == 0) {
+                longRtt = shortRtt;
+            } else {
+                longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+            }
+            // 지연이 크게 줄어든 뒤에는 장기 평균이 빨리 따라오도록 한다
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+
+            // 한도의 절반도 쓰지 않았다면 지연 변화와 무관하게 한도를 늘리지 않는다
+            boolean appLimited = peakInFlight * 2 < estimatedLimit;
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+            double candidate = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            if (!appLimited || candidate < estimatedLimit) {
+                next = estimatedLimit * (1 - SMOOTHING) + candidate * SMOOTHING;
+            }
+        }
+        if (dropCount > 0) {
+            next = Math.min(next, estimatedLimit * DROP_BACKOFF);
+        }
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    /**
+     * 획득한 처리 슬롯, 요청이 끝나면 한 번만 반납한다.
+     */
+    final class Permit {
+
+        private final long startNanos;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void release(Outcome outcome) {
+            AdaptiveConcurrencyLimiter.this.release(this, outcome);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package commerce.gateway.concurrency;
+
+import commerce.gateway.response.GatewayErrorResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * 라우트별 적응형 동시 처리 한도 (Bulkhead)
+ * 라우트마다 독립된 AdaptiveConcurrencyLimiter 를 두어 느린 백엔드 하나가 게이트웨이의 연결과 이벤트 루프를 모두 점유하지 못하게 한다.
+ * 한도에 도달하면 대기 없이 즉시 503 으로 거절한다.
+ * <pre>
+ * default-filters:
+ *   - ConcurrencyLimit           # 기본값 (초기 20, 최소 5, 최대 200)
+ * filters:
+ *   - ConcurrencyLimit=50,500    # initialLimit, maxLimit
+ * </pre>
+ * 지표
+ * - gateway.concurrency.limit{route}: 현재 한도
+ * - gateway.concurrency.inflight{route}: 처리 중인 요청 수
+ * - gateway.concurrency.rejected{route}: 한도 초과로 거절한 요청 수
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<ConcurrencyLimitGatewayFilterFactory.Config> {
+
+    static final String LIMIT = "gateway.concurrency.limit";
+    static final String IN_FLIGHT = "gateway.concurrency.inflight";
+    static final String REJECTED = "gateway.concurrency.rejected";
+    static final String UNKNOWN_ROUTE = "unknown";
+
+    private final MeterRegistry registry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitGatewayFilterFactory(MeterRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("initialLimit", "maxLimit");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : UNKNOWN_ROUTE;
+        AdaptiveConcurrencyLimiter limiter = limiterFor(routeId, config);
+        Counter rejected = Counter.builder(REJECTED)
+                .description("동시 처리 한도 초과로 거절한 요청 수")
+                .tag("route", routeId)
+                .register(registry);
+
+        return (exchange, chain) -> {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+            if (permit == null) {
+                rejected.increment();
+                return shed(exchange, routeId);
+            }
+            return chain.filter(exchange)
+                    .doFinally(signal -> permit.release(outcome(exchange, signal)));
+        };
+    }
+
+    /**
+     * 라우트 설정이 갱신되어도 한도가 같으면 기존 Limiter(학습된 한도)를 유지한다.
+     */
+    private AdaptiveConcurrencyLimiter limiterFor(String routeId, Config config) {
+        AdaptiveConcurrencyLimiter limiter = limiters.compute(routeId, (id, existing) ->
+                existing != null && existing.hasBounds(config.getMinLimit(), config.getMaxLimit())
+                        ? existing
+                        : new AdaptiveConcurrencyLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit()));
+
+        Gauge.builder(LIMIT, limiters, m -> current(m, routeId, AdaptiveConcurrencyLimiter::getLimit))
+                .description("라우트별 동시 처리 한도")
+                .tag("route", routeId)
+                .register(registry);
+        Gauge.builder(IN_FLIGHT, limiters, m -> current(m, routeId, AdaptiveConcurrencyLimiter::getInFlight))
+                .description("라우트별 처리 중인 요청 수")
+                .tag("route", routeId)
+                .register(registry);
+
+        log.info("라우트 동시 처리 한도 설정 - route: {}, 초기: {}, 범위: {}~{}",
+                routeId, limiter.getLimit(), config.getMinLimit(), config.getMaxLimit());
+        return limiter;
+    }
+
+    private static double current(Map<String, AdaptiveConcurrencyLimiter> limiters, String routeId,
+                                  ToIntFunction<AdaptiveConcurrencyLimiter> value) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(routeId);
+        return limiter != null ? value.applyAsInt(limiter) : 0;
+    }
+
+    /**
+     * 연결 실패/타임아웃과 502~504 는 백엔드 과부하 신호로 보고, 클라이언트 취소는 표본에서 제외한다.
+     */
+    private static AdaptiveConcurrencyLimiter.Outcome outcome(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null && status.value() >= 502 && status.value() <= 504) {
+            return AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+        }
+        return AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+    }
+
+    private static Mono<Void> shed(ServerWebExchange exchange, String routeId) {
+        exchange.getResponse().getHeaders().set("Retry-After", "1");
+        DataBuffer body = GatewayErrorResponses.SERVICE_OVERLOADED.render(
+                exchange.getResponse().bufferFactory(), routeId, System.currentTimeMillis());
+        return GatewayErrorResponses.write(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, body);
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        private String routeId;
+    }
+}
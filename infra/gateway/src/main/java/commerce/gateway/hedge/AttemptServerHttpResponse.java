@@ -0,0 +1,47 @@
+package commerce.gateway.hedge;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * 헤지 시도별 응답 객체
+ * 라우팅 필터(NettyRoutingFilter)가 업스트림 상태/헤더를 이 객체에 쓰고, 이긴 시도의 값만 원본 응답으로 옮긴다.
+ * 본문은 NettyWriteResponseFilter 가 이긴 시도의 연결에서 원본 응답으로 직접 쓰므로 여기에는 쓰이지 않는다.
+ */
+final class AttemptServerHttpResponse extends AbstractServerHttpResponse {
+
+    AttemptServerHttpResponse(DataBufferFactory bufferFactory) {
+        super(bufferFactory);
+    }
+
+    @Override
+    protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+        return Mono.error(new IllegalStateException("hedge attempt response cannot be written"));
+    }
+
+    @Override
+    protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return Mono.error(new IllegalStateException("hedge attempt response cannot be written"));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getNativeResponse() {
+        return (T) this;
+    }
+
+    @Override
+    protected void applyStatusCode() {
+    }
+
+    @Override
+    protected void applyHeaders() {
+    }
+
+    @Override
+    protected void applyCookies() {
+    }
+}
@@ -0,0 +1,108 @@
+package commerce.gateway.hedge;
+
+import commerce.gateway.loadbalancer.LoadBalancerCall;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.netty.Connection;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * 업스트림 인스턴스 하나로 보내는 시도
+ * 원본 교환 객체의 속성과 응답을 공유하면 동시에 진행되는 두 시도가 서로의 라우팅 결과(CLIENT_RESPONSE_*)를 덮어쓰므로
+ * 시도마다 속성 맵과 응답 객체를 따로 두고, 이긴 시도만 promote 로 원본에 반영한다.
+ * GET/HEAD 만 헤지하므로 요청 본문은 보내지 않는다 (한 번만 구독할 수 있는 본문을 두 시도가 나눠 읽지 않도록).
+ * 로드밸런서가 고른 인스턴스면 그 LoadBalancerCall 로 시도의 완료/취소를 보고한다.
+ */
+final class HedgeAttempt extends ServerWebExchangeDecorator {
+
+    private final ServerWebExchange original;
+    private final ServerHttpRequest request;
+    private final AttemptServerHttpResponse response;
+    private final Map<String, Object> attributes;
+    private final LoadBalancerCall call; // 로드밸런서를 거치지 않은 주소면 null
+    private volatile boolean promoted;
+
+    HedgeAttempt(ServerWebExchange original, URI requestUrl, LoadBalancerCall call) {
+        super(original);
+        this.original = original;
+        this.request = new ServerHttpRequestDecorator(original.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.empty();
+            }
+        };
+        this.response = new AttemptServerHttpResponse(original.getResponse().bufferFactory());
+        this.attributes = new ConcurrentHashMap<>(original.getAttributes());
+        this.attributes.put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
+        this.call = call;
+        if (call != null) {
+            this.attributes.put(LoadBalancerCall.ATTR, call);
+            this.attributes.put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, call.response());
+        } else {
+            this.attributes.remove(LoadBalancerCall.ATTR);
+            this.attributes.remove(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        }
+    }
+
+    URI requestUrl() {
+        return (URI) attributes.get(GATEWAY_REQUEST_URL_ATTR);
+    }
+
+    LoadBalancerCall call() {
+        return call;
+    }
+
+    @Override
+    public ServerHttpRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServerHttpResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * 이긴 시도의 업스트림 상태/헤더와 라우팅 결과를 원본 교환 객체로 옮긴다.
+     * 이후 NettyWriteResponseFilter 가 원본 속성의 연결(CLIENT_RESPONSE_CONN_ATTR)에서 본문을 읽어 클라이언트로 쓴다.
+     */
+    void promote() {
+        promoted = true;
+        ServerHttpResponse target = original.getResponse();
+        if (response.getStatusCode() != null) {
+            target.setStatusCode(response.getStatusCode());
+        }
+        target.getHeaders().addAll(response.getHeaders());
+        original.getAttributes().putAll(attributes);
+    }
+
+    /**
+     * 진 시도가 이미 응답 헤더까지 받았다면 본문을 읽지 않은 연결을 닫는다.
+     */
+    void discard() {
+        if (promoted) {
+            return;
+        }
+        Connection connection = (Connection) attributes.get(CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+        }
+    }
+}
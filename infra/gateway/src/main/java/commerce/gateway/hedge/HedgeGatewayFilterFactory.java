@@ -0,0 +1,357 @@
+package commerce.gateway.hedge;
+
+import commerce.gateway.loadbalancer.LoadBalancerCall;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.RetryableRequestContext;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 멱등 조회 라우트의 헤지 요청 필터 (opt-in, GET/HEAD 만)
+ * 첫 요청이 최근 응답 시간의 percentile 백분위(minDelay~maxDelay 로 제한)보다 오래 걸리면
+ * lb:// 풀의 다른 인스턴스로 같은 요청을 한 번 더 보내고, 먼저 응답 헤더가 온 쪽을 쓰고 나머지는 취소한다.
+ * 첫 요청이 연결 단계에서 실패하면 지연을 기다리지 않고 바로 다른 인스턴스로 재시도한다.
+ * 헤지/재시도는 라우트별 RetryBudget(일반 요청의 budgetRatio 비율 + 초당 budgetMinPerSecond)을 넘지 못한다.
+ * <pre>
+ * filters:
+ *   - Hedge            # p95, 최대 500ms 대기
+ *   - Hedge=90,200ms   # percentile, maxDelay
+ * </pre>
+ * 인스턴스는 로드밸런서 선택기(ReactiveLoadBalancer.Factory)로 고르며, 헤지 요청은 RetryableRequestContext 로 첫 요청 인스턴스를 빼고 고른다.
+ * 요청 URL 이 이미 특정 인스턴스 주소(http://)로 정해져 있으면 그 인스턴스를 첫 요청으로 쓴다.
+ * LoadBalancerLifecycle 보고는 시도마다 따로 한다. 헤지가 이기면 헤지 인스턴스에 자기 응답 시간이 기록되고,
+ * 응답 전에 취소된 첫 요청은 DISCARD 로 처리 중 수만 되돌린다.
+ * 대기 시간 백분위는 첫 요청만 표본으로 삼고, 헤지에 져서 취소된 첫 요청도 취소 시점까지의 시간으로 기록한다.
+ * (이긴 시도만 기록하면 느린 요청이 표본에서 빠져 백분위가 낮아지고 설정보다 자주 헤지하게 된다)
+ * 지표
+ * - gateway.hedge.requests{route,result}: hedged(헤지/재시도 전송), won(헤지가 이김), budget_exhausted, no_instance
+ * - gateway.hedge.budget{route}: 남은 재시도 예산
+ */
+@Slf4j
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    /**
+     * LoadBalancerClientFilter(10148) 다음, NoLoadBalancerClientFilter(10150) 보다 먼저 실행된다.
+     * 각 시도의 요청 URL 은 이미 인스턴스 주소이므로 NoLoadBalancerClientFilter 는 그대로 통과한다.
+     */
+    static final int ORDER = 10149;
+    static final String REQUESTS = "gateway.hedge.requests";
+    static final String BUDGET = "gateway.hedge.budget";
+    static final String UNKNOWN_ROUTE = "unknown";
+    private static final String LB_SCHEME = "lb";
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory;
+    private final MeterRegistry registry;
+    private final Map<String, RouteState> states = new ConcurrentHashMap<>();
+
+    public HedgeGatewayFilterFactory(ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory, MeterRegistry registry) {
+        super(Config.class);
+        this.clientFactory = clientFactory;
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("percentile", "maxDelay");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getMinDelay().compareTo(config.getMaxDelay()) > 0) {
+            throw new IllegalArgumentException("minDelay must not exceed maxDelay");
+        }
+        String routeId = config.getRouteId() != null ? config.getRouteId() : UNKNOWN_ROUTE;
+        RouteState state = stateFor(routeId, config);
+        Metrics metrics = new Metrics(
+                counter(routeId, "hedged"), counter(routeId, "won"),
+                counter(routeId, "budget_exhausted"), counter(routeId, "no_instance"));
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            String serviceId = serviceId(exchange);
+            if ((method != HttpMethod.GET && method != HttpMethod.HEAD) || serviceId == null) {
+                return chain.filter(exchange);
+            }
+            state.budget().deposit();
+            return primary(exchange, serviceId)
+                    .flatMap(primary -> hedge(exchange, chain, serviceId, primary, config, state, metrics));
+        }, ORDER);
+    }
+
+    /**
+     * 요청 URL 이 lb:// 면 선택기로 첫 요청 인스턴스를 고르고,
+     * 이미 인스턴스 주소면 그대로 쓰면서 LoadBalancerClientFilter 가 남긴 LoadBalancerCall 로 보고를 이어간다.
+     */
+    private Mono<HedgeAttempt> primary(ServerWebExchange exchange, String serviceId) {
+        URI requestUrl = exchange.getRequiredAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (!LB_SCHEME.equals(requestUrl.getScheme())) {
+            return Mono.just(new HedgeAttempt(exchange, requestUrl, exchange.getAttribute(LoadBalancerCall.ATTR)));
+        }
+        Request<RequestDataContext> request = request(exchange, null);
+        return choose(serviceId, request).flatMap(response -> response.hasServer()
+                ? Mono.just(start(exchange, serviceId, requestUrl, request, response))
+                : Mono.error(NotFoundException.create(true, "Unable to find instance for " + serviceId)));
+    }
+
+    private Mono<Void> hedge(ServerWebExchange exchange, GatewayFilterChain chain, String serviceId,
+                             HedgeAttempt primary, Config config, RouteState state, Metrics metrics) {
+        AtomicReference<HedgeAttempt> secondary = new AtomicReference<>();
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+
+        Mono<HedgeAttempt> first = run(primary, chain, state.latency())
+                .doOnError(e -> primaryFailed.tryEmitEmpty());
+        Mono<HedgeAttempt> second = Mono.firstWithSignal(Mono.delay(delay(config, state)).then(), primaryFailed.asMono())
+                .then(Mono.defer(() -> {
+                    Request<RequestDataContext> request = request(exchange, previous(primary, serviceId));
+                    return choose(serviceId, request).flatMap(response -> {
+                        if (!response.hasServer()) {
+                            metrics.noInstance().increment();
+                            return Mono.empty();
+                        }
+                        if (!state.budget().tryWithdraw()) {
+                            metrics.budgetExhausted().increment();
+                            return Mono.empty();
+                        }
+                        metrics.hedged().increment();
+                        HedgeAttempt attempt = start(exchange, serviceId, primary.requestUrl(), request, response);
+                        secondary.set(attempt);
+                        return run(attempt, chain, null);
+                    });
+                }));
+
+        return Mono.firstWithValue(first, second)
+                .onErrorMap(NoSuchElementException.class, HedgeGatewayFilterFactory::firstFailure)
+                .doOnNext(winner -> {
+                    if (winner != primary) {
+                        metrics.won().increment();
+                    }
+                    winner.promote();
+                })
+                .doFinally(signal -> {
+                    primary.discard();
+                    HedgeAttempt attempt = secondary.get();
+                    if (attempt != null) {
+                        attempt.discard();
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * latency 가 주어지면 응답 헤더를 받을 때까지(응답 전에 취소되면 취소될 때까지)의 시간을 백분위 표본으로 기록한다.
+     * 로드밸런서가 고른 인스턴스면 같은 시점에 LoadBalancerLifecycle 에도 알리고, 진 시도가 응답 전에 취소되면 DISCARD 로 알린다.
+     *
+     * @param latency 첫 요청이면 라우트의 응답 시간 표본, 헤지 요청이면 null (기록하지 않음)
+     */
+    private static Mono<HedgeAttempt> run(HedgeAttempt attempt, GatewayFilterChain chain, LatencyPercentile latency) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<Void> routing = chain.filter(attempt);
+            LoadBalancerCall call = attempt.call();
+            Mono<HedgeAttempt> result = (call != null ? call.track(routing, attempt.getResponse()) : routing).thenReturn(attempt);
+            if (latency == null) {
+                return result;
+            }
+            return result
+                    .doOnSuccess(ignored -> latency.record(System.nanoTime() - start))
+                    .doOnCancel(() -> latency.record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * 표본이 모이기 전에는 maxDelay 를 쓴다.
+     */
+    private static Duration delay(Config config, RouteState state) {
+        long observed = state.latency().valueNanos();
+        if (observed < 0) {
+            return config.getMaxDelay();
+        }
+        long nanos = Math.max(config.getMinDelay().toNanos(), Math.min(config.getMaxDelay().toNanos(), observed));
+        return Duration.ofNanos(nanos);
+    }
+
+    private Mono<Response<ServiceInstance>> choose(String serviceId, Request<RequestDataContext> request) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.just(new EmptyResponse());
+        }
+        return Mono.from(loadBalancer.choose(request));
+    }
+
+    /**
+     * 고른 인스턴스로 보낼 시도를 만들고 LoadBalancerLifecycle 에 시작을 알린다.
+     */
+    private HedgeAttempt start(ServerWebExchange exchange, String serviceId, URI template,
+                               Request<RequestDataContext> request, Response<ServiceInstance> response) {
+        List<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles =
+                LoadBalancerCall.lifecycles(clientFactory, serviceId);
+        lifecycles.forEach(lifecycle -> lifecycle.onStart(request));
+        LoadBalancerCall call = LoadBalancerCall.start(lifecycles, request, response);
+        return new HedgeAttempt(exchange, url(response.getServer(), template), call);
+    }
+
+    /**
+     * @param previous 헤지 요청이면 빼고 고를 첫 요청 인스턴스, 첫 요청이면 null
+     */
+    private static Request<RequestDataContext> request(ServerWebExchange exchange, ServiceInstance previous) {
+        RequestData requestData = new RequestData(exchange.getRequest());
+        return new DefaultRequest<>(previous != null
+                ? new RetryableRequestContext(previous, requestData)
+                : new RequestDataContext(requestData));
+    }
+
+    /**
+     * 첫 요청 인스턴스 (로드밸런서를 거치지 않은 주소면 주소만으로 만든다)
+     */
+    private static ServiceInstance previous(HedgeAttempt primary, String serviceId) {
+        if (primary.call() != null) {
+            return primary.call().instance();
+        }
+        URI url = primary.requestUrl();
+        boolean secure = "https".equals(url.getScheme());
+        int port = url.getPort() >= 0 ? url.getPort() : (secure ? 443 : 80);
+        return new DefaultServiceInstance(null, serviceId, url.getHost(), port, secure);
+    }
+
+    /**
+     * instance 주소에 template 의 경로/쿼리를 그대로 붙인다.
+     */
+    private static URI url(ServiceInstance instance, URI template) {
+        URI base = LB_SCHEME.equals(template.getScheme())
+                ? UriComponentsBuilder.fromUri(template).scheme(instance.isSecure() ? "https" : "http").build(true).toUri()
+                : template;
+        return LoadBalancerUriTools.reconstructURI(instance, base);
+    }
+
+    /**
+     * 라우트 URI 가 lb:// 인 경우만 헤지한다 (단일 주소 라우트에는 보낼 다른 인스턴스가 없다).
+     */
+    private static String serviceId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || requestUrl == null || !LB_SCHEME.equals(route.getUri().getScheme())) {
+            return null;
+        }
+        return route.getUri().getHost();
+    }
+
+    /**
+     * 두 시도가 모두 실패하면 첫 요청의 오류를 그대로 전달한다.
+     */
+    private static Throwable firstFailure(NoSuchElementException e) {
+        if (e.getCause() == null) {
+            return e;
+        }
+        return Exceptions.unwrapMultiple(e.getCause()).stream()
+                .filter(cause -> !(cause instanceof NoSuchElementException))
+                .findFirst()
+                .orElse(e);
+    }
+
+    /**
+     * 라우트 설정이 갱신되어도 설정이 같으면 기존 예산과 응답 시간 표본을 유지한다.
+     */
+    private RouteState stateFor(String routeId, Config config) {
+        RouteState state = states.compute(routeId, (id, existing) ->
+                existing != null && existing.matches(config) ? existing : RouteState.of(config));
+
+        Gauge.builder(BUDGET, states, m -> {
+                    RouteState current = m.get(routeId);
+                    return current != null ? current.budget().available() : 0;
+                })
+                .description("라우트별 남은 헤지/재시도 예산")
+                .tag("route", routeId)
+                .register(registry);
+
+        log.info("라우트 헤지 요청 설정 - route: {}, p{} ({}~{}), 예산: {}% + {}/초",
+                routeId, config.getPercentile(), config.getMinDelay(), config.getMaxDelay(),
+                config.getBudgetRatio() * 100, config.getBudgetMinPerSecond());
+        return state;
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder(REQUESTS)
+                .description("헤지 요청 결과")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Metrics(Counter hedged, Counter won, Counter budgetExhausted, Counter noInstance) {
+    }
+
+    private record RouteState(RetryBudget budget, LatencyPercentile latency) {
+
+        static RouteState of(Config config) {
+            return new RouteState(
+                    new RetryBudget(config.getBudgetRatio(), config.getBudgetMinPerSecond(), config.getBudgetCapacity()),
+                    new LatencyPercentile(config.getPercentile()));
+        }
+
+        boolean matches(Config config) {
+            return latency.percentile() == config.getPercentile()
+                    && budget.hasSettings(config.getBudgetRatio(), config.getBudgetMinPerSecond(), config.getBudgetCapacity());
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        /**
+         * 헤지 대기 시간으로 쓸 응답 시간 백분위
+         */
+        private double percentile = 95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofMillis(500);
+
+        /**
+         * 일반 요청 대비 허용할 헤지/재시도 비율
+         */
+        private double budgetRatio = 0.1;
+        private int budgetMinPerSecond = 1;
+        private int budgetCapacity = 100;
+        private String routeId;
+    }
+}
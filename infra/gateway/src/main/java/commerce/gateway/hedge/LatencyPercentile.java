@@ -0,0 +1,64 @@
+package commerce.gateway.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 최근 응답 시간의 백분위 추정
+ * 최근 SAMPLES 개의 응답 시간을 링 버퍼에 기록하고, RECOMPUTE_EVERY 개가 쌓일 때마다 tryLock 을 얻은 스레드 하나가
+ * 복사/정렬해 백분위 값을 갱신한다. 조회는 volatile 읽기 한 번이다.
+ */
+final class LatencyPercentile {
+
+    static final int SAMPLES = 1024;
+    static final int RECOMPUTE_EVERY = 64;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicLong recorded = new AtomicLong();
+    private final ReentrantLock recomputeLock = new ReentrantLock();
+
+    private volatile long valueNanos = -1;
+
+    LatencyPercentile(double percentile) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("percentile must be in (0, 100)");
+        }
+        this.percentile = percentile;
+    }
+
+    void record(long nanos) {
+        long count = recorded.getAndIncrement();
+        samples.set((int) (count % SAMPLES), nanos);
+        if ((count + 1) % RECOMPUTE_EVERY == 0 && recomputeLock.tryLock()) {
+            try {
+                recompute(Math.min(count + 1, SAMPLES));
+            } finally {
+                recomputeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return 표본이 RECOMPUTE_EVERY 개 모이기 전에는 -1
+     */
+    long valueNanos() {
+        return valueNanos;
+    }
+
+    double percentile() {
+        return percentile;
+    }
+
+    private void recompute(long size) {
+        long[] copy = new long[(int) size];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        int rank = (int) Math.ceil(percentile / 100 * copy.length) - 1;
+        valueNanos = copy[Math.max(0, rank)];
+    }
+}
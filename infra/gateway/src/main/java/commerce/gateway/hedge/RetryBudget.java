@@ -0,0 +1,99 @@
+package commerce.gateway.hedge;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 재시도 예산 (Finagle RetryBudget 방식의 토큰 버킷)
+ * 일반 요청마다 ratio 만큼 토큰을 적립하고, 헤지/재시도 1건마다 토큰 1개를 쓴다.
+ * 장애로 모든 요청이 느려지거나 실패해도 추가 요청은 전체 요청의 ratio 비율을 넘지 못하므로 장애를 증폭시키지 않는다.
+ * 트래픽이 적은 라우트도 재시도할 수 있도록 초당 minPerSecond 개는 시간 기반으로 보충한다.
+ *
+ * 토큰은 1/1000 단위 정수로 다루며 적립/사용 모두 CAS 한 번으로 끝난다.
+ */
+final class RetryBudget {
+
+    private static final long SCALE = 1000;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private final long refillIntervalNanos; // 시간 기반 보충 토큰 1개의 간격 (0 이면 보충 없음)
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong balance;
+    private final AtomicLong lastRefill;
+
+    RetryBudget(double ratio, int minPerSecond, int capacity) {
+        this(ratio, minPerSecond, capacity, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, int minPerSecond, int capacity, LongSupplier nanoClock) {
+        if (ratio < 0 || ratio > 1 || minPerSecond < 0 || capacity <= 0) {
+            throw new IllegalArgumentException("ratio must be in [0, 1], minPerSecond >= 0, capacity > 0");
+        }
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.capacity = capacity * SCALE;
+        this.refillIntervalNanos = minPerSecond > 0 ? NANOS_PER_SECOND / minPerSecond : 0;
+        this.nanoClock = nanoClock;
+        this.balance = new AtomicLong(Math.min(minPerSecond, capacity) * SCALE);
+        this.lastRefill = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * 일반 요청 1건 적립
+     */
+    void deposit() {
+        add(depositPerRequest);
+    }
+
+    /**
+     * 재시도 1건 사용 시도
+     * @return 예산이 부족하면 false
+     */
+    boolean tryWithdraw() {
+        refill();
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return 남은 재시도 수
+     */
+    double available() {
+        return (double) balance.get() / SCALE;
+    }
+
+    boolean hasSettings(double ratio, int minPerSecond, int capacity) {
+        return depositPerRequest == Math.round(ratio * SCALE)
+                && refillIntervalNanos == (minPerSecond > 0 ? NANOS_PER_SECOND / minPerSecond : 0)
+                && this.capacity == capacity * SCALE;
+    }
+
+    /**
+     * 경과 시간만큼 최소 보충분을 더한다. 보충 구간은 CAS 로 선점한 스레드만 반영한다.
+     */
+    private void refill() {
+        if (refillIntervalNanos == 0) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long last = lastRefill.get();
+        long tokens = (now - last) / refillIntervalNanos;
+        if (tokens > 0 && lastRefill.compareAndSet(last, last + tokens * refillIntervalNanos)) {
+            add(Math.min(tokens, capacity / SCALE) * SCALE);
+        }
+    }
+
+    private void add(long amount) {
+        balance.accumulateAndGet(amount, (current, delta) -> Math.min(current + delta, capacity));
+    }
+}
@@ -0,0 +1,92 @@
+package commerce.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 인스턴스 하나의 부하 추정 (peak-EWMA 응답 시간 + 처리 중 요청 수)
+ * - 관측한 응답 시간이 현재 추정보다 크면 바로 그 값으로 올리고 (peak), 작으면 경과 시간만큼의 가중치로 천천히 내린다.
+ * - 표본이 없는 동안에는 추정값이 경과 시간에 따라 0 으로 감쇠한다.
+ *   한때 느렸던 인스턴스도 decay 가 지나면 다시 선택되어 새 표본을 받는다. (stale-instance decay)
+ * 추정값과 갱신 시각은 불변 객체 하나로 묶어 CAS 로 교체한다.
+ */
+final class InstanceLoad {
+
+    /**
+     * 표본이 아직 없는 인스턴스에 요청이 처리 중이면 다른 인스턴스보다 뒤로 미룬다 (새 인스턴스로의 쏠림 방지)
+     */
+    static final double PENALTY_NANOS = 1e12;
+
+    private final double decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<Estimate> estimate;
+
+    InstanceLoad(long decayNanos, long nowNanos) {
+        if (decayNanos <= 0) {
+            throw new IllegalArgumentException("decay must be positive");
+        }
+        this.decayNanos = decayNanos;
+        this.estimate = new AtomicReference<>(new Estimate(0, nowNanos));
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    void complete(long rttNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        observe(rttNanos, nowNanos);
+    }
+
+    /**
+     * 응답을 받기 전에 취소된 요청은 처리 중 수만 되돌리고 표본으로 쓰지 않는다.
+     */
+    void discard() {
+        inFlight.decrementAndGet();
+    }
+
+    void observe(long rttNanos, long nowNanos) {
+        Estimate current;
+        Estimate next;
+        do {
+            current = estimate.get();
+            double w = weight(nowNanos - current.stampNanos());
+            double ewma = rttNanos > current.ewmaNanos()
+                    ? rttNanos
+                    : current.ewmaNanos() * w + rttNanos * (1 - w);
+            next = new Estimate(ewma, Math.max(nowNanos, current.stampNanos()));
+        } while (!estimate.compareAndSet(current, next));
+    }
+
+    /**
+     * 선택 비용 = 감쇠한 응답 시간 추정 x (처리 중 요청 수 + 1)
+     */
+    double cost(long nowNanos) {
+        double ewma = estimate.get().decayed(nowNanos, decayNanos);
+        int pending = inFlight.get();
+        if (ewma == 0 && pending > 0) {
+            return PENALTY_NANOS + pending;
+        }
+        return ewma * (pending + 1);
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    double ewmaNanos(long nowNanos) {
+        return estimate.get().decayed(nowNanos, decayNanos);
+    }
+
+    private double weight(long elapsedNanos) {
+        return Math.exp(-Math.max(elapsedNanos, 0) / decayNanos);
+    }
+
+    private record Estimate(double ewmaNanos, long stampNanos) {
+
+        double decayed(long nowNanos, double decayNanos) {
+            long elapsed = nowNanos - stampNanos;
+            return elapsed <= 0 ? ewmaNanos : ewmaNanos * Math.exp(-elapsed / decayNanos);
+        }
+    }
+}
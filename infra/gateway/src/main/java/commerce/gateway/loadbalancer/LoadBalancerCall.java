@@ -0,0 +1,97 @@
+package commerce.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 로드밸런서가 고른 인스턴스 하나로 보내는 요청의 LoadBalancerLifecycle 보고
+ * onStartRequest 로 시작하고, SUCCESS/FAILED/DISCARD 중 먼저 일어난 하나만 onComplete 로 알린다.
+ * 헤지 필터처럼 한 교환에서 여러 인스턴스로 보낼 때는 시도마다 하나씩 만들어 인스턴스별 응답 시간이 섞이지 않게 한다.
+ * LoadBalancerClientFilter 가 고른 첫 요청은 교환 속성 ATTR 로 다음 필터에 전달한다.
+ */
+public final class LoadBalancerCall {
+
+    public static final String ATTR = LoadBalancerCall.class.getName();
+
+    private final List<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles;
+    private final Request<RequestDataContext> request;
+    private final Response<ServiceInstance> response;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private LoadBalancerCall(List<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles,
+                             Request<RequestDataContext> request, Response<ServiceInstance> response) {
+        this.lifecycles = lifecycles;
+        this.request = request;
+        this.response = response;
+    }
+
+    /**
+     * 고른 인스턴스로 요청을 보내기 직전에 부른다 (onStart 는 호출자가 선택 전에 알린다).
+     */
+    public static LoadBalancerCall start(List<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles,
+                                         Request<RequestDataContext> request, Response<ServiceInstance> response) {
+        lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(request, response));
+        return new LoadBalancerCall(lifecycles, request, response);
+    }
+
+    /**
+     * serviceId 선택기와 함께 등록된 LoadBalancerLifecycle 중 요청 데이터 기반 콜백을 받는 것만
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static List<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles(
+            ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory, String serviceId) {
+        Map<String, LoadBalancerLifecycle> lifecycles = clientFactory.getInstances(serviceId, LoadBalancerLifecycle.class);
+        if (lifecycles == null || lifecycles.isEmpty()) {
+            return List.of();
+        }
+        return lifecycles.values().stream()
+                .filter(lifecycle -> lifecycle.supports(RequestDataContext.class, ResponseData.class, ServiceInstance.class))
+                .map(lifecycle -> (LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>) lifecycle)
+                .toList();
+    }
+
+    public Response<ServiceInstance> response() {
+        return response;
+    }
+
+    public ServiceInstance instance() {
+        return response.getServer();
+    }
+
+    /**
+     * routing 이 끝나면(응답 헤더 수신) SUCCESS, 오류면 FAILED, 그 전에 취소되면 DISCARD 로 알린다.
+     *
+     * @param upstream routing 이 업스트림 상태/헤더를 쓰는 응답 객체
+     */
+    public Mono<Void> track(Mono<Void> routing, ServerHttpResponse upstream) {
+        return routing
+                .doOnError(e -> complete(new CompletionContext<>(
+                        CompletionContext.Status.FAILED, e, request, response, responseData(upstream))))
+                .doOnSuccess(ignored -> complete(new CompletionContext<>(
+                        CompletionContext.Status.SUCCESS, request, response, responseData(upstream))))
+                .doOnCancel(() -> complete(new CompletionContext<>(
+                        CompletionContext.Status.DISCARD, request, response)));
+    }
+
+    private ResponseData responseData(ServerHttpResponse upstream) {
+        return new ResponseData(upstream, request.getContext().getClientRequest());
+    }
+
+    private void complete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        if (completed.compareAndSet(false, true)) {
+            lifecycles.forEach(lifecycle -> lifecycle.onComplete(context));
+        }
+    }
+}
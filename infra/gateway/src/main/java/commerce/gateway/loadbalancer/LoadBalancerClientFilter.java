@@ -0,0 +1,145 @@
+package commerce.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_SCHEME_PREFIX_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
+
+/**
+ * lb://{serviceId} 요청 URL 을 ReactiveLoadBalancer 가 고른 인스턴스 주소로 바꾸는 전역 필터
+ * (spring-cloud-loadbalancer 의 ReactiveLoadBalancerClientFilter 와 같은 흐름, 선택기는 PeakEwmaLoadBalancerFactory)
+ * 라우팅 결과를 LoadBalancerLifecycle 에 알린다.
+ * - SUCCESS: 업스트림 응답 헤더를 받음 (라우팅 필터의 완료 시점)
+ * - FAILED: 연결 실패/타임아웃 등 라우팅 오류
+ * - DISCARD: 인스턴스가 없거나 응답 전에 취소됨
+ * 헤지 필터(Hedge, 10149)보다 먼저 실행되므로 헤지 라우트의 첫 요청도 여기서 고른 인스턴스로 간다.
+ * 보고는 교환 속성의 LoadBalancerCall 로 한 번만 하므로, 헤지 필터가 첫 요청의 완료/취소를 먼저 알리면 여기서는 다시 기록하지 않는다.
+ * 헤지 요청의 인스턴스는 헤지 필터가 같은 선택기로 골라 따로 보고한다.
+ */
+@Component
+public class LoadBalancerClientFilter implements GlobalFilter, Ordered {
+
+    /**
+     * HedgeGatewayFilterFactory(10149), NoLoadBalancerClientFilter(10150) 보다 먼저 실행된다.
+     */
+    static final int ORDER = 10148;
+    private static final String LB_SCHEME = "lb";
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory;
+
+    public LoadBalancerClientFilter(ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String schemePrefix = exchange.getAttribute(GATEWAY_SCHEME_PREFIX_ATTR);
+        if (url == null || (!LB_SCHEME.equals(url.getScheme()) && !LB_SCHEME.equals(schemePrefix))) {
+            return chain.filter(exchange);
+        }
+        addOriginalRequestUrl(exchange, url);
+
+        String serviceId = url.getHost();
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.error(NotFoundException.create(false, "No loadbalancer available for " + serviceId));
+        }
+        List<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles =
+                LoadBalancerCall.lifecycles(clientFactory, serviceId);
+        DefaultRequest<RequestDataContext> lbRequest =
+                new DefaultRequest<>(new RequestDataContext(new RequestData(exchange.getRequest())));
+        lifecycles.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+
+        return Mono.from(loadBalancer.choose(lbRequest)).flatMap(response -> {
+            if (!response.hasServer()) {
+                lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                        new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, response)));
+                return Mono.error(NotFoundException.create(false, "Unable to find instance for " + serviceId));
+            }
+            String overrideScheme = schemePrefix != null
+                    ? url.getScheme()
+                    : (response.getServer().isSecure() ? "https" : "http");
+            URI requestUrl = LoadBalancerUriTools.reconstructURI(
+                    new SchemeOverride(response.getServer(), overrideScheme), url);
+            LoadBalancerCall call = LoadBalancerCall.start(lifecycles, lbRequest, response);
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
+            exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, response);
+            exchange.getAttributes().put(LoadBalancerCall.ATTR, call);
+
+            return call.track(chain.filter(exchange), exchange.getResponse());
+        });
+    }
+
+    /**
+     * 인스턴스의 scheme 대신 요청에 맞는 scheme 으로 주소를 만든다 (디스커버리의 scheme 이 lb:ws:// 등과 다를 수 있음)
+     */
+    private record SchemeOverride(ServiceInstance delegate, String scheme) implements ServiceInstance {
+
+        @Override
+        public String getServiceId() {
+            return delegate.getServiceId();
+        }
+
+        @Override
+        public String getInstanceId() {
+            return delegate.getInstanceId();
+        }
+
+        @Override
+        public String getHost() {
+            return delegate.getHost();
+        }
+
+        @Override
+        public int getPort() {
+            return delegate.getPort();
+        }
+
+        @Override
+        public boolean isSecure() {
+            return "https".equals(scheme) || "wss".equals(scheme);
+        }
+
+        @Override
+        public URI getUri() {
+            return delegate.getUri();
+        }
+
+        @Override
+        public Map<String, String> getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public String getScheme() {
+            return scheme;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package commerce.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.RetryableRequestContext;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * 서비스 하나의 인스턴스 선택기 (power of two choices + peak-EWMA)
+ * 디스커버리 목록에서 서로 다른 인스턴스 두 개를 무작위로 뽑아, InstanceLoad.cost 가 낮은 쪽을 고른다.
+ * 라운드 로빈과 달리 GC 정지/과부하로 느려진 인스턴스는 처리 중 요청과 응답 시간이 비용에 반영되어 바로 덜 선택되고,
+ * 표본이 없는 동안 추정값이 감쇠해 회복 후에는 다시 요청을 받는다.
+ * 부하 추정은 LoadBalancerLifecycle 콜백(onStartRequest/onComplete)으로 갱신한다.
+ * 디스커버리 목록에서 빠진 인스턴스의 추정값은 다음 선택 때 정리한다.
+ * 요청 컨텍스트가 RetryableRequestContext 면 이전 인스턴스를 빼고 고르며, 남은 인스턴스가 없으면 빈 응답을 돌려준다.
+ */
+public class PeakEwmaLoadBalancer implements ReactiveLoadBalancer<ServiceInstance>,
+        LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final String serviceId;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public PeakEwmaLoadBalancer(String serviceId, ReactiveDiscoveryClient discoveryClient,
+                                PeakEwmaLoadBalancerProperties properties) {
+        this(serviceId, discoveryClient, properties, System::nanoTime);
+    }
+
+    PeakEwmaLoadBalancer(String serviceId, ReactiveDiscoveryClient discoveryClient,
+                         PeakEwmaLoadBalancerProperties properties, LongSupplier nanoClock) {
+        this.serviceId = serviceId;
+        this.discoveryClient = discoveryClient;
+        this.decayNanos = properties.getDecay().toNanos();
+        this.failurePenaltyNanos = properties.getFailurePenalty().toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstance previous = request != null && request.getContext() instanceof RetryableRequestContext retry
+                ? retry.getPreviousServiceInstance()
+                : null;
+        return discoveryClient.getInstances(serviceId).collectList().map(instances -> choose(instances, previous));
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        return choose(instances, null);
+    }
+
+    /**
+     * @param exclude 고르지 않을 인스턴스 (헤지/재시도의 이전 인스턴스, 없으면 null)
+     */
+    Response<ServiceInstance> choose(List<ServiceInstance> instances, ServiceInstance exclude) {
+        if (loads.size() > instances.size()) {
+            evictMissing(instances);
+        }
+        if (exclude != null) {
+            String excluded = key(exclude);
+            instances = instances.stream().filter(instance -> !key(instance).equals(excluded)).toList();
+        }
+        int size = instances.size();
+        if (size == 0) {
+            return new EmptyResponse();
+        }
+        if (size == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        long now = nanoClock.getAsLong();
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(cost(a, now) <= cost(b, now) ? a : b);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(nanoClock.getAsLong());
+        }
+        if (lbResponse.hasServer()) {
+            load(lbResponse.getServer()).start();
+        }
+    }
+
+    /**
+     * SUCCESS 는 업스트림 상태 코드와 무관하게 응답 헤더를 받은 시간을, FAILED 는 failurePenalty 이상을 표본으로 쓴다.
+     * DISCARD(취소)는 표본 없이 처리 중 수만 되돌린다.
+     */
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceLoad load = loads.get(key(lbResponse.getServer()));
+        if (load == null) { // 처리 중에 디스커버리 목록에서 빠진 인스턴스
+            return;
+        }
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            load.discard();
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long rtt = now - startTime(completionContext.getLoadBalancerRequest(), now);
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            rtt = Math.max(rtt, failurePenaltyNanos);
+        }
+        load.complete(rtt, now);
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    /**
+     * 인스턴스의 현재 선택 비용 (nanos), 요청을 받은 적 없는 인스턴스는 0
+     */
+    double cost(ServiceInstance instance, long nowNanos) {
+        InstanceLoad load = loads.get(key(instance));
+        return load != null ? load.cost(nowNanos) : 0;
+    }
+
+    InstanceLoad load(ServiceInstance instance) {
+        return loads.computeIfAbsent(key(instance), k -> new InstanceLoad(decayNanos, nanoClock.getAsLong()));
+    }
+
+    int trackedInstances() {
+        return loads.size();
+    }
+
+    private void evictMissing(List<ServiceInstance> instances) {
+        Set<String> current = new HashSet<>(instances.size() * 2);
+        for (ServiceInstance instance : instances) {
+            current.add(key(instance));
+        }
+        loads.keySet().retainAll(current);
+    }
+
+    private static long startTime(Request<RequestDataContext> request, long now) {
+        if (request != null && request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() != 0) {
+            return timed.getRequestStartTime();
+        }
+        return now;
+    }
+
+    /**
+     * 디스커버리 구현에 따라 instanceId 가 없을 수 있어 주소로 구분한다.
+     */
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
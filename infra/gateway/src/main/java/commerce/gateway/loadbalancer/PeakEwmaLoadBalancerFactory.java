@@ -0,0 +1,58 @@
+package commerce.gateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서비스별 PeakEwmaLoadBalancer 를 만들어 보관한다 (LoadBalancerClientFactory 와 같은 역할)
+ * 선택기 자신이 LoadBalancerLifecycle 이므로 getInstances(serviceId, LoadBalancerLifecycle.class) 로 함께 돌려준다.
+ */
+@Slf4j
+@Component
+public class PeakEwmaLoadBalancerFactory implements ReactiveLoadBalancer.Factory<ServiceInstance> {
+
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final PeakEwmaLoadBalancerProperties properties;
+    private final LoadBalancerProperties loadBalancerProperties = new LoadBalancerProperties();
+    private final Map<String, PeakEwmaLoadBalancer> loadBalancers = new ConcurrentHashMap<>();
+
+    public PeakEwmaLoadBalancerFactory(ReactiveDiscoveryClient discoveryClient, PeakEwmaLoadBalancerProperties properties) {
+        this.discoveryClient = discoveryClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public PeakEwmaLoadBalancer getInstance(String serviceId) {
+        return loadBalancers.computeIfAbsent(serviceId, id -> {
+            log.info("인스턴스 선택기 생성 - service: {}, decay: {}, failurePenalty: {}",
+                    id, properties.getDecay(), properties.getFailurePenalty());
+            return new PeakEwmaLoadBalancer(id, discoveryClient, properties);
+        });
+    }
+
+    @Override
+    public <X> Map<String, X> getInstances(String name, Class<X> type) {
+        PeakEwmaLoadBalancer loadBalancer = getInstance(name);
+        return type.isInstance(loadBalancer) ? Map.of(name, type.cast(loadBalancer)) : Map.of();
+    }
+
+    @Override
+    public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+        PeakEwmaLoadBalancer loadBalancer = getInstance(name);
+        @SuppressWarnings("unchecked")
+        X instance = clazz.isInstance(loadBalancer) ? (X) loadBalancer : null;
+        return instance;
+    }
+
+    @Override
+    public LoadBalancerProperties getProperties(String serviceId) {
+        return loadBalancerProperties;
+    }
+}
@@ -0,0 +1,28 @@
+package commerce.gateway.loadbalancer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * lb:// 라우트의 인스턴스 선택 설정 (gateway.load-balancer.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class PeakEwmaLoadBalancerProperties {
+
+    /**
+     * 응답 시간 추정의 감쇠 시간 상수
+     * 짧을수록 최근 표본을 빨리 따라가고, 느렸던 인스턴스도 빨리 다시 시도한다.
+     */
+    private Duration decay = Duration.ofSeconds(10);
+
+    /**
+     * 연결 실패/타임아웃으로 끝난 요청을 기록할 최소 응답 시간
+     * 빨리 실패하는 인스턴스가 빠른 인스턴스로 보여 요청이 몰리지 않게 한다.
+     */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+}
@@ -0,0 +1,86 @@
+package commerce.gateway.logging;
+
+import commerce.gateway.security.GatewayPrincipal;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 요청당 접근 로그 레코드 하나를 남기는 필터
+ * Spring Security 보다 먼저 실행되어 401/403/429 응답도 기록한다.
+ * 기록 대상이 아니면 레코드를 만들지 않으며, 기록 대상이면 AccessLogWriter 버퍼에 넣기만 한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter implements WebFilter {
+
+    static final int CLIENT_CLOSED_REQUEST = 499;
+
+    private final AccessLogWriter writer;
+    private final AccessLogSampler sampler;
+    private final boolean enabled;
+
+    public AccessLogFilter(AccessLogWriter writer, AccessLogProperties properties) {
+        this.writer = writer;
+        this.sampler = new AccessLogSampler(properties.getSampleRate(), properties.getSlowThreshold());
+        this.enabled = properties.isEnabled();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        long startMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, signal, startMillis, System.nanoTime() - startNanos));
+    }
+
+    private void record(ServerWebExchange exchange, SignalType signal, long startMillis, long durationNanos) {
+        int status = status(exchange, signal);
+        if (!sampler.shouldLog(status, durationNanos)) {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        GatewayPrincipal principal = exchange.getAttribute(GatewayPrincipal.ATTRIBUTE);
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+
+        writer.offer(new AccessLogRecord(
+                startMillis,
+                request.getMethod().name(),
+                request.getPath().value(),
+                status,
+                durationNanos,
+                route != null ? route.getId() : null,
+                principal != null && principal.isAuthenticated() ? principal.userId() : null,
+                remoteAddress != null && remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : null,
+                request.getHeaders().getFirst("X-Trace-Id")));
+    }
+
+    private static int status(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return CLIENT_CLOSED_REQUEST;
+        }
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        if (statusCode != null) {
+            return statusCode.value();
+        }
+        return signal == SignalType.ON_ERROR ? 500 : 200;
+    }
+}
@@ -0,0 +1,38 @@
+package commerce.gateway.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 접근 로그 운영 설정 (gateway.access-log.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    /**
+     * 접근 로그 기록 여부
+     */
+    private boolean enabled = true;
+
+    /**
+     * 정상 응답(2xx/3xx) 중 기록할 비율 (0.0 ~ 1.0)
+     * 4xx/5xx 응답과 느린 요청은 비율과 관계없이 모두 기록한다.
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * 이 시간 이상 걸린 요청은 항상 기록한다.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * 기록 대기 버퍼 크기 (2의 거듭제곱으로 올림)
+     * 가득 차면 새 레코드는 버리고 gateway.accesslog.dropped 로 집계한다.
+     */
+    private int bufferSize = 8192;
+}
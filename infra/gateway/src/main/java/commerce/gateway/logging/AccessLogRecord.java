@@ -0,0 +1,23 @@
+package commerce.gateway.logging;
+
+/**
+ * 요청 하나의 접근 로그 레코드
+ * 이벤트 루프에서는 값만 담아 버퍼에 넣고, 문자열 포맷은 AccessLogWriter 스레드에서 한다.
+ *
+ * @param timestamp      요청 시작 시각 (epoch millis)
+ * @param durationNanos  요청 처리 시간
+ * @param status         응답 상태 코드 (클라이언트가 연결을 끊으면 499)
+ * @param routeId        게이트웨이 라우트 ID (라우팅 전 종료되면 null)
+ * @param userId         인증된 사용자 ID (익명이면 null)
+ * @param traceId        X-Trace-Id 헤더 값
+ */
+public record AccessLogRecord(long timestamp,
+                              String method,
+                              String path,
+                              int status,
+                              long durationNanos,
+                              String routeId,
+                              String userId,
+                              String clientIp,
+                              String traceId) {
+}
@@ -0,0 +1,98 @@
+package commerce.gateway.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 다중 생산자 / 단일 소비자 Lock-free 링 버퍼
+ * 슬롯마다 시퀀스 번호를 두고, 생산자는 tail CAS 로 슬롯을 예약한 뒤 시퀀스를 올려 소비자에게 공개한다.
+ *   sequence == pos       : 비어 있음 (pos 번째 생산자가 쓸 수 있음)
+ *   sequence == pos + 1   : 채워짐 (소비자가 읽을 수 있음)
+ * 가득 차면 기다리지 않고 레코드를 버린다. 이벤트 루프가 로그 때문에 멈추지 않도록 하기 위함이다.
+ */
+final class AccessLogRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long head; // 소비자 스레드에서만 갱신 (size() 조회용으로 volatile)
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return 버퍼가 가득 차 버려졌으면 false
+     */
+    boolean offer(T element) {
+        while (true) {
+            long pos = tail.get();
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            }
+            // diff > 0: 다른 생산자가 먼저 예약함 -> 재시도
+        }
+    }
+
+    /**
+     * 소비자 스레드에서만 호출한다.
+     *
+     * @return 꺼낸 레코드 수
+     */
+    int drain(Consumer<? super T> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break; // 비어 있거나 생산자가 아직 쓰는 중
+            }
+
+            T element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, head + mask + 1);
+            head++;
+            drained++;
+
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long size() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
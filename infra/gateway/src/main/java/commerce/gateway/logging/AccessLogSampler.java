@@ -0,0 +1,36 @@
+package commerce.gateway.logging;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 접근 로그 기록 대상 결정
+ * - 4xx/5xx 응답(클라이언트 연결 끊김 499 포함): 항상 기록
+ * - slowThreshold 이상 걸린 요청: 항상 기록
+ * - 그 외 정상 응답: sampleRate 비율로 기록
+ */
+final class AccessLogSampler {
+
+    private static final int ERROR_STATUS = 400;
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    AccessLogSampler(double sampleRate, Duration slowThreshold) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    boolean shouldLog(int status, long durationNanos) {
+        if (status >= ERROR_STATUS || durationNanos >= slowThresholdNanos) {
+            return true;
+        }
+        if (sampleRate >= 1) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -0,0 +1,116 @@
+package commerce.gateway.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 접근 로그 비동기 기록기
+ * 이벤트 루프는 offer() 로 레코드를 링 버퍼에 넣기만 하고, 전용 스레드가 주기적으로 꺼내 "gateway.access" 로거에 쓴다.
+ * Appender I/O 는 모두 이 스레드에서 일어나며, 생산자는 스레드를 깨우지 않는다. (unpark 비용 없음)
+ * - gateway.accesslog.dropped: 버퍼가 가득 차 버려진 레코드 수
+ * - gateway.accesslog.pending: 기록 대기 중인 레코드 수
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+    static final String LOGGER_NAME = "gateway.access";
+
+    private static final Logger accessLog = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int DRAIN_BATCH = 256;
+
+    private final AccessLogRingBuffer<AccessLogRecord> buffer;
+    private final StringBuilder line = new StringBuilder(256); // 기록 스레드 전용
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry registry) {
+        this.buffer = new AccessLogRingBuffer<>(properties.getBufferSize());
+
+        FunctionCounter.builder("gateway.accesslog.dropped", buffer, AccessLogRingBuffer::dropped)
+                .description("버퍼가 가득 차 버려진 접근 로그 수")
+                .register(registry);
+        Gauge.builder("gateway.accesslog.pending", buffer, AccessLogRingBuffer::size)
+                .description("기록 대기 중인 접근 로그 수")
+                .register(registry);
+
+        this.thread = Thread.ofPlatform()
+                .name("access-log-writer")
+                .daemon(true)
+                .start(this::run);
+
+        log.info("📝 접근 로그 기록기 시작 - 버퍼: {}, 샘플링: {}, 느린 요청 기준: {}",
+                buffer.capacity(), properties.getSampleRate(), properties.getSlowThreshold());
+    }
+
+    /**
+     * 이벤트 루프에서 호출된다. 절대 블록하지 않는다.
+     */
+    public boolean offer(AccessLogRecord record) {
+        return buffer.offer(record);
+    }
+
+    private void run() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drain(); // 종료 전 남은 레코드 기록
+    }
+
+    private int drain() {
+        int total = 0;
+        int drained;
+        do {
+            drained = buffer.drain(this::write, DRAIN_BATCH);
+            total += drained;
+        } while (drained == DRAIN_BATCH);
+        return total;
+    }
+
+    private void write(AccessLogRecord record) {
+        try {
+            accessLog.info(format(record));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 접근 로그 기록 실패", e);
+        }
+    }
+
+    String format(AccessLogRecord record) {
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append("ts=").append(Instant.ofEpochMilli(record.timestamp()))
+                .append(" method=").append(record.method())
+                .append(" path=").append(record.path())
+                .append(" status=").append(record.status())
+                .append(" duration_ms=").append(TimeUnit.NANOSECONDS.toMicros(record.durationNanos()) / 1000.0)
+                .append(" route=").append(record.routeId() != null ? record.routeId() : "-")
+                .append(" user=").append(record.userId() != null ? record.userId() : "-")
+                .append(" ip=").append(record.clientIp() != null ? record.clientIp() : "-")
+                .append(" trace=").append(record.traceId() != null ? record.traceId() : "-");
+        return sb.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package commerce.gateway.ratelimit;
+
+/**
+ * 엔드포인트 규칙에 지정된 장기 쿼터와 요청당 쿼터 비용
+ * Rate Limit 의 requestTokens 는 버킷 용량을 넘지 않게 잘리지만, 쿼터는 설정된 엔드포인트 비용 그대로 소비한다.
+ *
+ * @param definition 쿼터 정의
+ * @param cost       요청당 쿼터 비용 (엔드포인트 비용, 등급 용량으로 자르지 않음)
+ */
+public record EndpointQuota(QuotaDefinition definition, int cost) {
+}
@@ -0,0 +1,148 @@
+package commerce.gateway.ratelimit;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * GCRA(Generic Cell Rate Algorithm, virtual scheduling) 기반 Lock-free Rate Limiter
+ * 토큰 수 대신 "이론적 도착 시간(TAT)"을 나노초 단위 AtomicLong 하나로 관리한다.
+ * - 보충은 소비 시점에 경과 시간으로 계산되므로 별도 스케줄러나 모니터가 필요 없다.
+ * - 초 단위가 아닌 나노초 단위로 정확하게 보충된다.
+ * - 허용 경로는 CAS 한 번으로 끝나며 객체를 할당하지 않는다.
+ */
+@Getter
+public class GcraRateLimiter implements RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int capacity;
+    private final int refillRate;
+    private final long emissionIntervalNanos; // 토큰 1개가 보충되는 간격
+    private final long burstToleranceNanos;   // 버킷이 가득 찼을 때 TAT 가 현재 시간보다 앞설 수 있는 최대 폭
+
+    @Getter(AccessLevel.NONE)
+    private final LongSupplier nanoClock;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong theoreticalArrivalTime;
+
+    public GcraRateLimiter(int capacity, int refillRate) {
+        this(capacity, refillRate, System::nanoTime);
+    }
+
+    GcraRateLimiter(int capacity, int refillRate, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillRate <= 0) {
+            throw new IllegalArgumentException("capacity and refillRate must be positive");
+        }
+
+        this.capacity = capacity;
+        this.refillRate = refillRate;
+        this.emissionIntervalNanos = NANOS_PER_SECOND / refillRate;
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrivalTime = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    @Override
+    public long tryAcquire(int requestTokens) {
+        if (requestTokens <= 0) {
+            throw new IllegalArgumentException("requestTokens must be positive");
+        }
+
+        long increment = emissionIntervalNanos * requestTokens;
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, now) + increment;
+            long overshoot = newTat - now - burstToleranceNanos;
+
+            if (overshoot > 0) {
+                return -overshoot;
+            }
+
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return -overshoot / emissionIntervalNanos;
+            }
+        }
+    }
+
+    /**
+     * 최대 maxTokens 개까지 가능한 만큼 한 번에 가져간다. (공유 저장소의 토큰 임대용)
+     *
+     * @return 실제로 가져간 토큰 수 (0 이면 차단)
+     */
+    public int acquireUpTo(int maxTokens) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = theoreticalArrivalTime.get();
+            long base = Math.max(tat, now);
+            long available = (burstToleranceNanos - (base - now)) / emissionIntervalNanos;
+            int granted = (int) Math.min(maxTokens, available);
+
+            if (granted <= 0) {
+                return 0;
+            }
+
+            if (theoreticalArrivalTime.compareAndSet(tat, base + emissionIntervalNanos * granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * 토큰 requestTokens 개를 사용할 수 있을 때까지 남은 시간(나노초)
+     */
+    public long nanosUntilAvailable(int requestTokens) {
+        long now = nanoClock.getAsLong();
+        long newTat = Math.max(theoreticalArrivalTime.get(), now) + emissionIntervalNanos * requestTokens;
+        return Math.max(0, newTat - now - burstToleranceNanos);
+    }
+
+    @Override
+    public int availableTokens() {
+        long now = nanoClock.getAsLong();
+        long backlog = Math.max(0, theoreticalArrivalTime.get() - now);
+        return (int) ((burstToleranceNanos - backlog) / emissionIntervalNanos);
+    }
+
+    /**
+     * 버킷이 가득 찬 상태인지 확인한다.
+     * 가득 찬 버킷은 새로 만든 버킷과 구분할 수 없으므로 제거해도 제한 결과가 바뀌지 않는다.
+     */
+    public boolean isFull() {
+        return nanosUntilFull() == 0;
+    }
+
+    /**
+     * 버킷이 다시 가득 찰 때까지 남은 시간(나노초)
+     */
+    public long nanosUntilFull() {
+        return Math.max(0, theoreticalArrivalTime.get() - nanoClock.getAsLong());
+    }
+
+    @Override
+    public RateLimitAlgorithm getAlgorithm() {
+        return RateLimitAlgorithm.TOKEN_BUCKET;
+    }
+
+    /**
+     * 빈 버킷이 다시 가득 차는 데 걸리는 시간
+     */
+    @Override
+    public long getFullResetNanos() {
+        return burstToleranceNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GcraRateLimiter{capacity=%d, refillRate=%d, tokens=%d}", capacity, refillRate, availableTokens());
+    }
+}
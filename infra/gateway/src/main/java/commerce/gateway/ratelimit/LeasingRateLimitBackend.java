@@ -0,0 +1,223 @@
+package commerce.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import commerce.gateway.ratelimit.SharedTokenStore.TokenLease;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 공유 저장소 기반 분산 백엔드 (로컬 토큰 임대 방식)
+ * - 공유 버킷에서 토큰을 lease.size 개씩 임대해 로컬에서 소비하므로 대부분의 요청은 네트워크를 타지 않는다.
+ * - 로컬 잔량이 절반 이하로 떨어지면 다음 임대를 비동기로 미리 받아 둔다.
+ * - 로컬 잔량이 없으면 진행 중인 임대가 도착할 때까지 기다렸다가 임대분으로 판단한다.
+ *   acquire 는 이벤트 루프 스레드를 막지 않고 기다리며, 동기 tryAcquire 는 호출 스레드를 막고 기다린다.
+ * - 로컬 Limiter 는 저장소가 실패하거나 lease.fetch-timeout 안에 응답하지 않을 때만 쓴다.
+ *   이때 용량/보충 속도를 lease.instances 로 나눠, 모든 인스턴스가 동시에 장애 모드여도 합계가 공유 한도를 넘지 않게 한다.
+ * 정상 동작 중 인스턴스 N 대 기준 초과 허용량은 최대 N x lease.size 이며, lease.size 가 작을수록 정확하고 왕복이 잦아진다.
+ * 허용 시 돌려주는 남은 토큰 수는 공유 버킷이 아니라 이 인스턴스가 임대해 둔 잔량(장애 중에는 로컬 Limiter 잔량)이다.
+ */
+@Slf4j
+public class LeasingRateLimitBackend implements RateLimitBackend {
+
+    // 허용(0 이상)도 차단(음수 나노초)도 아닌 값: 차단 대기 시간이 Long.MIN_VALUE 나노초일 수는 없다
+    private static final long NEEDS_LEASE = Long.MIN_VALUE;
+
+    private final SharedTokenStore sharedTokenStore;
+    private final RateLimitBackend fallback;
+    private final int leaseSize;
+    private final Duration fetchTimeout;
+    private final int instances;
+    private final Cache<String, LocalLease> leases;
+
+    public LeasingRateLimitBackend(SharedTokenStore sharedTokenStore, RateLimitBackend fallback, RateLimitProperties properties) {
+        if (properties.getLease().getSize() <= 0) {
+            throw new IllegalArgumentException("lease size must be positive");
+        }
+
+        this.sharedTokenStore = sharedTokenStore;
+        this.fallback = fallback;
+        this.leaseSize = properties.getLease().getSize();
+        this.fetchTimeout = properties.getLease().getFetchTimeout();
+        this.instances = Math.max(1, properties.getLease().getInstances());
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+
+        log.info("LeasingRateLimitBackend initialized - 임대 단위: {}, 임대 대기: {}, 인스턴스: {}", leaseSize, fetchTimeout, instances);
+    }
+
+    /**
+     * 로컬 잔량이 없으면 임대가 도착할 때까지 호출 스레드를 막고 기다린다. (이벤트 루프에서는 acquire 를 쓴다)
+     */
+    @Override
+    public long tryAcquire(String key, RateLimitConfig config) {
+        long outcome = tryLocal(leaseOf(key), key, config);
+        if (outcome != NEEDS_LEASE) {
+            return outcome;
+        }
+        return acquire(key, config).block();
+    }
+
+    /**
+     * 로컬 잔량이 없으면 임대 도착을 논블로킹으로 기다렸다가 다시 소비한다.
+     * 같은 키의 다른 요청이 임대분을 먼저 가져가면 다시 임대를 받는다.
+     * 저장소가 실패하면(응답 없음 포함) 로컬 Limiter 로 판단한다.
+     */
+    @Override
+    public Mono<Long> acquire(String key, RateLimitConfig config) {
+        LocalLease lease = leaseOf(key);
+        long outcome = tryLocal(lease, key, config);
+        if (outcome != NEEDS_LEASE) {
+            return Mono.just(outcome);
+        }
+
+        // 임대 요청은 같은 키의 다른 요청과 공유하므로 취소가 임대 자체를 취소하지 않게 한다
+        return Mono.defer(() -> Mono.fromFuture(lease.fetch(key, config, fetchSize(config.getRequestTokens())), true))
+                .then(Mono.defer(() -> acquire(key, config)))
+                .onErrorResume(e -> {
+                    log.debug("토큰 임대 실패 - 로컬 Limiter 로 판단: key={}, cause={}", key, e.toString());
+                    return Mono.fromSupplier(() -> fallback.tryAcquire(key, fallbackConfig(config)));
+                });
+    }
+
+    /**
+     * 장애 모드에서 인스턴스 하나가 허용할 몫 (공유 한도 / lease.instances)
+     */
+    private RateLimitConfig fallbackConfig(RateLimitConfig config) {
+        if (instances == 1) {
+            return config;
+        }
+        return new RateLimitConfig(config.getTier(),
+                Math.max(1, config.getRefillRate() / instances),
+                Math.max(config.getRequestTokens(), config.getCapacity() / instances),
+                config.getRequestTokens(), config.getAlgorithm());
+    }
+
+    private LocalLease leaseOf(String key) {
+        LocalLease lease = leases.getIfPresent(key);
+        if (lease == null) {
+            lease = leases.asMap().computeIfAbsent(key, k -> new LocalLease());
+        }
+        return lease;
+    }
+
+    /**
+     * 네트워크 없이 판단할 수 있는 경우의 결과, 임대를 받아야 하면 NEEDS_LEASE
+     */
+    private long tryLocal(LocalLease lease, String key, RateLimitConfig config) {
+        // 1. 로컬 임대분에서 소비 (네트워크 없음)
+        long remaining = lease.tryTake(config.getRequestTokens());
+        if (remaining >= 0) {
+            if (remaining <= leaseSize / 2 && lease.blockedUntilNanos - System.nanoTime() <= 0) {
+                lease.fetch(key, config, fetchSize(config.getRequestTokens())); // 다음 임대분 미리 요청
+            }
+            return remaining;
+        }
+
+        // 2. 공유 버킷도 비어 있는 것으로 확인된 구간이면 저장소를 다시 조회하지 않고 차단
+        long blockedFor = lease.blockedUntilNanos - System.nanoTime();
+        if (blockedFor > 0) {
+            return -blockedFor;
+        }
+        return NEEDS_LEASE;
+    }
+
+    private int fetchSize(int requestTokens) {
+        return Math.max(leaseSize, requestTokens);
+    }
+
+    @Override
+    public boolean reset(String key) {
+        boolean removed = leases.asMap().remove(key) != null;
+        return fallback.reset(key) || removed;
+    }
+
+    @Override
+    public void resetAll() {
+        leases.invalidateAll();
+        fallback.resetAll();
+    }
+
+    @Override
+    public long size() {
+        return leases.estimatedSize();
+    }
+
+    /**
+     * 키별 로컬 임대 상태
+     */
+    private final class LocalLease {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicReference<CompletableFuture<TokenLease>> inflight = new AtomicReference<>();
+        private volatile long blockedUntilNanos = System.nanoTime();
+
+        /**
+         * @return 소비 후 남은 토큰 수, 부족하면 -1
+         */
+        long tryTake(int requestTokens) {
+            while (true) {
+                long current = tokens.get();
+                if (current < requestTokens) {
+                    return -1;
+                }
+                if (tokens.compareAndSet(current, current - requestTokens)) {
+                    return current - requestTokens;
+                }
+            }
+        }
+
+        /**
+         * 진행 중인 임대가 있으면 그것을, 없으면 새 임대를 요청한다. (키당 동시에 하나만)
+         */
+        CompletableFuture<TokenLease> fetch(String key, RateLimitConfig config, int maxTokens) {
+            CompletableFuture<TokenLease> current = inflight.get();
+            if (current != null) {
+                return current;
+            }
+
+            CompletableFuture<TokenLease> next = new CompletableFuture<>();
+            current = inflight.compareAndExchange(null, next);
+            if (current != null) {
+                return current;
+            }
+
+            CompletableFuture<TokenLease> request;
+            try {
+                request = sharedTokenStore.lease(key, config, maxTokens);
+                if (!fetchTimeout.isZero()) {
+                    // 응답하지 않는 저장소는 실패로 본다 (저장소 요청을 취소하지 않도록 사본에 시간 제한)
+                    request = request.copy().orTimeout(fetchTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+
+            request.whenComplete((granted, error) -> {
+                if (error != null) {
+                    log.warn("공유 저장소 토큰 임대 실패: key={}", key, error);
+                } else if (granted.granted() > 0) {
+                    tokens.addAndGet(granted.granted());
+                } else {
+                    blockedUntilNanos = System.nanoTime() + granted.retryAfterNanos();
+                }
+                inflight.set(null);
+
+                if (error != null) {
+                    next.completeExceptionally(error);
+                } else {
+                    next.complete(granted);
+                }
+            });
+            return next;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package commerce.gateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 인스턴스 저장소 (QuotaStore 빈이 없을 때 사용)
+ * 인스턴스마다 따로 집계하므로 다중 인스턴스 환경에서는 인스턴스 수만큼 한도가 늘어난다.
+ * snapshotPath 가 있으면 반영할 때마다 전체 사용량을 파일에 쓰고(임시 파일에 쓴 뒤 원자적으로 교체) 시작 시 읽어 들여 재시작 후에도 사용량을 유지한다.
+ * 형식: 한 줄에 "키 \t 누적값 \t 만료 시각(epoch ms)"
+ * 반영은 QuotaLedger 의 플러시 스레드 하나에서만 일어나므로 메서드 단위로 직렬화한다.
+ */
+@Slf4j
+public class LocalQuotaStore implements QuotaStore {
+
+    private final Path snapshotPath;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public LocalQuotaStore(Path snapshotPath) {
+        this(snapshotPath, Clock.systemUTC());
+    }
+
+    LocalQuotaStore(Path snapshotPath, Clock clock) {
+        this.snapshotPath = snapshotPath;
+        this.clock = clock;
+        if (snapshotPath != null) {
+            load();
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Map<String, Long>> addAndGet(List<QuotaDelta> deltas) {
+        Map<String, Long> totals = new HashMap<>(deltas.size() * 2);
+        for (QuotaDelta delta : deltas) {
+            Entry entry = entries.get(delta.key());
+            long value = (entry != null ? entry.value : 0) + delta.delta();
+            entries.put(delta.key(), new Entry(value, delta.expiresAt().toEpochMilli()));
+            totals.put(delta.key(), value);
+        }
+
+        if (snapshotPath != null) {
+            try {
+                write();
+            } catch (IOException e) {
+                // 메모리에는 이미 반영했으므로 실패로 돌려주면 같은 증가분이 다시 더해진다. 다음 반영 때 다시 쓴다.
+                log.warn("쿼터 스냅샷 기록 실패: {}", snapshotPath, e);
+            }
+        }
+        return CompletableFuture.completedFuture(totals);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void load() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+
+        long now = clock.millis();
+        try {
+            for (String line : Files.readAllLines(snapshotPath, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length != 3) {
+                    continue; // 기록 중 잘린 줄
+                }
+                long expiresAt = Long.parseLong(fields[2]);
+                if (expiresAt > now) {
+                    entries.put(fields[0], new Entry(Long.parseLong(fields[1]), expiresAt));
+                }
+            }
+            log.info("쿼터 스냅샷 로드 완료 - {}개 ({})", entries.size(), snapshotPath);
+        } catch (IOException | NumberFormatException e) {
+            log.warn("쿼터 스냅샷을 읽지 못해 사용량을 초기화합니다: {}", snapshotPath, e);
+            entries.clear();
+        }
+    }
+
+    private void write() throws IOException {
+        long now = clock.millis();
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> e = iterator.next();
+                if (e.getValue().expiresAt <= now) {
+                    iterator.remove(); // 지난 기간은 쓰면서 정리
+                    continue;
+                }
+                writer.write(e.getKey());
+                writer.write('\t');
+                writer.write(Long.toString(e.getValue().value));
+                writer.write('\t');
+                writer.write(Long.toString(e.getValue().expiresAt));
+                writer.newLine();
+            }
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record Entry(long value, long expiresAt) {
+    }
+}
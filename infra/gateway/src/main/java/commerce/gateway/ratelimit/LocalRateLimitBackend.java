@@ -0,0 +1,34 @@
+package commerce.gateway.ratelimit;
+
+/**
+ * 인스턴스 메모리 기반 백엔드
+ * 게이트웨이가 여러 대면 인스턴스마다 독립적으로 제한된다.
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final RateLimitBucketStore bucketStore;
+
+    public LocalRateLimitBackend(RateLimitBucketStore bucketStore) {
+        this.bucketStore = bucketStore;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitConfig config) {
+        return bucketStore.getOrCreate(key, config).tryAcquire(config.getRequestTokens());
+    }
+
+    @Override
+    public boolean reset(String key) {
+        return bucketStore.remove(key) != null;
+    }
+
+    @Override
+    public void resetAll() {
+        bucketStore.clear();
+    }
+
+    @Override
+    public long size() {
+        return bucketStore.size();
+    }
+}
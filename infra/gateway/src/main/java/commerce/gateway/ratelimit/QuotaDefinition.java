@@ -0,0 +1,12 @@
+package commerce.gateway.ratelimit;
+
+/**
+ * 인증 사용자별 장기 쿼터 (gateway.rate-limit.quotas)
+ * 한도 단위는 엔드포인트 비용 가중치이며, 0 이면 해당 기간은 제한하지 않는다.
+ *
+ * @param name    쿼터 이름 (저장소 키와 지표 태그에 사용)
+ * @param daily   하루 한도
+ * @param monthly 한 달 한도
+ */
+public record QuotaDefinition(String name, long daily, long monthly) {
+}
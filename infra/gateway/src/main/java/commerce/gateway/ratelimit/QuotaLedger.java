@@ -0,0 +1,408 @@
+package commerce.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 인증 사용자별 일/월 쿼터 집계
+ * - 요청 경로: 기간별 LongAdder(Striped Adder)에 비용을 더하고 "저장소 누적값 + 이후 로컬 증가분"을 한도와 비교한다.
+ *   저장소 왕복이 없으므로 쿼터 검사가 요청 지연에 더해지지 않는다.
+ * - 플러시 스레드(quota-flusher): flushInterval 마다 마지막 반영 이후 증가분을 모아 QuotaStore 에 한 번에 반영하고,
+ *   돌려받은 누적값(다른 인스턴스 사용량 포함)을 기준값으로 삼는다.
+ * - 처음 본 기간은 만들 때 기준값을 비동기로 조회한다. 조회가 끝나기 전까지(또는 실패하면 다음 플러시까지)는 기준값 0 으로 판단한다.
+ * - 반영이 실패하면 기준값을 바꾸지 않고 다음 주기에 증가분을 다시 보낸다. (저장소 장애 시 로컬 집계로만 제한)
+ * 인스턴스 간 초과 허용량은 한 주기 동안 다른 인스턴스가 사용한 양까지이며, 사용자 기록이 메모리에서 밀려나거나
+ * 기간이 바뀌면 남은 증가분은 다음 플러시에서 반영된다.
+ */
+@Slf4j
+public class QuotaLedger implements AutoCloseable {
+
+    static final String REQUESTS = "gateway.quota.requests";
+    static final String FLUSH_FAILURES = "gateway.quota.flush.failures";
+    static final String DAILY = "daily";
+    static final String MONTHLY = "monthly";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Duration STORE_RETENTION = Duration.ofDays(1); // 기간이 끝난 뒤 저장소에 남겨둘 시간
+    private static final Duration IDLE_TIMEOUT = Duration.ofHours(1);
+    private static final long MAX_USERS = 100_000;
+
+    private final QuotaStore store;
+    private final Clock clock;
+    private final ZoneId zone;
+    private final Duration flushInterval;
+    private final MeterRegistry registry;
+    private final Map<String, Cache<String, UserQuota>> users = new ConcurrentHashMap<>(); // 쿼터 이름 -> 사용자 -> 사용량
+    private final Queue<Window> retired = new ConcurrentLinkedQueue<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final Counter flushFailures;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private volatile Periods periods;
+
+    public QuotaLedger(QuotaStore store, RateLimitProperties.QuotaAccounting accounting, MeterRegistry registry) {
+        this(store, accounting, registry, Clock.systemUTC(), true);
+    }
+
+    QuotaLedger(QuotaStore store, RateLimitProperties.QuotaAccounting accounting, MeterRegistry registry, Clock clock, boolean schedule) {
+        this.store = store;
+        this.clock = clock;
+        this.zone = accounting.getZone();
+        this.flushInterval = accounting.getFlushInterval();
+        this.registry = registry;
+        this.flushFailures = Counter.builder(FLUSH_FAILURES)
+                .description("쿼터 사용량 반영 실패 수")
+                .register(registry);
+
+        if (schedule) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "quota-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+
+        log.info("QuotaLedger initialized - 저장소: {}, 반영 주기: {}, 시간대: {}", store.getClass().getSimpleName(), flushInterval, zone);
+    }
+
+    /**
+     * 쿼터에서 cost 만큼 사용한다. 일/월 중 하나라도 한도를 넘으면 사용하지 않고 차단 결과를 반환한다.
+     */
+    public QuotaResult consume(QuotaDefinition quota, String userId, int cost) {
+        long now = clock.millis();
+        Periods current = periods(now);
+        UserQuota usage = users(quota.name()).get(userId, id -> new UserQuota());
+
+        Window daily = quota.daily() > 0 ? usage.daily(quota.name(), userId, current, retired, this::lookupBase) : null;
+        Window monthly = quota.monthly() > 0 ? usage.monthly(quota.name(), userId, current, retired, this::lookupBase) : null;
+
+        if (daily != null) {
+            daily.used.add(cost);
+            if (daily.current() > quota.daily()) {
+                daily.used.add(-cost);
+                return blocked(quota, DAILY, quota.daily(), daily, now);
+            }
+        }
+        if (monthly != null) {
+            monthly.used.add(cost);
+            if (monthly.current() > quota.monthly()) {
+                monthly.used.add(-cost);
+                if (daily != null) {
+                    daily.used.add(-cost);
+                }
+                return blocked(quota, MONTHLY, quota.monthly(), monthly, now);
+            }
+        }
+
+        meters(quota.name()).allowed.increment();
+        long dailyRemaining = daily != null ? quota.daily() - daily.current() : Long.MAX_VALUE;
+        long monthlyRemaining = monthly != null ? quota.monthly() - monthly.current() : Long.MAX_VALUE;
+        return dailyRemaining <= monthlyRemaining
+                ? new QuotaResult(true, DAILY, quota.daily(), Math.max(0, dailyRemaining), 0)
+                : new QuotaResult(true, MONTHLY, quota.monthly(), Math.max(0, monthlyRemaining), 0);
+    }
+
+    /**
+     * consume 로 허용된 사용량을 되돌린다. (쿼터 검사 뒤 Rate Limit 등 다른 이유로 요청을 거절한 경우)
+     * 사용자의 현재 일/월 기간에서 빼며, 허용 지표는 되돌리지 않는다.
+     */
+    public void refund(QuotaDefinition quota, String userId, int cost) {
+        Cache<String, UserQuota> cache = users.get(quota.name());
+        UserQuota usage = cache != null ? cache.getIfPresent(userId) : null;
+        if (usage == null) {
+            return;
+        }
+        Window daily = usage.daily;
+        Window monthly = usage.monthly;
+        if (quota.daily() > 0 && daily != null) {
+            daily.used.add(-cost);
+        }
+        if (quota.monthly() > 0 && monthly != null) {
+            monthly.used.add(-cost);
+        }
+    }
+
+    /**
+     * 새 기간의 저장소 누적값을 비동기로 조회해 기준값으로 삼는다.
+     * 그 사이 플러시가 먼저 기준값을 정했으면 덮어쓰지 않는다.
+     */
+    private void lookupBase(Window window) {
+        CompletableFuture<Map<String, Long>> lookup;
+        try {
+            lookup = store.addAndGet(List.of(window.delta(0)));
+        } catch (RuntimeException e) {
+            lookup = CompletableFuture.failedFuture(e);
+        }
+        lookup.whenComplete((totals, error) -> {
+            if (error != null) {
+                log.debug("쿼터 기준값 조회 실패 - 다음 플러시에서 다시 조회합니다: key={}, cause={}", window.key, error.toString());
+                return;
+            }
+            Long total = totals.get(window.key);
+            if (total != null) {
+                window.sync.compareAndSet(Sync.UNKNOWN, new Sync(total, 0));
+            }
+        });
+    }
+
+    private QuotaResult blocked(QuotaDefinition quota, String period, long limit, Window window, long now) {
+        meters(quota.name()).blocked.increment();
+        long retryAfterSeconds = Math.max(1, (window.endsAt - now + 999) / 1000);
+        return new QuotaResult(false, period, limit, 0, retryAfterSeconds);
+    }
+
+    /**
+     * 마지막 반영 이후 증가분을 저장소에 반영하고 기준값을 갱신한다. (플러시 스레드와 종료 시 호출)
+     */
+    void flush() {
+        flushLock.lock();
+        List<Window> drained = new ArrayList<>();
+        try {
+            users.values().forEach(Cache::cleanUp); // 밀려난 사용자의 기간을 retired 로 옮긴다
+            Window window;
+            while ((window = retired.poll()) != null) {
+                drained.add(window);
+            }
+
+            List<Window> windows = new ArrayList<>(drained);
+            for (Cache<String, UserQuota> cache : users.values()) {
+                for (UserQuota usage : cache.asMap().values()) {
+                    usage.collect(windows);
+                }
+            }
+
+            List<QuotaStore.QuotaDelta> deltas = new ArrayList<>();
+            List<Window> sent = new ArrayList<>();
+            List<Long> sums = new ArrayList<>();
+            for (Window w : windows) {
+                long sum = w.used.sum();
+                Sync sync = w.sync.get();
+                long delta = sum - sync.flushed();
+                if (delta != 0 || sync == Sync.UNKNOWN) {
+                    deltas.add(w.delta(delta));
+                    sent.add(w);
+                    sums.add(sum);
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            Map<String, Long> totals = store.addAndGet(deltas).get(Math.max(1000, flushInterval.toMillis()), TimeUnit.MILLISECONDS);
+            for (int i = 0; i < sent.size(); i++) {
+                Window w = sent.get(i);
+                Long total = totals.get(w.key);
+                if (total != null) {
+                    w.sync.set(new Sync(total, sums.get(i)));
+                }
+            }
+            drained.clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            onFlushFailure(drained, e);
+        } catch (Exception e) {
+            onFlushFailure(drained, e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void onFlushFailure(List<Window> drained, Exception e) {
+        flushFailures.increment();
+        retired.addAll(drained); // 다음 주기에 다시 보낸다
+        log.warn("쿼터 사용량 반영 실패 - 다음 주기에 재시도합니다: {}", e.toString());
+    }
+
+    /**
+     * 플러시 스레드를 멈추고 남은 증가분을 반영한다.
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private Cache<String, UserQuota> users(String quota) {
+        Cache<String, UserQuota> cache = users.get(quota);
+        if (cache == null) {
+            cache = users.computeIfAbsent(quota, q -> Caffeine.newBuilder()
+                    .maximumSize(MAX_USERS)
+                    .expireAfterAccess(IDLE_TIMEOUT)
+                    .executor(Runnable::run)
+                    .<String, UserQuota>removalListener((userId, usage, cause) -> {
+                        if (usage != null) {
+                            usage.collect(retired);
+                        }
+                    })
+                    .build());
+        }
+        return cache;
+    }
+
+    private Periods periods(long now) {
+        Periods current = periods;
+        if (current == null || now >= current.dayEndsAt || now < current.dayStartsAt) {
+            LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+            LocalDate firstOfMonth = date.withDayOfMonth(1);
+            current = new Periods(
+                    DAY_FORMAT.format(date),
+                    date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+                    MONTH_FORMAT.format(date),
+                    firstOfMonth.plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            periods = current;
+        }
+        return current;
+    }
+
+    private Meters meters(String quota) {
+        Meters m = meters.get(quota);
+        if (m == null) {
+            m = meters.computeIfAbsent(quota, q -> new Meters(
+                    Counter.builder(REQUESTS)
+                            .description("쿼터 검사 요청 수")
+                            .tags("quota", q, "result", "allowed")
+                            .register(registry),
+                    Counter.builder(REQUESTS)
+                            .description("쿼터 검사 요청 수")
+                            .tags("quota", q, "result", "blocked")
+                            .register(registry)));
+        }
+        return m;
+    }
+
+    /**
+     * 현재 일/월 기간 (날짜가 바뀔 때만 다시 계산해 요청마다 날짜 객체를 만들지 않는다)
+     */
+    private record Periods(String day, long dayStartsAt, long dayEndsAt, String month, long monthEndsAt) {
+    }
+
+    /**
+     * 사용자 한 명의 현재 일/월 기간
+     */
+    private static final class UserQuota {
+
+        private volatile Window daily;
+        private volatile Window monthly;
+
+        /**
+         * @param created 새 기간을 만들었을 때 잠금 밖에서 호출된다.
+         */
+        Window daily(String quota, String userId, Periods periods, Queue<Window> retired, Consumer<Window> created) {
+            Window window = daily;
+            if (window != null && window.endsAt == periods.dayEndsAt) {
+                return window;
+            }
+            synchronized (this) {
+                if (daily != null && daily.endsAt == periods.dayEndsAt) {
+                    return daily;
+                }
+                if (daily != null) {
+                    retired.add(daily);
+                }
+                window = daily = new Window(quota + ":" + userId + ":d" + periods.day, periods.dayEndsAt);
+            }
+            created.accept(window);
+            return window;
+        }
+
+        Window monthly(String quota, String userId, Periods periods, Queue<Window> retired, Consumer<Window> created) {
+            Window window = monthly;
+            if (window != null && window.endsAt == periods.monthEndsAt) {
+                return window;
+            }
+            synchronized (this) {
+                if (monthly != null && monthly.endsAt == periods.monthEndsAt) {
+                    return monthly;
+                }
+                if (monthly != null) {
+                    retired.add(monthly);
+                }
+                window = monthly = new Window(quota + ":" + userId + ":m" + periods.month, periods.monthEndsAt);
+            }
+            created.accept(window);
+            return window;
+        }
+
+        void collect(Collection<Window> target) {
+            Window d = daily;
+            Window m = monthly;
+            if (d != null) {
+                target.add(d);
+            }
+            if (m != null) {
+                target.add(m);
+            }
+        }
+    }
+
+    /**
+     * 한 사용자의 한 기간 사용량
+     * used 는 이 인스턴스의 누적 사용량, sync 는 마지막 반영 시점의 (저장소 누적값, 그때까지 반영한 used)
+     */
+    private static final class Window {
+
+        final String key;
+        final long endsAt;
+        final LongAdder used = new LongAdder();
+        final AtomicReference<Sync> sync = new AtomicReference<>(Sync.UNKNOWN); // 플러시 스레드와 기준값 조회만 기록한다
+
+        Window(String key, long endsAt) {
+            this.key = key;
+            this.endsAt = endsAt;
+        }
+
+        long current() {
+            Sync s = sync.get();
+            return s.base() + used.sum() - s.flushed();
+        }
+
+        QuotaStore.QuotaDelta delta(long delta) {
+            return new QuotaStore.QuotaDelta(key, delta, Instant.ofEpochMilli(endsAt).plus(STORE_RETENTION));
+        }
+    }
+
+    private record Sync(long base, long flushed) {
+        static final Sync UNKNOWN = new Sync(0, 0);
+    }
+
+    private record Meters(Counter allowed, Counter blocked) {
+    }
+}
@@ -0,0 +1,14 @@
+package commerce.gateway.ratelimit;
+
+/**
+ * 쿼터 검사 결과
+ * 일/월 기간 중 남은 양이 적은(차단된 경우 초과한) 기간 기준으로 채운다.
+ *
+ * @param allowed           요청 허용 여부
+ * @param period            기준 기간 (daily | monthly)
+ * @param limit             기간 한도
+ * @param remaining         기간 내 남은 양
+ * @param retryAfterSeconds 차단된 경우 기간이 끝날 때까지 남은 시간 (초 단위)
+ */
+public record QuotaResult(boolean allowed, String period, long limit, long remaining, long retryAfterSeconds) {
+}
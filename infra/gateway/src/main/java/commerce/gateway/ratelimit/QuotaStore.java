@@ -0,0 +1,29 @@
+package commerce.gateway.ratelimit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 쿼터 사용량을 영속화하는 저장소 계약
+ * QuotaLedger 가 인스턴스 메모리에서 집계한 증가분을 주기적으로 모아 한 번에 반영한다.
+ * 요청 경로에서는 새 기간을 만들 때 기준값 조회(delta=0)만 호출하고 결과를 기다리지 않으므로, 구현체는 호출 스레드를 막지 않아야 한다.
+ * 구현체는 키별 증가를 원자적으로 수행하고 반영 후 누적값을 돌려줘야 한다. (예: Redis INCRBY + EXPIREAT 파이프라인)
+ * 이 빈이 없으면 인스턴스 저장소(LocalQuotaStore)를 사용한다.
+ */
+public interface QuotaStore {
+
+    /**
+     * 키별로 증가분을 더하고 반영 후의 누적값을 반환한다. (delta=0 이면 현재 누적값 조회)
+     */
+    CompletableFuture<Map<String, Long>> addAndGet(List<QuotaDelta> deltas);
+
+    /**
+     * @param key       쿼터 기간 키 (쿼터:사용자:기간)
+     * @param delta     마지막 반영 이후 증가분
+     * @param expiresAt 저장소에서 키를 지워도 되는 시각
+     */
+    record QuotaDelta(String key, long delta, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package commerce.gateway.ratelimit;
+
+/**
+ * 등급별로 선택 가능한 Rate Limit 알고리즘
+ */
+public enum RateLimitAlgorithm {
+
+    /**
+     * 토큰 버킷 (GCRA 구현) - 용량만큼의 버스트를 허용한다.
+     */
+    TOKEN_BUCKET {
+        @Override
+        public RateLimiter create(RateLimitConfig config) {
+            return new GcraRateLimiter(config.getCapacity(), config.getRefillRate());
+        }
+    },
+
+    /**
+     * 슬라이딩 윈도우 카운터 - 윈도우 경계에서 용량 전체가 다시 열리지 않으므로 로그인처럼 버스트에 민감한 경로에 적합하다.
+     */
+    SLIDING_WINDOW {
+        @Override
+        public RateLimiter create(RateLimitConfig config) {
+            return new SlidingWindowRateLimiter(config.getCapacity(), config.getRefillRate());
+        }
+    };
+
+    public abstract RateLimiter create(RateLimitConfig config);
+}
@@ -0,0 +1,46 @@
+package commerce.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate Limit 버킷 상태를 보관하는 백엔드 SPI
+ * - LocalRateLimitBackend: 게이트웨이 인스턴스 메모리에만 보관 (기본)
+ * - LeasingRateLimitBackend: 여러 게이트웨이가 공유 저장소의 버킷을 나눠 쓴다
+ */
+public interface RateLimitBackend {
+
+    /**
+     * 토큰 소비 시도
+     *
+     * @return 허용 시 남은 토큰 수(0 이상), 차단 시 재시도까지 남은 시간(나노초)의 음수 값
+     * @see RateLimiter#tryAcquire(int)
+     */
+    long tryAcquire(String key, RateLimitConfig config);
+
+    /**
+     * 토큰 소비 시도 (논블로킹)
+     * 원격 저장소를 기다려야 하는 백엔드는 호출 스레드(이벤트 루프)를 막지 않도록 재정의한다.
+     *
+     * @return tryAcquire 와 같은 의미의 결과
+     */
+    default Mono<Long> acquire(String key, RateLimitConfig config) {
+        return Mono.fromSupplier(() -> tryAcquire(key, config));
+    }
+
+    /**
+     * 특정 키의 로컬 상태 삭제
+     *
+     * @return 삭제된 상태가 있었는지 여부
+     */
+    boolean reset(String key);
+
+    /**
+     * 모든 키의 로컬 상태 삭제
+     */
+    void resetAll();
+
+    /**
+     * 로컬에 보관 중인 키 수
+     */
+    long size();
+}
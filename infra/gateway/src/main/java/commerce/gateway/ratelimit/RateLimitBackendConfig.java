@@ -0,0 +1,45 @@
+package commerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+public class RateLimitBackendConfig {
+
+    /**
+     * SharedTokenStore 빈이 있으면 공유 저장소 기반 임대 백엔드, 없으면 인스턴스 메모리 백엔드를 사용한다.
+     */
+    @Bean
+    RateLimitBackend rateLimitBackend(RateLimitBucketStore bucketStore,
+                                      ObjectProvider<SharedTokenStore> sharedTokenStore,
+                                      RateLimitProperties properties) {
+        LocalRateLimitBackend local = new LocalRateLimitBackend(bucketStore);
+
+        SharedTokenStore shared = sharedTokenStore.getIfAvailable();
+        if (shared == null) {
+            log.info("Rate Limit 백엔드: 인스턴스 메모리");
+            return local;
+        }
+
+        log.info("Rate Limit 백엔드: 공유 저장소 임대 ({})", shared.getClass().getSimpleName());
+        return new LeasingRateLimitBackend(shared, local, properties);
+    }
+
+    /**
+     * QuotaStore 빈이 있으면 공유 저장소, 없으면 인스턴스 저장소(선택적으로 스냅샷 파일)에 쿼터 사용량을 반영한다.
+     */
+    @Bean
+    QuotaLedger quotaLedger(ObjectProvider<QuotaStore> quotaStore, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        RateLimitProperties.QuotaAccounting accounting = properties.getQuotaAccounting();
+        QuotaStore store = quotaStore.getIfAvailable(() -> new LocalQuotaStore(
+                StringUtils.hasText(accounting.getSnapshotPath()) ? Path.of(accounting.getSnapshotPath()) : null));
+        return new QuotaLedger(store, accounting, meterRegistry);
+    }
+}
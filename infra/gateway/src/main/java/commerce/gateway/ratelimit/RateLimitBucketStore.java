@@ -0,0 +1,115 @@
+package commerce.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 키별 Rate Limiter 를 보관하는 용량 제한 저장소
+ * - 최대 버킷 수를 넘으면 W-TinyLFU(Caffeine) 정책으로 자주 쓰이지 않는 키부터 제거한다.
+ *   스푸핑된 X-Forwarded-For 로 키를 대량 생성해도 자주 쓰이는 키는 밀려나지 않는다.
+ * - 일정 시간 접근이 없는 버킷은 만료된다. 단, 다시 가득 차기 전에는 만료되지 않으므로
+ *   만료가 제한 우회로 이어지지 않는다. 만료는 Caffeine 의 타이밍 휠로 처리되어
+ *   백그라운드 작업량이 전체 버킷 수가 아닌 생성/만료되는 버킷 수에 비례한다.
+ * - 적중/제거/크기 지표는 Micrometer(cache.*{cache=rateLimitBuckets})로 노출된다.
+ */
+@Slf4j
+@Component
+public class RateLimitBucketStore {
+
+    static final String CACHE_NAME = "rateLimitBuckets";
+
+    private final Cache<String, RateLimiter> buckets;
+
+    public RateLimitBucketStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfter(new IdleExpiry(properties.getIdleTimeout()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, CACHE_NAME);
+
+        log.info("RateLimitBucketStore initialized - 최대 버킷 수: {}, 유휴 만료: {}", properties.getMaxBuckets(), properties.getIdleTimeout());
+    }
+
+    /**
+     * 키에 해당하는 Limiter 조회, 없으면 설정에 맞게 생성
+     * 등급 설정이 갱신되어 기존 Limiter 와 알고리즘/용량/보충 속도가 다르면 새 설정으로 교체한다.
+     */
+    public RateLimiter getOrCreate(String key, RateLimitConfig config) {
+        RateLimiter limiter = buckets.getIfPresent(key);
+        if (limiter != null) {
+            if (matches(limiter, config)) {
+                return limiter;
+            }
+            return buckets.asMap().compute(key, (k, current) -> current != null && matches(current, config)
+                    ? current
+                    : config.getAlgorithm().create(config));
+        }
+        return buckets.asMap().computeIfAbsent(key, k -> config.getAlgorithm().create(config));
+    }
+
+    private static boolean matches(RateLimiter limiter, RateLimitConfig config) {
+        return limiter.getAlgorithm() == config.getAlgorithm()
+                && limiter.getCapacity() == config.getCapacity()
+                && limiter.getRefillRate() == config.getRefillRate();
+    }
+
+    public RateLimiter remove(String key) {
+        return buckets.asMap().remove(key);
+    }
+
+    public void clear() {
+        buckets.invalidateAll();
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    public Map<String, RateLimiter> asMap() {
+        return buckets.asMap();
+    }
+
+    /**
+     * 대기 중인 만료/제거 작업을 즉시 수행한다.
+     */
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    /**
+     * 마지막 접근 후 max(유휴 시간, Limiter 가 초기 상태로 돌아가는 시간) 뒤에 만료
+     */
+    static class IdleExpiry implements Expiry<String, RateLimiter> {
+
+        private final long idleTimeoutNanos;
+
+        IdleExpiry(Duration idleTimeout) {
+            this.idleTimeoutNanos = idleTimeout.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, RateLimiter limiter, long currentTime) {
+            return Math.max(idleTimeoutNanos, limiter.getFullResetNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, RateLimiter limiter, long currentTime, long currentDuration) {
+            return Math.max(idleTimeoutNanos, limiter.getFullResetNanos());
+        }
+
+        @Override
+        public long expireAfterRead(String key, RateLimiter limiter, long currentTime, long currentDuration) {
+            return Math.max(idleTimeoutNanos, limiter.getFullResetNanos());
+        }
+    }
+}
@@ -1,29 +1,50 @@
 package commerce.gateway.ratelimit;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 
 
 /**
- * Rate Limiting 설정 정보를 담는 클래스
- * API 별로 사전 정의된 설정을 제공한다.
+ * Rate Limiting 설정 정보를 담는 불변 클래스
+ * 경로별 설정은 gateway.rate-limit.tiers 에서 읽어 RateLimitTierResolver 가 공유 인스턴스로 제공한다.
  */
 @Getter
-@AllArgsConstructor
-@NoArgsConstructor
 public class RateLimitConfig {
 
-    private int refillRate; // 초당 토큰 보충 속도
-    private int capacity;   // 버킷 최대 용량
-    private int requestTokens; // 요청당 소비되는 토큰 수
+    private final String tier;    // 등급 이름 (버킷 키와 지표 태그에 사용)
+    private final int refillRate; // 초당 토큰 보충 속도
+    private final int capacity;   // 버킷 최대 용량
+    private final int requestTokens; // 요청당 소비되는 토큰 수
+    private final RateLimitAlgorithm algorithm; // 제한 알고리즘
+
+    public RateLimitConfig(String tier, int refillRate, int capacity, int requestTokens, RateLimitAlgorithm algorithm) {
+        this.tier = tier;
+        this.refillRate = refillRate;
+        this.capacity = capacity;
+        this.requestTokens = requestTokens;
+        this.algorithm = algorithm;
+    }
+
+    public RateLimitConfig(String tier, int refillRate, int capacity, int requestTokens) {
+        this(tier, refillRate, capacity, requestTokens, RateLimitAlgorithm.TOKEN_BUCKET);
+    }
+
+    public RateLimitConfig(int refillRate, int capacity, int requestTokens) {
+        this("custom", refillRate, capacity, requestTokens);
+    }
+
+    /**
+     * 같은 등급(같은 버킷)에서 요청당 소비 토큰 수만 다른 설정
+     */
+    public RateLimitConfig withRequestTokens(int requestTokens) {
+        return new RateLimitConfig(tier, refillRate, capacity, requestTokens, algorithm);
+    }
 
     /**
      * 로그인 API용
      * 브루트포스 공격 방어 목적
      */
     public static RateLimitConfig forAuth() {
-        return new RateLimitConfig(2, 10, 1);
+        return new RateLimitConfig("auth", 2, 10, 1);
     }
 
     /**
@@ -31,7 +52,7 @@ public class RateLimitConfig {
      * 서비스 전체 보호 목적(일반 사용자 편의 목적)
      */
      public static RateLimitConfig forGeneral() {
-         return new RateLimitConfig(50, 100, 1);
+         return new RateLimitConfig("general", 50, 100, 1);
      }
 
     /**
@@ -39,7 +60,7 @@ public class RateLimitConfig {
      * 중요한 관리 기능 보호
      */
     public static RateLimitConfig forAdmin() {
-        return new RateLimitConfig(10, 30, 1);
+        return new RateLimitConfig("admin", 10, 30, 1);
     }
 
 
@@ -48,6 +69,6 @@ public class RateLimitConfig {
      * 모니터링 빈번한 요청
      */
     public static RateLimitConfig forHealth() {
-        return new RateLimitConfig(100, 200, 1);
+        return new RateLimitConfig("health", 100, 200, 1);
     }
 }
@@ -0,0 +1,94 @@
+package commerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rate Limit 지표 (Micrometer)
+ * - gateway.ratelimit.requests{tier, route, result=allowed|blocked}: 요청 수 (Striped Adder 기반 카운터)
+ * - gateway.ratelimit.remaining{tier, route}: 허용 시점 남은 토큰 수 분포
+ * Meter 는 등급/라우트별로 한 번만 등록하고 캐시해 요청마다 태그 객체를 만들지 않는다.
+ */
+@Component
+public class RateLimitMetrics {
+
+    static final String REQUESTS = "gateway.ratelimit.requests";
+    static final String REMAINING = "gateway.ratelimit.remaining";
+    static final String UNKNOWN_ROUTE = "unknown";
+
+    private final MeterRegistry registry;
+    private final Map<String, Map<String, Meters>> meters = new ConcurrentHashMap<>();
+
+    public RateLimitMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void recordAllowed(RateLimitConfig config, String routeId, int remaining) {
+        Meters m = meters(config, routeId);
+        m.allowed.increment();
+        m.remaining.record(remaining);
+    }
+
+    void recordBlocked(RateLimitConfig config, String routeId) {
+        meters(config, routeId).blocked.increment();
+    }
+
+    long totalAllowed() {
+        return sum(false);
+    }
+
+    long totalBlocked() {
+        return sum(true);
+    }
+
+    private long sum(boolean blocked) {
+        double total = 0;
+        for (Map<String, Meters> byRoute : meters.values()) {
+            for (Meters m : byRoute.values()) {
+                total += blocked ? m.blocked.count() : m.allowed.count();
+            }
+        }
+        return (long) total;
+    }
+
+    private Meters meters(RateLimitConfig config, String routeId) {
+        String route = routeId != null ? routeId : UNKNOWN_ROUTE;
+        Map<String, Meters> byRoute = meters.get(config.getTier());
+        if (byRoute == null) {
+            byRoute = meters.computeIfAbsent(config.getTier(), tier -> new ConcurrentHashMap<>());
+        }
+        Meters m = byRoute.get(route);
+        if (m == null) {
+            m = byRoute.computeIfAbsent(route, r -> register(config, r));
+        }
+        return m;
+    }
+
+    private Meters register(RateLimitConfig config, String route) {
+        String tier = config.getTier();
+        return new Meters(
+                Counter.builder(REQUESTS)
+                        .description("Rate Limit 검사 요청 수")
+                        .tags("tier", tier, "route", route, "result", "allowed")
+                        .register(registry),
+                Counter.builder(REQUESTS)
+                        .description("Rate Limit 검사 요청 수")
+                        .tags("tier", tier, "route", route, "result", "blocked")
+                        .register(registry),
+                DistributionSummary.builder(REMAINING)
+                        .description("허용된 요청의 남은 토큰 수")
+                        .tags("tier", tier, "route", route)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue((double) config.getCapacity())
+                        .register(registry));
+    }
+
+    private record Meters(Counter allowed, Counter blocked, DistributionSummary remaining) {
+    }
+}
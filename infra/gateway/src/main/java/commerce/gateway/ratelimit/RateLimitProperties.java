@@ -0,0 +1,181 @@
+package commerce.gateway.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate Limiting 운영 설정 (gateway.rate-limit.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 메모리에 유지할 최대 버킷 수
+     * 초과 시 W-TinyLFU 정책으로 사용 빈도가 낮은 키부터 제거된다.
+     */
+    private long maxBuckets = 100_000;
+
+    /**
+     * 마지막 접근 이후 버킷을 유지하는 시간
+     * 버킷이 다시 가득 차는 시간보다 짧게 설정해도 그 시간까지는 유지된다.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * 규칙에 해당하지 않는 요청에 적용할 등급
+     */
+    private String defaultTier = "general";
+
+    /**
+     * 등급별 제한 설정 (이름 -> 설정)
+     */
+    private Map<String, Tier> tiers = new LinkedHashMap<>();
+
+    /**
+     * 라우트 ID 또는 경로 패턴별 등급 지정 규칙
+     * 라우트 ID 규칙이 경로 규칙보다 우선한다.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * 공유 저장소(SharedTokenStore) 사용 시 토큰 임대 설정
+     */
+    private Lease lease = new Lease();
+
+    /**
+     * 엔드포인트별 비용 가중치와 장기 쿼터 지정 규칙 (HTTP 메서드 + 경로, 메서드를 지정한 규칙이 우선)
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * 인증 사용자별 일/월 쿼터 (이름 -> 한도, 단위는 비용 가중치)
+     */
+    private Map<String, Quota> quotas = new LinkedHashMap<>();
+
+    /**
+     * 쿼터 사용량 집계/저장 설정
+     */
+    private QuotaAccounting quotaAccounting = new QuotaAccounting();
+
+    @Getter
+    @Setter
+    public static class Lease {
+
+        /**
+         * 한 번에 임대할 토큰 수
+         * 작을수록 인스턴스 간 제한이 정확해지고, 클수록 저장소 왕복이 줄어든다.
+         */
+        private int size = 10;
+
+        /**
+         * 임대 요청이 이 시간 안에 응답하지 않으면 저장소 장애로 보고 로컬 Limiter 로 판단한다.
+         * 기다리는 동안 응답만 늦출 뿐 이벤트 루프 스레드는 막지 않는다. 0 이면 저장소 클라이언트의 타임아웃에 맡긴다.
+         */
+        private Duration fetchTimeout = Duration.ofMillis(20);
+
+        /**
+         * 공유 버킷을 나눠 쓰는 게이트웨이 인스턴스 수
+         * 저장소 장애 중에는 인스턴스마다 용량/보충 속도를 이 값으로 나눈 로컬 Limiter 로 제한한다.
+         */
+        private int instances = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Tier {
+
+        private int refillRate;        // 초당 토큰 보충 속도
+        private int capacity;          // 버킷 최대 용량
+        private int requestTokens = 1; // 요청당 소비되는 토큰 수
+        private RateLimitAlgorithm algorithm = RateLimitAlgorithm.TOKEN_BUCKET;
+
+        RateLimitConfig toConfig(String name) {
+            return new RateLimitConfig(name, refillRate, capacity, requestTokens, algorithm);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+
+        /**
+         * HTTP 메서드 (비우면 모든 메서드)
+         */
+        private String method;
+
+        /**
+         * 경로 패턴 (등급 규칙과 같은 형식)
+         */
+        private String path;
+
+        /**
+         * 요청당 소비할 토큰 수 (등급의 requestTokens 대신 사용, 버킷 용량을 넘으면 용량으로 제한)
+         */
+        private int cost = 1;
+
+        /**
+         * 적용할 쿼터 이름 (비우면 쿼터 없음)
+         */
+        private String quota;
+    }
+
+    @Getter
+    @Setter
+    public static class Quota {
+
+        private long daily;   // 하루 한도 (0 이면 제한 없음)
+        private long monthly; // 한 달 한도 (0 이면 제한 없음)
+    }
+
+    @Getter
+    @Setter
+    public static class QuotaAccounting {
+
+        /**
+         * 로컬 사용량을 저장소에 반영하는 주기
+         * 인스턴스 간 초과 허용량은 이 주기 동안의 사용량만큼이다.
+         */
+        private Duration flushInterval = Duration.ofSeconds(10);
+
+        /**
+         * 일/월 경계를 계산할 시간대
+         */
+        private ZoneId zone = ZoneId.of("Asia/Seoul");
+
+        /**
+         * QuotaStore 빈이 없을 때 인스턴스 저장소의 스냅샷 파일 (빈 값이면 재시작 시 사용량 초기화)
+         */
+        private String snapshotPath;
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        /**
+         * 게이트웨이 라우트 ID (예: review-service)
+         */
+        private String routeId;
+
+        /**
+         * 경로 패턴 (예: /actuator/health/**)
+         * '*' 는 세그먼트 하나, 마지막의 '**' 는 나머지 세그먼트 전체와 일치한다.
+         */
+        private String path;
+
+        /**
+         * 적용할 등급 이름
+         */
+        private String tier;
+    }
+}
@@ -2,138 +2,83 @@ package commerce.gateway.ratelimit;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Service
 public class RateLimitService {
-    private final Map<String, TokenBucket> tokenBuckets = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private final AtomicInteger totalBlocked = new AtomicInteger(0);
-    private final AtomicInteger totalRequests = new AtomicInteger(0);
-    private volatile LocalDateTime lastCleanupTime = LocalDateTime.now();
-
+    private static final int TOP_THROTTLED_CAPACITY = 100; // Top-K 추적 카운터 수
+    private static final int TOP_THROTTLED_LIMIT = 10;     // 통계에 노출할 상위 키 수
 
-    public RateLimitService() {
+    private final RateLimitBackend backend;
+    private final RateLimitMetrics metrics;
+    private final ThrottledKeyTracker throttledKeys = new ThrottledKeyTracker(TOP_THROTTLED_CAPACITY);
 
-        // 5초마다 모든 버킷 보충
-        scheduler.scheduleAtFixedRate(this::refillAllBuckets, 5, 5, TimeUnit.SECONDS);
 
-        // 30분마다 오래된 버킷 정리
-        scheduler.scheduleAtFixedRate(this::cleanupOldBuckets, 30, 30, TimeUnit.MINUTES);
-
-        log.info("RateLimitService initialized - 토큰 보충 : 5초마다, 오래된 버킷 정리: 30분마다");
+    public RateLimitService(RateLimitBackend backend, RateLimitMetrics metrics) {
+        // 토큰 보충은 GCRA 가 소비 시점에 계산하고, 유휴 버킷 정리는 백엔드의 만료 정책이 담당한다.
+        this.backend = backend;
+        this.metrics = metrics;
     }
 
     /**
      * Rate Limit 체크 (핵심 메서드)
      */
     public RateLimitResult checkLimit(String key, RateLimitConfig config) {
-        totalRequests.incrementAndGet();
-
-        TokenBucket tokenBucket = tokenBuckets.computeIfAbsent(key,
-                k -> new TokenBucket(config.getCapacity(), config.getRefillRate()));
-
-        boolean allowed = tokenBucket.tryConsume(config.getRequestTokens());
-
-
-        if (allowed) {
-            // 허용된 요청
-            int remaining = tokenBucket.getTokens().get();
-            log.debug("요청 허용: key={}, remaining={}/{}", key, remaining, config.getRequestTokens());
-            return RateLimitResult.allowed(remaining, config.getCapacity());
-        } else {
-            totalBlocked.incrementAndGet();
-            long retryAfter = tokenBucket.getSecondUnitRefill();
-            log.warn("요청 차단: key={}, config={}, 용량 초과 (남은 토큰: 0), 재시도 가능 시간: {}초", key, config.getCapacity(), retryAfter);
-            return RateLimitResult.blocked(config.getCapacity(), retryAfter);
-        }
+        return checkLimit(key, config, null);
     }
 
-
     /**
-     * 모든 버킷 보충
+     * Rate Limit 체크 - 지표에 라우트 태그를 붙인다.
      */
-    private void refillAllBuckets() {
-        if (tokenBuckets.isEmpty()) {
-            return;
-        }
-
-        tokenBuckets.values().parallelStream().forEach(TokenBucket::refill);
-
-        log.debug("모든 토큰 버킷 보충 완료: 버킷 수={}, 총 요청 수={}", tokenBuckets.size(), totalRequests.get());
+    public RateLimitResult checkLimit(String key, RateLimitConfig config, String routeId) {
+        return toResult(key, config, routeId, backend.tryAcquire(key, config));
     }
 
     /**
-     * 오래된 버킷 정리 (1 시간 이상 사용되지 않은 것)
+     * Rate Limit 체크 (논블로킹) - 게이트웨이 필터는 이벤트 루프를 막지 않도록 이 메서드를 쓴다.
+     * 공유 저장소 백엔드는 임대를 기다리는 동안에도 스레드를 점유하지 않는다.
      */
-    private void cleanupOldBuckets() {
-        long cutoffTime = System.currentTimeMillis() - (60 * 60 * 1000); // 1시간
-        AtomicInteger removed = new AtomicInteger(0);
-
-        tokenBuckets.entrySet().removeIf(entry -> {
-            TokenBucket bucket = entry.getValue();
-            if (bucket.getLastRefillTime() < cutoffTime) {
-                removed.incrementAndGet();
-                return true;
+    public Mono<RateLimitResult> checkLimitAsync(String key, RateLimitConfig config, String routeId) {
+        return backend.acquire(key, config)
+                .map(outcome -> toResult(key, config, routeId, outcome));
+    }
+
+    private RateLimitResult toResult(String key, RateLimitConfig config, String routeId, long outcome) {
+        if (RateLimiter.isAllowed(outcome)) {
+            // 허용된 요청
+            int remaining = (int) outcome;
+            metrics.recordAllowed(config, routeId, remaining);
+            if (log.isDebugEnabled()) {
+                log.debug("요청 허용: key={}, remaining={}/{}", key, remaining, config.getCapacity());
             }
-            return false;
-        });
+            return RateLimitResult.allowed(remaining, config.getCapacity());
+        } else {
+            metrics.recordBlocked(config, routeId);
+            throttledKeys.record(key);
+            long retryAfter = RateLimiter.toRetryAfterSeconds(outcome);
+            log.warn("요청 차단: key={}, config={}, 용량 초과 (남은 토큰: 0), 재시도 가능 시간: {}초", key, config.getCapacity(), retryAfter);
+            return RateLimitResult.blocked(config.getCapacity(), retryAfter);
+        }
     }
 
 
     /**
      * 📊 현재 상태 조회 (모니터링용)
      */
-    public Map<String, Object> getStats() {
-        int currentBuckets = tokenBuckets.size();
-        int blocked = totalBlocked.get();
-        int requests = totalRequests.get();
-        double blockRate = requests > 0 ? (double) blocked / requests * 100 : 0.0;
-
-        return Map.of(
-                "totalBuckets", currentBuckets,
-                "totalRequests", requests,
-                "totalBlocked", blocked,
-                "blockRate", String.format("%.2f%%", blockRate),
-                "lastCleanupTime", lastCleanupTime.toString(),
-                "bucketDetails", getBucketDetails()
-        );
-    }
+    public RateLimitStats getStats() {
+        long blocked = metrics.totalBlocked();
+        long requests = metrics.totalAllowed() + blocked;
 
-    /**
-     * 🔍 버킷 상세 정보 (상위 10개만 - 메모리 절약)
-     */
-    private Map<String, Object> getBucketDetails() {
-        return tokenBuckets.entrySet().stream()
-                .limit(10) // 너무 많으면 응답이 커지므로 제한
-                .collect(java.util.stream.Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> {
-                            TokenBucket bucket = entry.getValue();
-                            return Map.of(
-                                    "tokens", bucket.getTokens().get(),
-                                    "capacity", bucket.getCapacity(),
-                                    "refillRate", bucket.getRefillRate(),
-                                    "lastRefillTime", bucket.getLastRefillTime()
-                            );
-                        }
-                ));
+        return new RateLimitStats(backend.size(), requests, blocked, blockRate(requests, blocked),
+                throttledKeys.top(TOP_THROTTLED_LIMIT));
     }
 
     /**
      * 🔄 특정 키의 Rate Limit 리셋
      */
     public void resetLimit(String key) {
-        TokenBucket removed = tokenBuckets.remove(key);
-        if (removed != null) {
+        if (backend.reset(key)) {
             log.info("🔄 Rate limit 리셋: key={}", key);
         } else {
             log.warn("⚠️ Rate limit 리셋 실패 - 키를 찾을 수 없음: key={}", key);
@@ -144,26 +89,28 @@ public class RateLimitService {
      * 🔄 모든 Rate Limit 리셋
      */
     public void resetAllLimits() {
-        int count = tokenBuckets.size();
-        tokenBuckets.clear();
-        totalBlocked.set(0);
-        totalRequests.set(0);
+        long count = backend.size();
+        backend.resetAll();
+        throttledKeys.clear(); // 누적 지표(Counter)는 초기화하지 않는다
         log.info("🔄 모든 Rate limit 리셋: {} 개 버킷 삭제", count);
     }
 
     /**
      * 📈 현재 활성 버킷 수
      */
-    public int getActiveBucketCount() {
-        return tokenBuckets.size();
+    public long getActiveBucketCount() {
+        return backend.size();
     }
 
     /**
      * 📊 차단 비율 계산
      */
     public double getBlockRate() {
-        int requests = totalRequests.get();
-        int blocked = totalBlocked.get();
+        long blocked = metrics.totalBlocked();
+        return blockRate(metrics.totalAllowed() + blocked, blocked);
+    }
+
+    private static double blockRate(long requests, long blocked) {
         return requests > 0 ? (double) blocked / requests * 100 : 0.0;
     }
 
@@ -0,0 +1,13 @@
+package commerce.gateway.ratelimit;
+
+import java.util.List;
+
+/**
+ * Rate Limit 현황 (모니터링용)
+ *
+ * @param blockRate    차단 비율 (%)
+ * @param topThrottled 가장 많이 차단된 키 (근사치)
+ */
+public record RateLimitStats(long totalBuckets, long totalRequests, long totalBlocked, double blockRate,
+                             List<ThrottledKey> topThrottled) {
+}
@@ -0,0 +1,71 @@
+package commerce.gateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 요청에 적용할 Rate Limit 등급 결정
+ * 시작 시 gateway.rate-limit 설정을 조회 테이블로 컴파일하고, 설정이 갱신되면(EnvironmentChangeEvent) 재시작 없이 다시 컴파일한다.
+ */
+@Slf4j
+@Component
+public class RateLimitTierResolver implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final String PROPERTIES_PREFIX = "gateway.rate-limit";
+
+    private final Environment environment;
+    private volatile RateLimitTierTable table;
+
+    public RateLimitTierResolver(RateLimitProperties properties, Environment environment) {
+        this.environment = environment;
+        this.table = RateLimitTierTable.compile(properties);
+
+        log.info("Rate Limit 등급 테이블 컴파일 완료 - 등급: {}, 규칙: {}개, 엔드포인트: {}개, 쿼터: {}",
+                properties.getTiers().keySet(), properties.getRules().size(), properties.getEndpoints().size(), properties.getQuotas().keySet());
+    }
+
+    /**
+     * 라우트 ID 규칙 -> 경로 규칙 -> 기본 등급 순으로 설정을 찾는다.
+     * 엔드포인트 규칙에 맞으면 같은 등급에서 요청당 토큰 수(requestTokens)만 엔드포인트 비용으로 바꾼 설정을 반환한다.
+     */
+    public RateLimitConfig resolve(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        return table.resolve(route != null ? route.getId() : null, request.getMethod().name(), request.getPath().value());
+    }
+
+    /**
+     * 엔드포인트 규칙에 지정된 장기 쿼터와 요청당 쿼터 비용
+     *
+     * @return 쿼터가 없으면 null
+     */
+    public EndpointQuota resolveQuota(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        return table.resolveQuota(request.getMethod().name(), request.getPath().value());
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PROPERTIES_PREFIX))) {
+            return;
+        }
+
+        try {
+            RateLimitProperties refreshed = Binder.get(environment).bindOrCreate(PROPERTIES_PREFIX, RateLimitProperties.class);
+            table = RateLimitTierTable.compile(refreshed);
+            log.info("Rate Limit 등급 테이블 재컴파일 완료 - 등급: {}, 규칙: {}개, 엔드포인트: {}개, 쿼터: {}",
+                    refreshed.getTiers().keySet(), refreshed.getRules().size(), refreshed.getEndpoints().size(), refreshed.getQuotas().keySet());
+        } catch (RuntimeException e) {
+            log.error("Rate Limit 등급 설정이 올바르지 않아 기존 테이블을 유지합니다.", e);
+        }
+    }
+}
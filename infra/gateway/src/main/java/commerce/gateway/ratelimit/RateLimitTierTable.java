@@ -0,0 +1,260 @@
+package commerce.gateway.ratelimit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 설정된 등급 규칙을 컴파일한 조회 테이블
+ * - 라우트 ID 규칙: HashMap 조회
+ * - 경로 규칙: 세그먼트 단위 Prefix Trie (리터럴 > '*' > '**' 순으로 우선)
+ * - 엔드포인트 규칙: HTTP 메서드별 Trie + 메서드 무관 Trie (비용 가중치와 쿼터)
+ * 조회 시 문자열을 자르지 않고 원본 경로에서 직접 비교하므로 요청마다 객체를 만들지 않는다.
+ * 비용이 다른 설정(RateLimitConfig)은 등급 x 비용 조합마다 컴파일 시점에 미리 만들어 둔다.
+ */
+final class RateLimitTierTable {
+
+    private final Map<String, RateLimitConfig> byRouteId;
+    private final Node<RateLimitConfig> root;
+    private final RateLimitConfig defaultConfig;
+    private final Map<String, Node<EndpointRule>> endpointsByMethod;
+    private final Node<EndpointRule> endpoints;
+
+    private RateLimitTierTable(Map<String, RateLimitConfig> byRouteId, Node<RateLimitConfig> root, RateLimitConfig defaultConfig,
+                               Map<String, Node<EndpointRule>> endpointsByMethod, Node<EndpointRule> endpoints) {
+        this.byRouteId = byRouteId;
+        this.root = root;
+        this.defaultConfig = defaultConfig;
+        this.endpointsByMethod = endpointsByMethod;
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * 설정을 검증하고 조회 테이블로 컴파일한다.
+     * 같은 등급을 쓰는 규칙은 모두 같은 RateLimitConfig 인스턴스를 공유한다.
+     */
+    static RateLimitTierTable compile(RateLimitProperties properties) {
+        Map<String, RateLimitConfig> tiers = new HashMap<>();
+        properties.getTiers().forEach((name, tier) -> tiers.put(name, validate(name, tier.toConfig(name))));
+
+        RateLimitConfig defaultConfig = tiers.getOrDefault(properties.getDefaultTier(), RateLimitConfig.forGeneral());
+
+        Map<String, RateLimitConfig> byRouteId = new HashMap<>();
+        Node<RateLimitConfig> root = new Node<>();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            RateLimitConfig config = tiers.get(rule.getTier());
+            if (config == null) {
+                throw new IllegalArgumentException("Unknown rate limit tier: " + rule.getTier());
+            }
+            if (rule.getRouteId() != null) {
+                byRouteId.putIfAbsent(rule.getRouteId(), config);
+            }
+            if (rule.getPath() != null) {
+                root.insert(rule.getPath(), config);
+            }
+        }
+
+        Map<String, QuotaDefinition> quotas = new HashMap<>();
+        properties.getQuotas().forEach((name, quota) -> quotas.put(name, validate(name, quota)));
+
+        List<RateLimitConfig> configs = new ArrayList<>(tiers.values());
+        if (!configs.contains(defaultConfig)) {
+            configs.add(defaultConfig);
+        }
+        Map<String, Node<EndpointRule>> endpointsByMethod = new HashMap<>();
+        Node<EndpointRule> endpoints = new Node<>();
+        for (RateLimitProperties.Endpoint endpoint : properties.getEndpoints()) {
+            EndpointRule rule = EndpointRule.compile(endpoint, quotas, configs);
+            Node<EndpointRule> node = endpoint.getMethod() == null
+                    ? endpoints
+                    : endpointsByMethod.computeIfAbsent(endpoint.getMethod().toUpperCase(Locale.ROOT), m -> new Node<>());
+            node.insert(endpoint.getPath(), rule);
+        }
+
+        return new RateLimitTierTable(Map.copyOf(byRouteId), root, defaultConfig, Map.copyOf(endpointsByMethod), endpoints);
+    }
+
+    private static QuotaDefinition validate(String name, RateLimitProperties.Quota quota) {
+        if (quota.getDaily() < 0 || quota.getMonthly() < 0 || (quota.getDaily() == 0 && quota.getMonthly() == 0)) {
+            throw new IllegalArgumentException("Invalid quota '" + name + "': daily or monthly must be positive");
+        }
+        return new QuotaDefinition(name, quota.getDaily(), quota.getMonthly());
+    }
+
+    private static RateLimitConfig validate(String name, RateLimitConfig config) {
+        if (config.getCapacity() <= 0 || config.getRefillRate() <= 0 || config.getRequestTokens() <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit tier '" + name + "': capacity, refillRate and requestTokens must be positive");
+        }
+        if (config.getAlgorithm() == RateLimitAlgorithm.SLIDING_WINDOW && config.getCapacity() > SlidingWindowRateLimiter.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid rate limit tier '" + name + "': sliding window capacity must not exceed " + SlidingWindowRateLimiter.MAX_CAPACITY);
+        }
+        return config;
+    }
+
+    RateLimitConfig resolve(String routeId, String method, String path) {
+        RateLimitConfig config = resolveTier(routeId, path);
+        EndpointRule endpoint = resolveEndpoint(method, path);
+        return endpoint != null ? endpoint.configFor(config) : config;
+    }
+
+    /**
+     * @return 쿼터가 지정되지 않은 엔드포인트면 null
+     */
+    EndpointQuota resolveQuota(String method, String path) {
+        EndpointRule endpoint = resolveEndpoint(method, path);
+        return endpoint != null ? endpoint.quota() : null;
+    }
+
+    private RateLimitConfig resolveTier(String routeId, String path) {
+        if (routeId != null) {
+            RateLimitConfig config = byRouteId.get(routeId);
+            if (config != null) {
+                return config;
+            }
+        }
+
+        RateLimitConfig config = root.match(path, 0);
+        return config != null ? config : defaultConfig;
+    }
+
+    private EndpointRule resolveEndpoint(String method, String path) {
+        Node<EndpointRule> byMethod = endpointsByMethod.get(method);
+        if (byMethod != null) {
+            EndpointRule rule = byMethod.match(path, 0);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return endpoints.match(path, 0);
+    }
+
+    /**
+     * 엔드포인트의 비용 가중치와 쿼터
+     * configs 는 등급 설정 -> 같은 등급에 비용만 바꾼 설정 (등급 설정 인스턴스로 조회)
+     * quota 는 용량으로 자르지 않은 엔드포인트 비용을 함께 담는다.
+     */
+    private record EndpointRule(Map<RateLimitConfig, RateLimitConfig> configs, EndpointQuota quota) {
+
+        static EndpointRule compile(RateLimitProperties.Endpoint endpoint, Map<String, QuotaDefinition> quotas,
+                                    List<RateLimitConfig> tierConfigs) {
+            if (endpoint.getPath() == null || endpoint.getCost() <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit endpoint '" + endpoint.getPath() + "': path is required and cost must be positive");
+            }
+            EndpointQuota quota = null;
+            if (endpoint.getQuota() != null) {
+                QuotaDefinition definition = quotas.get(endpoint.getQuota());
+                if (definition == null) {
+                    throw new IllegalArgumentException("Unknown quota: " + endpoint.getQuota());
+                }
+                quota = new EndpointQuota(definition, endpoint.getCost());
+            }
+
+            Map<RateLimitConfig, RateLimitConfig> configs = new IdentityHashMap<>();
+            for (RateLimitConfig config : tierConfigs) {
+                int cost = Math.min(endpoint.getCost(), config.getCapacity());
+                configs.put(config, cost == config.getRequestTokens() ? config : config.withRequestTokens(cost));
+            }
+            return new EndpointRule(configs, quota);
+        }
+
+        RateLimitConfig configFor(RateLimitConfig tierConfig) {
+            return configs.getOrDefault(tierConfig, tierConfig);
+        }
+    }
+
+    /**
+     * 경로 세그먼트 Trie 노드
+     */
+    private static final class Node<T> {
+
+        private final List<String> literals = new ArrayList<>();
+        private final List<Node<T>> literalChildren = new ArrayList<>();
+        private Node<T> wildcard;   // '*'
+        private T rest;             // '**'
+        private T exact;            // 이 노드에서 경로가 끝나는 경우
+
+        void insert(String pattern, T config) {
+            if (!pattern.startsWith("/")) {
+                throw new IllegalArgumentException("Path pattern must start with '/': " + pattern);
+            }
+
+            String[] segments = pattern.substring(1).split("/");
+            Node<T> node = this;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.equals("**")) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' is only allowed at the end of a path pattern: " + pattern);
+                    }
+                    if (node.rest == null) {
+                        node.rest = config;
+                    }
+                    return;
+                }
+                node = node.child(segment);
+            }
+            if (node.exact == null) {
+                node.exact = config;
+            }
+        }
+
+        private Node<T> child(String segment) {
+            if (segment.equals("*")) {
+                if (wildcard == null) {
+                    wildcard = new Node<>();
+                }
+                return wildcard;
+            }
+
+            int index = literals.indexOf(segment);
+            if (index >= 0) {
+                return literalChildren.get(index);
+            }
+            Node<T> node = new Node<>();
+            literals.add(segment);
+            literalChildren.add(node);
+            return node;
+        }
+
+        T match(String path, int position) {
+            int length = path.length();
+            while (position < length && path.charAt(position) == '/') {
+                position++;
+            }
+            if (position >= length) {
+                return exact != null ? exact : rest;
+            }
+
+            int end = path.indexOf('/', position);
+            if (end < 0) {
+                end = length;
+            }
+            int segmentLength = end - position;
+
+            for (int i = 0; i < literals.size(); i++) {
+                String literal = literals.get(i);
+                if (literal.length() == segmentLength && path.regionMatches(position, literal, 0, segmentLength)) {
+                    T matched = literalChildren.get(i).match(path, end);
+                    if (matched != null) {
+                        return matched;
+                    }
+                }
+            }
+
+            if (wildcard != null) {
+                T matched = wildcard.match(path, end);
+                if (matched != null) {
+                    return matched;
+                }
+            }
+
+            return rest;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package commerce.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 키 하나에 대한 Rate Limiter 공통 인터페이스
+ * 구현체는 등급별로 선택된다. (RateLimitAlgorithm)
+ */
+public interface RateLimiter {
+
+    /**
+     * 토큰 소비 시도
+     *
+     * @return 허용 시 남은 토큰 수(0 이상), 차단 시 재시도까지 남은 시간(나노초)의 음수 값
+     */
+    long tryAcquire(int requestTokens);
+
+    /**
+     * 현재 사용 가능한 토큰 수 (모니터링용)
+     */
+    int availableTokens();
+
+    int getCapacity();
+
+    int getRefillRate();
+
+    RateLimitAlgorithm getAlgorithm();
+
+    /**
+     * 아무리 소진된 상태여도 이 시간 동안 요청이 없으면 새 Limiter 와 같은 상태로 돌아간다.
+     * 이 시간 전에 Limiter 를 버리면 차단 중인 클라이언트가 제한을 우회할 수 있다.
+     */
+    long getFullResetNanos();
+
+    /**
+     * tryAcquire 의 결과가 허용인지 확인한다.
+     */
+    static boolean isAllowed(long outcome) {
+        return outcome >= 0;
+    }
+
+    /**
+     * 차단 결과를 Retry-After 헤더용 초 단위로 올림 변환한다.
+     */
+    static long toRetryAfterSeconds(long outcome) {
+        if (outcome >= 0) {
+            return 0;
+        }
+        long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (-outcome + nanosPerSecond - 1) / nanosPerSecond);
+    }
+}
@@ -0,0 +1,26 @@
+package commerce.gateway.ratelimit;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 게이트웨이 인스턴스들이 공유하는 외부 키-값 저장소의 토큰 버킷 계약
+ * 구현체는 키별 버킷에서 토큰을 원자적으로 가져와야 한다. (예: Redis Lua 스크립트로 GCRA 수행)
+ * 이 빈이 등록되면 RateLimitService 는 LeasingRateLimitBackend 로 동작한다.
+ */
+public interface SharedTokenStore {
+
+    /**
+     * 공유 버킷에서 최대 maxTokens 개를 임대한다.
+     * 부족하면 가능한 만큼만 임대하며, 하나도 없으면 granted=0 과 재시도 대기 시간을 반환한다.
+     */
+    CompletableFuture<TokenLease> lease(String key, RateLimitConfig config, int maxTokens);
+
+    /**
+     * 임대 결과
+     *
+     * @param granted         임대된 토큰 수
+     * @param retryAfterNanos granted=0 일 때 다음 토큰까지 남은 시간
+     */
+    record TokenLease(int granted, long retryAfterNanos) {
+    }
+}
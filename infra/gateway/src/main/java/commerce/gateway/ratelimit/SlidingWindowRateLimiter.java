@@ -0,0 +1,154 @@
+package commerce.gateway.ratelimit;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 슬라이딩 윈도우 카운터 기반 Lock-free Rate Limiter
+ * 이전/현재 고정 윈도우의 요청 수를 경과 비율로 가중 합산해 추정한다.
+ *   추정치 = 이전 윈도우 요청 수 x (윈도우에서 남은 비율) + 현재 윈도우 요청 수
+ * 윈도우 길이는 capacity / refillRate 초이므로 장기 처리량은 토큰 버킷과 같지만,
+ * 윈도우 경계에서 용량 전체가 한 번에 다시 열리지 않는다.
+ *
+ * 상태는 AtomicLong 하나에 [윈도우 번호 32bit | 이전 카운트 16bit | 현재 카운트 16bit] 로 담아 CAS 로 갱신한다.
+ */
+@Getter
+public class SlidingWindowRateLimiter implements RateLimiter {
+
+    static final int MAX_CAPACITY = 0xFFFF;
+    private static final long COUNT_MASK = 0xFFFF;
+
+    private final int capacity;
+    private final int refillRate;
+    private final long windowNanos;
+
+    @Getter(AccessLevel.NONE)
+    private final LongSupplier nanoClock;
+    @Getter(AccessLevel.NONE)
+    private final long originNanos;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong state = new AtomicLong();
+
+    public SlidingWindowRateLimiter(int capacity, int refillRate) {
+        this(capacity, refillRate, System::nanoTime);
+    }
+
+    SlidingWindowRateLimiter(int capacity, int refillRate, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillRate <= 0) {
+            throw new IllegalArgumentException("capacity and refillRate must be positive");
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must not exceed " + MAX_CAPACITY);
+        }
+
+        this.capacity = capacity;
+        this.refillRate = refillRate;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(capacity) / refillRate;
+        this.nanoClock = nanoClock;
+        this.originNanos = nanoClock.getAsLong();
+    }
+
+    @Override
+    public long tryAcquire(int requestTokens) {
+        if (requestTokens <= 0) {
+            throw new IllegalArgumentException("requestTokens must be positive");
+        }
+
+        while (true) {
+            long elapsed = nanoClock.getAsLong() - originNanos;
+            long window = elapsed / windowNanos;
+            long offset = elapsed - window * windowNanos;
+
+            long current = state.get();
+            long previousCount = previousCount(current, window);
+            long currentCount = currentCount(current, window);
+
+            long remaining = capacity - estimate(previousCount, currentCount, offset) - requestTokens;
+            if (remaining < 0) {
+                return -waitNanos(previousCount, currentCount, offset, requestTokens);
+            }
+
+            long next = (window << 32) | (previousCount << 16) | (currentCount + requestTokens);
+            if (state.compareAndSet(current, next)) {
+                return remaining;
+            }
+        }
+    }
+
+    @Override
+    public int availableTokens() {
+        long elapsed = nanoClock.getAsLong() - originNanos;
+        long window = elapsed / windowNanos;
+        long offset = elapsed - window * windowNanos;
+        long current = state.get();
+
+        long estimate = estimate(previousCount(current, window), currentCount(current, window), offset);
+        return (int) Math.max(0, capacity - estimate);
+    }
+
+    @Override
+    public RateLimitAlgorithm getAlgorithm() {
+        return RateLimitAlgorithm.SLIDING_WINDOW;
+    }
+
+    /**
+     * 두 윈도우가 지나면 이전/현재 카운트가 모두 0 이 된다.
+     */
+    @Override
+    public long getFullResetNanos() {
+        return windowNanos * 2;
+    }
+
+    private static long previousCount(long state, long window) {
+        long stateWindow = state >>> 32;
+        if (stateWindow == window) {
+            return (state >>> 16) & COUNT_MASK;
+        }
+        if (stateWindow + 1 == window) {
+            return state & COUNT_MASK; // 저장된 현재 윈도우가 이전 윈도우가 됨
+        }
+        return 0;
+    }
+
+    private static long currentCount(long state, long window) {
+        return (state >>> 32) == window ? state & COUNT_MASK : 0;
+    }
+
+    /**
+     * 이전 윈도우 가중치는 올림 처리해 허용량을 넘지 않도록 한다.
+     */
+    private long estimate(long previousCount, long currentCount, long offset) {
+        long weightedPrevious = (previousCount * (windowNanos - offset) + windowNanos - 1) / windowNanos;
+        return weightedPrevious + currentCount;
+    }
+
+    /**
+     * 요청이 허용될 때까지 남은 시간
+     */
+    private long waitNanos(long previousCount, long currentCount, long offset, int requestTokens) {
+        if (requestTokens > capacity) {
+            return getFullResetNanos();
+        }
+
+        long budget = capacity - currentCount - requestTokens;
+        if (budget >= 0) {
+            // 현재 윈도우 안에서 이전 윈도우 가중치가 충분히 줄어들 때까지
+            long needed = windowNanos - budget * windowNanos / previousCount;
+            return Math.max(1, needed - offset);
+        }
+
+        // 다음 윈도우에서 현재 카운트가 이전 카운트가 되어 줄어들 때까지
+        long needed = windowNanos - (capacity - requestTokens) * windowNanos / currentCount;
+        return (windowNanos - offset) + Math.max(0, needed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SlidingWindowRateLimiter{capacity=%d, window=%dms, tokens=%d}",
+                capacity, TimeUnit.NANOSECONDS.toMillis(windowNanos), availableTokens());
+    }
+}
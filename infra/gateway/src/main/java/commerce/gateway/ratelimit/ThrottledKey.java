@@ -0,0 +1,10 @@
+package commerce.gateway.ratelimit;
+
+/**
+ * 차단 횟수 상위 키
+ *
+ * @param count 추정 차단 횟수 (실제 이상)
+ * @param error 추정 오차 (count - error 는 실제 횟수의 하한)
+ */
+public record ThrottledKey(String key, long count, long error) {
+}
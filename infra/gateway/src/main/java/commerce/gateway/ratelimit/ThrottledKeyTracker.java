@@ -0,0 +1,95 @@
+package commerce.gateway.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 가장 많이 차단된 키 Top-K 추적 (Space-Saving 알고리즘)
+ * 최대 capacity 개의 카운터만 유지하며, 가득 찬 상태에서 새 키가 들어오면 가장 작은 카운터를 물려받는다.
+ * 실제 횟수가 전체의 1/capacity 를 넘는 키는 반드시 목록에 남고, count - error 가 실제 횟수의 하한이다.
+ *
+ * 차단 경로에서만 호출되며, 락을 얻지 못하면 해당 표본은 건너뛴다. (집계는 근사치)
+ */
+final class ThrottledKeyTracker {
+
+    private final int capacity;
+    private final Map<String, Slot> slots;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    ThrottledKeyTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    void record(String key) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            Slot slot = slots.get(key);
+            if (slot != null) {
+                slot.count++;
+                return;
+            }
+            if (slots.size() < capacity) {
+                slots.put(key, new Slot(1, 0));
+                return;
+            }
+
+            String minKey = null;
+            Slot min = null;
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                if (min == null || entry.getValue().count < min.count) {
+                    minKey = entry.getKey();
+                    min = entry.getValue();
+                }
+            }
+            slots.remove(minKey);
+            slots.put(key, new Slot(min.count + 1, min.count));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 차단 횟수 내림차순 상위 limit 개
+     */
+    List<ThrottledKey> top(int limit) {
+        List<ThrottledKey> result = new ArrayList<>(capacity);
+        lock.lock();
+        try {
+            slots.forEach((key, slot) -> result.add(new ThrottledKey(key, slot.count, slot.error)));
+        } finally {
+            lock.unlock();
+        }
+        result.sort(Comparator.comparingLong(ThrottledKey::count).reversed());
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : List.copyOf(result);
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            slots.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Slot {
+
+        private long count;
+        private final long error;
+
+        Slot(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package commerce.gateway.response;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 게이트웨이가 직접 내려주는 거절 응답(429/401/403/413/503) 본문
+ * 공격 상황에서 몰리는 트래픽이 곧 거절 응답이므로, 본문은 미리 인코딩된 템플릿으로 만든다.
+ */
+public final class GatewayErrorResponses {
+
+    private static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    /**
+     * limit, retryAfter, timestamp
+     */
+    public static final ResponseTemplate RATE_LIMIT_EXCEEDED = ResponseTemplate.compile("""
+            {
+                "success": false,
+                "code": "RATE_LIMIT_EXCEEDED",
+                "message": "요청 횟수가 제한을 초과했습니다",
+                "limit": {num},
+                "retryAfter": {num},
+                "timestamp": {num}
+            }
+            """);
+
+    /**
+     * quota, period, limit, retryAfter, timestamp
+     */
+    public static final ResponseTemplate QUOTA_EXCEEDED = ResponseTemplate.compile("""
+            {
+                "success": false,
+                "code": "QUOTA_EXCEEDED",
+                "message": "사용 한도를 초과했습니다",
+                "quota": "{str}",
+                "period": "{str}",
+                "limit": {num},
+                "retryAfter": {num},
+                "timestamp": {num}
+            }
+            """);
+
+    /**
+     * timestamp
+     */
+    public static final ResponseTemplate TOKEN_BLACKLISTED = ResponseTemplate.compile("""
+            {"success":false,"code":"AUTH-401","message":"로그아웃된 토큰입니다","timestamp":{num}}
+            """);
+
+    /**
+     * traceId, spanId, timestamp
+     */
+    public static final ResponseTemplate UNAUTHORIZED = ResponseTemplate.compile("""
+            {"success":false,"code":"AUTH-401","message":"Unauthorized","traceId":"{str}", "spanId": "{str}","timestamp":{num}}
+            """);
+
+    /**
+     * traceId, timestamp
+     */
+    public static final ResponseTemplate FORBIDDEN = ResponseTemplate.compile("""
+            {"success":false,"code":"AUTH-403","message":"Forbidden","traceId":"{str}","timestamp":{num}}
+            """);
+
+    /**
+     * route, timestamp
+     */
+    public static final ResponseTemplate SERVICE_OVERLOADED = ResponseTemplate.compile("""
+            {"success":false,"code":"GATEWAY-503","message":"요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요","route":"{str}","timestamp":{num}}
+            """);
+
+    /**
+     * maxBytes, timestamp
+     */
+    public static final ResponseTemplate PAYLOAD_TOO_LARGE = ResponseTemplate.compile("""
+            {"success":false,"code":"GATEWAY-413","message":"요청 본문이 허용 크기를 초과했습니다","maxBytes":{num},"timestamp":{num}}
+            """);
+
+    private GatewayErrorResponses() {
+    }
+
+    /**
+     * 상태 코드와 JSON 본문을 응답에 기록
+     */
+    public static Mono<Void> write(ServerHttpResponse response, HttpStatus status, DataBuffer body) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(APPLICATION_JSON_UTF8);
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,206 @@
+package commerce.gateway.response;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 미리 인코딩된 응답 본문 템플릿
+ * 정적인 부분은 생성 시 한 번만 UTF-8 로 인코딩해 두고, 응답 시에는 동적 필드만 DataBuffer 에 직접 기록한다.
+ * (String.format / getBytes 없이 버퍼 풀에서 받은 DataBuffer 하나만 사용)
+ *
+ * 자리표시자
+ * - {num}: long 값 (숫자 그대로 기록)
+ * - {str}: 문자열 값 (JSON 문자열로 이스케이프해 기록, null 은 빈 문자열)
+ */
+public final class ResponseTemplate {
+
+    private static final String NUMBER = "{num}";
+    private static final String TEXT = "{str}";
+    private static final int MAX_LONG_DIGITS = 20;
+
+    private final byte[][] segments; // 자리표시자 사이의 정적 바이트 (자리표시자 수 + 1 개)
+    private final String signature;  // 자리표시자 종류 순서 (N: 숫자, S: 문자열)
+    private final int staticLength;
+
+    private ResponseTemplate(byte[][] segments, String signature) {
+        this.segments = segments;
+        this.signature = signature;
+        int length = 0;
+        for (byte[] segment : segments) {
+            length += segment.length;
+        }
+        this.staticLength = length;
+    }
+
+    public static ResponseTemplate compile(String template) {
+        List<byte[]> segments = new ArrayList<>();
+        StringBuilder signature = new StringBuilder();
+
+        int start = 0;
+        while (true) {
+            int number = template.indexOf(NUMBER, start);
+            int text = template.indexOf(TEXT, start);
+            int next = number < 0 ? text : (text < 0 ? number : Math.min(number, text));
+            if (next < 0) {
+                segments.add(template.substring(start).getBytes(StandardCharsets.UTF_8));
+                break;
+            }
+            segments.add(template.substring(start, next).getBytes(StandardCharsets.UTF_8));
+            signature.append(next == number ? 'N' : 'S');
+            start = next + NUMBER.length();
+        }
+
+        return new ResponseTemplate(segments.toArray(byte[][]::new), signature.toString());
+    }
+
+    public DataBuffer render(DataBufferFactory factory, long n0) {
+        checkSignature("N");
+        DataBuffer buffer = factory.allocateBuffer(staticLength + MAX_LONG_DIGITS);
+        buffer.write(segments[0]);
+        writeNumber(buffer, n0);
+        return buffer.write(segments[1]);
+    }
+
+    public DataBuffer render(DataBufferFactory factory, long n0, long n1) {
+        checkSignature("NN");
+        DataBuffer buffer = factory.allocateBuffer(staticLength + MAX_LONG_DIGITS * 2);
+        buffer.write(segments[0]);
+        writeNumber(buffer, n0);
+        buffer.write(segments[1]);
+        writeNumber(buffer, n1);
+        return buffer.write(segments[2]);
+    }
+
+    public DataBuffer render(DataBufferFactory factory, long n0, long n1, long n2) {
+        checkSignature("NNN");
+        DataBuffer buffer = factory.allocateBuffer(staticLength + MAX_LONG_DIGITS * 3);
+        buffer.write(segments[0]);
+        writeNumber(buffer, n0);
+        buffer.write(segments[1]);
+        writeNumber(buffer, n1);
+        buffer.write(segments[2]);
+        writeNumber(buffer, n2);
+        return buffer.write(segments[3]);
+    }
+
+    public DataBuffer render(DataBufferFactory factory, CharSequence s0, long n0) {
+        checkSignature("SN");
+        DataBuffer buffer = factory.allocateBuffer(staticLength + length(s0) + MAX_LONG_DIGITS);
+        buffer.write(segments[0]);
+        writeText(buffer, s0);
+        buffer.write(segments[1]);
+        writeNumber(buffer, n0);
+        return buffer.write(segments[2]);
+    }
+
+    public DataBuffer render(DataBufferFactory factory, CharSequence s0, CharSequence s1, long n0) {
+        checkSignature("SSN");
+        DataBuffer buffer = factory.allocateBuffer(staticLength + length(s0) + length(s1) + MAX_LONG_DIGITS);
+        buffer.write(segments[0]);
+        writeText(buffer, s0);
+        buffer.write(segments[1]);
+        writeText(buffer, s1);
+        buffer.write(segments[2]);
+        writeNumber(buffer, n0);
+        return buffer.write(segments[3]);
+    }
+
+    public DataBuffer render(DataBufferFactory factory, CharSequence s0, CharSequence s1, long n0, long n1, long n2) {
+        checkSignature("SSNNN");
+        DataBuffer buffer = factory.allocateBuffer(staticLength + length(s0) + length(s1) + MAX_LONG_DIGITS * 3);
+        buffer.write(segments[0]);
+        writeText(buffer, s0);
+        buffer.write(segments[1]);
+        writeText(buffer, s1);
+        buffer.write(segments[2]);
+        writeNumber(buffer, n0);
+        buffer.write(segments[3]);
+        writeNumber(buffer, n1);
+        buffer.write(segments[4]);
+        writeNumber(buffer, n2);
+        return buffer.write(segments[5]);
+    }
+
+    private void checkSignature(String expected) {
+        if (!signature.equals(expected)) {
+            throw new IllegalArgumentException("Template placeholders " + signature + " do not match arguments " + expected);
+        }
+    }
+
+    private static int length(CharSequence value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * long 값을 10진수 ASCII 로 기록 (문자열 변환 없이)
+     */
+    static void writeNumber(DataBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.write(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer.write((byte) '-');
+            value = -value;
+        }
+
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.write((byte) ('0' + (value / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * 문자열을 JSON 문자열 내용으로 이스케이프해 UTF-8 로 기록
+     * (요청 헤더 등 외부 입력이 들어올 수 있으므로 따옴표/역슬래시/제어 문자를 반드시 이스케이프한다)
+     */
+    static void writeText(DataBuffer buffer, CharSequence value) {
+        if (value == null) {
+            return;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.write((byte) '\\');
+                buffer.write((byte) c);
+            } else if (c < 0x20) {
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'u');
+                buffer.write((byte) '0');
+                buffer.write((byte) '0');
+                buffer.write(hex(c >> 4));
+                buffer.write(hex(c & 0xF));
+            } else if (c < 0x80) {
+                buffer.write((byte) c);
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write((byte) (0xF0 | (codePoint >> 18)));
+                buffer.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.write((byte) '?'); // 짝이 없는 서로게이트
+            } else {
+                buffer.write((byte) (0xE0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static byte hex(int nibble) {
+        return (byte) (nibble < 10 ? '0' + nibble : 'a' + nibble - 10);
+    }
+}
@@ -0,0 +1,163 @@
+package commerce.gateway.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * 블랙리스트 로컬 스냅샷 파일 (Append-only)
+ * 형식: [magic 4B | version 4B] + [jtiHigh 8B | jtiLow 8B | expiresAt 8B] x N
+ * - 폐기될 때마다 레코드를 파일 끝에 추가한다. (페이지 캐시까지만 기록하므로 프로세스 재시작에는 안전하고, OS 장애 시 마지막 일부가 유실될 수 있다)
+ * - 시작 시 파일을 메모리 매핑해 순차로 읽어 들이고, 만료 버킷 정리 시 살아있는 레코드만으로 다시 쓴다.
+ * - 기록 중 중단되어 잘린 마지막 레코드는 무시한다.
+ * 시작 시 복구를 제외한 쓰기는 BlacklistSnapshotWriter 스레드에서만 일어난다.
+ */
+@Slf4j
+final class BlacklistSnapshot implements Closeable {
+
+    private static final int MAGIC = 0x4A57_4C42; // "JWLB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 24;
+
+    private final Path path;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private FileChannel channel;
+
+    private BlacklistSnapshot(Path path) {
+        this.path = path;
+    }
+
+    static BlacklistSnapshot open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        BlacklistSnapshot snapshot = new BlacklistSnapshot(path);
+        if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+            snapshot.rewrite(writer -> {
+            });
+        } else {
+            snapshot.channel = openForAppend(path);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 스냅샷의 모든 레코드를 읽는다.
+     *
+     * @return 읽은 레코드 수
+     */
+    int load(RecordConsumer consumer) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = readChannel.size();
+            if (size < HEADER_SIZE) {
+                return 0;
+            }
+
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("블랙리스트 스냅샷 형식이 올바르지 않아 무시합니다: {}", path);
+                return 0;
+            }
+
+            int count = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+            for (int i = 0; i < count; i++) {
+                consumer.accept(buffer.getLong(), buffer.getLong(), buffer.getLong());
+            }
+            return count;
+        }
+    }
+
+    void append(long high, long low, long expiresAtMillis) throws IOException {
+        record.clear();
+        record.putLong(high).putLong(low).putLong(expiresAtMillis).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * 주어진 레코드만으로 파일을 다시 쓴다. (임시 파일에 쓴 뒤 원자적으로 교체)
+     */
+    void rewrite(Consumer<RecordConsumer> entries) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            try {
+                entries.accept((high, low, expiresAtMillis) -> {
+                    if (buffer.remaining() < RECORD_SIZE) {
+                        flush(out, buffer);
+                    }
+                    buffer.putLong(high).putLong(low).putLong(expiresAtMillis);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            flush(out, buffer);
+            out.force(true);
+        }
+
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = openForAppend(path);
+    }
+
+    /**
+     * [jtiHigh, jtiLow, expiresAt] 가 반복되는 배열로 파일을 다시 쓴다.
+     */
+    void rewrite(long[] records) throws IOException {
+        rewrite(writer -> {
+            for (int i = 0; i < records.length; i += 3) {
+                writer.accept(records[i], records[i + 1], records[i + 2]);
+            }
+        });
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private static FileChannel openForAppend(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        long size = channel.size();
+        long torn = (size - HEADER_SIZE) % RECORD_SIZE;
+        if (torn != 0) {
+            channel.truncate(size - torn); // 잘린 마지막 레코드 제거
+        }
+        return channel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long high, long low, long expiresAtMillis);
+    }
+}
@@ -0,0 +1,113 @@
+package commerce.gateway.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 블랙리스트 스냅샷 비동기 기록기
+ * 호출자(이벤트 루프, 만료 스케줄러)는 작업을 큐에 넣기만 하고, 전용 스레드가 순서대로 파일에 반영한다.
+ * 파일 I/O 와 정리(rewrite) 시의 fsync 는 모두 이 스레드에서 일어나므로 JwtBlacklistService 의 writeLock 을 잡은 채 디스크를 기다리지 않는다.
+ * 추가와 정리는 큐에 넣은 순서대로 처리되므로, 정리에 쓰인 사본 이후에 들어온 추가는 정리된 파일 뒤에 붙는다.
+ * 폐기는 로그아웃 빈도로만 일어나므로 큐는 제한하지 않는다.
+ */
+@Slf4j
+final class BlacklistSnapshotWriter implements Closeable {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final BlacklistSnapshot snapshot;
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    BlacklistSnapshotWriter(BlacklistSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.thread = Thread.ofPlatform()
+                .name("jwt-blacklist-snapshot")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    /**
+     * 레코드 추가 예약 (블록하지 않는다)
+     */
+    void append(long high, long low, long expiresAtMillis) {
+        queue.add(new Append(high, low, expiresAtMillis));
+    }
+
+    /**
+     * 주어진 레코드만으로 파일을 다시 쓰도록 예약 (블록하지 않는다)
+     *
+     * @param records [jtiHigh, jtiLow, expiresAt] 가 반복되는 사본
+     */
+    void rewrite(long[] records) {
+        queue.add(new Rewrite(records));
+    }
+
+    private void run() {
+        while (true) {
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (task == Stop.INSTANCE) {
+                break;
+            }
+            try {
+                task.applyTo(snapshot);
+            } catch (IOException | RuntimeException e) {
+                log.error("블랙리스트 스냅샷 기록 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 큐에 남은 작업을 모두 반영한 뒤 파일을 닫는다.
+     */
+    @Override
+    public void close() throws IOException {
+        queue.add(Stop.INSTANCE);
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("블랙리스트 스냅샷 기록이 {}ms 안에 끝나지 않았습니다 - 남은 작업: {}", SHUTDOWN_TIMEOUT_MILLIS, queue.size());
+            thread.interrupt();
+        }
+        snapshot.close();
+    }
+
+    private interface Task {
+        void applyTo(BlacklistSnapshot snapshot) throws IOException;
+    }
+
+    private record Append(long high, long low, long expiresAtMillis) implements Task {
+        @Override
+        public void applyTo(BlacklistSnapshot snapshot) throws IOException {
+            snapshot.append(high, low, expiresAtMillis);
+        }
+    }
+
+    private record Rewrite(long[] records) implements Task {
+        @Override
+        public void applyTo(BlacklistSnapshot snapshot) throws IOException {
+            snapshot.rewrite(records);
+        }
+    }
+
+    private enum Stop implements Task {
+        INSTANCE;
+
+        @Override
+        public void applyTo(BlacklistSnapshot snapshot) {
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package commerce.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검증된 JWT 캐시
+ * 같은 액세스 토큰이 반복해서 들어오면 서명 검증(HS512)과 파싱을 건너뛰고 이전 검증 결과를 사용한다.
+ * - 키: 원본 토큰의 64bit 해시, 값에 원본 토큰을 함께 보관해 전체 문자열이 같을 때만 적중으로 본다. (해시 충돌 방지)
+ * - 만료: 토큰의 exp 시각에 캐시에서도 만료된다. exp 가 없는 토큰은 캐시하지 않는다.
+ * - 검증 실패는 캐시하지 않는다.
+ * 블랙리스트(로그아웃) 확인은 디코딩 이후 UserContextFilter 에서 매 요청 수행되므로 캐시 적중 여부와 무관하게 적용된다.
+ *
+ * 지표
+ * - cache.*{cache=jwtDecodeCache}: 적중률 등 Caffeine 통계
+ * - gateway.jwt.verify: 실제 검증에 걸린 시간
+ * - gateway.jwt.verify.saved: 캐시 적중으로 절약한 검증 시간 추정치 (적중 시마다 평균 검증 시간을 더함)
+ */
+@Slf4j
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    static final String CACHE_NAME = "jwtDecodeCache";
+
+    private final ReactiveJwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<Long, VerifiedJwt> cache;
+    private final Timer verifyTimer;
+    private final Counter savedSeconds;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maximumSize, MeterRegistry meterRegistry) {
+        this(delegate, maximumSize, meterRegistry, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maximumSize, MeterRegistry meterRegistry, Clock clock, Ticker ticker) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry(clock))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.verifyTimer = Timer.builder("gateway.jwt.verify")
+                .description("JWT 서명 검증 및 파싱 시간 (캐시 미스)")
+                .register(meterRegistry);
+        this.savedSeconds = Counter.builder("gateway.jwt.verify.saved")
+                .description("캐시 적중으로 절약한 JWT 검증 시간 추정치")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("JWT 검증 캐시 초기화 완료 - 최대 크기: {}", maximumSize);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        long fingerprint = fingerprint(token);
+        VerifiedJwt cached = cache.getIfPresent(fingerprint);
+        if (cached != null && cached.token.equals(token)) {
+            savedSeconds.increment(verifyTimer.mean(TimeUnit.SECONDS));
+            return Mono.just(cached.jwt);
+        }
+
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return delegate.decode(token)
+                    .doOnNext(jwt -> {
+                        verifyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        Instant expiresAt = jwt.getExpiresAt();
+                        if (expiresAt != null && expiresAt.isAfter(clock.instant())) {
+                            cache.put(fingerprint, new VerifiedJwt(token, jwt));
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 토큰 문자열의 64bit 해시 (FNV-1a + MurmurHash3 fmix64)
+     */
+    static long fingerprint(String token) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            h = (h ^ token.charAt(i)) * 0x100000001B3L;
+        }
+        return JtiCodec.mix(h);
+    }
+
+    private record VerifiedJwt(String token, Jwt jwt) {
+    }
+
+    /**
+     * 토큰의 exp 시각까지만 캐시
+     */
+    private record UntilTokenExpiry(Clock clock) implements Expiry<Long, VerifiedJwt> {
+
+        @Override
+        public long expireAfterCreate(Long key, VerifiedJwt value, long currentTime) {
+            long millis = value.jwt.getExpiresAt().toEpochMilli() - clock.millis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
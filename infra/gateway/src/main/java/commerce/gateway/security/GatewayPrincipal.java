@@ -0,0 +1,32 @@
+package commerce.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * 요청 단위로 한 번만 해석한 인증 사용자 정보 (불변)
+ * GatewayPrincipalResolver 가 exchange 속성(ATTRIBUTE)에 저장하며, 이후 필터는 이 값을 읽기만 한다.
+ *
+ * @param userId      JWT sub
+ * @param email       jwt.principal-claim 으로 지정한 클레임
+ * @param jti         JWT ID (없으면 null)
+ * @param expiresAt   토큰 만료 시각 (없으면 null)
+ * @param roles       역할 비트셋 (RoleRegistry 기준)
+ * @param rolesHeader X-ROLES 헤더 값 (비트셋별로 미리 만들어 둔 문자열)
+ */
+public record GatewayPrincipal(String userId, String email, String jti, Instant expiresAt, long roles, String rolesHeader) {
+
+    public static final String ATTRIBUTE = GatewayPrincipal.class.getName();
+
+    /**
+     * 인증되지 않은 요청
+     */
+    public static final GatewayPrincipal ANONYMOUS = new GatewayPrincipal(null, null, null, null, 0, "");
+
+    public boolean isAuthenticated() {
+        return this != ANONYMOUS;
+    }
+
+    public boolean hasRole(long roleBit) {
+        return (roles & roleBit) != 0;
+    }
+}
@@ -0,0 +1,76 @@
+package commerce.gateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 요청의 인증 정보를 한 번만 해석해 GatewayPrincipal 로 exchange 속성에 저장한다.
+ * RateLimitingFilter, UserContextFilter 등은 SecurityContext 를 각각 구독하지 않고 이 결과를 공유한다.
+ */
+@Component
+public class GatewayPrincipalResolver {
+
+    private final String principalClaim;
+    private final RoleRegistry roleRegistry = new RoleRegistry();
+
+    public GatewayPrincipalResolver(@Value("${jwt.principal-claim:sub}") String principalClaim) {
+        this.principalClaim = principalClaim;
+    }
+
+    /**
+     * 인증된 요청이면 GatewayPrincipal, 아니면 GatewayPrincipal.ANONYMOUS (항상 값을 발행한다)
+     */
+    public Mono<GatewayPrincipal> resolve(ServerWebExchange exchange) {
+        GatewayPrincipal resolved = exchange.getAttribute(GatewayPrincipal.ATTRIBUTE);
+        if (resolved != null) {
+            return Mono.just(resolved);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(auth -> toPrincipal((JwtAuthenticationToken) auth))
+                .defaultIfEmpty(GatewayPrincipal.ANONYMOUS)
+                .doOnNext(principal -> exchange.getAttributes().put(GatewayPrincipal.ATTRIBUTE, principal));
+    }
+
+    /**
+     * 역할 이름의 비트 (GatewayPrincipal.hasRole 용)
+     */
+    public long roleBit(String role) {
+        return roleRegistry.bitOf(role);
+    }
+
+    private GatewayPrincipal toPrincipal(JwtAuthenticationToken auth) {
+        Jwt token = auth.getToken();
+
+        long roles = 0;
+        boolean overflow = false;
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            long bit = roleRegistry.bitOf(authority.getAuthority());
+            if (bit == 0) {
+                overflow = true;
+            }
+            roles |= bit;
+        }
+        String rolesHeader = overflow ? joinAuthorities(auth) : roleRegistry.header(roles);
+
+        return new GatewayPrincipal(token.getSubject(), token.getClaimAsString(principalClaim), token.getId(),
+                token.getExpiresAt(), roles, rolesHeader);
+    }
+
+    private static String joinAuthorities(JwtAuthenticationToken auth) {
+        return RoleRegistry.join(auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toArray(String[]::new));
+    }
+}
@@ -0,0 +1,54 @@
+package commerce.gateway.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 128bit JTI 용 Bloom Filter (오탐률 약 1%)
+ * 블랙리스트에 없는 토큰 대부분을 버킷 조회 없이 통과시키기 위한 앞단 필터다.
+ * 삭제를 지원하지 않으므로 만료 버킷 정리 시 살아있는 항목으로 다시 만든다.
+ */
+final class JtiBloomFilter {
+
+    private static final int HASH_COUNT = 7;
+    private static final double BITS_PER_ENTRY = 9.6; // 오탐률 1% 기준 (-ln(0.01) / ln(2)^2)
+
+    private final AtomicLongArray words;
+    private final int bitMask;
+
+    JtiBloomFilter(int expectedInsertions) {
+        long bits = (long) Math.ceil(Math.max(1, expectedInsertions) * BITS_PER_ENTRY);
+        int size = (int) Math.min(1L << 30, Math.max(64, Long.highestOneBit(bits - 1) << 1));
+        this.words = new AtomicLongArray(size >>> 6);
+        this.bitMask = size - 1;
+    }
+
+    void put(long high, long low) {
+        long h1 = JtiCodec.mix(high);
+        long h2 = JtiCodec.mix(low) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = (int) (h1 + i * h2) & bitMask;
+            setBit(bit >>> 6, 1L << bit);
+        }
+    }
+
+    boolean mightContain(long high, long low) {
+        long h1 = JtiCodec.mix(high);
+        long h2 = JtiCodec.mix(low) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = (int) (h1 + i * h2) & bitMask;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBit(int index, long mask) {
+        long word;
+        while (((word = words.get(index)) & mask) == 0) {
+            if (words.compareAndSet(index, word, word | mask)) {
+                return;
+            }
+        }
+    }
+}
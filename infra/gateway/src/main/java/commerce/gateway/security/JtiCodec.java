@@ -0,0 +1,72 @@
+package commerce.gateway.security;
+
+/**
+ * JTI 문자열을 128bit(long 2개) 키로 변환
+ * - 표준 UUID 형식(8-4-4-4-12)이면 그대로 128bit 값으로 파싱한다. (객체 생성 없음)
+ * - 그 외 형식은 서로 다른 시드의 64bit 해시 두 개로 변환한다.
+ */
+final class JtiCodec {
+
+    private static final int UUID_LENGTH = 36;
+    private static final long SEED_HIGH = 0x9E3779B97F4A7C15L;
+    private static final long SEED_LOW = 0xC2B2AE3D27D4EB4FL;
+
+    private JtiCodec() {
+    }
+
+    static long high(String jti) {
+        return isUuid(jti) ? parseHex(jti, 0, 18) : hash(jti, SEED_HIGH);
+    }
+
+    static long low(String jti) {
+        return isUuid(jti) ? parseHex(jti, 19, UUID_LENGTH) : hash(jti, SEED_LOW);
+    }
+
+    private static boolean isUuid(String jti) {
+        if (jti.length() != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = jti.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String jti, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = jti.charAt(i);
+            if (c != '-') {
+                value = (value << 4) | Character.digit(c, 16);
+            }
+        }
+        return value;
+    }
+
+    private static long hash(String jti, long seed) {
+        long h = seed ^ jti.length();
+        for (int i = 0; i < jti.length(); i++) {
+            h = (h ^ jti.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * MurmurHash3 fmix64
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,28 +1,111 @@
 package commerce.gateway.security;
 
+import commerce.gateway.security.RevocationTransport.Revocation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
+/**
+ * 로그아웃된 JWT 블랙리스트
+ * - 토큰 만료 시각 기준 버킷(jwt.blacklist.bucket-width)으로 나눠 보관하고, 만료된 버킷은 통째로 버린다. (버킷당 O(1))
+ * - JTI 는 문자열 대신 128bit(long 2개)로 저장한다.
+ * - Bloom Filter 를 앞에 두어 블랙리스트에 없는 대부분의 토큰은 버킷 조회 없이 통과한다.
+ * 버킷이 비워지는 시점에는 그 안의 모든 토큰이 이미 만료되었으므로 조회 시 현재 시각을 확인하지 않는다.
+ *
+ * 인스턴스 간 전파와 재시작 복구
+ * - RevocationTransport 빈이 있으면 폐기 이벤트를 다른 게이트웨이로 전파하고, 받은 이벤트를 반영한다.
+ *   구독과 만료 버킷 정리 스케줄은 생성이 끝난 뒤 start() 에서 시작한다. (생성 중인 this 를 다른 스레드에 넘기지 않도록)
+ * - jwt.blacklist.snapshot-path 가 설정되면 폐기마다 스냅샷 파일에 추가하고, 시작 시 이를 읽어 블랙리스트를 복구한다.
+ *   파일 기록과 정리는 BlacklistSnapshotWriter 스레드가 맡으므로 폐기 요청(이벤트 루프)과 writeLock 은 디스크를 기다리지 않는다.
+ */
 @Slf4j
 @Service
 public class JwtBlacklistService {
 
-    private final ConcurrentHashMap<String, LocalDateTime> blacklistTokens = new ConcurrentHashMap<>();
+    private final long bucketWidthMillis;
+    private final int expectedTokens;
+    private final LongSupplier clock;
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final ConcurrentSkipListMap<Long, RevokedJtiSet> buckets = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object(); // 추가와 Bloom Filter 재구성이 서로 놓치지 않도록 직렬화
+    private volatile JtiBloomFilter bloomFilter;
 
-    public JwtBlacklistService() {
-        scheduler.scheduleAtFixedRate(this::cleanupExpiredTokens, 1, 1, TimeUnit.MINUTES);
-        log.info("JWT Blacklist Service 초기화 완료");
+    private final BlacklistSnapshotWriter snapshotWriter; // 없으면 null
+    private final RevocationTransport transport;  // 없으면 null
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @Autowired
+    public JwtBlacklistService(@Value("${jwt.blacklist.bucket-width:1m}") Duration bucketWidth,
+                               @Value("${jwt.blacklist.expected-tokens:100000}") int expectedTokens,
+                               @Value("${jwt.blacklist.snapshot-path:}") String snapshotPath,
+                               ObjectProvider<RevocationTransport> transport) {
+        this(bucketWidth, expectedTokens, System::currentTimeMillis, openSnapshot(snapshotPath), transport.getIfAvailable());
+
+        log.info("JWT Blacklist Service 초기화 완료 - 버킷 간격: {}, 예상 토큰 수: {}, 스냅샷: {}, 전파: {}", bucketWidth, expectedTokens,
+                snapshotPath.isEmpty() ? "사용 안 함" : snapshotPath,
+                transport.getIfAvailable() != null ? transport.getIfAvailable().getClass().getSimpleName() : "사용 안 함");
+    }
+
+    JwtBlacklistService(Duration bucketWidth, int expectedTokens, LongSupplier clock) {
+        this(bucketWidth, expectedTokens, clock, null, null);
+    }
+
+    JwtBlacklistService(Duration bucketWidth, int expectedTokens, LongSupplier clock,
+                        BlacklistSnapshot snapshot, RevocationTransport transport) {
+        if (bucketWidth.toMillis() <= 0 || expectedTokens <= 0) {
+            throw new IllegalArgumentException("bucketWidth and expectedTokens must be positive");
+        }
+        this.bucketWidthMillis = bucketWidth.toMillis();
+        this.expectedTokens = expectedTokens;
+        this.clock = clock;
+        this.bloomFilter = new JtiBloomFilter(expectedTokens);
+        this.transport = transport;
+
+        if (snapshot != null) {
+            restore(snapshot);
+        }
+        this.snapshotWriter = snapshot != null ? new BlacklistSnapshotWriter(snapshot) : null;
+    }
+
+    /**
+     * 다른 인스턴스의 폐기 이벤트 구독과 만료 버킷 정리를 시작한다.
+     */
+    @PostConstruct
+    public void start() {
+        if (transport != null) {
+            transport.subscribe(this::onReplicated);
+        }
+        scheduler.scheduleAtFixedRate(this::expireBuckets, bucketWidthMillis, bucketWidthMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static BlacklistSnapshot openSnapshot(String snapshotPath) {
+        if (snapshotPath.isEmpty()) {
+            return null;
+        }
+        try {
+            return BlacklistSnapshot.open(Path.of(snapshotPath));
+        } catch (IOException e) {
+            log.error("블랙리스트 스냅샷을 열 수 없어 메모리에서만 동작합니다: {}", snapshotPath, e);
+            return null;
+        }
     }
 
     /**
@@ -31,67 +114,212 @@ public class JwtBlacklistService {
      * @param expirationDate
      */
     public void blacklistToken(String jti, Date expirationDate) {
-        if (jti == null || jti.trim().isEmpty()) {
+        if (jti == null || jti.isBlank()) {
             log.warn("JTI가 Null이거나 비어있습니다. 토큰을 블랙리스트에 추가할 수 없습니다.");
             return;
         }
 
-        LocalDateTime expiryTime = expirationDate.toInstant().atZone(ZoneId.systemDefault())
-                .toLocalDateTime();
+        long expiresAt = expirationDate.getTime();
+        long high = JtiCodec.high(jti);
+        long low = JtiCodec.low(jti);
 
-        blacklistTokens.put(jti, expiryTime);
+        boolean added;
+        synchronized (writeLock) {
+            added = revoke(high, low, expiresAt);
+            if (added) {
+                appendSnapshot(high, low, expiresAt);
+            }
+        }
+        if (!added) {
+            log.debug("이미 블랙리스트에 있거나 만료된 토큰입니다. JTI: {}", jti);
+            return;
+        }
+
+        if (transport != null) {
+            try {
+                transport.publish(new Revocation(high, low, expiresAt));
+            } catch (RuntimeException e) {
+                log.warn("블랙리스트 전파 실패 - 이 인스턴스에만 반영됩니다. JTI: {}", jti, e);
+            }
+        }
 
-        log.info("토큰이 블랙리스트에 추가되었습니다. JTI: {}, 만료 시간: {}", jti, expiryTime);
-        log.debug("현재 블랙리스트 토큰 수: {}", blacklistTokens.size());
+        log.info("토큰이 블랙리스트에 추가되었습니다. JTI: {}, 만료 시간: {}", jti, Instant.ofEpochMilli(expiresAt));
+    }
+
+    /**
+     * 다른 인스턴스에서 전파된 폐기 반영
+     */
+    void onReplicated(Revocation revocation) {
+        synchronized (writeLock) {
+            if (revoke(revocation.jtiHigh(), revocation.jtiLow(), revocation.expiresAtMillis())) {
+                appendSnapshot(revocation.jtiHigh(), revocation.jtiLow(), revocation.expiresAtMillis());
+                log.debug("전파된 블랙리스트 토큰 반영 - 만료 시간: {}", Instant.ofEpochMilli(revocation.expiresAtMillis()));
+            }
+        }
+    }
+
+    /**
+     * writeLock 안에서 호출
+     *
+     * @return 새로 추가되었는지 여부 (이미 있거나 만료된 토큰이면 false)
+     */
+    private boolean revoke(long high, long low, long expiresAtMillis) {
+        long bucket = bucketOf(expiresAtMillis);
+        if (bucket < bucketOf(clock.getAsLong())) {
+            return false;
+        }
+        if (!buckets.computeIfAbsent(bucket, b -> new RevokedJtiSet(16)).add(high, low)) {
+            return false;
+        }
+        bloomFilter.put(high, low); // 집합에 넣은 뒤에 Bloom Filter 에 반영
+        return true;
     }
 
     /**
      * 토큰이 블랙리스트에 있는지 확인한다.
+     * 만료 시각을 알면 해당 버킷 하나만 조회한다.
      */
-    public boolean isBlacklisted(String jti) {
-        if (jti == null || jti.trim().isEmpty()) {
+    public boolean isBlacklisted(String jti, Instant expiresAt) {
+        if (jti == null || jti.isBlank()) {
             log.warn("JTI가 Null이거나 비어있습니다. 블랙리스트 확인을 건너뜁니다.");
             return false;
         }
 
-        LocalDateTime expiry = blacklistTokens.get(jti);
-        if (expiry == null) {
+        long high = JtiCodec.high(jti);
+        long low = JtiCodec.low(jti);
+        if (!bloomFilter.mightContain(high, low)) {
             return false;
         }
 
-        if (LocalDateTime.now().isAfter(expiry)) {
-            blacklistTokens.remove(jti);
-            log.info("만료된 블랙리스트 토큰이 제거되었습니다. JTI: {}", jti);
-            return false;
+        boolean blacklisted;
+        if (expiresAt != null) {
+            RevokedJtiSet bucket = buckets.get(bucketOf(expiresAt.toEpochMilli()));
+            blacklisted = bucket != null && bucket.contains(high, low);
+        } else {
+            blacklisted = buckets.values().stream().anyMatch(bucket -> bucket.contains(high, low));
         }
 
-        log.warn("블랙리스트에 있는 토큰입니다. JTI: {}", jti);
-        return true;
+        if (blacklisted) {
+            log.warn("블랙리스트에 있는 토큰입니다. JTI: {}", jti);
+        }
+        return blacklisted;
     }
 
+    /**
+     * 토큰이 블랙리스트에 있는지 확인한다. (만료 시각을 모르는 경우 모든 버킷 조회)
+     */
+    public boolean isBlacklisted(String jti) {
+        return isBlacklisted(jti, null);
+    }
 
+    /**
+     * 현재 시각 이전에 끝난 버킷을 버리고, 남은 항목으로 Bloom Filter 를 다시 만든다.
+     */
+    void expireBuckets() {
+        long current = bucketOf(clock.getAsLong());
+        int removed = 0;
 
-    private void cleanupExpiredTokens() {
+        synchronized (writeLock) {
+            Map<Long, RevokedJtiSet> expired = buckets.headMap(current);
+            if (expired.isEmpty()) {
+                return;
+            }
+            for (RevokedJtiSet bucket : expired.values()) {
+                removed += bucket.size();
+            }
+            expired.clear();
 
-        LocalDateTime now = LocalDateTime.now();
-        AtomicInteger removedCount = new AtomicInteger(0);  // ✅ AtomicInteger 사용
-        blacklistTokens.entrySet().removeIf(entry -> {
-            if (now.isAfter(entry.getValue())) {
-                removedCount.incrementAndGet();
-                return true;
+            JtiBloomFilter rebuilt = new JtiBloomFilter(Math.max(expectedTokens, size() * 2));
+            buckets.values().forEach(bucket -> bucket.forEach(rebuilt::put));
+            bloomFilter = rebuilt;
+            if (snapshotWriter != null) {
+                // 사본만 잠금 안에서 만들고 파일 쓰기와 fsync 는 기록 스레드에서 한다 (이후 추가보다 먼저 반영되도록 잠금 안에서 예약)
+                snapshotWriter.rewrite(liveRecords());
             }
-            return false;
+        }
+
+        log.info("만료된 블랙리스트 토큰 {}개 제거 완료", removed);
+    }
+
+    /**
+     * 스냅샷에서 블랙리스트 복구 후 만료된 레코드를 정리한다. (시작 시 한 번, 기록 스레드를 띄우기 전)
+     */
+    private void restore(BlacklistSnapshot snapshot) {
+        long started = System.nanoTime();
+        AtomicInteger restored = new AtomicInteger();
+        try {
+            int read;
+            long[] live;
+            synchronized (writeLock) {
+                read = snapshot.load((high, low, expiresAtMillis) -> {
+                    if (revoke(high, low, expiresAtMillis)) {
+                        restored.incrementAndGet();
+                    }
+                });
+                live = liveRecords();
+            }
+            snapshot.rewrite(live);
+            log.info("블랙리스트 스냅샷 복구 완료 - 레코드 {}개 중 유효 토큰 {}개, {}ms", read, restored.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            log.error("블랙리스트 스냅샷 복구 실패 - 빈 블랙리스트로 시작합니다.", e);
+        }
+    }
+
+    /**
+     * writeLock 안에서 호출
+     */
+    private void appendSnapshot(long high, long low, long expiresAtMillis) {
+        if (snapshotWriter != null) {
+            snapshotWriter.append(high, low, expiresAtMillis);
+        }
+    }
+
+    /**
+     * writeLock 안에서 호출 - 살아있는 토큰의 사본 (만료 시각은 버킷의 끝 시각으로 기록)
+     *
+     * @return [jtiHigh, jtiLow, expiresAt] 가 반복되는 배열
+     */
+    private long[] liveRecords() {
+        long[] records = new long[size() * 3];
+        int[] next = {0};
+        buckets.forEach((bucket, jtis) -> {
+            long bucketEnd = (bucket + 1) * bucketWidthMillis - 1;
+            jtis.forEach((high, low) -> {
+                records[next[0]++] = high;
+                records[next[0]++] = low;
+                records[next[0]++] = bucketEnd;
+            });
         });
+        return records;
+    }
 
-        if (removedCount.get() > 0) {
-            log.info("만료된 블랙리스트 토큰 {}개 제거 완료", blacklistTokens.size());
+    /**
+     * 블랙리스트에 있는 토큰 수
+     */
+    int size() {
+        int size = 0;
+        for (RevokedJtiSet bucket : buckets.values()) {
+            size += bucket.size();
         }
+        return size;
+    }
 
+    private long bucketOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, bucketWidthMillis);
     }
 
     // ✅ 애플리케이션 종료 시 스케줄러 정리
+    @PreDestroy
     public void shutdown() {
         scheduler.shutdown();
+        if (snapshotWriter != null) {
+            try {
+                snapshotWriter.close();
+            } catch (IOException e) {
+                log.warn("블랙리스트 스냅샷 닫기 실패", e);
+            }
+        }
         log.info("🚪 JWT Blacklist Service 종료");
     }
 
@@ -1,61 +1,88 @@
 package commerce.gateway.security;
 
+import commerce.gateway.ratelimit.EndpointQuota;
+import commerce.gateway.ratelimit.QuotaDefinition;
+import commerce.gateway.ratelimit.QuotaLedger;
+import commerce.gateway.ratelimit.QuotaResult;
 import commerce.gateway.ratelimit.RateLimitConfig;
 import commerce.gateway.ratelimit.RateLimitResult;
 import commerce.gateway.ratelimit.RateLimitService;
+import commerce.gateway.ratelimit.RateLimitTierResolver;
+import commerce.gateway.response.GatewayErrorResponses;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.ReactiveSecurityContextHolder;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
-@Slf4j
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
 @Component
 @RequiredArgsConstructor
 public class RateLimitingFilter implements GlobalFilter, Ordered {
 
     private final RateLimitService rateLimitService;
+    private final RateLimitTierResolver tierResolver;
+    private final GatewayPrincipalResolver principalResolver;
+    private final QuotaLedger quotaLedger;
 
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RateLimitConfig config = tierResolver.resolve(exchange);
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+
+        return principalResolver.resolve(exchange)
+                .flatMap(principal -> {
+                    // 인증 사용자는 엔드포인트에 지정된 일/월 쿼터도 소비한다 (버킷 용량으로 자르지 않은 엔드포인트 비용)
+                    // 쿼터를 먼저 확인해 쿼터 초과로 거절될 요청이 Rate Limit 토큰을 쓰지 않게 한다
+                    EndpointQuota quota = principal.isAuthenticated() ? tierResolver.resolveQuota(exchange) : null;
+                    QuotaResult quotaResult = quota != null
+                            ? quotaLedger.consume(quota.definition(), principal.userId(), quota.cost())
+                            : null;
+                    if (quotaResult != null && !quotaResult.allowed()) {
+                        addQuotaHeaders(exchange, quotaResult);
+                        return createQuotaExceededResponse(exchange, quota.definition(), quotaResult);
+                    }
 
-        log.error("🚨 RateLimitingFilter.filter() 호출됨!"); // 강제 에러 로그로 확실히 보이게
-
-        ServerHttpRequest request = exchange.getRequest();
-        String path = request.getPath().value();
-        String method = request.getMethod().name();
-
-        RateLimitConfig config = getRateLimitConfig(path);
+                    // 등급마다 별도의 버킷을 사용한다
+                    String key = generateRateLimitKey(exchange, principal);
+                    return rateLimitService.checkLimitAsync(config.getTier() + ":" + key, config, routeId)
+                            .flatMap(result -> applyLimit(exchange, chain, principal, config, quota, quotaResult, result));
+                });
+    }
 
-        return generateRateLimitKey(exchange)
-                .flatMap(key -> {
-                    RateLimitResult result = rateLimitService.checkLimit(key, config);
-                    if (result.isAllowed()) {
-                        // 허용된 경우
-                        addRateLimitHeaders(exchange, result);
-                        log.debug("Rate limit  통과: {} {} key = {}, remaining={}/{}", method, path, key, result.getRemainingTokens(), result.getLimitCapacity());
-                        return chain.filter(exchange);
-                    } else {
-                        // 차단된 경우
-                        log.warn("Rate limit  초과: {} {} key = {}, 용량 초과 (남은 토큰: 0), 재시도 가능 시간: {}초", method, path, key, result.getRetryAfterSeconds());
+    /**
+     * Rate Limit 판정 결과에 따라 차단하거나 다음 필터로 넘긴다.
+     * 차단하면 앞서 소비한 쿼터를 되돌린다.
+     *
+     * @param quotaResult 쿼터를 소비하지 않은 요청이면 null
+     */
+    private Mono<Void> applyLimit(ServerWebExchange exchange, GatewayFilterChain chain, GatewayPrincipal principal,
+                                  RateLimitConfig config, EndpointQuota quota, QuotaResult quotaResult,
+                                  RateLimitResult result) {
+        if (!result.isAllowed()) {
+            if (quotaResult != null) {
+                quotaLedger.refund(quota.definition(), principal.userId(), quota.cost());
+            }
+            // 차단된 경우 (429 응답은 접근 로그에 모두 기록된다)
+            return createRateLimitExceededResponse(exchange, result);
+        }
 
-                        return createRateLimitExceededResponse(exchange, result);
-                    }
-                });
+        // 허용된 경우
+        addRateLimitHeaders(exchange, result);
+        if (quotaResult != null) {
+            addQuotaHeaders(exchange, quotaResult);
+        }
+        return chain.filter(exchange);
     }
 
     @Override
@@ -63,37 +90,13 @@ public class RateLimitingFilter implements GlobalFilter, Ordered {
         return -50; //UserContextFilter(LOWEST_PRECEDENCE)보다 먼저 실행하여 불필요한 JWT 검증 방지
     }
 
-    /**
-     * 🎯 경로별 Rate Limit 설정 결정
-     */
-    private RateLimitConfig getRateLimitConfig(String path) {
-        if (path.contains("/auth/")) {
-            return RateLimitConfig.forAuth();      // 로그인: 엄격 (2/초, 10 버스트)
-        } else if (path.contains("/admin/")) {
-            return RateLimitConfig.forAdmin();     // 관리자: 중간 (10/초, 30 버스트)
-        } else if (path.contains("/actuator/health")) {
-            return RateLimitConfig.forHealth();    // 헬스체크: 관대 (100/초, 200 버스트)
-        } else {
-            return RateLimitConfig.forGeneral();   // 일반: 완화 (50/초, 100 버스트)
-        }
-    }
-
     /**
      * Rate Limit 키 생성(IP + 사용자 조합)
      */
-    private Mono<String> generateRateLimitKey(ServerWebExchange exchange) {
-
-        String clientIp = getClientIp(exchange);
-
-        return ReactiveSecurityContextHolder.getContext()
-                .map(SecurityContext::getAuthentication)
-                .filter(Authentication::isAuthenticated)
-                .cast(JwtAuthenticationToken.class)
-                .map(auth -> {
-                    String userId = auth.getToken().getSubject();
-                    return "user: " + userId;
-                })
-                .switchIfEmpty(Mono.just("ip:" + clientIp));
+    private String generateRateLimitKey(ServerWebExchange exchange, GatewayPrincipal principal) {
+        return principal.isAuthenticated()
+                ? "user: " + principal.userId()
+                : "ip:" + getClientIp(exchange);
     }
 
     /**
@@ -117,6 +120,7 @@ public class RateLimitingFilter implements GlobalFilter, Ordered {
 
     /**
      * Rate Limit 헤더 추가(정상 응답 시)
+     * 공유 저장소(임대) 백엔드에서 X-RateLimit-Remaining 은 공유 버킷이 아니라 이 인스턴스가 임대해 둔 잔량이다.
      */
     private void addRateLimitHeaders(ServerWebExchange exchange, RateLimitResult result) {
         exchange.getResponse().getHeaders().set("X-RateLimit-Limit", String.valueOf(result.getLimitCapacity()));
@@ -127,30 +131,36 @@ public class RateLimitingFilter implements GlobalFilter, Ordered {
      * 🚫 Rate Limit 헤더 추가(차단 응답 시)
      */
     private Mono<Void> createRateLimitExceededResponse(ServerWebExchange exchange, RateLimitResult result) {
-        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-        exchange.getResponse().getHeaders().set("Content-Type",
-                MediaType.APPLICATION_JSON_VALUE + "; charset=UTF-8");
         exchange.getResponse().getHeaders().set("X-RateLimit-Limit",
                 String.valueOf(result.getLimitCapacity()));
         exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", "0");
         exchange.getResponse().getHeaders().set("Retry-After",
                 String.valueOf(result.getRetryAfterSeconds()));
 
-        String errorBody = String.format("""
-                {
-                    "success": false,
-                    "code": "RATE_LIMIT_EXCEEDED",
-                    "message": "요청 횟수가 제한을 초과했습니다",
-                    "limit": %d,
-                    "retryAfter": %d,
-                    "timestamp": %d
-                }
-                """, result.getLimitCapacity(), result.getRetryAfterSeconds(), System.currentTimeMillis());
-
-        var buffer = exchange.getResponse().bufferFactory()
-                .wrap(errorBody.getBytes(StandardCharsets.UTF_8));
-
-        return exchange.getResponse().writeWith(Mono.just(buffer));
+        DataBuffer body = GatewayErrorResponses.RATE_LIMIT_EXCEEDED.render(exchange.getResponse().bufferFactory(),
+                result.getLimitCapacity(), result.getRetryAfterSeconds(), System.currentTimeMillis());
+
+        return GatewayErrorResponses.write(exchange.getResponse(), HttpStatus.TOO_MANY_REQUESTS, body);
+    }
+
+    /**
+     * 쿼터 헤더 추가
+     */
+    private void addQuotaHeaders(ServerWebExchange exchange, QuotaResult result) {
+        exchange.getResponse().getHeaders().set("X-Quota-Limit", String.valueOf(result.limit()));
+        exchange.getResponse().getHeaders().set("X-Quota-Remaining", String.valueOf(result.remaining()));
+    }
+
+    /**
+     * 🚫 쿼터 초과 응답 (기간이 끝날 때까지 Retry-After)
+     */
+    private Mono<Void> createQuotaExceededResponse(ServerWebExchange exchange, QuotaDefinition quota, QuotaResult result) {
+        exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(result.retryAfterSeconds()));
+
+        DataBuffer body = GatewayErrorResponses.QUOTA_EXCEEDED.render(exchange.getResponse().bufferFactory(),
+                quota.name(), result.period(), result.limit(), result.retryAfterSeconds(), System.currentTimeMillis());
+
+        return GatewayErrorResponses.write(exchange.getResponse(), HttpStatus.TOO_MANY_REQUESTS, body);
     }
 
 }
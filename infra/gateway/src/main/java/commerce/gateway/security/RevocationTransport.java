@@ -0,0 +1,32 @@
+package commerce.gateway.security;
+
+import java.util.function.Consumer;
+
+/**
+ * 게이트웨이 인스턴스 간 토큰 폐기(로그아웃) 전파 SPI
+ * 구현체(Redis Pub/Sub, Kafka 등)를 빈으로 등록하면 JwtBlacklistService 가 폐기 이벤트를 발행/구독한다.
+ * 등록된 빈이 없으면 블랙리스트는 인스턴스 단위로만 동작한다.
+ * 자신이 발행한 이벤트를 다시 받아도 중복 추가되지 않으므로 구현체가 발신자를 걸러낼 필요는 없다.
+ */
+public interface RevocationTransport {
+
+    /**
+     * 폐기 이벤트 발행 (요청 스레드에서 호출되므로 블로킹하지 않아야 한다)
+     */
+    void publish(Revocation revocation);
+
+    /**
+     * 다른 인스턴스에서 발행된 폐기 이벤트 구독
+     */
+    void subscribe(Consumer<Revocation> listener);
+
+    /**
+     * 폐기된 토큰
+     *
+     * @param jtiHigh         JTI 상위 64bit
+     * @param jtiLow          JTI 하위 64bit
+     * @param expiresAtMillis 토큰 만료 시각 (epoch millis)
+     */
+    record Revocation(long jtiHigh, long jtiLow, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,143 @@
+package commerce.gateway.security;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 128bit JTI 집합 (Open Addressing, 문자열/박싱 없이 long 배열에 저장)
+ * 조회는 StampedLock 낙관적 읽기로 락 없이 수행하고, 추가 중 충돌한 경우에만 읽기 락을 잡는다.
+ */
+final class RevokedJtiSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] table;          // [high0, low0, high1, low1, ...], (0, 0) 은 빈 슬롯
+    private boolean containsZero;  // (0, 0) 키는 빈 슬롯과 구분하기 위해 따로 보관
+    private int size;
+
+    RevokedJtiSet(int expectedSize) {
+        this.table = new long[tableLength(expectedSize)];
+    }
+
+    boolean contains(long high, long low) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = probe(table, containsZero, high, low);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return probe(table, containsZero, high, low);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 새로 추가되었는지 여부
+     */
+    boolean add(long high, long low) {
+        long stamp = lock.writeLock();
+        try {
+            if (high == 0 && low == 0) {
+                if (containsZero) {
+                    return false;
+                }
+                containsZero = true;
+                size++;
+                return true;
+            }
+            if (probe(table, false, high, low)) {
+                return false;
+            }
+            if ((size + 1) * 4 > table.length) { // 엔트리 수 > 슬롯 수 / 2
+                table = rehash(table, tableLength(size + 1));
+            }
+            insert(table, high, low);
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void forEach(JtiConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            if (containsZero) {
+                consumer.accept(0, 0);
+            }
+            for (int i = 0; i < table.length; i += 2) {
+                if (table[i] != 0 || table[i + 1] != 0) {
+                    consumer.accept(table[i], table[i + 1]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static boolean probe(long[] table, boolean containsZero, long high, long low) {
+        if (high == 0 && low == 0) {
+            return containsZero;
+        }
+
+        int mask = (table.length >>> 1) - 1;
+        int slot = (int) JtiCodec.mix(high ^ low) & mask;
+        for (int i = 0; i <= mask; i++) {
+            long h = table[slot << 1];
+            long l = table[(slot << 1) + 1];
+            if (h == high && l == low) {
+                return true;
+            }
+            if (h == 0 && l == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private static void insert(long[] table, long high, long low) {
+        int mask = (table.length >>> 1) - 1;
+        int slot = (int) JtiCodec.mix(high ^ low) & mask;
+        while (table[slot << 1] != 0 || table[(slot << 1) + 1] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot << 1] = high;
+        table[(slot << 1) + 1] = low;
+    }
+
+    private static long[] rehash(long[] old, int length) {
+        long[] table = new long[length];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0 || old[i + 1] != 0) {
+                insert(table, old[i], old[i + 1]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 엔트리 수의 2배 이상인 2의 거듭제곱 슬롯 수 (슬롯당 long 2개)
+     */
+    private static int tableLength(int expectedSize) {
+        int slots = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        return slots * 2;
+    }
+
+    @FunctionalInterface
+    interface JtiConsumer {
+        void accept(long high, long low);
+    }
+}
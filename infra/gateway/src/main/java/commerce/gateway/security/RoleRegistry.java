@@ -0,0 +1,106 @@
+package commerce.gateway.security;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 역할 이름을 비트로 변환하고, 비트셋별 X-ROLES 헤더 값을 캐시한다.
+ * 역할 종류는 많지 않으므로(BUYER, SELLER, ADMIN ...) 처음 본 이름에 순서대로 비트를 배정한다.
+ * 비트 배정 순서는 인스턴스와 토큰 도착 순서마다 다르므로 헤더에는 역할 이름을 정렬해 넣는다.
+ * 64 종류를 넘는 역할은 비트셋으로 표현하지 않고 헤더 문자열에만 포함한다.
+ */
+final class RoleRegistry {
+
+    static final int MAX_ROLES = Long.SIZE;
+    static final int MAX_CACHED_HEADERS = 256;
+
+    private final Map<String, Long> bits = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> names = new AtomicReferenceArray<>(MAX_ROLES);
+    private volatile Headers headers = new Headers(new long[0], new String[0]);
+
+    /**
+     * 역할 이름의 비트 (64 종류를 넘으면 0)
+     */
+    long bitOf(String role) {
+        Long bit = bits.get(role);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (this) {
+            bit = bits.get(role);
+            if (bit != null) {
+                return bit;
+            }
+            int index = bits.size();
+            if (index >= MAX_ROLES) {
+                return 0;
+            }
+            names.set(index, role);
+            bits.put(role, 1L << index);
+            return 1L << index;
+        }
+    }
+
+    /**
+     * 비트셋에 해당하는 X-ROLES 헤더 값 (역할 이름 순으로 ',' 로 연결)
+     * 역할 조합 수는 적으므로 비트셋 배열을 선형 탐색하고, MAX_CACHED_HEADERS 개를 넘는 조합은 캐시하지 않는다.
+     */
+    String header(long roles) {
+        Headers cached = headers;
+        int index = cached.indexOf(roles);
+        return index >= 0 ? cached.values[index] : cache(roles);
+    }
+
+    /**
+     * 정렬된 역할 이름을 ',' 로 연결한다. (비트로 표현하지 못한 역할이 섞인 경우에도 같은 형식을 쓴다)
+     */
+    static String join(String[] roles) {
+        Arrays.sort(roles);
+        return String.join(",", roles);
+    }
+
+    private synchronized String cache(long roles) {
+        Headers cached = headers;
+        int index = cached.indexOf(roles);
+        if (index >= 0) {
+            return cached.values[index];
+        }
+
+        String header = join(roles);
+        int size = cached.roles.length;
+        if (size < MAX_CACHED_HEADERS) {
+            long[] keys = Arrays.copyOf(cached.roles, size + 1);
+            String[] values = Arrays.copyOf(cached.values, size + 1);
+            keys[size] = roles;
+            values[size] = header;
+            headers = new Headers(keys, values);
+        }
+        return header;
+    }
+
+    private String join(long roles) {
+        String[] roleNames = new String[Long.bitCount(roles)];
+        int i = 0;
+        for (long remaining = roles; remaining != 0; remaining &= remaining - 1) {
+            roleNames[i++] = names.get(Long.numberOfTrailingZeros(remaining));
+        }
+        return join(roleNames);
+    }
+
+    /**
+     * 비트셋 -> 헤더 값 (같은 위치끼리 짝, 바뀔 때마다 새로 만들어 volatile 로 공개)
+     */
+    private record Headers(long[] roles, String[] values) {
+
+        int indexOf(long key) {
+            for (int i = 0; i < roles.length; i++) {
+                if (roles[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
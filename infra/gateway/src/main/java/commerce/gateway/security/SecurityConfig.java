@@ -1,13 +1,15 @@
 package commerce.gateway.security;
 
+import commerce.gateway.response.GatewayErrorResponses;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -23,7 +25,6 @@ import org.springframework.security.web.server.authorization.ServerAccessDeniedH
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
-import reactor.core.publisher.Mono;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -96,14 +97,10 @@ public class SecurityConfig {
         return (exchange, denied) -> {
 
             var res = exchange.getResponse();
-            res.setStatusCode(HttpStatus.FORBIDDEN);
-            res.getHeaders().setContentType(MediaType.APPLICATION_JSON);
             String traceId = exchange.getRequest().getHeaders().getFirst("X-Correlation-Id");
-            String body = """
-                    {"success":false,"code":"AUTH-403","message":"Forbidden","traceId":"%s","timestamp":%d}
-                    """.formatted(traceId == null ? "" : traceId, System.currentTimeMillis());
+            DataBuffer body = GatewayErrorResponses.FORBIDDEN.render(res.bufferFactory(), traceId, System.currentTimeMillis());
 
-            return res.writeWith(Mono.just(res.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+            return GatewayErrorResponses.write(res, HttpStatus.FORBIDDEN, body);
         };
     }
 
@@ -111,24 +108,21 @@ public class SecurityConfig {
     public ServerAuthenticationEntryPoint authenticationEntryPoint() {
         return ((exchange, ex) -> {
             var res = exchange.getResponse();
-            res.setStatusCode(HttpStatus.UNAUTHORIZED);
-            res.getHeaders().setContentType(MediaType.APPLICATION_JSON);
 
             String traceId = MDC.get("traceId");
             String spanId = MDC.get("spanId");
+            DataBuffer body = GatewayErrorResponses.UNAUTHORIZED.render(res.bufferFactory(), traceId, spanId, System.currentTimeMillis());
 
-            String body = """
-                    {"success":false,"code":"AUTH-401","message":"Unauthorized","traceId":"%s", "spanId": "%s","timestamp":%d}
-                    """.formatted(traceId == null ? "" : traceId, spanId, System.currentTimeMillis());
-
-            return res.writeWith(Mono.just(res.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+            return GatewayErrorResponses.write(res, HttpStatus.UNAUTHORIZED, body);
         });
     }
 
     @Bean
     ReactiveJwtDecoder jwtDecoder(
             @Value("${jwt.secret:}") String secret,
-            @Value("${jwt.jwk-set-uri:}") String jwkSetUri
+            @Value("${jwt.jwk-set-uri:}") String jwkSetUri,
+            @Value("${jwt.cache.maximum-size:10000}") long cacheMaximumSize,
+            MeterRegistry meterRegistry
     ) {
 
         // 🔍 실제 secret 값 디버깅
@@ -142,7 +136,7 @@ public class SecurityConfig {
         }
 
         if (org.springframework.util.StringUtils.hasText(jwkSetUri)) {
-            return NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri).build();
+            return new CachingReactiveJwtDecoder(NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri).build(), cacheMaximumSize, meterRegistry);
         }
 
         SecretKey key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
@@ -152,9 +146,10 @@ public class SecurityConfig {
         log.info("🔧 SecretKey Format: {}", key.getFormat());
         log.info("✅ JWT Decoder 생성 완료 (HS512)");
 
-        return NimbusReactiveJwtDecoder.withSecretKey(key)
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(key)
                 .macAlgorithm(MacAlgorithm.HS512)
                 .build();
+        return new CachingReactiveJwtDecoder(decoder, cacheMaximumSize, meterRegistry);
     }
 
     @Bean
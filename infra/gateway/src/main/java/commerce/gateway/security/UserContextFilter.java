@@ -1,26 +1,19 @@
 package commerce.gateway.security;
 
+import commerce.gateway.response.GatewayErrorResponses;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.ReactiveSecurityContextHolder;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
 
 import static java.util.Date.from;
 import static java.util.Objects.requireNonNull;
@@ -29,75 +22,45 @@ import static java.util.Objects.requireNonNull;
 @Component
 public class UserContextFilter implements GlobalFilter, Ordered {
 
-    private final String principalClaim;
+    private final GatewayPrincipalResolver principalResolver;
     private final JwtBlacklistService jwtBlacklistService;
 
-    public UserContextFilter(@Value("${jwt.principal-claim:sub}") String principalClaim, JwtBlacklistService jwtBlacklistService) {
-        this.principalClaim = principalClaim;
+    public UserContextFilter(GatewayPrincipalResolver principalResolver, JwtBlacklistService jwtBlacklistService) {
+        this.principalResolver = principalResolver;
         this.jwtBlacklistService = jwtBlacklistService;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-
-        String method = exchange.getRequest().getMethod().name();
-        String path = exchange.getRequest().getPath().value();
-        String traceId = exchange.getRequest().getHeaders().getFirst("X-Trace-Id");
-
-        // 🔥 이 로깅으로 추적
-        log.info("🌐 [{}] {} {} -> Routing to Member Service",
-                traceId != null ? traceId.substring(0, 8) : "unknown",
-                method,
-                path);
-
-        log.info("=== UserContextFilter STARTED ===");
-        log.info("Request method: " + exchange.getRequest().getMethod());
-
+        // 요청 단위 로그는 AccessLogFilter 가 비동기로 남긴다
         if (exchange.getRequest().getPath().value().equals("/api/v1/auth/logout")) {
             return handleLogout(exchange, chain);
         }
 
-        return ReactiveSecurityContextHolder.getContext()
-                .map(SecurityContext::getAuthentication)
-                .filter(Authentication::isAuthenticated)
-                .cast(JwtAuthenticationToken.class)
-                .switchIfEmpty(Mono.empty())
-                .flatMap(auth -> {
-                    String jti = auth.getToken().getClaimAsString("jti");
-                    if (jti != null && jwtBlacklistService.isBlacklisted(jti)) {
-                        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                        exchange.getResponse().getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
-                        String body = """
-                                {"success":false,"code":"AUTH-401","message":"로그아웃된 토큰입니다","timestamp":%d}
-                                """.formatted(System.currentTimeMillis());
-                        return exchange.getResponse().writeWith(
-                                Mono.just(
-                                        exchange.getResponse().bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))
-                                )
-                        );
+        return principalResolver.resolve(exchange)
+                .flatMap(principal -> {
+                    if (!principal.isAuthenticated()) {
+                        return processUnauthenticatedRequest(exchange, chain);
                     }
 
-                    return processAuthenticatedRequest(auth, exchange, chain);
-                })
-                .switchIfEmpty(processUnauthenticatedRequest(exchange, chain));
+                    String jti = principal.jti();
+                    if (jti != null && jwtBlacklistService.isBlacklisted(jti, principal.expiresAt())) {
+                        DataBuffer body = GatewayErrorResponses.TOKEN_BLACKLISTED.render(
+                                exchange.getResponse().bufferFactory(), System.currentTimeMillis());
+                        return GatewayErrorResponses.write(exchange.getResponse(), HttpStatus.UNAUTHORIZED, body);
+                    }
+
+                    return processAuthenticatedRequest(principal, exchange, chain);
+                });
     }
 
     /**
      * 🔐 인증된 요청 처리
      */
-    private Mono<Void> processAuthenticatedRequest(JwtAuthenticationToken auth, ServerWebExchange exchange, GatewayFilterChain chain) {
-        String userId = auth.getToken().getSubject();
-        String email = auth.getToken().getClaimAsString(principalClaim);
-        String roles = auth.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(","));
-
-
-        // 🔥 이 1줄만 추가: URL 정보 로깅
-        log.info("🎯 {} {} -> {}",
-                exchange.getRequest().getMethod(),
-                exchange.getRequest().getPath().value(),
-                email);
+    private Mono<Void> processAuthenticatedRequest(GatewayPrincipal principal, ServerWebExchange exchange, GatewayFilterChain chain) {
+        String userId = principal.userId();
+        String email = principal.email();
+        String roles = principal.rolesHeader();
 
         ServerHttpRequest mutated = exchange.getRequest().mutate()
                 .headers(h -> {
@@ -129,25 +92,21 @@ public class UserContextFilter implements GlobalFilter, Ordered {
         responseHeaders.remove("X-EMAIL");
         responseHeaders.remove("X-ROLES");
         responseHeaders.remove("X-AUTH-METHOD");
-
-        log.info("🚨 내부 헤더 제거됨: X-User-ID, X-EMAIL, X-ROLES, X-AUTH-METHOD");
     }
 
     /**
      * 🚪 로그아웃 처리
      */
     private Mono<Void> handleLogout(ServerWebExchange exchange, GatewayFilterChain chain) {
-        return ReactiveSecurityContextHolder.getContext()
-                .map(SecurityContext::getAuthentication)
-                .filter(Authentication::isAuthenticated)
-                .cast(JwtAuthenticationToken.class)
-                .flatMap(auth -> {
+        return principalResolver.resolve(exchange)
+                .filter(GatewayPrincipal::isAuthenticated)
+                .flatMap(principal -> {
                     // ✅ JWT에서 JTI 추출하여 블랙리스트에 추가
-                    String jti = auth.getToken().getClaimAsString("jti");
-                    String email = auth.getToken().getSubject();
+                    String jti = principal.jti();
+                    String email = principal.userId();
 
                     if (jti != null) {
-                        jwtBlacklistService.blacklistToken(jti, from(requireNonNull(auth.getToken().getExpiresAt())));
+                        jwtBlacklistService.blacklistToken(jti, from(requireNonNull(principal.expiresAt())));
 
                         log.info("🚪 로그아웃 토큰 블랙리스트 추가: email={}, , JTI={}", email, jti.substring(0, Math.min(8, jti.length())));
 
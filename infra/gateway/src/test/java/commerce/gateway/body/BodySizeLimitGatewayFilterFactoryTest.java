@@ -0,0 +1,221 @@
+package commerce.gateway.body;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 로컬 HTTP 스텁 서버를 업스트림으로 두고 실제 라우팅 필터(NettyRoutingFilter/NettyWriteResponseFilter)로 본문을 보낸다.
+ * 스텁은 받은 본문을 버리고 받은 바이트 수만 센다.
+ */
+class BodySizeLimitGatewayFilterFactoryTest {
+
+    private static final int CHUNK = 64 * 1024;
+    private static final long MB = 1024 * 1024;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BodySizeLimitGatewayFilterFactory factory = new BodySizeLimitGatewayFilterFactory(meterRegistry);
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final AtomicLong received = new AtomicLong();
+
+    private DisposableServer upstream;
+    private GatewayFilter writeFilter;
+    private GatewayFilter routingFilter;
+
+    @BeforeEach
+    void setUp() {
+        upstream = HttpServer.create().host("127.0.0.1").port(0)
+                .handle((req, res) -> req.receive()
+                        .map(ByteBuf::readableBytes)
+                        .reduce(0L, (total, bytes) -> {
+                            received.addAndGet(bytes);
+                            return total + bytes;
+                        })
+                        .flatMap(total -> res.sendString(Mono.just(String.valueOf(total))).then()))
+                .bindNow();
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters =
+                beanFactory.getBeanProvider(ResolvableType.forClassWithGenerics(List.class, HttpHeadersFilter.class));
+        writeFilter = new NettyWriteResponseFilter(List.of())::filter;
+        routingFilter = new NettyRoutingFilter(HttpClient.create(), headersFilters, new HttpClientProperties())::filter;
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.disposeNow();
+    }
+
+    @Test
+    @DisplayName("한도 이내의 본문은 업스트림으로 그대로 스트리밍한다")
+    void testPassThrough() {
+        MockServerWebExchange exchange = exchange(body(5 * MB, Mono.empty()), null);
+
+        chain(filter(10)).filter(exchange).block(Duration.ofSeconds(10));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(String.valueOf(5 * MB));
+    }
+
+    @Test
+    @DisplayName("Content-Length 가 한도를 넘으면 본문을 읽지 않고 413 으로 거절한다")
+    void testRejectByContentLength() {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        Flux<DataBuffer> body = body(11 * MB, Mono.empty()).doOnSubscribe(s -> subscribed.set(true));
+        MockServerWebExchange exchange = exchange(body, 11 * MB);
+
+        chain(filter(10)).filter(exchange).block(Duration.ofSeconds(10));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(exchange.getResponse().getBodyAsString().block()).contains("\"maxBytes\":" + 10 * MB);
+        assertThat(subscribed).isFalse();
+        assertThat(rejected("header")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("길이를 모르는 본문은 한도를 넘는 순간 전송을 중단하고 413 으로 응답한다")
+    void testRejectWhileStreaming() {
+        MockServerWebExchange exchange = exchange(body(64 * MB, Mono.empty()), null);
+
+        chain(filter(1)).filter(exchange).block(Duration.ofSeconds(10));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(received.get()).isLessThanOrEqualTo(MB);
+        assertThat(rejected("stream")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("큰 업로드가 동시에 몰려도 본문을 모으지 않으므로 힙 사용량이 늘지 않는다")
+    void testHeapStaysFlatUnderConcurrentUploads() {
+        int uploads = 32;
+        long size = 8 * MB;
+        Sinks.Empty<Void> gate = Sinks.empty();
+        GatewayFilterChain chain = chain(filter(10));
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+
+        // 각 업로드는 절반을 보낸 뒤 gate 가 열릴 때까지 멈춘다
+        List<Mono<Void>> inFlight = new ArrayList<>();
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < uploads; i++) {
+            MockServerWebExchange exchange = exchange(body(size, gate.asMono()), null);
+            exchanges.add(exchange);
+            inFlight.add(chain.filter(exchange));
+        }
+        Mono<Void> all = Mono.when(inFlight).cache();
+        all.subscribe();
+
+        long half = uploads * size / 2;
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (received.get() < half && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        long midway = usedHeapAfterGc(memory);
+        gate.tryEmitEmpty();
+        all.block(Duration.ofSeconds(30));
+
+        assertThat(received.get()).isGreaterThanOrEqualTo(uploads * size);
+        assertThat(midway - baseline).isLessThan(32 * MB); // 업로드 중인 본문은 이미 128MB
+        for (MockServerWebExchange exchange : exchanges) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    /**
+     * size 바이트를 CHUNK 단위로 요청받을 때마다 만들어 내는 본문, 절반을 보낸 뒤 pause 가 끝날 때까지 멈춘다.
+     */
+    private Flux<DataBuffer> body(long size, Mono<Void> pause) {
+        int chunks = (int) (size / CHUNK);
+        Flux<DataBuffer> first = Flux.range(0, chunks / 2).map(i -> chunk());
+        Flux<DataBuffer> second = Flux.range(0, chunks - chunks / 2).map(i -> chunk());
+        return first.concatWith(pause.thenMany(second));
+    }
+
+    private DataBuffer chunk() {
+        return bufferFactory.wrap(new byte[CHUNK]);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private GatewayFilter filter(long maxMegabytes) {
+        BodySizeLimitGatewayFilterFactory.Config config = new BodySizeLimitGatewayFilterFactory.Config();
+        config.setMaxSize(DataSize.ofMegabytes(maxMegabytes));
+        config.setRouteId("product-service");
+        return factory.apply(config);
+    }
+
+    private GatewayFilterChain chain(GatewayFilter limit) {
+        List<GatewayFilter> filters = List.of(writeFilter, limit, routingFilter);
+        return chain(filters, 0);
+    }
+
+    private static GatewayFilterChain chain(List<GatewayFilter> filters, int index) {
+        return exchange -> index < filters.size()
+                ? filters.get(index).filter(exchange, chain(filters, index + 1))
+                : Mono.empty();
+    }
+
+    private double rejected(String stage) {
+        return meterRegistry.get(BodySizeLimitGatewayFilterFactory.REJECTED)
+                .tag("route", "product-service").tag("stage", stage).counter().count();
+    }
+
+    private MockServerWebExchange exchange(Flux<DataBuffer> body, Long contentLength) {
+        MockServerHttpRequest.BodyBuilder request = MockServerHttpRequest.post("/api/product-service/admin/products/images/temp-upload");
+        if (contentLength != null) {
+            request.contentLength(contentLength);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.body(body));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("product-service")
+                .uri(URI.create("http://127.0.0.1:" + upstream.port()))
+                .predicate(e -> true)
+                .build());
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + upstream.port() + "/api/admin/products/images/temp-upload"));
+        return exchange;
+    }
+}
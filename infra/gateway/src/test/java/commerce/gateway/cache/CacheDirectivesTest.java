@@ -0,0 +1,55 @@
+package commerce.gateway.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheDirectivesTest {
+
+    @Test
+    @DisplayName("여러 헤더 값과 지시자를 파싱한다")
+    void testParse() {
+        CacheDirectives directives = CacheDirectives.parse(List.of(
+                "public, max-age=60", "stale-while-revalidate=30, STALE-IF-ERROR=\"600\""));
+
+        assertThat(directives.publicResponse()).isTrue();
+        assertThat(directives.maxAge()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(directives.staleWhileRevalidate()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(directives.staleIfError()).isEqualTo(Duration.ofMinutes(10));
+        assertThat(directives.noStore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("공유 캐시 신선도는 s-maxage 를 우선한다")
+    void testSharedMaxAge() {
+        assertThat(CacheDirectives.parse(List.of("max-age=10, s-maxage=120")).sharedMaxAge())
+                .isEqualTo(Duration.ofSeconds(120));
+        assertThat(CacheDirectives.parse(List.of("max-age=10")).sharedMaxAge())
+                .isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("재검증 지시자를 인식한다")
+    void testRevalidationDirectives() {
+        CacheDirectives directives = CacheDirectives.parse(List.of("no-cache, proxy-revalidate, private, no-store"));
+
+        assertThat(directives.noCache()).isTrue();
+        assertThat(directives.mustRevalidate()).isTrue();
+        assertThat(directives.privateResponse()).isTrue();
+        assertThat(directives.noStore()).isTrue();
+    }
+
+    @Test
+    @DisplayName("잘못된 값과 알 수 없는 지시자는 무시한다")
+    void testInvalidValues() {
+        CacheDirectives directives = CacheDirectives.parse(List.of("max-age=abc, s-maxage=-1, immutable,,"));
+
+        assertThat(directives.maxAge()).isNull();
+        assertThat(directives.sMaxAge()).isNull();
+        assertThat(CacheDirectives.parse(null)).isSameAs(CacheDirectives.NONE);
+    }
+}
@@ -0,0 +1,338 @@
+package commerce.gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class EdgeCacheFilterTest {
+
+    private static final String PATH = "/api/product-service/products/1";
+
+    private final AtomicLong nowMillis = new AtomicLong(Instant.parse("2025-01-15T10:00:00Z").toEpochMilli());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EdgeResponseCache cache = new EdgeResponseCache(new EdgeCacheProperties(), meterRegistry, new FakeClock());
+    private final EdgeCacheFilter filter = new EdgeCacheFilter(cache, null);
+
+    private final List<HttpHeaders> upstreamRequests = new CopyOnWriteArrayList<>();
+    private Function<ServerWebExchange, Mono<Void>> upstream = ok("v1", "max-age=60", "\"v1\"");
+    private Mono<Void> gate = Mono.empty();
+
+    private final GatewayFilterChain chain = exchange -> {
+        upstreamRequests.add(exchange.getRequest().getHeaders());
+        Function<ServerWebExchange, Mono<Void>> handler = upstream;
+        return gate.then(Mono.defer(() -> handler.apply(exchange)));
+    };
+
+    @Test
+    @DisplayName("신선한 응답은 업스트림 호출 없이 캐시에서 응답한다")
+    void testHit() {
+        MockServerWebExchange first = exchange();
+        MockServerWebExchange second = exchange();
+
+        run(first);
+        nowMillis.addAndGet(5_000);
+        run(second);
+
+        assertThat(upstreamRequests).hasSize(1);
+        assertThat(body(first)).isEqualTo("v1");
+        assertThat(first.getResponse().getHeaders().getFirst(EdgeCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        assertThat(body(second)).isEqualTo("v1");
+        assertThat(second.getResponse().getHeaders().getFirst(EdgeCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(second.getResponse().getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("5");
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("쿼리가 다르면 다른 응답으로 캐시한다")
+    void testKeyIncludesQuery() {
+        run(exchange(MockServerHttpRequest.get(PATH + "?page=1")));
+        run(exchange(MockServerHttpRequest.get(PATH + "?page=2")));
+
+        assertThat(upstreamRequests).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("no-store / private / Set-Cookie 응답은 저장하지 않는다")
+    void testNotStorable() {
+        upstream = ok("v1", "no-store", null);
+        run(exchange());
+        run(exchange());
+
+        upstream = ok("v1", "private, max-age=60", null);
+        run(exchange());
+        run(exchange());
+
+        upstream = exchange -> {
+            exchange.getResponse().getHeaders().add(HttpHeaders.SET_COOKIE, "session=1");
+            return ok("v1", "max-age=60", null).apply(exchange);
+        };
+        run(exchange());
+        run(exchange());
+
+        assertThat(upstreamRequests).hasSize(6);
+    }
+
+    @Test
+    @DisplayName("Authorization 요청의 응답은 public 일 때만 공유한다")
+    void testAuthorizedRequest() {
+        run(exchange(MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer a")));
+        run(exchange());
+        assertThat(upstreamRequests).hasSize(2);
+
+        upstream = ok("v1", "public, max-age=60", null);
+        run(exchange(MockServerHttpRequest.get(PATH + "?public").header(HttpHeaders.AUTHORIZATION, "Bearer a")));
+        run(exchange(MockServerHttpRequest.get(PATH + "?public")));
+        assertThat(upstreamRequests).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("동시 미스는 업스트림 호출 하나로 병합한다")
+    void testCoalescing() {
+        Sinks.Empty<Void> release = Sinks.empty();
+        gate = release.asMono();
+
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = exchange();
+            exchanges.add(exchange);
+            filter.filter(exchange, chain).subscribe();
+        }
+        assertThat(upstreamRequests).hasSize(1);
+
+        release.tryEmitEmpty();
+
+        assertThat(exchanges).allSatisfy(exchange -> assertThat(body(exchange)).isEqualTo("v1"));
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("stale-while-revalidate 구간에서는 만료 응답을 즉시 내보내고 백그라운드에서 갱신한다")
+    void testStaleWhileRevalidate() {
+        run(exchange());
+        nowMillis.addAndGet(Duration.ofSeconds(70).toMillis()); // max-age 60s + 기본 SWR 30s 안
+        upstream = ok("v2", "max-age=60", "\"v2\"");
+
+        MockServerWebExchange stale = exchange();
+        run(stale);
+        MockServerWebExchange refreshed = exchange();
+        run(refreshed);
+
+        assertThat(body(stale)).isEqualTo("v1");
+        assertThat(stale.getResponse().getHeaders().getFirst(EdgeCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("STALE");
+        assertThat(body(refreshed)).isEqualTo("v2");
+        assertThat(refreshed.getResponse().getHeaders().getFirst(EdgeCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(upstreamRequests).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("백그라운드 갱신은 클라이언트 교환 객체를 재사용하지 않는다")
+    void testRevalidationUsesFreshExchange() {
+        run(exchange());
+        nowMillis.addAndGet(Duration.ofSeconds(70).toMillis());
+        List<ServerWebExchange> revalidations = new ArrayList<>();
+        upstream = exchange -> {
+            revalidations.add(exchange);
+            exchange.getAttributes().put("upstream.routed", true);
+            return ok("v2", "max-age=60", "\"v2\"").apply(exchange);
+        };
+
+        MockServerWebExchange stale = exchange();
+        run(stale);
+
+        assertThat(body(stale)).isEqualTo("v1");
+        assertThat(revalidations).hasSize(1);
+        ServerWebExchange background = revalidations.get(0);
+        assertThat(background.getRequest().getHeaders().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat((Route) background.getAttribute(GATEWAY_ROUTE_ATTR)).isNotNull();
+        // 백그라운드 요청이 바꾼 속성/헤더는 클라이언트 교환 객체에 남지 않는다
+        assertThat(stale.getAttributes()).doesNotContainKey("upstream.routed");
+        assertThat(stale.getRequest().getHeaders().getIfNoneMatch()).isEmpty();
+
+        MockServerWebExchange refreshed = exchange();
+        run(refreshed);
+        assertThat(body(refreshed)).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("응답당 최대 크기를 넘는 응답은 모으지 않고 그대로 흘려보낸다")
+    void testLargeResponseStreamed() {
+        int chunk = (int) new EdgeCacheProperties().getMaxEntrySize().toBytes() / 2;
+        upstream = exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setCacheControl("max-age=60");
+            return response.writeWith(Flux.range(0, 3)
+                    .map(i -> response.bufferFactory().wrap(new byte[chunk])));
+        };
+
+        MockServerWebExchange first = exchange();
+        run(first);
+        run(exchange());
+
+        assertThat(first.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getResponse().getHeaders().getFirst(EdgeCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        assertThat(first.getResponse().getBody().map(DataBuffer::readableByteCount).reduce(0, Integer::sum).block())
+                .isEqualTo(chunk * 3);
+        assertThat(upstreamRequests).hasSize(2); // 저장하지 않았다
+    }
+
+    @Test
+    @DisplayName("업스트림 장애 시 stale-if-error 구간의 응답으로 대체한다")
+    void testStaleIfError() {
+        run(exchange());
+        nowMillis.addAndGet(Duration.ofSeconds(120).toMillis()); // SWR 는 지났고 stale-if-error(5분) 안
+
+        upstream = exchange -> Mono.error(new ConnectException("Connection refused"));
+        MockServerWebExchange connectionFailure = exchange();
+        run(connectionFailure);
+
+        upstream = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return exchange.getResponse().setComplete();
+        };
+        MockServerWebExchange serverError = exchange();
+        run(serverError);
+
+        assertThat(body(connectionFailure)).isEqualTo("v1");
+        assertThat(connectionFailure.getResponse().getHeaders().getFirst(EdgeCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("STALE");
+        assertThat(body(serverError)).isEqualTo("v1");
+        assertThat(serverError.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(count("stale_if_error")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("만료된 응답은 ETag 로 재검증하고 304 면 기존 본문을 재사용한다")
+    void testRevalidateWithEtag() {
+        run(exchange());
+        nowMillis.addAndGet(Duration.ofSeconds(120).toMillis());
+
+        upstream = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+            exchange.getResponse().getHeaders().setCacheControl("max-age=60");
+            return exchange.getResponse().setComplete();
+        };
+        MockServerWebExchange revalidated = exchange();
+        run(revalidated);
+        MockServerWebExchange hit = exchange();
+        run(hit);
+
+        assertThat(upstreamRequests.get(1).getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(revalidated)).isEqualTo("v1");
+        assertThat(hit.getResponse().getHeaders().getFirst(EdgeCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(upstreamRequests).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("클라이언트 If-None-Match 가 일치하면 304 로 응답하고 업스트림에는 전달하지 않는다")
+    void testClientConditionalRequest() {
+        run(exchange(MockServerHttpRequest.get(PATH).ifNoneMatch("\"v1\"")));
+        MockServerWebExchange conditional = exchange(MockServerHttpRequest.get(PATH).ifNoneMatch("W/\"v1\""));
+        run(conditional);
+
+        assertThat(upstreamRequests.get(0).getIfNoneMatch()).isEmpty();
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(body(conditional)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET 이 아닌 요청은 캐시를 거치지 않는다")
+    void testBypassNonGet() {
+        run(exchange(MockServerHttpRequest.post(PATH)));
+        run(exchange(MockServerHttpRequest.post(PATH)));
+
+        assertThat(upstreamRequests).hasSize(2);
+        assertThat(count("bypass")).isEqualTo(2);
+    }
+
+    private void run(MockServerWebExchange exchange) {
+        filter.filter(exchange, chain).block();
+    }
+
+    private MockServerWebExchange exchange() {
+        return exchange(MockServerHttpRequest.get(PATH));
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("product-service")
+                .uri("http://localhost:8081")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().defaultIfEmpty("").block();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(EdgeResponseCache.REQUESTS).tag("result", result).counter().count();
+    }
+
+    private static Function<ServerWebExchange, Mono<Void>> ok(String body, String cacheControl, String etag) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatusCode.valueOf(200));
+            response.getHeaders().setCacheControl(cacheControl);
+            if (etag != null) {
+                response.getHeaders().setETag(etag);
+            }
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private class FakeClock extends Clock {
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(nowMillis.get());
+        }
+
+        @Override
+        public long millis() {
+            return nowMillis.get();
+        }
+    }
+}
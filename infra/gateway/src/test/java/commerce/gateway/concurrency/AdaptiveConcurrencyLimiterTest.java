@@ -0,0 +1,129 @@
+package commerce.gateway.concurrency;
+
+import commerce.gateway.concurrency.AdaptiveConcurrencyLimiter.Outcome;
+import commerce.gateway.concurrency.AdaptiveConcurrencyLimiter.Permit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("한도만큼만 동시에 획득하고 반납하면 다시 획득할 수 있다")
+    void testAcquireUpToLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10, clock::get);
+
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            permits.add(limiter.tryAcquire());
+        }
+
+        assertThat(permits).doesNotContainNull();
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.getInFlight()).isEqualTo(3);
+
+        permits.get(0).release(Outcome.IGNORED);
+        assertThat(limiter.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("지연이 일정하고 한도까지 사용하면 한도를 늘린다")
+    void testIncreaseUnderSteadyLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, clock::get);
+
+        for (int window = 0; window < 20; window++) {
+            runWindow(limiter, limiter.getLimit(), 10, Outcome.SUCCESS);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("한도의 절반도 쓰지 않으면 한도를 늘리지 않는다")
+    void testNoIncreaseWhenAppLimited() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 1, 100, clock::get);
+
+        for (int window = 0; window < 20; window++) {
+            runWindow(limiter, 10, 10, Outcome.SUCCESS);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("지연이 늘면 한도를 줄인다")
+    void testDecreaseWhenLatencyGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, clock::get);
+        for (int window = 0; window < 5; window++) {
+            runWindow(limiter, 50, 10, Outcome.SUCCESS);
+        }
+        int before = limiter.getLimit();
+
+        for (int window = 0; window < 20; window++) {
+            runWindow(limiter, limiter.getLimit(), 100, Outcome.SUCCESS); // 지연 10배
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(before / 2);
+    }
+
+    @Test
+    @DisplayName("실패가 있던 윈도우는 한도를 곱으로 줄이고 최소 한도 아래로는 내려가지 않는다")
+    void testBackoffOnDrops() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, clock::get);
+
+        runWindow(limiter, 20, 10, Outcome.DROPPED);
+        assertThat(limiter.getLimit()).isEqualTo(18);
+
+        for (int window = 0; window < 50; window++) {
+            runWindow(limiter, limiter.getLimit(), 10, Outcome.DROPPED);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("최대 한도를 넘지 않는다")
+    void testMaxLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 15, clock::get);
+
+        for (int window = 0; window < 50; window++) {
+            runWindow(limiter, limiter.getLimit(), 10, Outcome.SUCCESS);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("잘못된 한도 설정은 거부한다")
+    void testInvalidLimits() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 10, 20)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 0, 20)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(30, 1, 20)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * concurrency 개의 요청을 동시에 시작해 rttMillis 뒤에 끝내는 것을 윈도우가 끝날 때까지 반복
+     */
+    private void runWindow(AdaptiveConcurrencyLimiter limiter, int concurrency, long rttMillis, Outcome outcome) {
+        long windowStart = clock.get();
+        while (clock.get() - windowStart <= AdaptiveConcurrencyLimiter.WINDOW_NANOS) {
+            List<Permit> permits = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Permit permit = limiter.tryAcquire();
+                if (permit != null) {
+                    permits.add(permit);
+                }
+            }
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+            permits.forEach(permit -> permit.release(outcome));
+        }
+    }
+}
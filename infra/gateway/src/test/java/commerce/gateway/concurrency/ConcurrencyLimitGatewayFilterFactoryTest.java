@@ -0,0 +1,98 @@
+package commerce.gateway.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitGatewayFilterFactory factory = new ConcurrencyLimitGatewayFilterFactory(meterRegistry);
+
+    private final Sinks.Empty<Void> release = Sinks.empty();
+    private final GatewayFilterChain slowChain = exchange -> release.asMono();
+
+    @Test
+    @DisplayName("한도에 도달하면 즉시 503 으로 거절한다")
+    void testShedWhenLimitReached() {
+        GatewayFilter filter = factory.apply(config("product-service", 2));
+
+        filter.filter(exchange(), slowChain).subscribe();
+        filter.filter(exchange(), slowChain).subscribe();
+        MockServerWebExchange rejected = exchange();
+        filter.filter(rejected, slowChain).block();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getResponse().getBodyAsString().block()).contains("\"route\":\"product-service\"");
+        assertThat(gauge(ConcurrencyLimitGatewayFilterFactory.IN_FLIGHT, "product-service")).isEqualTo(2);
+        assertThat(meterRegistry.get(ConcurrencyLimitGatewayFilterFactory.REJECTED).tag("route", "product-service")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("요청이 끝나면 슬롯을 반납한다")
+    void testReleaseOnCompletion() {
+        GatewayFilter filter = factory.apply(config("product-service", 1));
+
+        filter.filter(exchange(), slowChain).subscribe();
+        release.tryEmitEmpty();
+
+        MockServerWebExchange next = exchange();
+        filter.filter(next, slowChain).block();
+        assertThat(next.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(gauge(ConcurrencyLimitGatewayFilterFactory.IN_FLIGHT, "product-service")).isZero();
+    }
+
+    @Test
+    @DisplayName("라우트마다 독립된 한도를 사용한다")
+    void testRoutesAreIsolated() {
+        GatewayFilter slowRoute = factory.apply(config("review-service", 1));
+        GatewayFilter otherRoute = factory.apply(config("member-service", 1));
+
+        slowRoute.filter(exchange(), slowChain).subscribe();
+
+        MockServerWebExchange other = exchange();
+        otherRoute.filter(other, e -> e.getResponse().setComplete()).block();
+        assertThat(other.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(gauge(ConcurrencyLimitGatewayFilterFactory.LIMIT, "review-service")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("라우트 설정이 다시 적용되어도 같은 한도면 기존 Limiter 를 유지한다")
+    void testLimiterReusedOnRefresh() {
+        GatewayFilter first = factory.apply(config("product-service", 1));
+        first.filter(exchange(), slowChain).subscribe();
+
+        GatewayFilter refreshed = factory.apply(config("product-service", 1));
+        MockServerWebExchange exchange = exchange();
+        refreshed.filter(exchange, slowChain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private ConcurrencyLimitGatewayFilterFactory.Config config(String routeId, int limit) {
+        ConcurrencyLimitGatewayFilterFactory.Config config = new ConcurrencyLimitGatewayFilterFactory.Config();
+        config.setRouteId(routeId);
+        config.setInitialLimit(limit);
+        config.setMinLimit(1);
+        config.setMaxLimit(limit);
+        return config;
+    }
+
+    private double gauge(String name, String routeId) {
+        return meterRegistry.get(name).tag("route", routeId).gauge().value();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/product-service/products"));
+    }
+}
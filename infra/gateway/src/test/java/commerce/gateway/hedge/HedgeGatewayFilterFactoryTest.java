@@ -0,0 +1,413 @@
+package commerce.gateway.hedge;
+
+import commerce.gateway.loadbalancer.PeakEwmaLoadBalancerFactory;
+import commerce.gateway.loadbalancer.PeakEwmaLoadBalancerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.RetryableRequestContext;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.core.ResolvableType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 로컬 HTTP 스텁 서버를 업스트림 인스턴스로 두고 실제 라우팅 필터(NettyRoutingFilter/NettyWriteResponseFilter)로 요청을 보낸다.
+ */
+class HedgeGatewayFilterFactoryTest {
+
+    private static final String SERVICE_ID = "stub-service";
+    private static final Duration STALL = Duration.ofMillis(200);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, List<ServiceInstance>> registry = new ConcurrentHashMap<>();
+    private final HedgeGatewayFilterFactory factory = new HedgeGatewayFilterFactory(
+            new PeakEwmaLoadBalancerFactory(discoveryClient(), new PeakEwmaLoadBalancerProperties()), meterRegistry);
+
+    private final AtomicInteger flakyRequests = new AtomicInteger();
+    private final CountDownLatch stallCancelled = new CountDownLatch(1);
+
+    private DisposableServer fast;
+    private DisposableServer flaky;    // 5번째 요청마다 STALL 만큼 지연
+    private DisposableServer stalling; // 항상 STALL 만큼 지연
+
+    private GatewayFilter writeFilter;
+    private GatewayFilter routingFilter;
+
+    @BeforeEach
+    void setUp() {
+        fast = stub((req, res) -> res.sendString(Mono.just("fast")));
+        flaky = stub((req, res) -> {
+            Mono<String> body = Mono.just("flaky");
+            return res.sendString(flakyRequests.incrementAndGet() % 5 == 0 ? body.delayElement(STALL) : body);
+        });
+        stalling = stub((req, res) -> res.sendString(Mono.just("stalling").delayElement(STALL)
+                .doOnCancel(stallCancelled::countDown)));
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters =
+                beanFactory.getBeanProvider(ResolvableType.forClassWithGenerics(List.class, HttpHeadersFilter.class));
+        writeFilter = new NettyWriteResponseFilter(List.of())::filter;
+        routingFilter = new NettyRoutingFilter(HttpClient.create(), headersFilters, new HttpClientProperties())::filter;
+    }
+
+    @AfterEach
+    void tearDown() {
+        fast.disposeNow();
+        flaky.disposeNow();
+        stalling.disposeNow();
+    }
+
+    @Test
+    @DisplayName("느린 인스턴스가 섞여 있어도 헤지하면 p99 응답 시간이 지연 상한 안으로 줄어든다")
+    void testHedgingImprovesP99() {
+        registry.put(SERVICE_ID, List.of(instance(fast), instance(flaky)));
+        HedgeGatewayFilterFactory.Config config = config();
+        config.setPercentile(90);
+        config.setMinDelay(Duration.ofMillis(20));
+        config.setMaxDelay(Duration.ofMillis(100));
+        config.setBudgetRatio(0.2);
+        GatewayFilter hedge = factory.apply(config);
+
+        long baseline = p99(List.of(writeFilter, routingFilter));
+        long hedged = p99(List.of(writeFilter, hedge, routingFilter));
+
+        assertThat(baseline).isGreaterThanOrEqualTo(STALL.toMillis());
+        assertThat(hedged).isLessThan(150);
+        assertThat(count("won")).isPositive();
+    }
+
+    @Test
+    @DisplayName("헤지가 이기면 느린 요청은 취소한다")
+    void testLoserCancelled() throws InterruptedException {
+        registry.put(SERVICE_ID, List.of(instance(stalling), instance(fast)));
+        HedgeGatewayFilterFactory.Config config = config();
+        config.setMaxDelay(Duration.ofMillis(20));
+
+        MockServerWebExchange exchange = exchange(url(stalling));
+        chain(List.of(writeFilter, factory.apply(config), routingFilter)).filter(exchange).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(stallCancelled.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(count("hedged")).isEqualTo(1);
+        assertThat(count("won")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("헤지에 져서 취소된 첫 요청도 응답 시간 표본에 들어가 대기 시간이 빠른 헤지 응답 쪽으로 줄어들지 않는다")
+    void testCancelledPrimaryRecorded() {
+        registry.put(SERVICE_ID, List.of(instance(stalling), instance(fast)));
+        HedgeGatewayFilterFactory.Config config = config();
+        config.setMinDelay(Duration.ofMillis(1));
+        config.setMaxDelay(Duration.ofMillis(50));
+        config.setBudgetRatio(1);
+        GatewayFilterChain chain = chain(List.of(writeFilter, factory.apply(config), routingFilter));
+
+        for (int i = 0; i < LatencyPercentile.RECOMPUTE_EVERY; i++) {
+            chain.filter(exchange(url(stalling))).block();
+        }
+        long start = System.nanoTime();
+        MockServerWebExchange exchange = exchange(url(stalling));
+        chain.filter(exchange).block();
+
+        // 표본이 이긴 헤지 응답(수 ms)뿐이었다면 minDelay 근처에서 바로 헤지했을 것이다
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(40));
+    }
+
+    @Test
+    @DisplayName("헤지가 이기면 첫 요청 인스턴스는 DISCARD, 헤지 인스턴스는 자기 응답으로 따로 보고한다")
+    void testLifecyclePerAttempt() {
+        registry.put(SERVICE_ID, List.of(instance(stalling), instance(fast)));
+        RecordingFactory clientFactory = new RecordingFactory();
+        HedgeGatewayFilterFactory.Config config = config();
+        config.setMaxDelay(Duration.ofMillis(20));
+        GatewayFilter hedge = new HedgeGatewayFilterFactory(clientFactory, meterRegistry).apply(config);
+
+        MockServerWebExchange exchange = exchange(URI.create("lb://" + SERVICE_ID + "/items"));
+        chain(List.of(writeFilter, hedge, routingFilter)).filter(exchange).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(clientFactory.completions)
+                .containsExactlyInAnyOrder(stalling.port() + " DISCARD", fast.port() + " SUCCESS");
+        assertThat(exchange.<Response<?>>getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR).getServer())
+                .isEqualTo(instance(fast));
+    }
+
+    @Test
+    @DisplayName("첫 요청이 연결에 실패하면 지연을 기다리지 않고 다른 인스턴스로 재시도한다")
+    void testRetryOnConnectFailure() {
+        DisposableServer dead = stub((req, res) -> res.send());
+        dead.disposeNow();
+        registry.put(SERVICE_ID, List.of(instance(dead), instance(fast)));
+        HedgeGatewayFilterFactory.Config config = config();
+        config.setMaxDelay(Duration.ofSeconds(5));
+
+        MockServerWebExchange exchange = exchange(url(dead));
+        long start = System.nanoTime();
+        chain(List.of(writeFilter, factory.apply(config), routingFilter)).filter(exchange).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("재시도할 인스턴스가 없으면 첫 요청의 오류를 그대로 전달한다")
+    void testPropagatePrimaryFailure() {
+        DisposableServer dead = stub((req, res) -> res.send());
+        dead.disposeNow();
+        registry.put(SERVICE_ID, List.of(instance(dead)));
+
+        MockServerWebExchange exchange = exchange(url(dead));
+        GatewayFilterChain chain = chain(List.of(writeFilter, factory.apply(config()), routingFilter));
+
+        assertThatThrownBy(() -> chain.filter(exchange).block())
+                .isNotInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Connection refused");
+        assertThat(count("no_instance")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("재시도 예산이 없으면 헤지하지 않고 첫 요청을 기다린다")
+    void testBudgetExhausted() {
+        registry.put(SERVICE_ID, List.of(instance(stalling), instance(fast)));
+        HedgeGatewayFilterFactory.Config config = config();
+        config.setMaxDelay(Duration.ofMillis(20));
+        config.setBudgetRatio(0);
+        config.setBudgetMinPerSecond(0);
+
+        MockServerWebExchange exchange = exchange(url(stalling));
+        chain(List.of(writeFilter, factory.apply(config), routingFilter)).filter(exchange).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("stalling");
+        assertThat(count("budget_exhausted")).isEqualTo(1);
+        assertThat(count("hedged")).isZero();
+    }
+
+    @Test
+    @DisplayName("lb:// 주소면 첫 요청 인스턴스도 디스커버리에서 고른다")
+    void testResolveLoadBalancedUrl() {
+        registry.put(SERVICE_ID, List.of(instance(fast)));
+
+        MockServerWebExchange exchange = exchange(URI.create("lb://" + SERVICE_ID + "/items"));
+        chain(List.of(writeFilter, factory.apply(config()), routingFilter)).filter(exchange).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(exchange.<URI>getAttribute(GATEWAY_REQUEST_URL_ATTR)).isEqualTo(url(fast));
+    }
+
+    @Test
+    @DisplayName("인스턴스가 없으면 NotFoundException 으로 실패한다")
+    void testNoInstance() {
+        registry.put(SERVICE_ID, List.of());
+
+        MockServerWebExchange exchange = exchange(URI.create("lb://" + SERVICE_ID + "/items"));
+        GatewayFilterChain chain = chain(List.of(writeFilter, factory.apply(config()), routingFilter));
+
+        assertThatThrownBy(() -> chain.filter(exchange).block()).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("GET/HEAD 가 아니면 그대로 통과시킨다")
+    void testSkipNonIdempotent() {
+        registry.put(SERVICE_ID, List.of(instance(fast), instance(flaky)));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/items"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route());
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, url(fast));
+
+        AtomicReference<Object> routed = new AtomicReference<>();
+        factory.apply(config()).filter(exchange, e -> {
+            routed.set(e);
+            return Mono.empty();
+        }).block();
+
+        assertThat(routed.get()).isSameAs(exchange);
+    }
+
+    /**
+     * 요청 200건을 순서대로 보내고 응답 본문까지 받은 시간의 p99 (ms)
+     * 첫 요청 인스턴스는 로드밸런서처럼 fast/flaky 를 번갈아 고른다.
+     */
+    private long p99(List<GatewayFilter> filters) {
+        GatewayFilterChain chain = chain(filters);
+        long[] latencies = new long[200];
+        for (int i = 0; i < latencies.length; i++) {
+            MockServerWebExchange exchange = exchange(url(i % 2 == 0 ? fast : flaky));
+            long start = System.nanoTime();
+            chain.filter(exchange).block();
+            exchange.getResponse().getBodyAsString().block();
+            latencies[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+    }
+
+    private static GatewayFilterChain chain(List<GatewayFilter> filters) {
+        return chain(new ArrayList<>(filters), 0);
+    }
+
+    private static GatewayFilterChain chain(List<GatewayFilter> filters, int index) {
+        return exchange -> index < filters.size()
+                ? filters.get(index).filter(exchange, chain(filters, index + 1))
+                : Mono.empty();
+    }
+
+    private HedgeGatewayFilterFactory.Config config() {
+        HedgeGatewayFilterFactory.Config config = new HedgeGatewayFilterFactory.Config();
+        config.setRouteId("stub-route");
+        return config;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(HedgeGatewayFilterFactory.REQUESTS)
+                .tag("route", "stub-route").tag("result", result).counter().count();
+    }
+
+    private static MockServerWebExchange exchange(URI requestUrl) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/items"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route());
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
+        return exchange;
+    }
+
+    private static Route route() {
+        return Route.async()
+                .id("stub-route")
+                .uri(URI.create("lb://" + SERVICE_ID))
+                .predicate(exchange -> true)
+                .build();
+    }
+
+    private static URI url(DisposableServer server) {
+        return URI.create("http://127.0.0.1:" + server.port() + "/items");
+    }
+
+    private static ServiceInstance instance(DisposableServer server) {
+        return new DefaultServiceInstance(SERVICE_ID + "-" + server.port(), SERVICE_ID, "127.0.0.1", server.port(), false);
+    }
+
+    private static DisposableServer stub(BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handler) {
+        return HttpServer.create().host("127.0.0.1").port(0).handle(handler).bindNow();
+    }
+
+    private ReactiveDiscoveryClient discoveryClient() {
+        return new ReactiveDiscoveryClient() {
+            @Override
+            public String description() {
+                return "stub";
+            }
+
+            @Override
+            public Flux<ServiceInstance> getInstances(String serviceId) {
+                return Flux.fromIterable(registry.getOrDefault(serviceId, List.of()));
+            }
+
+            @Override
+            public Flux<String> getServices() {
+                return Flux.fromIterable(registry.keySet());
+            }
+        };
+    }
+
+    /**
+     * 목록 순서대로 첫 인스턴스를 고르고(헤지 요청은 이전 인스턴스를 뺀다) 완료 보고를 "포트 상태" 로 모은다.
+     */
+    private class RecordingFactory implements ReactiveLoadBalancer.Factory<ServiceInstance>,
+            LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+        private final List<String> completions = new CopyOnWriteArrayList<>();
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            return new ReactiveLoadBalancer<>() {
+                @Override
+                @SuppressWarnings("rawtypes")
+                public Mono<Response<ServiceInstance>> choose(Request request) {
+                    ServiceInstance previous = request.getContext() instanceof RetryableRequestContext retry
+                            ? retry.getPreviousServiceInstance()
+                            : null;
+                    return Flux.fromIterable(registry.get(serviceId))
+                            .filter(instance -> previous == null || instance.getPort() != previous.getPort())
+                            .next()
+                            .<Response<ServiceInstance>>map(DefaultResponse::new)
+                            .defaultIfEmpty(new EmptyResponse());
+                }
+            };
+        }
+
+        @Override
+        public <X> Map<String, X> getInstances(String name, Class<X> type) {
+            return type.isInstance(this) ? Map.of(name, type.cast(this)) : Map.of();
+        }
+
+        @Override
+        public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+            return null;
+        }
+
+        @Override
+        public void onStart(Request<RequestDataContext> request) {
+        }
+
+        @Override
+        public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        }
+
+        @Override
+        public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+            completions.add(completionContext.getLoadBalancerResponse().getServer().getPort() + " " + completionContext.status());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package commerce.gateway.hedge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryBudgetTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("일반 요청의 ratio 비율만큼만 재시도할 수 있다")
+    void testRatio() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 100, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        int withdrawn = 0;
+        while (budget.tryWithdraw()) {
+            withdrawn++;
+        }
+        assertThat(withdrawn).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("요청이 없어도 초당 최소 재시도 수만큼 보충된다")
+    void testMinPerSecond() {
+        RetryBudget budget = new RetryBudget(0.1, 2, 100, clock::get);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    @DisplayName("예산은 capacity 를 넘게 쌓이지 않는다")
+    void testCapacity() {
+        RetryBudget budget = new RetryBudget(1.0, 0, 5, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        assertThat(budget.available()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("잘못된 설정은 거부한다")
+    void testInvalidSettings() {
+        assertThatThrownBy(() -> new RetryBudget(1.5, 1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RetryBudget(0.1, -1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RetryBudget(0.1, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
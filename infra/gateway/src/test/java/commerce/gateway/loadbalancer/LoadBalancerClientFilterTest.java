@@ -0,0 +1,269 @@
+package commerce.gateway.loadbalancer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.core.ResolvableType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 응답 속도가 다른 로컬 HTTP 스텁 서버들을 한 서비스의 인스턴스로 두고
+ * 실제 라우팅 필터(NettyRoutingFilter/NettyWriteResponseFilter)로 lb:// 요청을 보낸다.
+ */
+class LoadBalancerClientFilterTest {
+
+    private static final String SERVICE_ID = "stub-service";
+    private static final Duration FAST = Duration.ofMillis(5);
+    private static final Duration SLOW = Duration.ofMillis(300); // GC 정지/과부하 인스턴스
+    private static final int WARMUP = 50;
+    private static final int REQUESTS = 500;
+    private static final int CONCURRENCY = 16;
+
+    private final Map<String, List<ServiceInstance>> registry = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> served = new ConcurrentHashMap<>();
+    private final List<DisposableServer> servers = new ArrayList<>();
+
+    private DisposableServer slow;
+    private GatewayFilter writeFilter;
+    private GatewayFilter routingFilter;
+
+    @BeforeEach
+    void setUp() {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            instances.add(instance(stub(FAST)));
+        }
+        slow = stub(SLOW);
+        instances.add(instance(slow));
+        registry.put(SERVICE_ID, instances);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters =
+                beanFactory.getBeanProvider(ResolvableType.forClassWithGenerics(List.class, HttpHeadersFilter.class));
+        writeFilter = new NettyWriteResponseFilter(List.of())::filter;
+        routingFilter = new NettyRoutingFilter(HttpClient.create(), headersFilters, new HttpClientProperties())::filter;
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(DisposableServer::disposeNow);
+    }
+
+    @Test
+    @DisplayName("느린 인스턴스가 섞여 있으면 peak-EWMA 선택의 p99 가 라운드 로빈보다 낮다")
+    void testTailLatencyAgainstRoundRobin() {
+        long roundRobin = p99(new LoadBalancerClientFilter(new RoundRobinFactory()));
+        int slowServedByRoundRobin = served.get(slow.port()).getAndSet(0);
+
+        long peakEwma = p99(new LoadBalancerClientFilter(
+                new PeakEwmaLoadBalancerFactory(discoveryClient(), new PeakEwmaLoadBalancerProperties())));
+        int slowServedByPeakEwma = served.get(slow.port()).get();
+
+        assertThat(roundRobin).isGreaterThanOrEqualTo(SLOW.toMillis());
+        assertThat(peakEwma).as("p99 round-robin %dms, peak-EWMA %dms (slow instance %d / %d requests)",
+                roundRobin, peakEwma, slowServedByRoundRobin, slowServedByPeakEwma).isLessThan(roundRobin / 2);
+        assertThat(slowServedByRoundRobin).isGreaterThanOrEqualTo(REQUESTS / 4);
+        assertThat(slowServedByPeakEwma).isLessThan(REQUESTS / 50);
+    }
+
+    @Test
+    @DisplayName("lb:// 요청 URL 을 고른 인스턴스 주소로 바꾸고 원래 URL 을 남긴다")
+    void testReconstructUrl() {
+        registry.put(SERVICE_ID, List.of(registry.get(SERVICE_ID).get(0)));
+        ServiceInstance instance = registry.get(SERVICE_ID).get(0);
+        MockServerWebExchange exchange = exchange();
+
+        chain(filter()).filter(exchange).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.<URI>getAttribute(GATEWAY_REQUEST_URL_ATTR))
+                .isEqualTo(URI.create("http://127.0.0.1:" + instance.getPort() + "/items?page=1"));
+        assertThat(exchange.<Set<URI>>getAttribute(GATEWAY_ORIGINAL_REQUEST_URL_ATTR))
+                .containsExactly(URI.create("lb://" + SERVICE_ID + "/items?page=1"));
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("lb:// 가 아닌 요청은 그대로 통과시킨다")
+    void testSkipNonLoadBalancedUrl() {
+        URI direct = URI.create("http://127.0.0.1:1/items");
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/items"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, direct);
+
+        filter().filter(exchange, e -> Mono.empty()).block();
+
+        assertThat(exchange.<URI>getAttribute(GATEWAY_REQUEST_URL_ATTR)).isEqualTo(direct);
+    }
+
+    @Test
+    @DisplayName("인스턴스가 없으면 NotFoundException 으로 실패한다")
+    void testNoInstance() {
+        registry.put(SERVICE_ID, List.of());
+
+        assertThatThrownBy(() -> chain(filter()).filter(exchange()).block(Duration.ofSeconds(5)))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    /**
+     * 동시 CONCURRENCY 개씩 요청을 보내고 응답 본문까지 받은 시간의 p99 (ms)
+     * 선택기가 표본을 모으는 처음 WARMUP 건은 집계에서 뺀다.
+     */
+    private long p99(LoadBalancerClientFilter filter) {
+        GatewayFilterChain chain = chain(filter);
+        send(chain, WARMUP).block(Duration.ofSeconds(30));
+        served.values().forEach(count -> count.set(0));
+
+        List<Long> latencies = send(chain, REQUESTS).block(Duration.ofSeconds(60));
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+
+    private static Mono<List<Long>> send(GatewayFilterChain chain, int requests) {
+        return Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    MockServerWebExchange exchange = exchange();
+                    long start = System.nanoTime();
+                    return chain.filter(exchange)
+                            .then(Mono.defer(() -> exchange.getResponse().getBodyAsString()))
+                            .map(body -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }), CONCURRENCY)
+                .collectList();
+    }
+
+    private LoadBalancerClientFilter filter() {
+        return new LoadBalancerClientFilter(
+                new PeakEwmaLoadBalancerFactory(discoveryClient(), new PeakEwmaLoadBalancerProperties()));
+    }
+
+    private GatewayFilterChain chain(LoadBalancerClientFilter filter) {
+        List<GatewayFilter> filters = List.of(writeFilter, filter::filter, routingFilter);
+        return chain(filters, 0);
+    }
+
+    private static GatewayFilterChain chain(List<GatewayFilter> filters, int index) {
+        return exchange -> index < filters.size()
+                ? filters.get(index).filter(exchange, chain(filters, index + 1))
+                : Mono.empty();
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/items?page=1"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://" + SERVICE_ID + "/items?page=1"));
+        exchange.getAttributes().put(GATEWAY_ORIGINAL_REQUEST_URL_ATTR, new LinkedHashSet<URI>());
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("stub-route")
+                .uri(URI.create("lb://" + SERVICE_ID))
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    private DisposableServer stub(Duration latency) {
+        AtomicInteger count = new AtomicInteger();
+        DisposableServer server = HttpServer.create().host("127.0.0.1").port(0)
+                .handle((req, res) -> {
+                    count.incrementAndGet();
+                    return res.sendString(Mono.just("ok").delayElement(latency));
+                })
+                .bindNow();
+        served.put(server.port(), count);
+        servers.add(server);
+        return server;
+    }
+
+    private static ServiceInstance instance(DisposableServer server) {
+        return new DefaultServiceInstance(SERVICE_ID + "-" + server.port(), SERVICE_ID, "127.0.0.1", server.port(), false);
+    }
+
+    private ReactiveDiscoveryClient discoveryClient() {
+        return new ReactiveDiscoveryClient() {
+            @Override
+            public String description() {
+                return "stub";
+            }
+
+            @Override
+            public Flux<ServiceInstance> getInstances(String serviceId) {
+                return Flux.fromIterable(registry.getOrDefault(serviceId, List.of()));
+            }
+
+            @Override
+            public Flux<String> getServices() {
+                return Flux.fromIterable(registry.keySet());
+            }
+        };
+    }
+
+    /**
+     * 비교 기준: 부하와 무관하게 인스턴스를 차례로 고르는 선택기 (spring-cloud-loadbalancer 기본값과 같은 방식)
+     */
+    private class RoundRobinFactory implements ReactiveLoadBalancer.Factory<ServiceInstance> {
+
+        private final AtomicInteger position = new AtomicInteger();
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            return new ReactiveLoadBalancer<>() {
+                @Override
+                @SuppressWarnings("rawtypes")
+                public Mono<Response<ServiceInstance>> choose(Request request) {
+                    List<ServiceInstance> instances = registry.get(serviceId);
+                    ServiceInstance instance = instances.get(Math.floorMod(position.getAndIncrement(), instances.size()));
+                    return Mono.just(new DefaultResponse(instance));
+                }
+            };
+        }
+
+        @Override
+        public <X> Map<String, X> getInstances(String name, Class<X> type) {
+            return Map.of();
+        }
+
+        @Override
+        public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+            return null;
+        }
+    }
+}
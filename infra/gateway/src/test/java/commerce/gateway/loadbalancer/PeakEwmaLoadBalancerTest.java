@@ -0,0 +1,206 @@
+package commerce.gateway.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.RetryableRequestContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final long MS = 1_000_000;
+    private static final Duration DECAY = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MS);
+    private final ServiceInstance fast = instance(9001);
+    private final ServiceInstance slow = instance(9002);
+    private final PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(
+            "stub-service", discoveryClient(List.of(fast, slow)), properties(), clock::get);
+
+    @Test
+    @DisplayName("응답이 느렸던 인스턴스보다 빠른 인스턴스를 고른다")
+    void testPrefersFasterInstance() {
+        request(fast, 5);
+        request(slow, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(List.of(fast, slow)).getServer()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    @DisplayName("느린 응답 하나에 추정값이 바로 올라가고, 빠른 응답으로는 천천히 내려온다")
+    void testPeakSensitivity() {
+        request(fast, 5);
+        request(fast, 200);
+        assertThat(loadBalancer.cost(fast, clock.get())).isEqualTo(200.0 * MS);
+
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(100 * MS);
+            request(fast, 5);
+        }
+        double cost = loadBalancer.cost(fast, clock.get());
+        assertThat(cost).isLessThan(200.0 * MS).isGreaterThan(100.0 * MS);
+    }
+
+    @Test
+    @DisplayName("처리 중인 요청이 많은 인스턴스는 응답 시간이 같아도 덜 고른다")
+    void testInFlightPenalty() {
+        request(fast, 10);
+        request(slow, 10);
+        DefaultRequest<RequestDataContext> pending = new DefaultRequest<>(new RequestDataContext());
+        for (int i = 0; i < 3; i++) {
+            loadBalancer.onStartRequest(pending, new DefaultResponse(slow));
+        }
+
+        assertThat(loadBalancer.choose(List.of(fast, slow)).getServer()).isEqualTo(fast);
+        assertThat(loadBalancer.cost(slow, clock.get())).isGreaterThan(3 * loadBalancer.cost(fast, clock.get()));
+    }
+
+    @Test
+    @DisplayName("표본이 없는 새 인스턴스는 처리 중인 요청이 있는 동안 다른 인스턴스보다 뒤로 미룬다")
+    void testNewInstanceProbedOneAtATime() {
+        request(fast, 50);
+        DefaultRequest<RequestDataContext> pending = new DefaultRequest<>(new RequestDataContext());
+        loadBalancer.onStartRequest(pending, new DefaultResponse(slow));
+
+        assertThat(loadBalancer.cost(slow, clock.get())).isGreaterThan(InstanceLoad.PENALTY_NANOS);
+        assertThat(loadBalancer.choose(List.of(fast, slow)).getServer()).isEqualTo(fast);
+    }
+
+    @Test
+    @DisplayName("표본이 없는 동안 추정값이 감쇠해 느렸던 인스턴스도 다시 선택된다")
+    void testStaleInstanceDecay() {
+        request(slow, 500);
+        double before = loadBalancer.cost(slow, clock.get());
+
+        clock.addAndGet(DECAY.toNanos() * 3);
+        request(fast, 50);
+
+        assertThat(loadBalancer.cost(slow, clock.get())).isLessThan(before * 0.06);
+        assertThat(loadBalancer.choose(List.of(fast, slow)).getServer()).isEqualTo(slow);
+    }
+
+    @Test
+    @DisplayName("연결 실패는 failurePenalty 이상의 응답 시간으로 기록한다")
+    void testFailurePenalty() {
+        request(fast, 50);
+        DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(slow);
+        loadBalancer.onStartRequest(request, response);
+        clock.addAndGet(MS);
+        loadBalancer.onComplete(new CompletionContext<>(
+                CompletionContext.Status.FAILED, new IllegalStateException("refused"), request, response));
+
+        assertThat(loadBalancer.cost(slow, clock.get())).isEqualTo(1_000.0 * MS);
+        assertThat(loadBalancer.choose(List.of(fast, slow)).getServer()).isEqualTo(fast);
+    }
+
+    @Test
+    @DisplayName("취소된 요청은 처리 중 수만 되돌리고 표본으로 쓰지 않는다")
+    void testDiscardDoesNotRecord() {
+        DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(slow);
+        loadBalancer.onStartRequest(request, response);
+        clock.addAndGet(100 * MS);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.DISCARD, request, response));
+
+        assertThat(loadBalancer.cost(slow, clock.get())).isZero();
+        assertThat(loadBalancer.load(slow).inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("디스커버리 목록에서 빠진 인스턴스의 추정값은 정리한다")
+    void testEvictMissingInstances() {
+        request(fast, 5);
+        request(slow, 5);
+        assertThat(loadBalancer.trackedInstances()).isEqualTo(2);
+
+        Response<ServiceInstance> response = loadBalancer.choose(List.of(fast));
+
+        assertThat(response.getServer()).isEqualTo(fast);
+        assertThat(loadBalancer.trackedInstances()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("헤지/재시도 요청은 이전 인스턴스를 빼고 고르며, 남은 인스턴스가 없으면 빈 응답을 돌려준다")
+    void testExcludePreviousInstance() {
+        request(fast, 5);
+        request(slow, 100);
+        DefaultRequest<RequestDataContext> retry = new DefaultRequest<>(new RetryableRequestContext(fast));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(Mono.from(loadBalancer.choose(retry)).block().getServer()).isEqualTo(slow);
+        }
+        assertThat(loadBalancer.trackedInstances()).isEqualTo(2); // 빼고 고른 인스턴스의 추정값은 유지
+        assertThat(loadBalancer.choose(List.of(fast), fast).hasServer()).isFalse();
+    }
+
+    @Test
+    @DisplayName("인스턴스가 없으면 빈 응답을 돌려준다")
+    void testNoInstance() {
+        PeakEwmaLoadBalancer empty = new PeakEwmaLoadBalancer(
+                "stub-service", discoveryClient(List.of()), properties(), clock::get);
+
+        Response<ServiceInstance> response = Mono.from(empty.choose()).block();
+
+        assertThat(response.hasServer()).isFalse();
+    }
+
+    /**
+     * instance 로 보낸 요청 하나가 rttMillis 뒤에 성공한 것으로 기록한다.
+     */
+    private void request(ServiceInstance instance, long rttMillis) {
+        DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        loadBalancer.onStartRequest(request, response);
+        clock.addAndGet(rttMillis * MS);
+        loadBalancer.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                CompletionContext.Status.SUCCESS, request, response));
+    }
+
+    private static PeakEwmaLoadBalancerProperties properties() {
+        PeakEwmaLoadBalancerProperties properties = new PeakEwmaLoadBalancerProperties();
+        properties.setDecay(DECAY);
+        properties.setFailurePenalty(Duration.ofSeconds(1));
+        return properties;
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance("stub-service-" + port, "stub-service", "127.0.0.1", port, false);
+    }
+
+    private static ReactiveDiscoveryClient discoveryClient(List<ServiceInstance> instances) {
+        return new ReactiveDiscoveryClient() {
+            @Override
+            public String description() {
+                return "stub";
+            }
+
+            @Override
+            public Flux<ServiceInstance> getInstances(String serviceId) {
+                return Flux.fromIterable(instances);
+            }
+
+            @Override
+            public Flux<String> getServices() {
+                return Flux.just("stub-service");
+            }
+        };
+    }
+}
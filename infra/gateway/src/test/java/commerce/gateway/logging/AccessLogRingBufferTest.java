@@ -0,0 +1,112 @@
+package commerce.gateway.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    @DisplayName("넣은 순서대로 꺼낸다")
+    void testFifo() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(4);
+        buffer.offer(1);
+        buffer.offer(2);
+        buffer.offer(3);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 10)).isEqualTo(3);
+        assertThat(drained).containsExactly(1, 2, 3);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("용량은 2의 거듭제곱으로 올림한다")
+    void testCapacityRoundUp() {
+        assertThat(new AccessLogRingBuffer<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new AccessLogRingBuffer<>(1024).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new AccessLogRingBuffer<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("가득 차면 기다리지 않고 버린 뒤 집계한다")
+    void testDropWhenFull() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(2);
+
+        assertThat(buffer.offer(1)).isTrue();
+        assertThat(buffer.offer(2)).isTrue();
+        assertThat(buffer.offer(3)).isFalse();
+        assertThat(buffer.dropped()).isEqualTo(1);
+
+        buffer.drain(e -> { }, 1);
+        assertThat(buffer.offer(4)).isTrue(); // 빈 슬롯 재사용
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drain(drained::add, 10);
+        assertThat(drained).containsExactly(2, 4);
+    }
+
+    @Test
+    @DisplayName("drain 은 limit 개까지만 꺼낸다")
+    void testDrainLimit() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+
+        assertThat(buffer.drain(e -> { }, 2)).isEqualTo(2);
+        assertThat(buffer.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("여러 생산자가 동시에 넣어도 유실이나 중복 없이 꺼낸다")
+    void testConcurrentProducers() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 10_000;
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        AtomicInteger accepted = new AtomicInteger();
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (buffer.offer(base + i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> duplicates = new ArrayList<>();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drain(e -> {
+                if (!seen.add(e)) {
+                    duplicates.add(e);
+                }
+            }, 256);
+        }
+        done.await(5, TimeUnit.SECONDS);
+        buffer.drain(seen::add, Integer.MAX_VALUE);
+        executor.shutdown();
+
+        assertThat(duplicates).isEmpty();
+        assertThat(seen).hasSize(accepted.get());
+        assertThat(accepted.get() + buffer.dropped()).isEqualTo((long) producers * perProducer);
+    }
+}
@@ -0,0 +1,59 @@
+package commerce.gateway.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessLogSamplerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    @DisplayName("4xx/5xx 응답은 샘플링 비율과 관계없이 기록한다")
+    void testErrorsAlwaysLogged() {
+        AccessLogSampler sampler = new AccessLogSampler(0.0, Duration.ofSeconds(1));
+
+        assertThat(sampler.shouldLog(401, FAST)).isTrue();
+        assertThat(sampler.shouldLog(429, FAST)).isTrue();
+        assertThat(sampler.shouldLog(AccessLogFilter.CLIENT_CLOSED_REQUEST, FAST)).isTrue();
+        assertThat(sampler.shouldLog(503, FAST)).isTrue();
+        assertThat(sampler.shouldLog(200, FAST)).isFalse();
+    }
+
+    @Test
+    @DisplayName("느린 요청은 샘플링 비율과 관계없이 기록한다")
+    void testSlowAlwaysLogged() {
+        AccessLogSampler sampler = new AccessLogSampler(0.0, Duration.ofMillis(500));
+
+        assertThat(sampler.shouldLog(200, TimeUnit.MILLISECONDS.toNanos(500))).isTrue();
+        assertThat(sampler.shouldLog(200, TimeUnit.MILLISECONDS.toNanos(499))).isFalse();
+    }
+
+    @Test
+    @DisplayName("정상 응답은 설정한 비율로 기록한다")
+    void testSampleRate() {
+        AccessLogSampler sampler = new AccessLogSampler(0.1, Duration.ofSeconds(1));
+
+        int logged = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (sampler.shouldLog(200, FAST)) {
+                logged++;
+            }
+        }
+
+        assertThat(logged).isBetween(9_000, 11_000);
+        assertThat(new AccessLogSampler(1.0, Duration.ofSeconds(1)).shouldLog(200, FAST)).isTrue();
+    }
+
+    @Test
+    @DisplayName("샘플링 비율은 0 ~ 1 사이여야 한다")
+    void testInvalidRate() {
+        assertThatThrownBy(() -> new AccessLogSampler(1.5, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
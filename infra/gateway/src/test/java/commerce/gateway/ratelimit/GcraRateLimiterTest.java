@@ -0,0 +1,117 @@
+package commerce.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GcraRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("버킷 용량만큼 허용하고 남은 토큰 수를 반환한다")
+    void testBurstUpToCapacity() {
+        GcraRateLimiter limiter = new GcraRateLimiter(5, 1, clock::get);
+
+        for (int expectedRemaining = 4; expectedRemaining >= 0; expectedRemaining--) {
+            assertThat(limiter.tryAcquire(1)).isEqualTo(expectedRemaining);
+        }
+
+        assertThat(RateLimiter.isAllowed(limiter.tryAcquire(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("1초 미만 경과에도 경과 시간만큼 정확히 보충된다")
+    void testSubSecondRefill() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 10, clock::get); // 100ms 마다 1개
+        limiter.tryAcquire(10);
+        assertThat(RateLimiter.isAllowed(limiter.tryAcquire(1))).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+
+        assertThat(limiter.availableTokens()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(2)).isZero();
+        assertThat(RateLimiter.isAllowed(limiter.tryAcquire(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("차단 시 다음 토큰까지의 정확한 대기 시간을 반환한다")
+    void testRetryAfter() {
+        GcraRateLimiter limiter = new GcraRateLimiter(2, 1, clock::get);
+        limiter.tryAcquire(2);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+
+        long outcome = limiter.tryAcquire(1);
+
+        assertThat(-outcome).isEqualTo(TimeUnit.MILLISECONDS.toNanos(700));
+        assertThat(RateLimiter.toRetryAfterSeconds(outcome)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("차단된 요청은 상태를 바꾸지 않는다")
+    void testBlockedRequestDoesNotConsume() {
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 1, clock::get);
+        limiter.tryAcquire(1);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(1);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(limiter.tryAcquire(1)).isZero();
+    }
+
+    @Test
+    @DisplayName("가득 찬 버킷은 유휴 상태로 판단한다")
+    void testIsFull() {
+        GcraRateLimiter limiter = new GcraRateLimiter(3, 1, clock::get);
+        assertThat(limiter.isFull()).isTrue();
+
+        limiter.tryAcquire(1);
+        assertThat(limiter.isFull()).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.isFull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("동시 요청에서도 용량을 초과해 허용하지 않는다")
+    void testConcurrentAcquire() throws InterruptedException {
+        int capacity = 1_000;
+        GcraRateLimiter limiter = new GcraRateLimiter(capacity, 1, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(8);
+        AtomicInteger allowed = new AtomicInteger();
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (RateLimiter.isAllowed(limiter.tryAcquire(1))) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        assertThat(allowed.get()).isEqualTo(capacity);
+    }
+
+    @Test
+    @DisplayName("잘못된 설정은 예외를 던진다")
+    void testInvalidArguments() {
+        assertThatThrownBy(() -> new GcraRateLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GcraRateLimiter(1, 1).tryAcquire(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
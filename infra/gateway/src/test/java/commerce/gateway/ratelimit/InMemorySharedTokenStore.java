@@ -0,0 +1,46 @@
+package commerce.gateway.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 공유 저장소 (외부 키-값 서버 대역)
+ * 모든 요청은 지정한 네트워크 지연 후 처리된다.
+ */
+class InMemorySharedTokenStore implements SharedTokenStore {
+
+    private final Map<String, GcraRateLimiter> buckets = new ConcurrentHashMap<>();
+    private final Executor network;
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private volatile boolean available = true;
+
+    InMemorySharedTokenStore(long latencyMillis) {
+        this.network = CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CompletableFuture<TokenLease> lease(String key, RateLimitConfig config, int maxTokens) {
+        roundTrips.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            if (!available) {
+                throw new IllegalStateException("store unavailable");
+            }
+            GcraRateLimiter bucket = buckets.computeIfAbsent(key,
+                    k -> new GcraRateLimiter(config.getCapacity(), config.getRefillRate()));
+            int granted = bucket.acquireUpTo(maxTokens);
+            return new TokenLease(granted, granted > 0 ? 0 : bucket.nanosUntilAvailable(config.getRequestTokens()));
+        }, network);
+    }
+
+    int roundTrips() {
+        return roundTrips.get();
+    }
+
+    void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
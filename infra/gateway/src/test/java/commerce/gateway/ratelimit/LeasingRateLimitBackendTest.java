@@ -0,0 +1,180 @@
+package commerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasingRateLimitBackendTest {
+
+    private static final int GATEWAYS = 3;
+    private static final int REQUESTS_PER_GATEWAY = 100;
+
+    // 테스트 중 보충은 무시할 수 있도록 초당 1개
+    private final RateLimitConfig config = new RateLimitConfig(1, 60, 1);
+
+    @Test
+    @DisplayName("여러 게이트웨이가 하나의 공유 버킷 용량을 나눠 쓴다")
+    void testSharedLimitAcrossGateways() throws InterruptedException {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore(1);
+        List<RateLimitService> gateways = new ArrayList<>();
+        for (int i = 0; i < GATEWAYS; i++) {
+            gateways.add(new RateLimitService(leasingBackend(store, Duration.ofSeconds(1)), metrics()));
+        }
+
+        int allowed = hammer(gateways, "user:1");
+
+        assertThat(allowed).isBetween(config.getCapacity(), config.getCapacity() + 2);
+        // 대부분의 요청은 로컬 임대분으로 처리된다
+        assertThat(store.roundTrips()).isLessThan(GATEWAYS * REQUESTS_PER_GATEWAY / 4);
+    }
+
+    @Test
+    @DisplayName("인스턴스 메모리 백엔드만 쓰면 게이트웨이 수만큼 허용량이 늘어난다")
+    void testLocalBackendMultipliesLimit() throws InterruptedException {
+        List<RateLimitService> gateways = new ArrayList<>();
+        for (int i = 0; i < GATEWAYS; i++) {
+            gateways.add(new RateLimitService(localBackend(), metrics()));
+        }
+
+        int allowed = hammer(gateways, "user:1");
+
+        assertThat(allowed).isGreaterThanOrEqualTo(config.getCapacity() * GATEWAYS);
+    }
+
+    @Test
+    @DisplayName("공유 저장소 장애 시 로컬 Limiter 로 인스턴스 단위 제한을 유지한다")
+    void testFallbackWhenStoreUnavailable() {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore(1);
+        store.setAvailable(false);
+        RateLimitService gateway = new RateLimitService(leasingBackend(store, Duration.ofSeconds(1)), metrics());
+
+        int allowed = 0;
+        for (int i = 0; i < REQUESTS_PER_GATEWAY; i++) {
+            if (gateway.checkLimit("user:1", config).isAllowed()) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isBetween(config.getCapacity(), config.getCapacity() + 1);
+    }
+
+    @Test
+    @DisplayName("공유 버킷이 비면 재시도 시간이 있는 차단 결과를 반환한다")
+    void testBlockedWithRetryAfter() {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore(1);
+        RateLimitService gateway = new RateLimitService(leasingBackend(store, Duration.ofSeconds(1)), metrics());
+
+        RateLimitResult last = null;
+        for (int i = 0; i < config.getCapacity() + 1; i++) {
+            last = gateway.checkLimitAsync("user:1", config, null).block();
+        }
+
+        assertThat(last.isAllowed()).isFalse();
+        assertThat(last.getRetryAfterSeconds()).isPositive();
+    }
+
+    @Test
+    @DisplayName("동기 호출은 임대가 도착할 때까지 기다려 임대분으로 판단한다")
+    void testTryAcquireWaitsForLease() {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore(50);
+        RateLimitBackend backend = leasingBackend(store, Duration.ofSeconds(1));
+
+        long remaining = backend.tryAcquire("user:1", config);
+
+        // 임대분(lease.size = 10)의 잔량
+        assertThat(remaining).isEqualTo(9);
+        assertThat(store.roundTrips()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("논블로킹 호출은 구독 스레드를 막지 않고 임대가 도착하면 임대분으로 판단한다")
+    void testAcquireWaitsForLeaseWithoutBlocking() {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore(50);
+        RateLimitBackend backend = leasingBackend(store, Duration.ofSeconds(1));
+
+        // 임대가 도착하기 전에는 값을 내지 않고, 도착하면 임대분(lease.size = 10)에서 소비한다
+        StepVerifier.create(backend.acquire("user:1", config))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(20))
+                .expectNext(9L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("임대를 기다리는 동안의 요청은 로컬 Limiter 로 허용하지 않아 공유 한도를 넘지 않는다")
+    void testNoLocalAllowanceWhileLeasePending() {
+        RateLimitConfig small = new RateLimitConfig(1, 5, 1);
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore(30);
+        RateLimitBackend backend = leasingBackend(store, Duration.ofSeconds(1));
+
+        long allowed = Flux.range(0, 20)
+                .flatMap(i -> backend.acquire("user:1", small))
+                .filter(remaining -> remaining >= 0)
+                .count()
+                .block();
+
+        assertThat(allowed).isEqualTo(small.getCapacity());
+    }
+
+    @Test
+    @DisplayName("저장소가 fetch-timeout 안에 응답하지 않으면 인스턴스 몫(용량 / lease.instances)으로 로컬 Limiter 가 판단한다")
+    void testFallbackSharedAmongInstances() {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore(500);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLease().setFetchTimeout(Duration.ofMillis(20));
+        properties.getLease().setInstances(GATEWAYS);
+        RateLimitBackend backend = new LeasingRateLimitBackend(store, localBackend(), properties);
+
+        StepVerifier.create(backend.acquire("user:1", config))
+                .expectNext((long) config.getCapacity() / GATEWAYS - 1)
+                .verifyComplete();
+    }
+
+    private int hammer(List<RateLimitService> gateways, String key) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(GATEWAYS * 2);
+        CountDownLatch latch = new CountDownLatch(GATEWAYS * 2);
+        AtomicInteger allowed = new AtomicInteger();
+
+        for (RateLimitService gateway : gateways) {
+            for (int t = 0; t < 2; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_GATEWAY / 2; i++) {
+                        if (gateway.checkLimitAsync(key, config, null).block().isAllowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    latch.countDown();
+                });
+            }
+        }
+        latch.await();
+        executor.shutdown();
+        return allowed.get();
+    }
+
+    private RateLimitBackend leasingBackend(SharedTokenStore store, Duration fetchTimeout) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLease().setFetchTimeout(fetchTimeout);
+        return new LeasingRateLimitBackend(store, localBackend(), properties);
+    }
+
+    private RateLimitBackend localBackend() {
+        return new LocalRateLimitBackend(new RateLimitBucketStore(new RateLimitProperties(), new SimpleMeterRegistry()));
+    }
+
+    private RateLimitMetrics metrics() {
+        return new RateLimitMetrics(new SimpleMeterRegistry());
+    }
+}
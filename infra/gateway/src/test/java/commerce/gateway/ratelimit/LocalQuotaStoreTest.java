@@ -0,0 +1,67 @@
+package commerce.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalQuotaStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T05:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("증가분을 더한 누적값을 반환한다")
+    void testAddAndGet() {
+        LocalQuotaStore store = new LocalQuotaStore(null, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        store.addAndGet(List.of(delta("a", 3), delta("b", 1))).join();
+
+        assertThat(store.addAndGet(List.of(delta("a", 2), delta("b", 0))).join())
+                .containsEntry("a", 5L)
+                .containsEntry("b", 1L);
+    }
+
+    @Test
+    @DisplayName("스냅샷 파일로 재시작 후에도 사용량을 유지하고, 만료된 기간은 버린다")
+    void testSnapshotRestore() throws Exception {
+        Path file = dir.resolve("quota.snap");
+        LocalQuotaStore store = new LocalQuotaStore(file, Clock.fixed(NOW, ZoneOffset.UTC));
+        store.addAndGet(List.of(
+                delta("orders:1:d20261017", 7),
+                new QuotaStore.QuotaDelta("orders:1:d20261016", 4, NOW.plusSeconds(60)))).join();
+
+        LocalQuotaStore restored = new LocalQuotaStore(file, Clock.fixed(NOW.plusSeconds(120), ZoneOffset.UTC));
+
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.addAndGet(List.of(delta("orders:1:d20261017", 0))).join())
+                .containsEntry("orders:1:d20261017", 7L);
+        assertThat(Files.exists(dir.resolve("quota.snap.tmp"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("잘린 줄이 있는 스냅샷은 온전한 줄만 읽는다")
+    void testTornSnapshot() throws Exception {
+        Path file = dir.resolve("quota.snap");
+        long expiresAt = NOW.plusSeconds(3600).toEpochMilli();
+        Files.writeString(file, "orders:1:d20261017\t7\t" + expiresAt + "\norders:2:d2026");
+
+        LocalQuotaStore store = new LocalQuotaStore(file, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    private static QuotaStore.QuotaDelta delta(String key, long delta) {
+        return new QuotaStore.QuotaDelta(key, delta, NOW.plusSeconds(86_400));
+    }
+}
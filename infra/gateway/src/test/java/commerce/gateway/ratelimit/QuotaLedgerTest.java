@@ -0,0 +1,265 @@
+package commerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuotaLedgerTest {
+
+    private static final QuotaDefinition ORDERS = new QuotaDefinition("orders", 5, 0);
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-17T05:00:00Z")); // 14:00 KST
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private RecordingStore store;
+    private QuotaLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        store = new RecordingStore(new LocalQuotaStore(null));
+        ledger = ledger(store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.close();
+    }
+
+    @Test
+    @DisplayName("한도까지 허용하고 초과분은 사용량에 더하지 않고 차단한다")
+    void testDailyLimit() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(ledger.consume(ORDERS, "1", 1).allowed()).isTrue();
+        }
+
+        QuotaResult blocked = ledger.consume(ORDERS, "1", 1);
+
+        assertThat(blocked.allowed()).isFalse();
+        assertThat(blocked.period()).isEqualTo(QuotaLedger.DAILY);
+        assertThat(blocked.limit()).isEqualTo(5);
+        assertThat(blocked.retryAfterSeconds()).isEqualTo(10 * 3600); // 자정(KST)까지
+        assertThat(ledger.consume(ORDERS, "2", 1).allowed()).isTrue();
+
+        ledger.flush();
+        assertThat(store.lastTotals()).containsEntry("orders:1:d20261017", 5L);
+    }
+
+    @Test
+    @DisplayName("비용 가중치만큼 소비하고 남은 양을 알려준다")
+    void testWeightedCost() {
+        QuotaDefinition uploads = new QuotaDefinition("image-uploads", 100, 0);
+
+        assertThat(ledger.consume(uploads, "1", 20).remaining()).isEqualTo(80);
+        assertThat(ledger.consume(uploads, "1", 70).remaining()).isEqualTo(10);
+        assertThat(ledger.consume(uploads, "1", 20).allowed()).isFalse();
+        assertThat(ledger.consume(uploads, "1", 10).remaining()).isZero();
+    }
+
+    @Test
+    @DisplayName("월 한도를 넘으면 일 사용량도 되돌리고 월 기준으로 차단한다")
+    void testMonthlyLimit() {
+        QuotaDefinition quota = new QuotaDefinition("orders", 10, 12);
+        for (int i = 0; i < 10; i++) {
+            ledger.consume(quota, "1", 1);
+        }
+        now.set(now.get().plusSeconds(86_400));
+        ledger.consume(quota, "1", 2);
+
+        QuotaResult blocked = ledger.consume(quota, "1", 1);
+
+        assertThat(blocked.allowed()).isFalse();
+        assertThat(blocked.period()).isEqualTo(QuotaLedger.MONTHLY);
+        ledger.flush();
+        assertThat(store.lastTotals())
+                .containsEntry("orders:1:d20261018", 2L)
+                .containsEntry("orders:1:m202610", 12L);
+    }
+
+    @Test
+    @DisplayName("요청 경로에서는 새 기간의 기준값만 조회하고, 플러시 때 증가분만 모아 한 번에 반영한다")
+    void testFlushSendsDeltasOnly() {
+        QuotaDefinition quota = new QuotaDefinition("orders", 100, 0);
+        for (int i = 0; i < 30; i++) {
+            ledger.consume(quota, "1", 1);
+        }
+        assertThat(store.calls.get()).isEqualTo(1);
+
+        ledger.flush();
+        ledger.flush(); // 변화가 없으면 보내지 않는다
+        ledger.consume(quota, "1", 3);
+        ledger.flush();
+
+        assertThat(store.calls.get()).isEqualTo(3);
+        assertThat(store.batches.get(0)).containsExactly(delta("orders:1:d20261017", 0));
+        assertThat(store.batches.get(1)).containsExactly(delta("orders:1:d20261017", 30));
+        assertThat(store.batches.get(2)).containsExactly(delta("orders:1:d20261017", 3));
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스의 사용량이 새 기간 조회와 플러시 후 기준값에 반영된다")
+    void testSharedUsageAcrossInstances() {
+        QuotaDefinition quota = new QuotaDefinition("orders", 10, 0);
+        LocalQuotaStore shared = new LocalQuotaStore(null);
+        QuotaLedger other = ledger(new RecordingStore(shared));
+        QuotaLedger self = ledger(new RecordingStore(shared));
+        try {
+            other.consume(quota, "1", 4);
+            other.flush();
+
+            assertThat(self.consume(quota, "1", 1).remaining()).isEqualTo(5); // 새 기간을 만들 때 기준값을 조회했다
+
+            other.consume(quota, "1", 3);
+            other.flush();
+            assertThat(self.consume(quota, "1", 1).remaining()).isEqualTo(4); // 다음 플러시 전까지는 모른다
+            self.flush();
+
+            assertThat(self.consume(quota, "1", 1).remaining()).isZero();
+            assertThat(self.consume(quota, "1", 1).allowed()).isFalse();
+        } finally {
+            other.close();
+            self.close();
+        }
+    }
+
+    @Test
+    @DisplayName("기준값 조회가 끝나기 전에는 로컬 사용량으로 판단하고, 끝나면 저장소 누적값을 더한다")
+    void testAsyncBaseLookup() {
+        LocalQuotaStore shared = new LocalQuotaStore(null);
+        shared.addAndGet(List.of(delta("orders:1:d20261017", 4)));
+        CompletableFuture<Void> storeLatency = new CompletableFuture<>();
+        QuotaLedger slow = ledger(deltas -> storeLatency.thenCompose(ignored -> shared.addAndGet(deltas)));
+        try {
+            assertThat(slow.consume(ORDERS, "1", 1).remaining()).isEqualTo(4); // 조회 중
+
+            storeLatency.complete(null);
+
+            assertThat(slow.consume(ORDERS, "1", 1).allowed()).isFalse(); // 4 + 1 + 1 > 5
+        } finally {
+            slow.close();
+        }
+    }
+
+    @Test
+    @DisplayName("되돌린 사용량은 한도 계산과 저장소 반영에서 빠진다")
+    void testRefund() {
+        for (int i = 0; i < 5; i++) {
+            ledger.consume(ORDERS, "1", 1);
+        }
+        ledger.refund(ORDERS, "1", 1);
+
+        assertThat(ledger.consume(ORDERS, "1", 1).allowed()).isTrue();
+        ledger.flush();
+        assertThat(store.lastTotals()).containsEntry("orders:1:d20261017", 5L);
+    }
+
+    @Test
+    @DisplayName("저장소 반영이 실패하면 증가분을 유지했다가 다음 주기에 다시 보낸다")
+    void testFlushFailureRetries() {
+        ledger.consume(ORDERS, "1", 2);
+        store.failing.set(true);
+        ledger.flush();
+        ledger.consume(ORDERS, "1", 1);
+        store.failing.set(false);
+
+        ledger.flush();
+
+        assertThat(store.lastTotals()).containsEntry("orders:1:d20261017", 3L);
+        assertThat(registry.counter(QuotaLedger.FLUSH_FAILURES).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("날짜가 바뀌면 새 기간으로 집계하고, 지난 기간의 남은 증가분도 반영한다")
+    void testDayRollover() {
+        ledger.consume(ORDERS, "1", 5);
+        now.set(Instant.parse("2026-10-17T15:00:00Z")); // 10-18 00:00 KST
+
+        assertThat(ledger.consume(ORDERS, "1", 1).allowed()).isTrue();
+        ledger.flush();
+
+        assertThat(store.lastTotals())
+                .containsEntry("orders:1:d20261017", 5L)
+                .containsEntry("orders:1:d20261018", 1L);
+    }
+
+    @Test
+    @DisplayName("요청 결과별 지표를 기록한다")
+    void testMetrics() {
+        ledger.consume(new QuotaDefinition("orders", 1, 0), "1", 1);
+        ledger.consume(new QuotaDefinition("orders", 1, 0), "1", 1);
+
+        assertThat(registry.counter(QuotaLedger.REQUESTS, "quota", "orders", "result", "allowed").count()).isEqualTo(1);
+        assertThat(registry.counter(QuotaLedger.REQUESTS, "quota", "orders", "result", "blocked").count()).isEqualTo(1);
+    }
+
+    private QuotaLedger ledger(QuotaStore quotaStore) {
+        RateLimitProperties.QuotaAccounting accounting = new RateLimitProperties.QuotaAccounting();
+        accounting.setZone(ZoneId.of("Asia/Seoul"));
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        return new QuotaLedger(quotaStore, accounting, registry, clock, false);
+    }
+
+    private static QuotaStore.QuotaDelta delta(String key, long delta) {
+        Instant expiresAt = Instant.parse("2026-10-17T15:00:00Z").plusSeconds(86_400);
+        return new QuotaStore.QuotaDelta(key, delta, expiresAt);
+    }
+
+    private static final class RecordingStore implements QuotaStore {
+
+        private final QuotaStore delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private final List<List<QuotaDelta>> batches = new ArrayList<>();
+        private Map<String, Long> lastTotals = Map.of();
+
+        RecordingStore(QuotaStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Long>> addAndGet(List<QuotaDelta> deltas) {
+            calls.incrementAndGet();
+            if (failing.get()) {
+                return CompletableFuture.failedFuture(new IllegalStateException("store unavailable"));
+            }
+            batches.add(List.copyOf(deltas));
+            return delegate.addAndGet(deltas).thenApply(totals -> {
+                lastTotals = totals;
+                return totals;
+            });
+        }
+
+        Map<String, Long> lastTotals() {
+            return lastTotals;
+        }
+    }
+}
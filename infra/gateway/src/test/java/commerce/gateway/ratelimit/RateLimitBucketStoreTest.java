@@ -0,0 +1,102 @@
+package commerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitBucketStoreTest {
+
+    private static final int MAX_BUCKETS = 1_000;
+
+    private final RateLimitConfig config = new RateLimitConfig(1, 10, 1);
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(MAX_BUCKETS);
+        meterRegistry = new SimpleMeterRegistry();
+        store = new RateLimitBucketStore(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("같은 키는 같은 Limiter 를 반환한다")
+    void testSameKeySameLimiter() {
+        RateLimiter first = store.getOrCreate("ip:1.1.1.1", config);
+        RateLimiter second = store.getOrCreate("ip:1.1.1.1", config);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("등급 설정이 바뀌면 새 설정의 Limiter 로 교체한다")
+    void testReplaceOnConfigChange() {
+        RateLimiter before = store.getOrCreate("auth:ip:1.1.1.1", config);
+
+        RateLimiter after = store.getOrCreate("auth:ip:1.1.1.1", new RateLimitConfig(1, 3, 1));
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getCapacity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("키 폭증 공격에도 버킷 수는 최대 용량을 넘지 않는다")
+    void testBoundedUnderKeyExplosion() {
+        for (int i = 0; i < 100_000; i++) {
+            store.getOrCreate("ip:spoofed-" + i, config);
+        }
+        store.cleanUp();
+
+        assertThat(store.size()).isLessThanOrEqualTo(MAX_BUCKETS);
+    }
+
+    @Test
+    @DisplayName("자주 사용되는 키는 일회성 키 스캔으로 밀려나지 않는다")
+    void testHotKeySurvivesScan() {
+        RateLimiter hot = store.getOrCreate("user:hot", config);
+        for (int i = 0; i < 100; i++) {
+            store.getOrCreate("user:hot", config);
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            store.getOrCreate("ip:scan-" + i, config);
+            if (i % 10 == 0) {
+                store.getOrCreate("user:hot", config);
+            }
+        }
+        store.cleanUp();
+
+        assertThat(store.asMap().get("user:hot")).isSameAs(hot);
+    }
+
+    @Test
+    @DisplayName("적중/제거/크기 지표를 Micrometer 로 노출한다")
+    void testMetrics() {
+        for (int i = 0; i < MAX_BUCKETS * 2; i++) {
+            store.getOrCreate("ip:" + i, config);
+        }
+        store.getOrCreate("ip:" + (MAX_BUCKETS * 2 - 1), config);
+        store.cleanUp();
+
+        String cache = RateLimitBucketStore.CACHE_NAME;
+        assertThat(meterRegistry.get("cache.size").tag("cache", cache).gauge().value()).isLessThanOrEqualTo(MAX_BUCKETS);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", cache).functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("유휴 시간이 짧아도 버킷이 다시 가득 차기 전에는 만료되지 않는다")
+    void testExpiryNeverBeforeFull() {
+        RateLimitBucketStore.IdleExpiry expiry = new RateLimitBucketStore.IdleExpiry(Duration.ofMinutes(1));
+        GcraRateLimiter slowRefill = new GcraRateLimiter(3_600, 1); // 빈 버킷이 가득 차는 데 1시간
+
+        assertThat(expiry.expireAfterRead("user:slow", slowRefill, 0, 0)).isEqualTo(Duration.ofHours(1).toNanos());
+        assertThat(expiry.expireAfterRead("user:fast", new GcraRateLimiter(10, 10), 0, 0)).isEqualTo(Duration.ofMinutes(1).toNanos());
+    }
+}
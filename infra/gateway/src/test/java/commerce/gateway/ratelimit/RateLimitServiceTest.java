@@ -1,6 +1,6 @@
 package commerce.gateway.ratelimit;
 
-
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,11 +9,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class RateLimitServiceTest {
 
+    private SimpleMeterRegistry meterRegistry;
     private RateLimitService rateLimitService;
 
     @BeforeEach
     void setUp() {
-        rateLimitService = new RateLimitService();
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService(new LocalRateLimitBackend(
+                new RateLimitBucketStore(new RateLimitProperties(), meterRegistry)), new RateLimitMetrics(meterRegistry));
     }
 
     @Test
@@ -70,4 +73,40 @@ class RateLimitServiceTest {
         RateLimitResult result = rateLimitService.checkLimit(key, config);
         assertThat(result.isAllowed()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("등급/라우트 태그로 허용/차단 수와 남은 토큰 분포를 기록한다")
+    void testMetrics() {
+        RateLimitConfig config = new RateLimitConfig("auth", 1, 2, 1);
+        for (int i = 0; i < 5; i++) {
+            rateLimitService.checkLimit("auth:ip:1.1.1.1", config, "member-service");
+        }
+
+        assertThat(meterRegistry.get(RateLimitMetrics.REQUESTS)
+                .tags("tier", "auth", "route", "member-service", "result", "allowed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(RateLimitMetrics.REQUESTS)
+                .tags("tier", "auth", "route", "member-service", "result", "blocked").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(RateLimitMetrics.REMAINING)
+                .tags("tier", "auth", "route", "member-service").summary().count()).isEqualTo(2);
+
+        RateLimitStats stats = rateLimitService.getStats();
+        assertThat(stats.totalRequests()).isEqualTo(5);
+        assertThat(stats.totalBlocked()).isEqualTo(3);
+        assertThat(stats.blockRate()).isEqualTo(60.0);
+    }
+
+    @Test
+    @DisplayName("가장 많이 차단된 키를 상위에 노출한다")
+    void testTopThrottledKeys() {
+        RateLimitConfig config = new RateLimitConfig(1, 1, 1);
+        for (int i = 0; i < 20; i++) {
+            rateLimitService.checkLimit("ip:abuser", config);
+        }
+        rateLimitService.checkLimit("ip:normal", config);
+        rateLimitService.checkLimit("ip:normal", config);
+
+        assertThat(rateLimitService.getStats().topThrottled())
+                .extracting(ThrottledKey::key)
+                .containsExactly("ip:abuser", "ip:normal");
+    }
+}
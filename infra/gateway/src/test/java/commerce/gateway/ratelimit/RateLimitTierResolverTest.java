@@ -0,0 +1,204 @@
+package commerce.gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RateLimitTierResolverTest {
+
+    private final Map<String, Object> source = new HashMap<>();
+    private StandardEnvironment environment;
+    private RateLimitTierResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        source.put("gateway.rate-limit.default-tier", "general");
+        source.put("gateway.rate-limit.tiers.auth.refill-rate", 2);
+        source.put("gateway.rate-limit.tiers.auth.capacity", 10);
+        source.put("gateway.rate-limit.tiers.general.refill-rate", 50);
+        source.put("gateway.rate-limit.tiers.general.capacity", 100);
+        source.put("gateway.rate-limit.tiers.health.refill-rate", 100);
+        source.put("gateway.rate-limit.tiers.health.capacity", 200);
+        source.put("gateway.rate-limit.rules[0].path", "/api/*/auth/**");
+        source.put("gateway.rate-limit.rules[0].tier", "auth");
+        source.put("gateway.rate-limit.rules[1].path", "/actuator/health/**");
+        source.put("gateway.rate-limit.rules[1].tier", "health");
+        source.put("gateway.rate-limit.rules[2].route-id", "review-service");
+        source.put("gateway.rate-limit.rules[2].tier", "auth");
+
+        environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", source));
+        resolver = new RateLimitTierResolver(bind(), environment);
+    }
+
+    @Test
+    @DisplayName("경로 패턴에 맞는 등급을 찾는다")
+    void testResolveByPath() {
+        assertThat(resolver.resolve(exchange("/api/member-service/auth/login")).getTier()).isEqualTo("auth");
+        assertThat(resolver.resolve(exchange("/api/v1/auth/logout")).getTier()).isEqualTo("auth");
+        assertThat(resolver.resolve(exchange("/actuator/health")).getTier()).isEqualTo("health");
+        assertThat(resolver.resolve(exchange("/actuator/health/liveness")).getTier()).isEqualTo("health");
+    }
+
+    @Test
+    @DisplayName("규칙에 없는 경로는 기본 등급을 사용한다")
+    void testDefaultTier() {
+        assertThat(resolver.resolve(exchange("/api/product-service/products")).getTier()).isEqualTo("general");
+        assertThat(resolver.resolve(exchange("/api/member-service/authors")).getTier()).isEqualTo("general");
+    }
+
+    @Test
+    @DisplayName("라우트 ID 규칙이 경로 규칙보다 우선한다")
+    void testResolveByRouteId() {
+        ServerWebExchange exchange = exchange("/api/review-service/reviews");
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("review-service")
+                .uri("lb://commerce-review-service")
+                .predicate(e -> true)
+                .build());
+
+        assertThat(resolver.resolve(exchange).getTier()).isEqualTo("auth");
+    }
+
+    @Test
+    @DisplayName("같은 등급은 요청마다 같은 설정 인스턴스를 반환한다")
+    void testSharedConfigInstance() {
+        RateLimitConfig first = resolver.resolve(exchange("/api/member-service/auth/login"));
+        RateLimitConfig second = resolver.resolve(exchange("/api/v1/auth/refresh"));
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("설정이 갱신되면 재시작 없이 새 값이 적용된다")
+    void testReloadOnEnvironmentChange() {
+        source.put("gateway.rate-limit.tiers.auth.capacity", 3);
+
+        resolver.onApplicationEvent(new EnvironmentChangeEvent(Set.of("gateway.rate-limit.tiers.auth.capacity")));
+
+        assertThat(resolver.resolve(exchange("/api/member-service/auth/login")).getCapacity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("잘못된 설정으로 갱신되면 기존 테이블을 유지한다")
+    void testInvalidReloadKeepsPreviousTable() {
+        source.put("gateway.rate-limit.rules[0].tier", "unknown");
+
+        resolver.onApplicationEvent(new EnvironmentChangeEvent(Set.of("gateway.rate-limit.rules[0].tier")));
+
+        assertThat(resolver.resolve(exchange("/api/member-service/auth/login")).getTier()).isEqualTo("auth");
+    }
+
+    @Test
+    @DisplayName("엔드포인트 비용이 같은 등급 버킷의 요청당 토큰 수가 된다")
+    void testEndpointCost() {
+        endpoints();
+
+        RateLimitConfig upload = resolver.resolve(exchange(HttpMethod.POST, "/api/product-service/admin/products/images/temp-upload"));
+        RateLimitConfig search = resolver.resolve(exchange(HttpMethod.GET, "/api/product-service/products/search"));
+
+        assertThat(upload.getTier()).isEqualTo("general");
+        assertThat(upload.getRequestTokens()).isEqualTo(20);
+        assertThat(search.getRequestTokens()).isEqualTo(1);
+        assertThat(resolver.resolve(exchange(HttpMethod.POST, "/api/product-service/admin/products/images/temp-upload")))
+                .isSameAs(upload);
+    }
+
+    @Test
+    @DisplayName("비용은 버킷 용량을 넘지 않는다")
+    void testEndpointCostClampedToCapacity() {
+        endpoints();
+
+        RateLimitConfig login = resolver.resolve(exchange(HttpMethod.POST, "/api/member-service/auth/login"));
+
+        assertThat(login.getTier()).isEqualTo("auth");
+        assertThat(login.getRequestTokens()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("메서드를 지정한 엔드포인트 규칙이 우선하고, 쿼터는 엔드포인트 규칙으로 찾는다")
+    void testEndpointQuota() {
+        endpoints();
+
+        EndpointQuota uploads = resolver.resolveQuota(exchange(HttpMethod.POST, "/api/product-service/admin/products/images/temp-upload"));
+
+        assertThat(uploads).isEqualTo(new EndpointQuota(new QuotaDefinition("image-uploads", 2000, 0), 20));
+        assertThat(resolver.resolveQuota(exchange(HttpMethod.GET, "/api/product-service/admin/products/images/temp-upload"))).isNull();
+        assertThat(resolver.resolveQuota(exchange(HttpMethod.GET, "/api/product-service/products/search"))).isNull();
+    }
+
+    @Test
+    @DisplayName("쿼터 비용은 버킷 용량으로 자르지 않은 엔드포인트 비용이다")
+    void testEndpointQuotaCostNotClamped() {
+        endpoints();
+
+        ServerWebExchange exchange = exchange(HttpMethod.POST, "/api/member-service/auth/login");
+
+        assertThat(resolver.resolve(exchange).getRequestTokens()).isEqualTo(10);
+        assertThat(resolver.resolveQuota(exchange).cost()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("정의되지 않은 쿼터를 참조하면 시작 시 실패한다")
+    void testUnknownQuota() {
+        source.put("gateway.rate-limit.endpoints[0].path", "/api/order/add");
+        source.put("gateway.rate-limit.endpoints[0].quota", "orders");
+
+        assertThatThrownBy(() -> new RateLimitTierResolver(bind(), environment))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("'**' 가 패턴 중간에 있으면 시작 시 실패한다")
+    void testInvalidPattern() {
+        source.put("gateway.rate-limit.rules[0].path", "/api/**/auth");
+
+        assertThatThrownBy(() -> new RateLimitTierResolver(bind(), environment))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void endpoints() {
+        source.put("gateway.rate-limit.quotas.image-uploads.daily", 2000);
+        source.put("gateway.rate-limit.quotas.logins.daily", 1000);
+        source.put("gateway.rate-limit.endpoints[0].method", "POST");
+        source.put("gateway.rate-limit.endpoints[0].path", "/api/product-service/admin/products/images/**");
+        source.put("gateway.rate-limit.endpoints[0].cost", 20);
+        source.put("gateway.rate-limit.endpoints[0].quota", "image-uploads");
+        source.put("gateway.rate-limit.endpoints[1].path", "/api/product-service/admin/**");
+        source.put("gateway.rate-limit.endpoints[1].cost", 5);
+        source.put("gateway.rate-limit.endpoints[2].path", "/api/member-service/auth/**");
+        source.put("gateway.rate-limit.endpoints[2].cost", 50);
+        source.put("gateway.rate-limit.endpoints[2].quota", "logins");
+        resolver = new RateLimitTierResolver(bind(), environment);
+    }
+
+    private RateLimitProperties bind() {
+        return Binder.get(environment)
+                .bindOrCreate("gateway.rate-limit", RateLimitProperties.class);
+    }
+
+    private ServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private ServerWebExchange exchange(HttpMethod method, String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, path));
+    }
+}
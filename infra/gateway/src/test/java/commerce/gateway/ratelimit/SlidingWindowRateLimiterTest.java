@@ -0,0 +1,116 @@
+package commerce.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("윈도우 용량만큼 허용하고 남은 토큰 수를 반환한다")
+    void testUpToCapacity() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(5, 5, clock::get);
+
+        for (int expectedRemaining = 4; expectedRemaining >= 0; expectedRemaining--) {
+            assertThat(limiter.tryAcquire(1)).isEqualTo(expectedRemaining);
+        }
+
+        assertThat(RateLimiter.isAllowed(limiter.tryAcquire(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("윈도우 경계에서 용량 전체가 다시 열리지 않는다")
+    void testNoBurstAtWindowBoundary() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 10, clock::get); // 윈도우 1초
+        limiter.tryAcquire(10);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1)); // 다음 윈도우 시작
+
+        assertThat(limiter.availableTokens()).isZero();
+        assertThat(RateLimiter.isAllowed(limiter.tryAcquire(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("이전 윈도우 요청 수는 경과 비율만큼 줄어든다")
+    void testWeightedPreviousWindow() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 10, clock::get);
+        limiter.tryAcquire(10);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_500)); // 이전 윈도우 가중치 50%
+
+        assertThat(limiter.availableTokens()).isEqualTo(5);
+        assertThat(limiter.tryAcquire(5)).isZero();
+        assertThat(RateLimiter.isAllowed(limiter.tryAcquire(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("차단 시 요청이 허용되는 시점까지의 대기 시간을 반환한다")
+    void testRetryAfter() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 10, clock::get);
+        limiter.tryAcquire(10);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        long outcome = limiter.tryAcquire(1);
+
+        assertThat(-outcome).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(RateLimiter.toRetryAfterSeconds(outcome)).isEqualTo(1);
+
+        clock.addAndGet(-outcome);
+        assertThat(RateLimiter.isAllowed(limiter.tryAcquire(1))).isTrue();
+    }
+
+    @Test
+    @DisplayName("두 윈도우 동안 요청이 없으면 초기 상태로 돌아간다")
+    void testFullReset() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 10, clock::get);
+        limiter.tryAcquire(10);
+
+        clock.addAndGet(limiter.getFullResetNanos());
+
+        assertThat(limiter.availableTokens()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("동시 요청에서도 용량을 초과해 허용하지 않는다")
+    void testConcurrentAcquire() throws InterruptedException {
+        int capacity = 100;
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(capacity, 1, clock::get);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(16);
+
+        for (int t = 0; t < 16; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    if (RateLimiter.isAllowed(limiter.tryAcquire(1))) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        latch.await(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(allowed.get()).isEqualTo(capacity);
+    }
+
+    @Test
+    @DisplayName("잘못된 설정은 거부한다")
+    void testInvalidArguments() {
+        assertThatThrownBy(() -> new SlidingWindowRateLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SlidingWindowRateLimiter(SlidingWindowRateLimiter.MAX_CAPACITY + 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,47 @@
+package commerce.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThrottledKeyTrackerTest {
+
+    @Test
+    @DisplayName("전체의 1/용량 보다 자주 차단된 키는 키 수와 무관하게 상위에 남는다")
+    void testHeavyHittersSurvive() {
+        ThrottledKeyTracker tracker = new ThrottledKeyTracker(10);
+
+        for (int i = 0; i < 10_000; i++) {
+            tracker.record("ip:spoofed-" + i); // 한 번씩만 등장하는 키 (전체 14,500 회 / 카운터 10 개)
+            if (i % 4 == 0) {
+                tracker.record("ip:abuser-1");
+            }
+            if (i % 5 == 0) {
+                tracker.record("ip:abuser-2");
+            }
+        }
+
+        List<ThrottledKey> top = tracker.top(2);
+        assertThat(top).extracting(ThrottledKey::key).containsExactly("ip:abuser-1", "ip:abuser-2");
+
+        // count - error 는 실제 횟수의 하한, count 는 상한
+        ThrottledKey first = top.get(0);
+        assertThat(first.count() - first.error()).isLessThanOrEqualTo(2_500);
+        assertThat(first.count()).isGreaterThanOrEqualTo(2_500);
+    }
+
+    @Test
+    @DisplayName("용량을 넘지 않는 카운터만 유지한다")
+    void testBounded() {
+        ThrottledKeyTracker tracker = new ThrottledKeyTracker(5);
+
+        for (int i = 0; i < 1_000; i++) {
+            tracker.record("ip:" + i);
+        }
+
+        assertThat(tracker.top(100)).hasSize(5);
+    }
+}
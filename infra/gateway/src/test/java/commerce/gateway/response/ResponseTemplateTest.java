@@ -0,0 +1,70 @@
+package commerce.gateway.response;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseTemplateTest {
+
+    private final DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    @DisplayName("String.format 으로 만든 본문과 같은 바이트를 기록한다")
+    void testSameAsFormatted() {
+        String expected = String.format("""
+                {
+                    "success": false,
+                    "code": "RATE_LIMIT_EXCEEDED",
+                    "message": "요청 횟수가 제한을 초과했습니다",
+                    "limit": %d,
+                    "retryAfter": %d,
+                    "timestamp": %d
+                }
+                """, 100, 3, 1_705_329_000_000L);
+
+        DataBuffer buffer = GatewayErrorResponses.RATE_LIMIT_EXCEEDED.render(factory, 100, 3, 1_705_329_000_000L);
+
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("숫자 경계값을 올바르게 기록한다")
+    void testNumbers() {
+        ResponseTemplate template = ResponseTemplate.compile("[{num}]");
+
+        assertThat(render(template, 0)).isEqualTo("[0]");
+        assertThat(render(template, 9)).isEqualTo("[9]");
+        assertThat(render(template, 10)).isEqualTo("[10]");
+        assertThat(render(template, -42)).isEqualTo("[-42]");
+        assertThat(render(template, Long.MAX_VALUE)).isEqualTo("[" + Long.MAX_VALUE + "]");
+        assertThat(render(template, Long.MIN_VALUE)).isEqualTo("[" + Long.MIN_VALUE + "]");
+    }
+
+    @Test
+    @DisplayName("문자열 필드는 JSON 이스케이프하고 null 은 빈 문자열로 기록한다")
+    void testTextEscaping() {
+        ResponseTemplate template = ResponseTemplate.compile("{\"traceId\":\"{str}\",\"t\":{num}}");
+
+        assertThat(template.render(factory, "a\"b\\c\n한😀", 1).toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"traceId\":\"a\\\"b\\\\c\\u000a한😀\",\"t\":1}");
+        assertThat(template.render(factory, null, 1).toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"traceId\":\"\",\"t\":1}");
+    }
+
+    @Test
+    @DisplayName("자리표시자와 인자 종류가 다르면 거부한다")
+    void testSignatureMismatch() {
+        assertThatThrownBy(() -> GatewayErrorResponses.FORBIDDEN.render(factory, 1L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String render(ResponseTemplate template, long value) {
+        return template.render(factory, value).toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+package commerce.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingReactiveJwtDecoderTest {
+
+    private static final Instant START = Instant.parse("2025-01-15T10:00:00Z");
+
+    private final AtomicLong elapsedNanos = new AtomicLong();
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Instant expiresAt = START.plus(Duration.ofMinutes(10));
+    private boolean valid = true;
+
+    private final ReactiveJwtDecoder delegate = token -> Mono.defer(() -> {
+        verifications.incrementAndGet();
+        if (!valid) {
+            return Mono.error(new BadJwtException("invalid signature"));
+        }
+        return Mono.just(Jwt.withTokenValue(token)
+                .header("alg", "HS512")
+                .subject(token)
+                .issuedAt(expiresAt.minus(Duration.ofHours(1)))
+                .expiresAt(expiresAt)
+                .build());
+    });
+
+    private final CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(
+            delegate, 100, meterRegistry, new FakeClock(), elapsedNanos::get);
+
+    @Test
+    @DisplayName("같은 토큰은 한 번만 검증한다")
+    void testCacheHit() {
+        Jwt first = decoder.decode("token-a").block();
+        Jwt second = decoder.decode("token-a").block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CachingReactiveJwtDecoder.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("다른 토큰은 각각 검증한다")
+    void testDifferentTokens() {
+        assertThat(decoder.decode("token-a").block().getSubject()).isEqualTo("token-a");
+        assertThat(decoder.decode("token-b").block().getSubject()).isEqualTo("token-b");
+
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("토큰의 exp 가 지나면 캐시에서도 만료된다")
+    void testExpiresWithToken() {
+        decoder.decode("token-a").block();
+
+        advance(Duration.ofMinutes(10));
+        valid = false; // 만료된 토큰은 실제 디코더에서 거부된다
+
+        assertThatThrownBy(() -> decoder.decode("token-a").block()).isInstanceOf(BadJwtException.class);
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("검증 실패는 캐시하지 않는다")
+    void testFailureNotCached() {
+        valid = false;
+        assertThatThrownBy(() -> decoder.decode("token-a").block()).isInstanceOf(BadJwtException.class);
+
+        valid = true;
+        assertThat(decoder.decode("token-a").block()).isNotNull();
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("이미 만료된 토큰은 캐시하지 않는다")
+    void testAlreadyExpiredNotCached() {
+        expiresAt = START.minusSeconds(1);
+
+        decoder.decode("token-a").block();
+        decoder.decode("token-a").block();
+
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    private void advance(Duration duration) {
+        elapsedNanos.addAndGet(duration.toNanos());
+    }
+
+    /**
+     * 테스트 Ticker 와 같은 시간을 가리키는 Clock
+     */
+    private class FakeClock extends Clock {
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return START.plusNanos(elapsedNanos.get());
+        }
+
+        @Override
+        public long millis() {
+            return START.toEpochMilli() + TimeUnit.NANOSECONDS.toMillis(elapsedNanos.get());
+        }
+    }
+}
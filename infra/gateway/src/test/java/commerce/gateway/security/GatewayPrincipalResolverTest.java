@@ -0,0 +1,124 @@
+package commerce.gateway.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayPrincipalResolverTest {
+
+    private final GatewayPrincipalResolver resolver = new GatewayPrincipalResolver("email");
+
+    @Test
+    @DisplayName("인증 정보를 GatewayPrincipal 로 해석해 exchange 속성에 저장한다")
+    void testResolve() {
+        ServerWebExchange exchange = exchange();
+
+        GatewayPrincipal principal = resolver.resolve(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("42", "BUYER", "SELLER")))
+                .block();
+
+        assertThat(principal.isAuthenticated()).isTrue();
+        assertThat(principal.userId()).isEqualTo("42");
+        assertThat(principal.email()).isEqualTo("user42@example.com");
+        assertThat(principal.jti()).isEqualTo("jti-42");
+        assertThat(principal.rolesHeader()).isEqualTo("BUYER,SELLER");
+        assertThat(principal.hasRole(resolver.roleBit("SELLER"))).isTrue();
+        assertThat(principal.hasRole(resolver.roleBit("ADMIN"))).isFalse();
+        assertThat((GatewayPrincipal) exchange.getAttribute(GatewayPrincipal.ATTRIBUTE)).isSameAs(principal);
+    }
+
+    @Test
+    @DisplayName("같은 요청에서는 SecurityContext 를 다시 조회하지 않는다")
+    void testResolvedOncePerExchange() {
+        ServerWebExchange exchange = exchange();
+        GatewayPrincipal first = resolver.resolve(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("42", "BUYER")))
+                .block();
+
+        GatewayPrincipal second = resolver.resolve(exchange).block(); // SecurityContext 없이 호출
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("같은 역할 조합은 같은 헤더 문자열을 공유한다")
+    void testSharedRolesHeader() {
+        GatewayPrincipal a = resolver.resolve(exchange())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("1", "BUYER", "ADMIN")))
+                .block();
+        GatewayPrincipal b = resolver.resolve(exchange())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("2", "BUYER", "ADMIN")))
+                .block();
+
+        assertThat(b.rolesHeader()).isSameAs(a.rolesHeader());
+        assertThat(b.roles()).isEqualTo(a.roles());
+    }
+
+    @Test
+    @DisplayName("인증되지 않은 요청은 ANONYMOUS 로 해석한다")
+    void testAnonymous() {
+        ServerWebExchange exchange = exchange();
+
+        GatewayPrincipal principal = resolver.resolve(exchange).block();
+
+        assertThat(principal).isSameAs(GatewayPrincipal.ANONYMOUS);
+        assertThat(principal.isAuthenticated()).isFalse();
+        assertThat((GatewayPrincipal) exchange.getAttribute(GatewayPrincipal.ATTRIBUTE)).isSameAs(GatewayPrincipal.ANONYMOUS);
+    }
+
+    @Test
+    @DisplayName("역할이 64 종류를 넘어도 헤더에는 모두 포함된다")
+    void testRoleOverflow() {
+        IntStream.range(0, RoleRegistry.MAX_ROLES).forEach(i -> resolver.roleBit("ROLE_" + i));
+
+        GatewayPrincipal principal = resolver.resolve(exchange())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("1", "ROLE_0", "EXTRA")))
+                .block();
+
+        assertThat(principal.rolesHeader()).isEqualTo("EXTRA,ROLE_0");
+    }
+
+    @Test
+    @DisplayName("X-ROLES 는 비트 배정 순서나 토큰의 권한 순서와 관계없이 역할 이름 순이다")
+    void testRolesHeaderSortedByName() {
+        resolver.roleBit("SELLER");
+
+        GatewayPrincipal a = resolver.resolve(exchange())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("1", "SELLER", "BUYER")))
+                .block();
+        GatewayPrincipal b = resolver.resolve(exchange())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication("2", "BUYER", "SELLER")))
+                .block();
+
+        assertThat(a.rolesHeader()).isEqualTo("BUYER,SELLER");
+        assertThat(b.rolesHeader()).isSameAs(a.rolesHeader());
+    }
+
+    private ServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/member-service/members/me"));
+    }
+
+    private JwtAuthenticationToken authentication(String userId, String... roles) {
+        Instant now = Instant.now();
+        Jwt jwt = Jwt.withTokenValue("token-" + userId)
+                .header("alg", "HS512")
+                .subject(userId)
+                .claim("email", "user" + userId + "@example.com")
+                .jti("jti-" + userId)
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+        return new JwtAuthenticationToken(jwt, AuthorityUtils.createAuthorityList(roles));
+    }
+}
@@ -0,0 +1,37 @@
+package commerce.gateway.security;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 테스트용 인메모리 브로커
+ * connect() 로 얻은 전송 채널마다 게이트웨이 하나를 연결하고, 발행된 이벤트를 발행자를 포함한 모든 구독자에게 전달한다.
+ */
+class InMemoryRevocationBroker {
+
+    private final List<Consumer<RevocationTransport.Revocation>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean available = new AtomicBoolean(true);
+
+    RevocationTransport connect() {
+        return new RevocationTransport() {
+            @Override
+            public void publish(Revocation revocation) {
+                if (!available.get()) {
+                    throw new IllegalStateException("broker unavailable");
+                }
+                subscribers.forEach(subscriber -> subscriber.accept(revocation));
+            }
+
+            @Override
+            public void subscribe(Consumer<Revocation> listener) {
+                subscribers.add(listener);
+            }
+        };
+    }
+
+    void setAvailable(boolean available) {
+        this.available.set(available);
+    }
+}
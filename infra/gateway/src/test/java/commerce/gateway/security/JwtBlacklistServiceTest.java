@@ -0,0 +1,211 @@
+package commerce.gateway.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtBlacklistServiceTest {
+
+    private final AtomicLong clock = new AtomicLong(Instant.parse("2025-01-15T10:00:00Z").toEpochMilli());
+    private final JwtBlacklistService service = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get);
+
+    @Test
+    @DisplayName("블랙리스트에 추가한 토큰만 차단한다")
+    void testBlacklist() {
+        String revoked = UUID.randomUUID().toString();
+        Instant expiresAt = now().plus(Duration.ofHours(1));
+
+        service.blacklistToken(revoked, Date.from(expiresAt));
+
+        assertThat(service.isBlacklisted(revoked, expiresAt)).isTrue();
+        assertThat(service.isBlacklisted(revoked)).isTrue();
+        assertThat(service.isBlacklisted(UUID.randomUUID().toString(), expiresAt)).isFalse();
+    }
+
+    @Test
+    @DisplayName("UUID 가 아닌 JTI 도 구분해 저장한다")
+    void testNonUuidJti() {
+        Instant expiresAt = now().plus(Duration.ofHours(1));
+
+        service.blacklistToken("token-1", Date.from(expiresAt));
+
+        assertThat(service.isBlacklisted("token-1", expiresAt)).isTrue();
+        assertThat(service.isBlacklisted("token-2", expiresAt)).isFalse();
+    }
+
+    @Test
+    @DisplayName("토큰이 만료되기 전에는 버킷이 제거되지 않는다")
+    void testBucketKeptUntilExpiry() {
+        String jti = UUID.randomUUID().toString();
+        Instant expiresAt = now().plus(Duration.ofMinutes(30)).plusSeconds(59);
+        service.blacklistToken(jti, Date.from(expiresAt));
+
+        clock.set(expiresAt.toEpochMilli()); // 만료 시각 (같은 버킷)
+        service.expireBuckets();
+
+        assertThat(service.isBlacklisted(jti, expiresAt)).isTrue();
+    }
+
+    @Test
+    @DisplayName("만료 시각이 지난 버킷은 통째로 제거된다")
+    void testBucketExpiry() {
+        Instant soon = now().plus(Duration.ofMinutes(5));
+        Instant later = now().plus(Duration.ofHours(1));
+        for (int i = 0; i < 100; i++) {
+            service.blacklistToken(UUID.randomUUID().toString(), Date.from(soon));
+        }
+        String survivor = UUID.randomUUID().toString();
+        service.blacklistToken(survivor, Date.from(later));
+
+        clock.set(soon.plus(Duration.ofMinutes(1)).toEpochMilli());
+        service.expireBuckets();
+
+        assertThat(service.size()).isEqualTo(1);
+        assertThat(service.isBlacklisted(survivor, later)).isTrue();
+    }
+
+    @Test
+    @DisplayName("버킷이 커져도 모든 토큰을 찾는다")
+    void testManyTokens() {
+        Instant expiresAt = now().plus(Duration.ofHours(1));
+        String[] jtis = new String[5_000];
+        for (int i = 0; i < jtis.length; i++) {
+            jtis[i] = UUID.randomUUID().toString();
+            service.blacklistToken(jtis[i], Date.from(expiresAt));
+        }
+
+        for (String jti : jtis) {
+            assertThat(service.isBlacklisted(jti, expiresAt)).isTrue();
+        }
+        assertThat(service.size()).isEqualTo(jtis.length);
+    }
+
+    @Test
+    @DisplayName("비어있는 JTI 는 무시한다")
+    void testBlankJti() {
+        service.blacklistToken(" ", Date.from(now().plusSeconds(60)));
+
+        assertThat(service.isBlacklisted(" ")).isFalse();
+        assertThat(service.isBlacklisted(null)).isFalse();
+        assertThat(service.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("한 게이트웨이의 로그아웃이 다른 게이트웨이에도 반영된다")
+    void testReplication() {
+        InMemoryRevocationBroker broker = new InMemoryRevocationBroker();
+        JwtBlacklistService gatewayA = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, null, broker.connect());
+        JwtBlacklistService gatewayB = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, null, broker.connect());
+        gatewayA.start();
+        gatewayB.start();
+        String jti = UUID.randomUUID().toString();
+        Instant expiresAt = now().plus(Duration.ofHours(1));
+
+        gatewayA.blacklistToken(jti, Date.from(expiresAt));
+
+        assertThat(gatewayB.isBlacklisted(jti, expiresAt)).isTrue();
+        assertThat(gatewayA.size()).isEqualTo(1); // 자신이 발행한 이벤트는 중복 추가되지 않는다
+        gatewayA.shutdown();
+        gatewayB.shutdown();
+    }
+
+    @Test
+    @DisplayName("브로커 장애 시에도 로컬 블랙리스트에는 반영된다")
+    void testReplicationFailure() {
+        InMemoryRevocationBroker broker = new InMemoryRevocationBroker();
+        JwtBlacklistService gateway = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, null, broker.connect());
+        gateway.start();
+        broker.setAvailable(false);
+        String jti = UUID.randomUUID().toString();
+        Instant expiresAt = now().plus(Duration.ofHours(1));
+
+        gateway.blacklistToken(jti, Date.from(expiresAt));
+
+        assertThat(gateway.isBlacklisted(jti, expiresAt)).isTrue();
+        gateway.shutdown();
+    }
+
+    @Test
+    @DisplayName("재시작 시 스냅샷에서 블랙리스트를 복구한다")
+    void testSnapshotRestore(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("jwt-blacklist.snap");
+        Instant soon = now().plus(Duration.ofMinutes(5));
+        Instant later = now().plus(Duration.ofHours(1));
+        String expiring = UUID.randomUUID().toString();
+        String revoked = UUID.randomUUID().toString();
+
+        JwtBlacklistService before = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, BlacklistSnapshot.open(file), null);
+        before.blacklistToken(expiring, Date.from(soon));
+        before.blacklistToken(revoked, Date.from(later));
+        before.shutdown();
+
+        clock.set(soon.plus(Duration.ofMinutes(1)).toEpochMilli());
+        JwtBlacklistService after = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, BlacklistSnapshot.open(file), null);
+
+        assertThat(after.isBlacklisted(revoked, later)).isTrue();
+        assertThat(after.size()).isEqualTo(1);
+        assertThat(Files.size(file)).isEqualTo(8 + BlacklistSnapshot.RECORD_SIZE); // 만료된 레코드는 정리된다
+        after.shutdown();
+    }
+
+    @Test
+    @DisplayName("만료 정리 후 스냅샷은 기록 스레드에서 살아있는 토큰만으로 다시 쓰인다")
+    void testSnapshotCompactedOnExpiry(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("jwt-blacklist.snap");
+        Instant soon = now().plus(Duration.ofMinutes(5));
+        Instant later = now().plus(Duration.ofHours(1));
+        JwtBlacklistService service = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, BlacklistSnapshot.open(file), null);
+        for (int i = 0; i < 10; i++) {
+            service.blacklistToken(UUID.randomUUID().toString(), Date.from(soon));
+        }
+        String revoked = UUID.randomUUID().toString();
+        service.blacklistToken(revoked, Date.from(later));
+
+        clock.set(soon.plus(Duration.ofMinutes(1)).toEpochMilli());
+        service.expireBuckets();
+        String afterCompaction = UUID.randomUUID().toString();
+        service.blacklistToken(afterCompaction, Date.from(later));
+        service.shutdown(); // 남은 기록을 모두 반영한 뒤 닫는다
+
+        assertThat(Files.size(file)).isEqualTo(8 + 2 * BlacklistSnapshot.RECORD_SIZE);
+        JwtBlacklistService restarted = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, BlacklistSnapshot.open(file), null);
+        assertThat(restarted.isBlacklisted(revoked, later)).isTrue();
+        assertThat(restarted.isBlacklisted(afterCompaction, later)).isTrue();
+        restarted.shutdown();
+    }
+
+    @Test
+    @DisplayName("기록 중 잘린 마지막 레코드는 무시한다")
+    void testTornSnapshotRecord(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("jwt-blacklist.snap");
+        String revoked = UUID.randomUUID().toString();
+        Instant expiresAt = now().plus(Duration.ofHours(1));
+
+        JwtBlacklistService before = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, BlacklistSnapshot.open(file), null);
+        before.blacklistToken(revoked, Date.from(expiresAt));
+        before.shutdown();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        JwtBlacklistService after = new JwtBlacklistService(Duration.ofMinutes(1), 1_000, clock::get, BlacklistSnapshot.open(file), null);
+
+        assertThat(after.isBlacklisted(revoked, expiresAt)).isTrue();
+        assertThat(after.size()).isEqualTo(1);
+        after.shutdown();
+    }
+
+    private Instant now() {
+        return Instant.ofEpochMilli(clock.get());
+    }
+}
@@ -1,12 +1,22 @@
 package innercircle.commerce.order.api.config;
 
+import innercircle.commerce.common.logging.TraceParentPropagationInterceptor;
+import innercircle.commerce.common.snowflake.JdbcNodeIdLeaseProvider;
+import innercircle.commerce.common.snowflake.NodeIdProvider;
 import innercircle.commerce.common.snowflake.Snowflake;
 import innercircle.commerce.order.application.port.out.ProductService;
 import innercircle.commerce.order.infra.adapter.external.ProductServiceAdapter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import javax.sql.DataSource;
+import java.time.Duration;
+
 /**
  * BeanConfig
  * 애플리케이션 빈 설정
@@ -14,14 +24,35 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class BeanConfig {
     
+    /**
+     * nodeId 우선순위: snowflake.node-id 설정 > DB 임대(snowflake.lease.enabled) > NodeIdProvider.defaultProvider()
+     * 임대를 쓰면 생성 시 임대 테이블을 읽으므로 Flyway 마이그레이션 이후에 만든다.
+     */
     @Bean
-    public Snowflake snowflake() {
-        return new Snowflake();
+    @DependsOnDatabaseInitialization
+    public Snowflake snowflake(@Value("${snowflake.node-id:#{null}}") Long nodeId,
+                               @Value("${snowflake.max-borrow-ms:" + Snowflake.DEFAULT_MAX_BORROW_MILLIS + "}") long maxBorrowMillis,
+                               ObjectProvider<JdbcNodeIdLeaseProvider> leaseProvider) {
+        NodeIdProvider nodeIdProvider = nodeId != null ? NodeIdProvider.fixed(nodeId) : leaseProvider.getIfAvailable();
+        if (nodeIdProvider == null) {
+            nodeIdProvider = NodeIdProvider.defaultProvider();
+        }
+        return new Snowflake(nodeIdProvider, maxBorrowMillis);
+    }
+
+    @Bean(destroyMethod = "close")
+    @DependsOnDatabaseInitialization
+    @ConditionalOnProperty(name = "snowflake.lease.enabled", havingValue = "true")
+    public JdbcNodeIdLeaseProvider nodeIdLeaseProvider(DataSource dataSource,
+                                                       @Value("${snowflake.lease.duration:5m}") Duration leaseDuration) {
+        return new JdbcNodeIdLeaseProvider(dataSource, "orders.snowflake_node_lease", leaseDuration);
     }
     
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new TraceParentPropagationInterceptor());
+        return restTemplate;
     }
     
     @Bean
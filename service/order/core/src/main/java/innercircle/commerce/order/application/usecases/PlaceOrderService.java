@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * PlaceOrderService
@@ -43,7 +44,11 @@ public class PlaceOrderService implements PlaceOrderUseCase {
 
         // 2) 주문 생성
         ShippingAddress addr = toShippingAddress(command.shippingInfo());
-        List<OrderItem> items = command.orderItems().stream().map(this::toOrderItem).toList();
+        List<PlaceOrderCommand.OrderItemCommand> itemCommands = command.orderItems();
+        long[] itemIds = idGenerator.generateIds(itemCommands.size());
+        List<OrderItem> items = IntStream.range(0, itemCommands.size())
+                .mapToObj(i -> toOrderItem(OrderItemId.of(itemIds[i]), itemCommands.get(i)))
+                .toList();
         Order order = Order.createNew(
                 MemberId.of(command.memberId()), addr, items, idGenerator);
 
@@ -67,7 +72,7 @@ public class PlaceOrderService implements PlaceOrderUseCase {
         return ShippingAddress.create(shippingInfo);
     }
 
-    private OrderItem toOrderItem(PlaceOrderCommand.OrderItemCommand c) {
+    private OrderItem toOrderItem(OrderItemId id, PlaceOrderCommand.OrderItemCommand c) {
         // ProductService를 통해 상품 정보 조회
         ProductService.ProductInfo productInfo = productService.getProductInfo(ProductId.of(c.productId()));
         ProductService.ProductOptionInfo optionInfo = productService.getProductOptionInfo(
@@ -78,7 +83,7 @@ public class PlaceOrderService implements PlaceOrderUseCase {
         }
         
         return OrderItem.create(
-                OrderItemId.of(idGenerator.generateId()),
+                id,
                 ProductId.of(c.productId()),
                 productInfo.getName(),
                 Money.of(optionInfo.getPrice().getValue()),
@@ -10,4 +10,18 @@ public interface IdGenerator {
      * @return Snowflake 기반 고유 ID (Long)
      */
     long generateId();
+
+    /**
+     * 고유 ID 여러 개를 한 번에 생성
+     * 기본 구현은 generateId 를 count 번 호출하며, 구현체는 한 번에 예약하도록 재정의할 수 있다.
+     * @param count 생성할 개수
+     * @return 오름차순 고유 ID 배열
+     */
+    default long[] generateIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = generateId();
+        }
+        return ids;
+    }
 }
@@ -1,5 +1,6 @@
 package innercircle.commerce.order.infra.adapter.persistence;
 
+import innercircle.commerce.common.snowflake.Snowflake;
 import innercircle.commerce.order.application.port.out.OrderRepositoryPort;
 import innercircle.commerce.order.domain.model.aggregate.Order;
 import innercircle.commerce.order.domain.model.vo.MemberId;
@@ -10,7 +11,9 @@ import innercircle.commerce.order.infra.adapter.persistence.mapper.OrderMapper;
 import innercircle.commerce.order.infra.adapter.persistence.repository.SpringDataJpaOrderRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -21,7 +24,13 @@ import java.util.stream.Collectors;
  */
 @Repository
 public class JpaOrderRepository implements OrderRepositoryPort {
-    
+
+    /**
+     * 주문 ID 의 시각과 order_date 가 어긋날 수 있는 폭
+     * (ID 발급 후 주문 시각 기록까지의 지연 + Snowflake 가 앞당겨 쓴 시간, snowflake.max-borrow-ms 이상이어야 함)
+     */
+    static final Duration ID_TIME_SLACK = Duration.ofSeconds(5);
+
     private final SpringDataJpaOrderRepository jpaRepository;
     private final OrderMapper orderMapper;
 
@@ -61,7 +70,9 @@ public class JpaOrderRepository implements OrderRepositoryPort {
 
     @Override
     public List<Order> findByOrderedAtBetween(LocalDateTime start, LocalDateTime end) {
-        return jpaRepository.findByOrderedAtBetween(start, end)
+        long minId = Snowflake.minIdFor(start.atZone(ZoneId.systemDefault()).toInstant().minus(ID_TIME_SLACK));
+        long maxId = Snowflake.maxIdFor(end.atZone(ZoneId.systemDefault()).toInstant().plus(ID_TIME_SLACK));
+        return jpaRepository.findByIdRangeAndOrderedAtBetween(minId, maxId, start, end)
                 .stream()
                 .map(orderMapper::toDomain)
                 .collect(Collectors.toList());
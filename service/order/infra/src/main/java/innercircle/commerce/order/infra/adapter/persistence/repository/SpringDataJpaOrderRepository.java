@@ -28,10 +28,14 @@ public interface SpringDataJpaOrderRepository extends JpaRepository<OrderEntity,
     List<OrderEntity> findByMemberId(@Param("memberId") Long memberId);
 
     /**
-     * 기간별 주문 조회 (DDL: order_date)
+     * 기간별 주문 조회 (DDL: id, order_date)
+     * Snowflake ID 에 발급 시각이 들어 있으므로 id 범위로 PK 인덱스를 먼저 좁히고, 경계는 order_date 로 정확히 거른다.
+     * 정렬도 PK 순서(= 발급 시각 순서)를 그대로 쓴다.
      */
-    @Query("SELECT o FROM OrderEntity o WHERE o.orderDate BETWEEN :start AND :end ORDER BY o.orderDate DESC")
-    List<OrderEntity> findByOrderedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    @Query("SELECT o FROM OrderEntity o WHERE o.id BETWEEN :minId AND :maxId "
+            + "AND o.orderDate BETWEEN :start AND :end ORDER BY o.id DESC")
+    List<OrderEntity> findByIdRangeAndOrderedAtBetween(@Param("minId") long minId, @Param("maxId") long maxId,
+                                                       @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     /**
      * 삭제되지 않은 주문 존재 여부 확인
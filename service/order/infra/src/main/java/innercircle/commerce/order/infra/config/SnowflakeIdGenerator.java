@@ -17,4 +17,9 @@ public class SnowflakeIdGenerator implements IdGenerator {
     public long generateId() {
         return snowflake.nextId();
     }
+
+    @Override
+    public long[] generateIds(int count) {
+        return snowflake.nextIds(count);
+    }
 }
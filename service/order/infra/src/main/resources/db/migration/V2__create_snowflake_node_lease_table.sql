@@ -0,0 +1,11 @@
+-- V2__create_snowflake_node_lease_table.sql
+-- Snowflake nodeId 임대 테이블 (JdbcNodeIdLeaseProvider)
+-- 인스턴스가 기동 시 비어 있거나 만료된 node_id 를 잡고, 주기적으로 expires_at 을 늘린다.
+
+SET search_path TO orders, public;
+
+CREATE TABLE IF NOT EXISTS snowflake_node_lease (
+    node_id             INT PRIMARY KEY CHECK (node_id BETWEEN 0 AND 1023),  -- Snowflake nodeId
+    owner               VARCHAR(255) NOT NULL,                               -- 임대한 인스턴스 (host:pid:random)
+    expires_at          TIMESTAMP NOT NULL                                   -- 임대 만료 시각
+);
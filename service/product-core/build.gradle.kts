@@ -1,4 +1,7 @@
-plugins { `java-library` }
+plugins {
+    `java-library`
+    id("me.champeau.jmh") version "0.7.2"
+}
 
 dependencies {
     api(project(":common:snowflake"))
@@ -24,6 +27,12 @@ dependencies {
     testImplementation("org.mockito:mockito-junit-jupiter")
 }
 
+// ./gradlew :service:product-core:jmh
+// 결과: build/results/jmh/results.json
+jmh {
+    resultFormat.set("JSON")
+}
+
 tasks.bootJar {
     enabled = false
 }
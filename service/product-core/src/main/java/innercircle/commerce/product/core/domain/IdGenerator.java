@@ -1,13 +1,54 @@
 package innercircle.commerce.product.core.domain;
 
 import innercircle.commerce.common.snowflake.Snowflake;
+import innercircle.commerce.common.snowflake.SnowflakeIdRange;
+
+import java.util.function.Supplier;
 
 public class IdGenerator {
 	private static final Snowflake snowflake = new Snowflake();
+	private static final ThreadLocal<SnowflakeIdRange> reserved = new ThreadLocal<>();
 
 	private IdGenerator () {}
 	
 	public static Long generateId() {
+		SnowflakeIdRange range = reserved.get();
+		if (range != null && range.hasNext()) {
+			return range.nextLong();
+		}
 		return snowflake.nextId();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * ID count 개를 한 번에 발급합니다.
+	 *
+	 * @param count 발급할 개수
+	 * @return 오름차순으로 정렬된 ID 배열
+	 */
+	public static long[] generateIds(int count) {
+		return snowflake.nextIds(count);
+	}
+
+	/**
+	 * 연속된 ID count 개를 미리 예약해 두고 task 를 실행합니다.
+	 * task 안에서 현재 스레드가 만드는 엔티티(상품, 옵션, 옵션 아이템 등)는 예약한 구간에서 ID 를 받고,
+	 * 구간을 다 쓰면 다시 한 건씩 발급합니다. (예: 옵션 10개 x 아이템 20개 상품 등록 시 1 + 10 + 200)
+	 *
+	 * @param count 예약할 개수 (1 ~ Snowflake.MAX_RANGE_SIZE)
+	 * @param task  엔티티를 생성하는 작업
+	 * @return task 의 결과
+	 */
+	public static <T> T withReservedIds(int count, Supplier<T> task) {
+		SnowflakeIdRange previous = reserved.get();
+		reserved.set(snowflake.reserveRange(count));
+		try {
+			return task.get();
+		} finally {
+			if (previous != null) {
+				reserved.set(previous);
+			} else {
+				reserved.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package innercircle.commerce.product.core.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IdGenerator 테스트")
+class IdGeneratorTest {
+
+    @Test
+    @DisplayName("예약 구간 안에서 만든 엔티티는 연속된 ID를 받는다.")
+    void 예약_구간_연속_ID() {
+        // when
+        ProductOption option = IdGenerator.withReservedIds(3, () -> ProductOption.create(
+                1L, "색상", true, 1,
+                List.of(ProductOptionItem.create(1L, "빨강", 0, 1), ProductOptionItem.create(1L, "파랑", 0, 2))
+        ));
+
+        // then
+        Long first = option.getItems().get(0).getId();
+        assertThat(option.getItems().get(1).getId()).isEqualTo(first + 1);
+        assertThat(option.getId()).isEqualTo(first + 2);
+    }
+
+    @Test
+    @DisplayName("예약한 개수를 넘으면 다시 한 건씩 발급하고, 작업이 끝나면 예약을 해제한다.")
+    void 예약_소진_후_개별_발급() {
+        // when
+        List<Long> ids = IdGenerator.withReservedIds(2, () -> List.of(
+                IdGenerator.generateId(), IdGenerator.generateId(), IdGenerator.generateId()
+        ));
+        Long after = IdGenerator.generateId();
+
+        // then
+        assertThat(ids.get(1)).isEqualTo(ids.get(0) + 1);
+        assertThat(ids.get(2)).isGreaterThan(ids.get(1));
+        assertThat(after).isGreaterThan(ids.get(2));
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("여러 ID를 한 번에 발급한다.")
+    void 일괄_발급() {
+        // when
+        long[] ids = IdGenerator.generateIds(5_000);
+
+        // then
+        assertThat(ids).hasSize(5_000).isSorted().doesNotHaveDuplicates();
+    }
+}